@@ -0,0 +1,248 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.blocks;
+
+import co.rsk.cli.CliArgs;
+import co.rsk.config.ConfigLoader;
+import co.rsk.config.RskSystemProperties;
+import co.rsk.core.bc.BlockChainImpl;
+import co.rsk.metrics.Histogram;
+import co.rsk.metrics.MetricRegistry;
+import org.ethereum.core.Block;
+import org.ethereum.core.ImportResult;
+import org.spongycastle.util.encoders.Hex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Imports a recorded block file into a new database directory, through the block chain
+ * with the validation on, and reports the blocks and gas per second, the per block latency
+ * and the time split between validation, execution, trie commit and flush.
+ *
+ * Every run imports the same blocks into its own directory, after a warm up run,
+ * and the median run is reported last, so the results can be compared between builds.
+ *
+ * Usage:
+ *   &lt;blocks file&gt; [runs]       replays a file written by FileBlockRecorder, in the network of the
+ *                                 configuration, e.g. -Dblockchain.config.name=testnet
+ *   --synthetic &lt;blocks&gt; &lt;transactions per block&gt; [runs]
+ *                                 replays a regtest chain generated by SyntheticChainGenerator
+ *   --generate &lt;blocks&gt; &lt;transactions per block&gt; &lt;blocks file&gt;
+ *                                 only records the generated chain
+ */
+public class BlockReplayBenchmark {
+    private static final int DEFAULT_RUNS = 3;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String filename;
+
+    private BlockReplayBenchmark(String filename) {
+        this.filename = filename;
+    }
+
+    public static void main(String[] args) {
+        int status;
+
+        try {
+            status = execute(args);
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = 1;
+        }
+
+        // the block chain listeners are notified by a thread that is not a daemon
+        System.exit(status);
+    }
+
+    private static int execute(String[] args) throws Exception {
+        if (args.length >= 4 && "--generate".equals(args[0])) {
+            generate(Integer.parseInt(args[1]), Integer.parseInt(args[2]), args[3]);
+        } else if (args.length >= 3 && "--synthetic".equals(args[0])) {
+            File file = File.createTempFile("rsk-synthetic", ".blocks");
+
+            try {
+                generate(Integer.parseInt(args[1]), Integer.parseInt(args[2]), file.getPath());
+                System.setProperty("blockchain.config.name", "regtest");
+                new BlockReplayBenchmark(file.getPath()).run(args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_RUNS);
+            } finally {
+                Files.deleteIfExists(file.toPath());
+            }
+        } else if (args.length >= 1 && !args[0].startsWith("--")) {
+            new BlockReplayBenchmark(args[0]).run(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS);
+        } else {
+            System.err.println("usage: <blocks file> [runs]");
+            System.err.println("       --synthetic <blocks> <transactions per block> [runs]");
+            System.err.println("       --generate <blocks> <transactions per block> <blocks file>");
+            return 1;
+        }
+
+        return 0;
+    }
+
+    private static void generate(int blocks, int transactionsPerBlock, String filename) throws Exception {
+        System.setProperty("blockchain.config.name", "regtest");
+        long start = System.nanoTime();
+        new SyntheticChainGenerator(newConfig(), transactionsPerBlock).generate(blocks, filename);
+        System.out.printf(Locale.ROOT, "generated %d blocks with %d transactions each in %.2f s: %s%n",
+                blocks, transactionsPerBlock, (System.nanoTime() - start) / NANOS_PER_SECOND, filename);
+    }
+
+    private static RskSystemProperties newConfig() {
+        return new RskSystemProperties(new ConfigLoader(CliArgs.empty()));
+    }
+
+    private void run(int runs) throws IOException {
+        List<byte[]> encodedBlocks = readBlocks();
+        System.out.printf(Locale.ROOT, "replaying %d blocks from %s in %s%n",
+                encodedBlocks.size(), filename, newConfig().netName());
+
+        RunResult warmUp = replay(encodedBlocks);
+        System.out.println("warm up: " + warmUp);
+
+        List<RunResult> results = new ArrayList<>();
+
+        for (int k = 1; k <= runs; k++) {
+            RunResult result = replay(encodedBlocks);
+            System.out.println("run " + k + ": " + result);
+            results.add(result);
+        }
+
+        results.sort(Comparator.comparingLong(result -> result.totalNanos));
+        System.out.println("median: " + results.get(results.size() / 2));
+    }
+
+    private List<byte[]> readBlocks() throws IOException {
+        List<byte[]> encodedBlocks = new ArrayList<>();
+
+        // the same format FileBlockPlayer reads, loaded before the import so the file is not measured
+        for (String line : Files.readAllLines(new File(filename).toPath(), StandardCharsets.UTF_8)) {
+            if (!line.isEmpty()) {
+                String[] parts = line.split(",");
+                encodedBlocks.add(Hex.decode(parts[parts.length - 1]));
+            }
+        }
+
+        return encodedBlocks;
+    }
+
+    private RunResult replay(List<byte[]> encodedBlocks) throws IOException {
+        try (BlockReplayNode node = new BlockReplayNode(newConfig())) {
+            BlockChainImpl blockchain = node.getBlockchain();
+            PhaseTimes before = PhaseTimes.now();
+            RunResult result = new RunResult(encodedBlocks.size());
+            long start = System.nanoTime();
+
+            for (int k = 0; k < encodedBlocks.size(); k++) {
+                Block block = new Block(encodedBlocks.get(k));
+                long blockStart = System.nanoTime();
+                ImportResult importResult = blockchain.tryToConnect(block);
+                result.latencies[k] = System.nanoTime() - blockStart;
+
+                if (importResult != ImportResult.IMPORTED_BEST && importResult != ImportResult.IMPORTED_NOT_BEST) {
+                    throw new IllegalStateException(String.format("Block %d not imported: %s", block.getNumber(), importResult));
+                }
+
+                result.gasUsed += block.getGasUsed();
+                result.transactions += block.getTransactionsList().size();
+            }
+
+            result.totalNanos = System.nanoTime() - start;
+            result.phases = PhaseTimes.now().minus(before);
+
+            return result;
+        }
+    }
+
+    private static class RunResult {
+        private final long[] latencies;
+        private long totalNanos;
+        private long gasUsed;
+        private long transactions;
+        private PhaseTimes phases;
+
+        RunResult(int blocks) {
+            this.latencies = new long[blocks];
+        }
+
+        @Override
+        public String toString() {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            double seconds = totalNanos / NANOS_PER_SECOND;
+
+            return String.format(Locale.ROOT,
+                    "%d blocks in %.3f s, %.1f blocks/s, %.2f Mgas/s, %.0f tx/s, block p50 %.2f ms p99 %.2f ms; " +
+                            "validation %.1f%%, execution %.1f%%, trie commit %.1f%%, flush %.1f%%, other %.1f%%",
+                    latencies.length, seconds, latencies.length / seconds, gasUsed / seconds / 1_000_000,
+                    transactions / seconds, percentile(sorted, 0.5) / NANOS_PER_MILLI, percentile(sorted, 0.99) / NANOS_PER_MILLI,
+                    share(phases.validation), share(phases.execution - phases.commit), share(phases.commit),
+                    share(phases.flush), share(totalNanos - phases.validation - phases.execution - phases.flush));
+        }
+
+        private double share(long nanos) {
+            return totalNanos == 0 ? 0 : 100.0 * nanos / totalNanos;
+        }
+
+        private static long percentile(long[] sorted, double fraction) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+
+            return sorted[Math.max(0, (int) Math.ceil(fraction * sorted.length) - 1)];
+        }
+    }
+
+    /**
+     * The totals of the import phase histograms, the execution includes the commit
+     */
+    private static class PhaseTimes {
+        private long validation;
+        private long execution;
+        private long commit;
+        private long flush;
+
+        static PhaseTimes now() {
+            MetricRegistry registry = MetricRegistry.getDefault();
+            PhaseTimes times = new PhaseTimes();
+            times.validation = phase(registry, "validate").getSum();
+            times.execution = phase(registry, "execute").getSum();
+            times.flush = phase(registry, "flush").getSum() + phase(registry, "flush_wait").getSum();
+            times.commit = registry.histogram("block_execution_commit_seconds", "").getSum();
+            return times;
+        }
+
+        PhaseTimes minus(PhaseTimes other) {
+            PhaseTimes times = new PhaseTimes();
+            times.validation = validation - other.validation;
+            times.execution = execution - other.execution;
+            times.commit = commit - other.commit;
+            times.flush = flush - other.flush;
+            return times;
+        }
+
+        private static Histogram phase(MetricRegistry registry, String phase) {
+            return registry.histogram("block_import_phase_seconds", "", "phase", phase);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.blocks;
+
+import co.rsk.config.RskSystemProperties;
+import co.rsk.core.DifficultyCalculator;
+import co.rsk.core.bc.BlockChainImpl;
+import co.rsk.core.bc.BlockValidatorImpl;
+import co.rsk.core.bc.TransactionPoolImpl;
+import co.rsk.db.RepositoryImpl;
+import co.rsk.trie.TrieStoreImpl;
+import co.rsk.validators.ProofOfWorkRule;
+import org.ethereum.config.DefaultConfig;
+import org.ethereum.core.Repository;
+import org.ethereum.core.genesis.BlockChainLoader;
+import org.ethereum.datasource.DataSourcePool;
+import org.ethereum.datasource.KeyValueDataSource;
+import org.ethereum.datasource.LevelDbDataSource;
+import org.ethereum.db.BlockStore;
+import org.ethereum.db.IndexedBlockStore;
+import org.ethereum.db.ReceiptStore;
+import org.ethereum.db.ReceiptStoreImpl;
+import org.ethereum.listener.CompositeEthereumListener;
+import org.ethereum.util.FileUtil;
+import org.ethereum.vm.program.invoke.ProgramInvokeFactoryImpl;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.ethereum.db.IndexedBlockStore.BLOCK_INFO_SERIALIZER;
+
+/**
+ * A block chain with its stores in a new database directory, wired as in the node,
+ * with the block validation on. The directory is deleted when it is closed.
+ */
+class BlockReplayNode implements AutoCloseable {
+    private final String databaseDir;
+    private final List<KeyValueDataSource> dataSources = new ArrayList<>();
+    private final DB indexDB;
+    private final IndexedBlockStore blockStore;
+    private final ReceiptStore receiptStore;
+    private final BlockChainImpl blockchain;
+
+    BlockReplayNode(RskSystemProperties config) throws IOException {
+        databaseDir = Files.createTempDirectory("rsk-replay").toString();
+        config.setDataBaseDir(databaseDir);
+
+        Repository repository = new RepositoryImpl(config, new TrieStoreImpl(dataSource(config, "state")), dataSource(config, "details"));
+
+        File blockIndexDirectory = new File(databaseDir, "blocks");
+        blockIndexDirectory.mkdirs();
+        indexDB = DBMaker.fileDB(new File(blockIndexDirectory, "index")).make();
+        Map<Long, List<IndexedBlockStore.BlockInfo>> indexMap = indexDB.hashMapCreate("index")
+                .keySerializer(Serializer.LONG)
+                .valueSerializer(BLOCK_INFO_SERIALIZER)
+                .counterEnable()
+                .makeOrGet();
+        blockStore = new IndexedBlockStore(indexMap, dataSource(config, "blocks"), indexDB);
+        receiptStore = new ReceiptStoreImpl(dataSource(config, "receipts"));
+
+        CompositeEthereumListener listener = new CompositeEthereumListener();
+        TransactionPoolImpl transactionPool = new TransactionPoolImpl(config, repository, blockStore, receiptStore,
+                new ProgramInvokeFactoryImpl(), listener, config.txOutdatedThreshold(), 0);
+
+        DefaultConfig defaultConfig = new DefaultConfig();
+        DifficultyCalculator difficultyCalculator = new DifficultyCalculator(config);
+        BlockValidatorImpl blockValidator = new BlockValidatorImpl(blockStore,
+                defaultConfig.blockParentDependantValidationRule(repository, config, difficultyCalculator),
+                defaultConfig.blockValidationRule(blockStore, config, difficultyCalculator, new ProofOfWorkRule(config)));
+
+        blockchain = new BlockChainLoader(config, repository, blockStore, receiptStore, transactionPool, listener, null, blockValidator)
+                .loadBlockchain();
+    }
+
+    BlockChainImpl getBlockchain() {
+        return blockchain;
+    }
+
+    BlockStore getBlockStore() {
+        return blockStore;
+    }
+
+    ReceiptStore getReceiptStore() {
+        return receiptStore;
+    }
+
+    @Override
+    public void close() {
+        // waits for the flush in progress, and commits the blocks imported after it
+        blockchain.close();
+        blockStore.flush();
+
+        for (KeyValueDataSource dataSource : dataSources) {
+            dataSource.close();
+        }
+
+        // the contract storages are pooled by name, whatever the directory
+        DataSourcePool.closeAllDataSources();
+
+        indexDB.close();
+        FileUtil.recursiveDelete(databaseDir);
+    }
+
+    private KeyValueDataSource dataSource(RskSystemProperties config, String name) {
+        KeyValueDataSource dataSource = new LevelDbDataSource(config, name);
+        dataSource.init();
+        dataSources.add(dataSource);
+        return dataSource;
+    }
+}
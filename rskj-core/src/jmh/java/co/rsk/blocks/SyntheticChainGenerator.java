@@ -0,0 +1,160 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.blocks;
+
+import co.rsk.config.RskSystemProperties;
+import co.rsk.core.DifficultyCalculator;
+import co.rsk.core.bc.BlockChainImpl;
+import co.rsk.core.bc.BlockExecutor;
+import co.rsk.remasc.RemascTransaction;
+import org.ethereum.core.*;
+import org.ethereum.crypto.ECKey;
+import org.ethereum.crypto.HashUtil;
+import org.ethereum.util.RLP;
+import org.spongycastle.util.encoders.Hex;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a regtest chain of blocks with value transfers and contract storage writes,
+ * and records it to a block file.
+ *
+ * The transactions are sent by the accounts funded in the regtest genesis, and every value is derived
+ * from a fixed seed, timestamps included, so the same parameters generate the same chain.
+ * Every block is imported with the validation on before it is recorded.
+ */
+class SyntheticChainGenerator {
+    private static final int SENDERS = 10;
+    private static final int RECEIVERS = 10000;
+    private static final int STORAGE_KEYS = 1000;
+    private static final int STORAGE_WRITE_EVERY = 4;
+    private static final long BLOCK_INTERVAL = 10;
+    private static final byte[] COINBASE = Hex.decode("1000000000000000000000000000000000000001");
+
+    // stores the second word of the call data under the first one:
+    // PUSH1 0x20 CALLDATALOAD PUSH1 0 CALLDATALOAD SSTORE STOP, returned by the init code
+    private static final byte[] STORAGE_CONTRACT_INIT = Hex.decode("67602035600035550060005260086018f3");
+
+    private final RskSystemProperties config;
+    private final int transactionsPerBlock;
+    private final Random random = new Random(42);
+    private final ECKey[] senders = new ECKey[SENDERS];
+    private final long[] nonces = new long[SENDERS];
+    private final byte[][] receivers = new byte[RECEIVERS][];
+    private byte[] storageContract;
+
+    SyntheticChainGenerator(RskSystemProperties config, int transactionsPerBlock) {
+        this.config = config;
+        this.transactionsPerBlock = transactionsPerBlock;
+
+        for (int k = 0; k < SENDERS; k++) {
+            String seed = k == 0 ? "cow" : "cow" + k;
+            senders[k] = ECKey.fromPrivate(HashUtil.keccak256(seed.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        for (int k = 0; k < RECEIVERS; k++) {
+            receivers[k] = new byte[20];
+            random.nextBytes(receivers[k]);
+        }
+    }
+
+    void generate(int blocks, String filename) throws Exception {
+        try (BlockReplayNode node = new BlockReplayNode(config);
+             FileBlockRecorder recorder = new FileBlockRecorder(filename)) {
+            BlockChainImpl blockchain = node.getBlockchain();
+            BlockExecutor executor = new BlockExecutor(config, blockchain.getRepository(), node.getReceiptStore(), node.getBlockStore(), null);
+            DifficultyCalculator difficultyCalculator = new DifficultyCalculator(config);
+
+            for (int k = 0; k < blocks; k++) {
+                Block parent = blockchain.getBestBlock();
+                Block block = createChildBlock(parent, difficultyCalculator);
+                executor.executeAndFill(block, parent);
+                block.seal();
+
+                ImportResult result = blockchain.tryToConnect(block);
+
+                if (result != ImportResult.IMPORTED_BEST) {
+                    throw new IllegalStateException(String.format("Generated block %d not imported: %s", block.getNumber(), result));
+                }
+
+                recorder.writeBlock(block);
+            }
+        }
+    }
+
+    private Block createChildBlock(Block parent, DifficultyCalculator difficultyCalculator) {
+        long number = parent.getNumber() + 1;
+        List<Transaction> txs = new ArrayList<>();
+
+        for (int k = 0; k < transactionsPerBlock; k++) {
+            txs.add(createTransaction(txs.size()));
+        }
+
+        txs.add(new RemascTransaction(number));
+
+        BlockHeader header = new BlockHeader(parent.getHash().getBytes(), HashUtil.keccak256(RLP.encodeList()), COINBASE,
+                new Bloom().getData(), new byte[] { 1 }, number, parent.getGasLimit(), 0,
+                parent.getTimestamp() + BLOCK_INTERVAL, new byte[0], parent.getMinimumGasPrice().getBytes(), 0);
+        header.setDifficulty(difficultyCalculator.calcDifficulty(header, parent.getHeader()));
+        header.setTransactionsRoot(Block.getTxTrie(txs).getHash().getBytes());
+
+        return new Block(header, txs, Collections.emptyList());
+    }
+
+    private Transaction createTransaction(int index) {
+        int sender = index % SENDERS;
+        byte[] nonce = BigInteger.valueOf(nonces[sender]++).toByteArray();
+
+        if (storageContract == null) {
+            storageContract = HashUtil.calcNewAddr(senders[sender].getAddress(), nonce);
+            return sign(sender, new Transaction(nonce, BigInteger.ONE.toByteArray(), BigInteger.valueOf(100000).toByteArray(),
+                    null, BigInteger.ZERO.toByteArray(), STORAGE_CONTRACT_INIT, chainId()));
+        }
+
+        if (index % STORAGE_WRITE_EVERY == 0) {
+            byte[] data = new byte[64];
+            int key = random.nextInt(STORAGE_KEYS);
+            data[30] = (byte) (key >> 8);
+            data[31] = (byte) key;
+            byte[] value = new byte[32];
+            random.nextBytes(value);
+            System.arraycopy(value, 0, data, 32, 32);
+            return sign(sender, new Transaction(nonce, BigInteger.ONE.toByteArray(), BigInteger.valueOf(100000).toByteArray(),
+                    storageContract, BigInteger.ZERO.toByteArray(), data, chainId()));
+        }
+
+        byte[] receiver = receivers[random.nextInt(RECEIVERS)];
+        return sign(sender, new Transaction(nonce, BigInteger.ONE.toByteArray(), BigInteger.valueOf(21000).toByteArray(),
+                receiver, BigInteger.valueOf(random.nextInt(1000) + 1).toByteArray(), null, chainId()));
+    }
+
+    private Transaction sign(int sender, Transaction tx) {
+        tx.sign(senders[sender].getPrivKeyBytes());
+        return tx;
+    }
+
+    private byte chainId() {
+        return config.getBlockchainConfig().getCommonConstants().getChainId();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.core.bc;
+
+import co.rsk.cli.CliArgs;
+import co.rsk.config.ConfigLoader;
+import co.rsk.config.RskSystemProperties;
+import co.rsk.core.Coin;
+import co.rsk.core.RskAddress;
+import co.rsk.db.RepositoryImpl;
+import org.ethereum.core.*;
+import org.ethereum.crypto.ECKey;
+import org.ethereum.crypto.HashUtil;
+import org.ethereum.util.RLP;
+import org.ethereum.vm.program.invoke.ProgramInvokeFactoryImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds value transfers to an empty transaction pool, from senders with a few transactions each.
+ * The transactions of every sender are added in nonce order, so all of them are pending,
+ * or in reverse order, so all but the last one are queued first.
+ *
+ * The senders are recovered in the setup, so it measures the pool and not the signatures.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TransactionPoolBenchmark {
+    private static final int TRANSACTIONS_PER_SENDER = 4;
+
+    @Param({"2000"})
+    private int transactions;
+
+    private RskSystemProperties config;
+    private Block bestBlock;
+    private List<RskAddress> senders;
+    private List<Transaction> inOrder;
+    private List<Transaction> reversed;
+
+    private TransactionPoolImpl transactionPool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        config = new RskSystemProperties(new ConfigLoader(CliArgs.empty()));
+        BlockHeader header = new BlockHeader(new byte[32], HashUtil.keccak256(RLP.encodeList()), new byte[20],
+                new byte[256], BigInteger.ONE.toByteArray(), 1, BigInteger.valueOf(6800000).toByteArray(),
+                0, System.currentTimeMillis() / 1000, new byte[0],
+                null, null, null, BigInteger.ONE.toByteArray(), 0);
+        bestBlock = new Block(header);
+
+        senders = new ArrayList<>();
+        inOrder = new ArrayList<>();
+        byte[] receiver = new RskAddress("0000000000000000000000000000000000001000").getBytes();
+
+        for (int k = 0; k < transactions; k++) {
+            ECKey key = ECKey.fromPrivate(BigInteger.valueOf(k / TRANSACTIONS_PER_SENDER + 1));
+
+            if (k % TRANSACTIONS_PER_SENDER == 0) {
+                senders.add(new RskAddress(key.getAddress()));
+            }
+
+            Transaction tx = new Transaction(BigInteger.valueOf(k % TRANSACTIONS_PER_SENDER).toByteArray(), BigInteger.ONE.toByteArray(),
+                    BigInteger.valueOf(21000).toByteArray(), receiver, BigInteger.TEN.toByteArray(), null,
+                    config.getBlockchainConfig().getCommonConstants().getChainId());
+            tx.sign(key.getPrivKeyBytes());
+            tx.getSender();
+            inOrder.add(tx);
+        }
+
+        reversed = new ArrayList<>();
+
+        for (int first = 0; first < transactions; first += TRANSACTIONS_PER_SENDER) {
+            for (int k = Math.min(first + TRANSACTIONS_PER_SENDER, transactions) - 1; k >= first; k--) {
+                reversed.add(inOrder.get(k));
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        Repository repository = new RepositoryImpl(config);
+        Repository track = repository.startTracking();
+
+        for (RskAddress sender : senders) {
+            track.createAccount(sender);
+            track.addBalance(sender, Coin.valueOf(1000000000L));
+        }
+
+        track.commit();
+
+        transactionPool = new TransactionPoolImpl(config, repository, null, null, new ProgramInvokeFactoryImpl(), null, 10, 0);
+        transactionPool.processBest(bestBlock);
+    }
+
+    @Benchmark
+    public void addPending(Blackhole blackhole) {
+        for (Transaction tx : inOrder) {
+            blackhole.consume(transactionPool.addTransaction(tx));
+        }
+    }
+
+    @Benchmark
+    public void addQueuedFirst(Blackhole blackhole) {
+        for (Transaction tx : reversed) {
+            blackhole.consume(transactionPool.addTransaction(tx));
+        }
+    }
+}
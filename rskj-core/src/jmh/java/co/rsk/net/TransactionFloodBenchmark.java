@@ -0,0 +1,154 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.net;
+
+import co.rsk.cli.CliArgs;
+import co.rsk.config.ConfigLoader;
+import co.rsk.config.RskSystemProperties;
+import co.rsk.core.Coin;
+import co.rsk.core.RskAddress;
+import co.rsk.core.bc.TransactionPoolImpl;
+import co.rsk.db.RepositoryImpl;
+import org.ethereum.core.*;
+import org.ethereum.crypto.ECKey;
+import org.ethereum.crypto.HashUtil;
+import org.ethereum.listener.CompositeEthereumListener;
+import org.ethereum.net.server.ChannelManagerImpl;
+import org.ethereum.util.RLP;
+import org.ethereum.vm.program.invoke.ProgramInvokeFactoryImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Floods the transaction pool with value transfers, in messages of 100 transactions each received
+ * from two peers, so every transaction arrives twice.
+ *
+ * Compares the staged admission of the TransactionGateway, which drops the copies and checks
+ * the transactions without the pool lock, with adding every received transaction one by one,
+ * running all the checks under the pool lock.
+ *
+ * Signing the transactions of the default flood takes a while, use -p transactions=10000 for a quick run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TransactionFloodBenchmark {
+    private static final int MESSAGE_SIZE = 100;
+    private static final int TRANSACTIONS_PER_SENDER = 4;
+
+    @Param({"100000"})
+    private int transactions;
+
+    private RskSystemProperties config;
+    private Block bestBlock;
+    private List<RskAddress> senders;
+    private byte[][] encodedTransactions;
+
+    private TransactionPoolImpl transactionPool;
+    private TransactionGateway gateway;
+    private List<List<Transaction>> messages;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        config = new RskSystemProperties(new ConfigLoader(CliArgs.empty()));
+        BlockHeader header = new BlockHeader(new byte[32], HashUtil.keccak256(RLP.encodeList()), new byte[20],
+                new byte[256], BigInteger.ONE.toByteArray(), 1, BigInteger.valueOf(6800000).toByteArray(),
+                0, System.currentTimeMillis() / 1000, new byte[0],
+                null, null, null, BigInteger.ONE.toByteArray(), 0);
+        bestBlock = new Block(header);
+
+        senders = new ArrayList<>();
+        encodedTransactions = new byte[transactions][];
+        byte[] receiver = new RskAddress("0000000000000000000000000000000000001000").getBytes();
+
+        for (int k = 0; k < transactions; k++) {
+            ECKey key = ECKey.fromPrivate(BigInteger.valueOf(k / TRANSACTIONS_PER_SENDER + 1));
+
+            if (k % TRANSACTIONS_PER_SENDER == 0) {
+                senders.add(new RskAddress(key.getAddress()));
+            }
+
+            Transaction tx = new Transaction(BigInteger.valueOf(k % TRANSACTIONS_PER_SENDER).toByteArray(), BigInteger.ONE.toByteArray(),
+                    BigInteger.valueOf(21000).toByteArray(), receiver, BigInteger.TEN.toByteArray(), null,
+                    config.getBlockchainConfig().getCommonConstants().getChainId());
+            tx.sign(key.getPrivKeyBytes());
+            encodedTransactions[k] = tx.getEncoded();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        Repository repository = new RepositoryImpl(config);
+        Repository track = repository.startTracking();
+
+        for (RskAddress sender : senders) {
+            track.createAccount(sender);
+            track.addBalance(sender, Coin.valueOf(1000000000L));
+        }
+
+        track.commit();
+
+        transactionPool = new TransactionPoolImpl(config, repository, null, null, new ProgramInvokeFactoryImpl(), null, 10, 0);
+        transactionPool.processBest(bestBlock);
+        gateway = new TransactionGateway(new ChannelManagerImpl(config, null), transactionPool, new CompositeEthereumListener());
+
+        // every message is parsed again, as when it is received from each peer
+        messages = new ArrayList<>();
+
+        for (int first = 0; first < transactions; first += MESSAGE_SIZE) {
+            for (int peer = 0; peer < 2; peer++) {
+                List<Transaction> message = new ArrayList<>();
+
+                for (int k = first; k < Math.min(first + MESSAGE_SIZE, transactions); k++) {
+                    message.add(new ImmutableTransaction(encodedTransactions[k]));
+                }
+
+                messages.add(message);
+            }
+        }
+
+        Transaction.getSenderCache().clear();
+    }
+
+    @Benchmark
+    public void floodThroughGateway(Blackhole blackhole) {
+        NodeID[] peers = { new NodeID(new byte[] { 1 }), new NodeID(new byte[] { 2 }) };
+
+        for (int k = 0; k < messages.size(); k++) {
+            blackhole.consume(gateway.receiveTransactionsFrom(messages.get(k), peers[k % 2]));
+        }
+    }
+
+    @Benchmark
+    public void floodOneByOne(Blackhole blackhole) {
+        for (List<Transaction> message : messages) {
+            for (Transaction tx : message) {
+                blackhole.consume(transactionPool.addTransaction(tx));
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.trie;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puts, gets and hashes the accounts of a secure trie in memory, as the state trie
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrieBenchmark {
+    @Param({"1000"})
+    private int keys;
+
+    private byte[][] trieKeys;
+    private byte[][] trieValues;
+
+    private Trie trie;
+    private Trie unhashedTrie;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(keys);
+        trieKeys = new byte[keys][];
+        trieValues = new byte[keys][];
+
+        for (int k = 0; k < keys; k++) {
+            // an address and an account state
+            trieKeys[k] = randomBytes(random, 20);
+            trieValues[k] = randomBytes(random, 70);
+        }
+
+        trie = putAll();
+        trie.getHash();
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        unhashedTrie = putAll();
+    }
+
+    @Benchmark
+    public Trie put() {
+        return putAll();
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (byte[] key : trieKeys) {
+            blackhole.consume(trie.get(key));
+        }
+    }
+
+    @Benchmark
+    public Object hash() {
+        return unhashedTrie.getHash();
+    }
+
+    private Trie putAll() {
+        Trie result = new TrieImpl(true);
+
+        for (int k = 0; k < trieKeys.length; k++) {
+            result = result.put(trieKeys[k], trieValues[k]);
+        }
+
+        return result;
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
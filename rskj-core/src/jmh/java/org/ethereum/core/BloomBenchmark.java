@@ -0,0 +1,182 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.core;
+
+import org.ethereum.crypto.HashUtil;
+import org.ethereum.util.ByteUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the bloom of a block from the addresses and topics of its logs, and matches
+ * the blooms of log filters against the blocks of a chain, as the filters do for every new block.
+ * Half of the filtered addresses are in the logs.
+ *
+ * The *Bytes benchmarks do the same with the byte array bloom the node used before the blooms were kept
+ * in words, and matchFilterBits matches the bit positions of the filters, computed once, as the log filters do.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BloomBenchmark {
+    private static final int TOPICS_PER_LOG = 3;
+
+    @Param({"100"})
+    private int logs;
+
+    @Param({"100"})
+    private int blocks;
+
+    private byte[][] logHashes;
+    private Bloom[] blockBlooms;
+    private Bloom[] filterBlooms;
+    private int[][] filterBits;
+    private ByteBloom[] blockByteBlooms;
+    private ByteBloom[] filterByteBlooms;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(logs);
+        logHashes = new byte[logs * (TOPICS_PER_LOG + 1)][];
+
+        for (int k = 0; k < logHashes.length; k++) {
+            logHashes[k] = HashUtil.keccak256(randomBytes(random, k % (TOPICS_PER_LOG + 1) == 0 ? 20 : 32));
+        }
+
+        blockBlooms = new Bloom[blocks];
+        blockByteBlooms = new ByteBloom[blocks];
+
+        for (int k = 0; k < blocks; k++) {
+            blockBlooms[k] = buildBloom(k, logs / blocks + 1);
+            blockByteBlooms[k] = new ByteBloom(blockBlooms[k].getData());
+        }
+
+        filterBlooms = new Bloom[10];
+        filterBits = new int[filterBlooms.length][];
+        filterByteBlooms = new ByteBloom[filterBlooms.length];
+
+        for (int k = 0; k < filterBlooms.length; k++) {
+            byte[] address = k % 2 == 0 ? logHashes[k * (TOPICS_PER_LOG + 1)] : HashUtil.keccak256(randomBytes(random, 20));
+            filterBlooms[k] = Bloom.create(address);
+            filterBits[k] = Bloom.bitPositions(address);
+            filterByteBlooms[k] = ByteBloom.create(address);
+        }
+    }
+
+    @Benchmark
+    public Bloom buildBlockBloom() {
+        return buildBloom(0, logs);
+    }
+
+    @Benchmark
+    public void matchFilters(Blackhole blackhole) {
+        for (Bloom blockBloom : blockBlooms) {
+            for (Bloom filterBloom : filterBlooms) {
+                blackhole.consume(blockBloom.matches(filterBloom));
+            }
+        }
+    }
+
+    @Benchmark
+    public void matchFilterBits(Blackhole blackhole) {
+        for (Bloom blockBloom : blockBlooms) {
+            for (int[] bits : filterBits) {
+                blackhole.consume(blockBloom.hasBits(bits));
+            }
+        }
+    }
+
+    @Benchmark
+    public ByteBloom buildBlockBloomBytes() {
+        ByteBloom bloom = new ByteBloom(new byte[256]);
+
+        for (byte[] logHash : logHashes) {
+            bloom.or(ByteBloom.create(logHash));
+        }
+
+        return bloom;
+    }
+
+    @Benchmark
+    public void matchFiltersBytes(Blackhole blackhole) {
+        for (ByteBloom blockBloom : blockByteBlooms) {
+            for (ByteBloom filterBloom : filterByteBlooms) {
+                blackhole.consume(blockBloom.matches(filterBloom));
+            }
+        }
+    }
+
+    private Bloom buildBloom(int firstLog, int count) {
+        Bloom bloom = new Bloom();
+
+        for (int log = firstLog; log < firstLog + count && log < logs; log++) {
+            for (int k = 0; k <= TOPICS_PER_LOG; k++) {
+                bloom.or(Bloom.create(logHashes[log * (TOPICS_PER_LOG + 1) + k]));
+            }
+        }
+
+        return bloom;
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * The bloom as it was before, or-ed and matched a byte at a time.
+     */
+    public static class ByteBloom {
+        private final byte[] data;
+
+        ByteBloom(byte[] data) {
+            this.data = data;
+        }
+
+        static ByteBloom create(byte[] toBloom) {
+            byte[] data = new byte[256];
+
+            for (int position : Bloom.bitPositions(toBloom)) {
+                ByteUtil.setBit(data, position, 1);
+            }
+
+            return new ByteBloom(data);
+        }
+
+        void or(ByteBloom bloom) {
+            for (int i = 0; i < data.length; ++i) {
+                data[i] |= bloom.data[i];
+            }
+        }
+
+        boolean matches(ByteBloom topicBloom) {
+            ByteBloom copy = new ByteBloom(Arrays.copyOf(data, data.length));
+            copy.or(topicBloom);
+            return Arrays.equals(data, copy.data);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.core;
+
+import org.ethereum.crypto.ECKey;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the gossip of transactions, where every transaction is parsed again into a new object
+ * when it is received, validated, added to the pool and received in a block, asking for its sender each time.
+ *
+ * Compares recovering the sender from the signature for every object, as before the sender cache,
+ * with starting from an empty cache, so every sender is recovered once.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionSenderBenchmark {
+    private static final int STAGES = 4;
+
+    @Param({"100"})
+    private int transactions;
+
+    private byte[][] encodedTransactions;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(transactions);
+        encodedTransactions = new byte[transactions][];
+
+        for (int k = 0; k < transactions; k++) {
+            ECKey sender = ECKey.fromPrivate(BigInteger.valueOf(k + 1));
+            byte[] receiver = new byte[20];
+            random.nextBytes(receiver);
+            Transaction tx = new Transaction(BigInteger.valueOf(k).toByteArray(), BigInteger.ONE.toByteArray(),
+                    BigInteger.valueOf(21000).toByteArray(), receiver, BigInteger.valueOf(random.nextInt(1000) + 1).toByteArray(),
+                    null, (byte) 33);
+            tx.sign(sender.getPrivKeyBytes());
+            encodedTransactions[k] = tx.getEncoded();
+        }
+    }
+
+    @Benchmark
+    public void replayRecoveringEverySender(Blackhole blackhole) throws SignatureException {
+        for (int stage = 0; stage < STAGES; stage++) {
+            for (byte[] encoded : encodedTransactions) {
+                Transaction tx = new ImmutableTransaction(encoded);
+                ECKey key = ECKey.signatureToKey(tx.getRawHash().getBytes(), tx.getSignature().toBase64());
+                blackhole.consume(key.getAddress());
+            }
+        }
+    }
+
+    @Benchmark
+    public void replayWithSenderCache(Blackhole blackhole) {
+        Transaction.getSenderCache().clear();
+
+        for (int stage = 0; stage < STAGES; stage++) {
+            for (byte[] encoded : encodedTransactions) {
+                blackhole.consume(new ImmutableTransaction(encoded).getSender());
+            }
+        }
+    }
+}
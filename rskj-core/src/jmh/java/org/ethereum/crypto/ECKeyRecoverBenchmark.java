@@ -0,0 +1,59 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.crypto;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recovers the public key of a signed transaction hash, from the signature components
+ * as the transaction sender, and from the base64 signature
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ECKeyRecoverBenchmark {
+    private byte[] messageHash;
+    private ECKey.ECDSASignature signature;
+    private String signatureBase64;
+
+    @Setup
+    public void setup() {
+        ECKey key = ECKey.fromPrivate(BigInteger.valueOf(42));
+        messageHash = HashUtil.keccak256("a transaction".getBytes());
+        signature = key.sign(messageHash);
+        signatureBase64 = signature.toBase64();
+    }
+
+    @Benchmark
+    public ECKey recoverFromSignature() {
+        return ECKey.recoverFromSignature(signature.v - 27, signature, messageHash, false);
+    }
+
+    @Benchmark
+    public ECKey signatureToKey() throws SignatureException {
+        return ECKey.signatureToKey(messageHash, signatureBase64);
+    }
+}
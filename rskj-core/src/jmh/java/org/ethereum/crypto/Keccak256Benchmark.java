@@ -0,0 +1,78 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.crypto;
+
+import org.ethereum.crypto.cryptohash.Keccak256;
+import org.openjdk.jmh.annotations.*;
+import org.spongycastle.crypto.digests.SHA3Digest;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Keccak-256 implementations: the KeccakCore digest and the spongycastle digest,
+ * created for each hash as they were used, and the reusable thread-local digest of HashUtil
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Keccak256Benchmark {
+    // a word, a trie node, a block of the sponge, a transaction
+    @Param({"32", "100", "136", "1024"})
+    private int size;
+
+    private byte[] input;
+    private final byte[] output = new byte[32];
+
+    @Setup
+    public void setup() {
+        input = new byte[size];
+        new Random(size).nextBytes(input);
+    }
+
+    @Benchmark
+    public byte[] keccakCore() {
+        Keccak256 digest = new Keccak256();
+        digest.update(input);
+        return digest.digest();
+    }
+
+    @Benchmark
+    public byte[] spongyCastle() {
+        SHA3Digest digest = new SHA3Digest(256);
+        byte[] hash = new byte[digest.getDigestSize()];
+        digest.update(input, 0, input.length);
+        digest.doFinal(hash, 0);
+        return hash;
+    }
+
+    @Benchmark
+    public byte[] threadLocalDigest() {
+        return HashUtil.keccak256(input);
+    }
+
+    @Benchmark
+    public byte[] threadLocalDigestIntoArray() {
+        HashUtil.keccak256(input, 0, input.length, output, 0);
+        return output;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.datasource;
+
+import co.rsk.cli.CliArgs;
+import co.rsk.config.ConfigLoader;
+import co.rsk.config.RskSystemProperties;
+import org.ethereum.util.FileUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes batches of new trie nodes to a LevelDB data source in a temporary directory,
+ * as the state is flushed. The keys of every batch are new, so the database grows
+ * during the run, as it does in the node.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelDbDataSourceBenchmark {
+    private static final int VALUE_SIZE = 100;
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    private String databaseDir;
+    private LevelDbDataSource dataSource;
+    private Random random;
+    private byte[] value;
+    private long sequence;
+
+    @Setup
+    public void setup() throws IOException {
+        databaseDir = Files.createTempDirectory("rsk-leveldb").toString();
+        RskSystemProperties config = new RskSystemProperties(new ConfigLoader(CliArgs.empty()));
+        config.setDataBaseDir(databaseDir);
+        dataSource = new LevelDbDataSource(config, "state");
+        dataSource.init();
+
+        random = new Random(batchSize);
+        value = new byte[VALUE_SIZE];
+        random.nextBytes(value);
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+        FileUtil.recursiveDelete(databaseDir);
+    }
+
+    @Benchmark
+    public void updateBatch() {
+        Map<byte[], byte[]> rows = new HashMap<>();
+
+        for (int k = 0; k < batchSize; k++) {
+            // a hash is random, a sequence number in it keeps it new
+            byte[] key = new byte[32];
+            random.nextBytes(key);
+            long number = sequence++;
+
+            for (int b = 0; b < 8; b++) {
+                key[b] = (byte) (number >>> (56 - 8 * b));
+            }
+
+            rows.put(key, value);
+        }
+
+        dataSource.updateBatch(rows);
+    }
+}
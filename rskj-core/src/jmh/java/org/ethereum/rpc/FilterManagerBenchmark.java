@@ -0,0 +1,155 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.rpc;
+
+import co.rsk.core.RskAddress;
+import org.ethereum.core.*;
+import org.ethereum.crypto.HashUtil;
+import org.ethereum.facade.Ethereum;
+import org.ethereum.util.RLP;
+import org.ethereum.vm.DataWord;
+import org.ethereum.vm.LogInfo;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatches the logs of a new block to the installed log filters, as the node does for every block.
+ * Most of the filters watch an address, a few of them a first topic and a few of them all the logs.
+ * Half of the logs are emitted by watched addresses.
+ *
+ * matchEveryFilter matches every log against every filter, as it was done before the filters were indexed,
+ * without reading the receipts again for every filter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterManagerBenchmark {
+    private static final int TRANSACTIONS = 100;
+    private static final int LOGS_PER_TRANSACTION = 2;
+    private static final int TOPIC_FILTERS = 100;
+    private static final int MATCH_ALL_FILTERS = 10;
+
+    @Param({"10000"})
+    private int filters;
+
+    private List<LogFilter> logFilters;
+    private FilterManager filterManager;
+    private Block block;
+    private List<TransactionReceipt> receipts;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(filters);
+        Ethereum ethereum = (Ethereum) Proxy.newProxyInstance(Ethereum.class.getClassLoader(),
+                new Class<?>[] { Ethereum.class }, (proxy, method, args) -> null);
+        filterManager = new FilterManager(ethereum);
+        logFilters = new ArrayList<>();
+
+        List<RskAddress> addresses = new ArrayList<>();
+        List<Topic> topics = new ArrayList<>();
+
+        for (int k = 0; k < filters; k++) {
+            AddressesTopicsFilter addressesTopicsFilter;
+
+            if (k < MATCH_ALL_FILTERS) {
+                addressesTopicsFilter = new AddressesTopicsFilter(new RskAddress[0], null);
+            }
+            else if (k < MATCH_ALL_FILTERS + TOPIC_FILTERS) {
+                Topic topic = new Topic(randomBytes(random, 32));
+                topics.add(topic);
+                addressesTopicsFilter = new AddressesTopicsFilter(new RskAddress[0], new Topic[] { topic });
+            }
+            else {
+                RskAddress address = new RskAddress(randomBytes(random, 20));
+                addresses.add(address);
+                addressesTopicsFilter = new AddressesTopicsFilter(new RskAddress[] { address }, null);
+            }
+
+            // the filters of a new filter request, from and to the latest block
+            LogFilter filter = new LogFilter(addressesTopicsFilter, null, true, true);
+            logFilters.add(filter);
+            filterManager.registerFilter(filter);
+        }
+
+        BlockHeader header = new BlockHeader(new byte[32], HashUtil.keccak256(RLP.encodeList()), new byte[20],
+                new byte[256], BigInteger.ONE.toByteArray(), 1, BigInteger.valueOf(6800000).toByteArray(),
+                0, 0, new byte[0], null, null, null, BigInteger.ONE.toByteArray(), 0);
+        block = new Block(header);
+        receipts = new ArrayList<>();
+
+        for (int t = 0; t < TRANSACTIONS; t++) {
+            List<LogInfo> logs = new ArrayList<>();
+
+            for (int l = 0; l < LOGS_PER_TRANSACTION; l++) {
+                byte[] address = random.nextBoolean() ? addresses.get(random.nextInt(addresses.size())).getBytes() : randomBytes(random, 20);
+                byte[] topic = random.nextInt(10) == 0 ? topics.get(random.nextInt(topics.size())).getBytes() : randomBytes(random, 32);
+                logs.add(new LogInfo(address, Collections.singletonList(new DataWord(topic)), new byte[32]));
+            }
+
+            Transaction tx = new Transaction(BigInteger.valueOf(t).toByteArray(), BigInteger.ONE.toByteArray(),
+                    BigInteger.valueOf(21000).toByteArray(), randomBytes(random, 20), BigInteger.TEN.toByteArray(), null);
+            TransactionReceipt receipt = new TransactionReceipt();
+            receipt.setLogInfoList(logs);
+            receipt.setTransaction(tx);
+            receipts.add(receipt);
+        }
+    }
+
+    @Benchmark
+    public void newBlockReceived() {
+        filterManager.newBlockReceived(block, receipts);
+    }
+
+    @Benchmark
+    public void matchEveryFilter(Blackhole blackhole) {
+        for (LogFilter filter : logFilters) {
+            filter.startNewBlock();
+
+            for (int t = 0; t < receipts.size(); t++) {
+                TransactionReceipt receipt = receipts.get(t);
+                List<LogInfo> logs = receipt.getLogInfoList();
+
+                for (int l = 0; l < logs.size(); l++) {
+                    if (filter.getAddressesTopicsFilter().matchesExactly(logs.get(l))) {
+                        filter.onLogMatch(logs.get(l), block, t, receipt.getTransaction(), l);
+                    }
+                }
+            }
+
+            blackhole.consume(filter);
+        }
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
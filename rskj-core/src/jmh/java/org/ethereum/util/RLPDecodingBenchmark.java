@@ -0,0 +1,118 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.util;
+
+import co.rsk.util.RLPListView;
+import org.ethereum.core.Block;
+import org.ethereum.core.BlockHeader;
+import org.ethereum.core.Transaction;
+import org.ethereum.crypto.ECKey;
+import org.ethereum.crypto.HashUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding encoded blocks, with signed value transfers and token transfer calls
+ * and merged mining fields in the header, by the full traversal of RLP.decode2 and by the RLPListView
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RLPDecodingBenchmark {
+    @Param({"10", "200"})
+    private int transactions;
+
+    private byte[] encodedBlock;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(transactions);
+        ECKey sender = ECKey.fromPrivate(BigInteger.valueOf(transactions + 1));
+        List<Transaction> txs = new ArrayList<>();
+
+        for (int k = 0; k < transactions; k++) {
+            // every other transaction calls a token transfer
+            byte[] data = k % 2 == 0 ? null : randomBytes(random, 68);
+            Transaction tx = new Transaction(BigInteger.valueOf(k).toByteArray(), BigInteger.valueOf(60000000).toByteArray(),
+                    BigInteger.valueOf(100000).toByteArray(), randomBytes(random, 20), BigInteger.valueOf(random.nextInt()).toByteArray(),
+                    data, (byte) 33);
+            tx.sign(sender.getPrivKeyBytes());
+            txs.add(tx);
+        }
+
+        BlockHeader header = new BlockHeader(randomBytes(random, 32), HashUtil.keccak256(RLP.encodeList()), randomBytes(random, 20),
+                new byte[256], BigInteger.valueOf(1000000000000L).toByteArray(), 100000, BigInteger.valueOf(6800000).toByteArray(),
+                3000000, System.currentTimeMillis() / 1000, new byte[0],
+                randomBytes(random, 80), randomBytes(random, 320), randomBytes(random, 150),
+                BigInteger.valueOf(59240).toByteArray(), 0);
+
+        encodedBlock = new Block(header, txs, Collections.emptyList()).getEncoded();
+    }
+
+    @Benchmark
+    public void transactionHashesWithDecode2(Blackhole blackhole) {
+        RLPList block = (RLPList) RLP.decode2(encodedBlock).get(0);
+        RLPList txs = (RLPList) block.get(1);
+
+        for (RLPElement tx : txs) {
+            blackhole.consume(HashUtil.keccak256(tx.getRLPData()));
+        }
+    }
+
+    @Benchmark
+    public void transactionHashesWithView(Blackhole blackhole) {
+        RLPListView txs = RLPListView.wrap(encodedBlock).getList(1);
+
+        for (int k = 0; k < txs.size(); k++) {
+            blackhole.consume(HashUtil.keccak256(txs.getEncoded(k)));
+        }
+    }
+
+    @Benchmark
+    public BlockHeader headerWithDecode2() {
+        RLPList block = (RLPList) RLP.decode2(encodedBlock).get(0);
+        return new BlockHeader((RLPList) block.get(0), true);
+    }
+
+    @Benchmark
+    public BlockHeader headerWithView() {
+        return new BlockHeader(RLPListView.wrap(encodedBlock).getList(0), true);
+    }
+
+    @Benchmark
+    public List<Transaction> parseBlock() {
+        return new Block(encodedBlock).getTransactionsList();
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.util;
+
+import org.ethereum.core.Bloom;
+import org.ethereum.core.TransactionReceipt;
+import org.ethereum.vm.DataWord;
+import org.ethereum.vm.LogInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding the transactions of a block and a receipt with logs by nesting the arrays
+ * returned by the RLP.encode methods and by the two pass RLPWriter.
+ *
+ * Run with the GC profiler to see the allocation rate, e.g. -Pjmh='RLPEncodingBenchmark -prof gc'
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RLPEncodingBenchmark {
+    private static final byte[] SUCCESS_STATUS = new byte[] { 0x01 };
+
+    @Param({"10", "200"})
+    private int transactions;
+
+    // nonce, gas price, gas limit, receiver, value, data, v, r, s of every transaction
+    private byte[][][] fields;
+
+    private byte[] postTxState;
+    private byte[] cumulativeGas;
+    private byte[] gasUsed;
+    private Bloom bloom;
+    private List<LogInfo> logs;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(transactions);
+        fields = new byte[transactions][][];
+
+        for (int k = 0; k < transactions; k++) {
+            // every other transaction calls a token transfer
+            byte[] data = k % 2 == 0 ? null : randomBytes(random, 68);
+            fields[k] = new byte[][] {
+                    BigInteger.valueOf(k).toByteArray(), BigInteger.valueOf(60000000).toByteArray(),
+                    BigInteger.valueOf(100000).toByteArray(), randomBytes(random, 20),
+                    BigInteger.valueOf(random.nextInt() & Integer.MAX_VALUE).toByteArray(), data,
+                    new byte[] { 27 }, randomBytes(random, 32), randomBytes(random, 32)
+            };
+        }
+
+        postTxState = randomBytes(random, 32);
+        cumulativeGas = BigInteger.valueOf(2100000).toByteArray();
+        gasUsed = BigInteger.valueOf(51000).toByteArray();
+        bloom = new Bloom(randomBytes(random, 256));
+        logs = new ArrayList<>();
+
+        for (int k = 0; k < 3; k++) {
+            logs.add(new LogInfo(randomBytes(random, 20),
+                    Arrays.asList(new DataWord(randomBytes(random, 32)), new DataWord(randomBytes(random, 32)), new DataWord(randomBytes(random, 32))),
+                    randomBytes(random, 32)));
+        }
+    }
+
+    @Benchmark
+    public byte[] transactionsWithRLP() {
+        byte[][] encodedTransactions = new byte[fields.length][];
+
+        for (int k = 0; k < fields.length; k++) {
+            byte[][] tx = fields[k];
+            byte[][] encodedFields = new byte[tx.length][];
+
+            for (int j = 0; j < tx.length; j++) {
+                encodedFields[j] = RLP.encodeElement(tx[j]);
+            }
+
+            encodedTransactions[k] = RLP.encodeList(encodedFields);
+        }
+
+        return RLP.encodeList(encodedTransactions);
+    }
+
+    @Benchmark
+    public byte[] transactionsWithWriter() {
+        RLPWriter writer = new RLPWriter();
+        writer.startList();
+
+        for (byte[][] tx : fields) {
+            writer.startList();
+
+            for (byte[] field : tx) {
+                writer.writeElement(field);
+            }
+
+            writer.endList();
+        }
+
+        writer.endList();
+
+        return writer.encode();
+    }
+
+    @Benchmark
+    public byte[] receiptWithRLP() {
+        byte[][] encodedLogs = new byte[logs.size()][];
+
+        for (int k = 0; k < encodedLogs.length; k++) {
+            LogInfo log = logs.get(k);
+            byte[][] encodedTopics = new byte[log.getTopics().size()][];
+
+            for (int j = 0; j < encodedTopics.length; j++) {
+                encodedTopics[j] = RLP.encodeElement(log.getTopics().get(j).getData());
+            }
+
+            encodedLogs[k] = RLP.encodeList(RLP.encodeElement(log.getAddress()), RLP.encodeList(encodedTopics),
+                    RLP.encodeElement(log.getData()));
+        }
+
+        return RLP.encodeList(RLP.encodeElement(postTxState), RLP.encodeElement(cumulativeGas),
+                RLP.encodeElement(bloom.getData()), RLP.encodeList(encodedLogs), RLP.encodeElement(gasUsed),
+                RLP.encodeElement(SUCCESS_STATUS));
+    }
+
+    @Benchmark
+    public byte[] receiptWithWriter() {
+        return new TransactionReceipt(postTxState, cumulativeGas, gasUsed, bloom, logs, SUCCESS_STATUS)
+                .getEncoded();
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
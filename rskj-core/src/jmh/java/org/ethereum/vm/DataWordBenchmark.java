@@ -0,0 +1,114 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.vm;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the arithmetic of the EVM opcodes on full 256 bit words. The operations change
+ * the word in place, so every operation works on a copy, as the program does with the
+ * words it pops from the stack.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataWordBenchmark {
+    private DataWord a;
+    private DataWord b;
+    private DataWord modulus;
+    private DataWord exponent;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(256);
+        a = randomWord(random);
+        b = randomWord(random);
+        modulus = randomWord(random);
+        exponent = new DataWord(65537);
+    }
+
+    @Benchmark
+    public DataWord copy() {
+        return a.clone();
+    }
+
+    @Benchmark
+    public DataWord add() {
+        DataWord result = a.clone();
+        result.add(b);
+        return result;
+    }
+
+    @Benchmark
+    public DataWord sub() {
+        DataWord result = a.clone();
+        result.sub(b);
+        return result;
+    }
+
+    @Benchmark
+    public DataWord mul() {
+        DataWord result = a.clone();
+        result.mul(b);
+        return result;
+    }
+
+    @Benchmark
+    public DataWord div() {
+        DataWord result = a.clone();
+        result.div(b);
+        return result;
+    }
+
+    @Benchmark
+    public DataWord exp() {
+        DataWord result = a.clone();
+        result.exp(exponent);
+        return result;
+    }
+
+    @Benchmark
+    public DataWord mulmod() {
+        DataWord result = a.clone();
+        result.mulmod(b, modulus);
+        return result;
+    }
+
+    @Benchmark
+    public DataWord and() {
+        return a.clone().and(b);
+    }
+
+    @Benchmark
+    public int compare() {
+        return a.compareTo(b);
+    }
+
+    private static DataWord randomWord(Random random) {
+        byte[] data = new byte[32];
+        random.nextBytes(data);
+        return new DataWord(data);
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.vm;
+
+import co.rsk.cli.CliArgs;
+import co.rsk.config.ConfigLoader;
+import co.rsk.config.RskSystemProperties;
+import co.rsk.core.Coin;
+import co.rsk.core.RskAddress;
+import co.rsk.db.RepositoryImpl;
+import org.ethereum.core.*;
+import org.ethereum.crypto.ECKey;
+import org.ethereum.crypto.HashUtil;
+import org.ethereum.listener.EthereumListenerAdapter;
+import org.ethereum.util.RLP;
+import org.ethereum.vm.program.invoke.ProgramInvokeFactoryImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.spongycastle.util.encoders.Hex;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes a block of transactions calling a contract that calls the identity and sha256
+ * precompiled contracts and an account without code, and looks up the contract for the
+ * addresses of those calls and of the native contracts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrecompiledCallsBenchmark {
+    private static final String[] CALLED_ADDRESSES = {
+            PrecompiledContracts.IDENTITY_ADDR_STR,
+            PrecompiledContracts.SHA256_ADDR,
+            "0000000000000000000000000000000000001000"
+    };
+
+    private static final String[] LOOKED_UP_ADDRESSES = {
+            PrecompiledContracts.ECRECOVER_ADDR,
+            PrecompiledContracts.IDENTITY_ADDR_STR,
+            PrecompiledContracts.BRIDGE_ADDR_STR,
+            PrecompiledContracts.REMASC_ADDR_STR,
+            "0000000000000000000000000000000000001000",
+            "a94f5374fce5edbc8e2a8697c15331677e6ebf0b"
+    };
+
+    @Param({"50"})
+    private int transactions;
+
+    @Param({"100"})
+    private int callsPerTransaction;
+
+    private RskSystemProperties config;
+    private Block block;
+    private Repository repository;
+    private List<Transaction> blockTransactions;
+
+    private PrecompiledContracts precompiledContracts;
+    private DataWord[] lookedUpAddresses;
+
+    @Setup
+    public void setup() {
+        config = new RskSystemProperties(new ConfigLoader(CliArgs.empty()));
+        BlockHeader header = new BlockHeader(new byte[32], HashUtil.keccak256(RLP.encodeList()), new byte[20],
+                new byte[256], BigInteger.ONE.toByteArray(), 1, BigInteger.valueOf(6800000L * transactions).toByteArray(),
+                0, System.currentTimeMillis() / 1000, new byte[0],
+                null, null, null, BigInteger.ONE.toByteArray(), 0);
+        block = new Block(header);
+
+        ECKey sender = ECKey.fromPrivate(BigInteger.TEN);
+        RskAddress contract = new RskAddress("0000000000000000000000000000000000002000");
+        repository = new RepositoryImpl(config);
+        Repository track = repository.startTracking();
+        track.createAccount(new RskAddress(sender.getAddress()));
+        track.addBalance(new RskAddress(sender.getAddress()), Coin.valueOf(Long.MAX_VALUE));
+        track.createAccount(contract);
+        track.saveCode(contract, buildCallingCode());
+        track.commit();
+
+        blockTransactions = new ArrayList<>();
+
+        for (int k = 0; k < transactions; k++) {
+            Transaction tx = new Transaction(BigInteger.valueOf(k).toByteArray(), BigInteger.ONE.toByteArray(),
+                    BigInteger.valueOf(6000000).toByteArray(), contract.getBytes(), BigInteger.ZERO.toByteArray(), null,
+                    config.getBlockchainConfig().getCommonConstants().getChainId());
+            tx.sign(sender.getPrivKeyBytes());
+            blockTransactions.add(tx);
+        }
+
+        precompiledContracts = new PrecompiledContracts(config);
+        lookedUpAddresses = new DataWord[LOOKED_UP_ADDRESSES.length];
+
+        for (int k = 0; k < lookedUpAddresses.length; k++) {
+            lookedUpAddresses[k] = new DataWord(LOOKED_UP_ADDRESSES[k]);
+        }
+    }
+
+    @Benchmark
+    public void executeCallHeavyBlock(Blackhole blackhole) {
+        Repository track = repository.startTracking();
+        long gasUsed = 0;
+
+        for (int k = 0; k < blockTransactions.size(); k++) {
+            TransactionExecutor executor = new TransactionExecutor(config, blockTransactions.get(k), k, block.getCoinbase(),
+                    track, null, null, new ProgramInvokeFactoryImpl(), block, new EthereumListenerAdapter(), gasUsed);
+            executor.init();
+            executor.execute();
+            executor.go();
+            executor.finalization();
+            gasUsed += executor.getGasUsed();
+        }
+
+        track.rollback();
+        blackhole.consume(gasUsed);
+    }
+
+    @Benchmark
+    public void lookUpContracts(Blackhole blackhole) {
+        for (DataWord address : lookedUpAddresses) {
+            blackhole.consume(precompiledContracts.getContractForAddress(address));
+        }
+    }
+
+    private byte[] buildCallingCode() {
+        StringBuilder code = new StringBuilder();
+
+        for (int k = 0; k < callsPerTransaction; k++) {
+            // out size, out offset, in size, in offset, value, address, gas
+            code.append("6000" + "6000" + "6020" + "6000" + "6000")
+                    .append("73").append(CALLED_ADDRESSES[k % CALLED_ADDRESSES.length])
+                    .append("610fff")
+                    .append("f1")
+                    .append("50");
+        }
+
+        return Hex.decode(code.toString());
+    }
+}
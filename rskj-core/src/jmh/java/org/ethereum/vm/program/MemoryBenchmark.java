@@ -0,0 +1,80 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.vm.program;
+
+import org.ethereum.vm.DataWord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads the memory of a program a word at a time, as MSTORE and MLOAD,
+ * and copies unaligned slices out of it, as the data of a call or a return.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryBenchmark {
+    private static final int WORD_SIZE = 32;
+    private static final int SLICE_SIZE = 1000;
+
+    @Param({"1024", "65536"})
+    private int size;
+
+    private byte[] word;
+    private Memory memory;
+
+    @Setup
+    public void setup() {
+        word = new byte[WORD_SIZE];
+        new Random(size).nextBytes(word);
+        memory = writeWords();
+    }
+
+    @Benchmark
+    public Memory writeWords() {
+        Memory result = new Memory();
+
+        for (int address = 0; address < size; address += WORD_SIZE) {
+            result.write(address, word, WORD_SIZE, false);
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public void readWords(Blackhole blackhole) {
+        for (int address = 0; address < size; address += WORD_SIZE) {
+            DataWord value = memory.readWord(address);
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void readSlices(Blackhole blackhole) {
+        for (int address = 1; address + SLICE_SIZE <= size; address += SLICE_SIZE) {
+            blackhole.consume(memory.read(address, SLICE_SIZE));
+        }
+    }
+}
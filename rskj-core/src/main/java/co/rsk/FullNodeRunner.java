@@ -270,6 +270,7 @@ public class FullNodeRunner implements NodeRunner {
         messageHandler.stop();
         channelManager.stop();
         transactionGateway.stop();
+        blockchain.close();
 
         if (rskSystemProperties.isPeerDiscoveryEnabled()) {
             try {
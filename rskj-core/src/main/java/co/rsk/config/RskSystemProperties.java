@@ -225,6 +225,11 @@ public class RskSystemProperties extends SystemProperties {
                 configFromFiles.getInt("blockchain.flushNumberOfBlocks") : 20;
     }
 
+    public boolean useIndexedReceiptStore() {
+        return configFromFiles.hasPath("database.receipts.indexed") ?
+                configFromFiles.getBoolean("database.receipts.indexed") : false;
+    }
+
     public int soLingerTime() {
         return configFromFiles.getInt("rpc.providers.web.http.linger_time");
 
@@ -394,6 +399,18 @@ public class RskSystemProperties extends SystemProperties {
         return getInt("sync.maxSkeletonChunks", 20);
     }
 
+    public int getSyncValidationThreads() {
+        return getInt("sync.validationThreads", 2);
+    }
+
+    public int getSyncMaxPendingBlocks() {
+        return getInt("sync.maxPendingBlocks", 256);
+    }
+
+    public int getTrieParallelCommitThreshold() {
+        return getInt("trie.parallelCommitThreshold", 1024);
+    }
+
     // its fixed, cannot be set by config file
     public int getChunkSize() {
         return CHUNK_SIZE;
@@ -350,8 +350,10 @@ public class RskFactory {
         int expirationTimePeerStatus = config.getExpirationTimePeerStatus();
         int maxSkeletonChunks = config.getMaxSkeletonChunks();
         int chunkSize = config.getChunkSize();
+        int validationThreads = config.getSyncValidationThreads();
+        int maxPendingBlocks = config.getSyncMaxPendingBlocks();
         return new SyncConfiguration(expectedPeers, timeoutWaitingPeers, timeoutWaitingRequest,
-                expirationTimePeerStatus, maxSkeletonChunks, chunkSize);
+                expirationTimePeerStatus, maxSkeletonChunks, chunkSize, validationThreads, maxPendingBlocks);
     }
 
     @Bean
@@ -0,0 +1,136 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.core;
+
+import co.rsk.crypto.Keccak256;
+import co.rsk.metrics.Counter;
+import co.rsk.metrics.MetricRegistry;
+import co.rsk.util.MaxSizeHashMap;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the senders recovered from transaction signatures, by transaction hash.
+ *
+ * The same transaction is parsed again into a new object when it is received, validated,
+ * added to the pool, received in a block and executed, and each object would recover the sender again.
+ * The hash covers the signature, so a hash always maps to the same sender.
+ *
+ * The entries are spread in segments, each one with its own lock and evicting its oldest entries.
+ */
+public class TransactionSenderCache {
+    private static final int SEGMENTS = 16;
+
+    // the lookups of all the caches, the node has only the cache of the transactions
+    private static final Counter hitsTotal = MetricRegistry.getDefault().counter("sender_cache_hits_total",
+            "Senders found in the sender cache");
+    private static final Counter missesTotal = MetricRegistry.getDefault().counter("sender_cache_misses_total",
+            "Senders recovered from the signature");
+
+    private final Map<Keccak256, RskAddress>[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TransactionSenderCache(int maxSize) {
+        this.segments = newSegments();
+
+        for (int k = 0; k < SEGMENTS; k++) {
+            this.segments[k] = new MaxSizeHashMap<>(Math.max(1, maxSize / SEGMENTS));
+        }
+    }
+
+    @Nullable
+    public RskAddress get(Keccak256 hash) {
+        Map<Keccak256, RskAddress> segment = segmentOf(hash);
+        RskAddress sender;
+
+        synchronized (segment) {
+            sender = segment.get(hash);
+        }
+
+        if (sender == null) {
+            misses.increment();
+            missesTotal.inc();
+        } else {
+            hits.increment();
+            hitsTotal.inc();
+        }
+
+        return sender;
+    }
+
+    public void put(Keccak256 hash, RskAddress sender) {
+        Map<Keccak256, RskAddress> segment = segmentOf(hash);
+
+        synchronized (segment) {
+            segment.put(hash, sender);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+
+        for (Map<Keccak256, RskAddress> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    public void clear() {
+        for (Map<Keccak256, RskAddress> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the fraction of the lookups that found the sender, zero if there were none
+     */
+    public double getHitRate() {
+        long found = hits.sum();
+        long total = found + misses.sum();
+
+        return total == 0 ? 0 : (double) found / total;
+    }
+
+    // an array of a generic type can't be created, the segments are empty when they are cast
+    @SuppressWarnings("unchecked")
+    private static Map<Keccak256, RskAddress>[] newSegments() {
+        return (Map<Keccak256, RskAddress>[]) new Map<?, ?>[SEGMENTS];
+    }
+
+    private Map<Keccak256, RskAddress> segmentOf(Keccak256 hash) {
+        return segments[hash.hashCode() & (SEGMENTS - 1)];
+    }
+}
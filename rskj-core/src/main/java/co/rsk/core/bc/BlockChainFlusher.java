@@ -0,0 +1,120 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.core.bc;
+
+import co.rsk.panic.PanicProcessor;
+import org.ethereum.core.Repository;
+import org.ethereum.db.BlockStore;
+import org.ethereum.db.DetailsDataStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+
+/**
+ * Flushes the contract details and then the block index in a background thread,
+ * while the next blocks are executed.
+ *
+ * The details are encoded at the block boundary, and read from memory until they are written.
+ * The block index must not be changed while a flush is in progress, so it is never
+ * written ahead of the state it refers to: the block chain calls {@link #awaitFlush()}
+ * before storing a block. A new flush also waits for the one in progress.
+ */
+public class BlockChainFlusher {
+    private static final Logger logger = LoggerFactory.getLogger("blockchain");
+    private static final PanicProcessor panicProcessor = new PanicProcessor();
+
+    private final Repository repository;
+    private final BlockStore blockStore;
+    private final ThreadPoolExecutor executor;
+
+    private Future<?> flushInProgress;
+
+    public BlockChainFlusher(Repository repository, BlockStore blockStore) {
+        this.repository = repository;
+        this.blockStore = blockStore;
+        this.executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread thread = new Thread(r, "BlockChainFlusher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Starts a flush of the state and block index as they are now
+     */
+    public synchronized void flush() {
+        awaitFlush();
+
+        DetailsDataStore detailsDataStore = repository.getDetailsDataStore();
+
+        if (detailsDataStore == null) {
+            repository.flush();
+            blockStore.flush();
+            return;
+        }
+
+        // the state trie nodes are already written when the root of each block is computed
+        long start = System.nanoTime();
+        long size = detailsDataStore.prepareFlush();
+        logger.trace("details flush prepared: [{}]nano, [{}] bytes", System.nanoTime() - start, size);
+
+        flushInProgress = executor.submit(() -> {
+            long saveTime = System.nanoTime();
+            detailsDataStore.writePreparedFlush();
+            logger.trace("details flush: [{}]nano", System.nanoTime() - saveTime);
+
+            saveTime = System.nanoTime();
+            blockStore.flush();
+            logger.trace("blockstore flush: [{}]nano", System.nanoTime() - saveTime);
+        });
+    }
+
+    /**
+     * Waits for the flush in progress, if any
+     */
+    public synchronized void awaitFlush() {
+        if (flushInProgress == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            flushInProgress.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            // the details not written are kept in memory, to be written by the next flush
+            logger.error("Error flushing the block chain", e.getCause());
+            panicProcessor.panic("flush", e.getCause().getMessage());
+        }
+
+        flushInProgress = null;
+        logger.trace("waited for flush: [{}]nano", System.nanoTime() - start);
+    }
+
+    public synchronized void close() {
+        awaitFlush();
+        executor.shutdown();
+    }
+}
@@ -21,10 +21,11 @@ package co.rsk.core.bc;
 import co.rsk.blocks.BlockRecorder;
 import co.rsk.config.RskSystemProperties;
 import co.rsk.core.BlockDifficulty;
+import co.rsk.metrics.Histogram;
+import co.rsk.metrics.MetricRegistry;
 import co.rsk.net.Metrics;
 import co.rsk.panic.PanicProcessor;
-import co.rsk.trie.Trie;
-import co.rsk.trie.TrieImpl;
+import co.rsk.trie.TrieBuilder;
 import co.rsk.validators.BlockValidator;
 import com.google.common.annotations.VisibleForTesting;
 import org.ethereum.core.*;
@@ -35,11 +36,11 @@ import org.ethereum.db.ReceiptStore;
 import org.ethereum.db.TransactionInfo;
 import org.ethereum.listener.EthereumListener;
 import org.ethereum.manager.AdminInfo;
-import org.ethereum.util.RLP;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -80,6 +81,12 @@ public class BlockChainImpl implements Blockchain {
     private static final Logger logger = LoggerFactory.getLogger("blockchain");
     private static final PanicProcessor panicProcessor = new PanicProcessor();
 
+    private static final String IMPORT_PHASE_HELP = "Time spent in each phase of a block import";
+    private static final Histogram validateTime = importPhaseHistogram("validate");
+    private static final Histogram executeTime = importPhaseHistogram("execute");
+    private static final Histogram flushTime = importPhaseHistogram("flush");
+    private static final Histogram flushWaitTime = importPhaseHistogram("flush_wait");
+
     private final RskSystemProperties config;
     private final Repository repository;
     private final BlockStore blockStore;
@@ -96,6 +103,7 @@ public class BlockChainImpl implements Blockchain {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
 
     private final BlockExecutor blockExecutor;
+    private final BlockChainFlusher flusher;
     private BlockRecorder blockRecorder;
     private boolean noValidation;
 
@@ -115,6 +123,7 @@ public class BlockChainImpl implements Blockchain {
         this.adminInfo = adminInfo;
         this.blockValidator = blockValidator;
         this.blockExecutor = new BlockExecutor(config, repository, receiptStore, blockStore, listener);
+        this.flusher = new BlockChainFlusher(repository, blockStore);
         this.transactionPool = transactionPool;
     }
 
@@ -182,6 +191,8 @@ public class BlockChainImpl implements Blockchain {
                     long saveTime = System.nanoTime();
                     ImportResult result = internalTryToConnect(block);
                     long totalTime = System.nanoTime() - saveTime;
+                    MetricRegistry.getDefault().counter("block_import_total", "Blocks received to import, by result",
+                            "result", result.name().toLowerCase()).inc();
                     logger.info("block: num: [{}] hash: [{}], processed after: [{}]nano, result {}", block.getNumber(), block.getShortHash(), totalTime, result);
                     return result;
                 }
@@ -251,7 +262,11 @@ public class BlockChainImpl implements Blockchain {
         }
 
         // Validate incoming block before its processing
-        if (!isValid(block)) {
+        long validateStart = System.nanoTime();
+        boolean isValidBlock = isValid(block);
+        validateTime.recordSince(validateStart);
+
+        if (!isValidBlock) {
             long blockNumber = block.getNumber();
             logger.warn("Invalid block with number: {}", blockNumber);
             panicProcessor.panic("invalidblock", String.format("Invalid block %s %s", blockNumber, block.getHash()));
@@ -281,6 +296,7 @@ public class BlockChainImpl implements Blockchain {
             }
 
             long totalTime = System.nanoTime() - saveTime;
+            executeTime.record(totalTime);
 
             if (adminInfo != null) {
                 adminInfo.addBlockExecTime(totalTime);
@@ -293,6 +309,12 @@ public class BlockChainImpl implements Blockchain {
         BlockDifficulty totalDifficulty = parentTotalDifficulty.add(block.getCumulativeDifficulty());
         logger.trace("TD: updated to {}", totalDifficulty);
 
+        // the block index is not changed until the flush in progress commits it
+        logger.trace("Start awaitFlush");
+        long flushWaitStart = System.nanoTime();
+        flusher.awaitFlush();
+        flushWaitTime.recordSince(flushWaitStart);
+
         // It is the new best block
         if (SelectionRule.shouldWeAddThisBlock(totalDifficulty, status.getTotalDifficulty(),block, bestBlock)) {
             if (bestBlock != null && !bestBlock.isParentOf(block)) {
@@ -437,6 +459,8 @@ public class BlockChainImpl implements Blockchain {
         try {
             List<Block> blocks = this.getBlocksByNumber(number);
 
+            flusher.awaitFlush();
+
             for (Block block : blocks) {
                 blockStore.removeBlock(block);
             }
@@ -485,7 +509,7 @@ public class BlockChainImpl implements Blockchain {
 
     @Override
     public void close() {
-
+        flusher.close();
     }
 
     @Override
@@ -570,33 +594,34 @@ public class BlockChainImpl implements Blockchain {
     private void flushData() {
         if (config.isFlushEnabled() && nFlush == 0)  {
             long saveTime = System.nanoTime();
-            repository.flush();
+            flusher.flush();
             long totalTime = System.nanoTime() - saveTime;
-            logger.trace("repository flush: [{}]nano", totalTime);
-            saveTime = System.nanoTime();
-            blockStore.flush();
-            totalTime = System.nanoTime() - saveTime;
-            logger.trace("blockstore flush: [{}]nano", totalTime);
+            flushTime.record(totalTime);
+            logger.trace("flush started: [{}]nano", totalTime);
         }
         nFlush++;
         nFlush = nFlush % config.flushNumberOfBlocks();
     }
 
+    private static Histogram importPhaseHistogram(String phase) {
+        return MetricRegistry.getDefault().histogram("block_import_phase_seconds", IMPORT_PHASE_HELP, "phase", phase);
+    }
+
     public static byte[] calcTxTrie(List<Transaction> transactions) {
         return Block.getTxTrie(transactions).getHash().getBytes();
     }
 
     public static byte[] calcReceiptsTrie(List<TransactionReceipt> receipts) {
-        Trie receiptsTrie = new TrieImpl();
-
         if (receipts == null || receipts.isEmpty()) {
             return HashUtil.EMPTY_TRIE_HASH;
         }
 
-        for (int i = 0; i < receipts.size(); i++) {
-            receiptsTrie = receiptsTrie.put(RLP.encodeInt(i), receipts.get(i).getEncoded());
+        List<byte[]> encodedReceipts = new ArrayList<>(receipts.size());
+
+        for (TransactionReceipt receipt : receipts) {
+            encodedReceipts.add(receipt.getEncoded());
         }
 
-        return receiptsTrie.getHash().getBytes();
+        return TrieBuilder.fromIndexedValues(encodedReceipts).getHash().getBytes();
     }
 }
@@ -20,6 +20,8 @@ package co.rsk.core.bc;
 
 import co.rsk.config.RskSystemProperties;
 import co.rsk.core.Coin;
+import co.rsk.metrics.Histogram;
+import co.rsk.metrics.MetricRegistry;
 import org.ethereum.core.*;
 import org.ethereum.db.BlockStore;
 import org.ethereum.db.ReceiptStore;
@@ -32,6 +34,7 @@ import org.spongycastle.util.encoders.Hex;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -44,6 +47,8 @@ import java.util.List;
  */
 public class BlockExecutor {
     private static final Logger logger = LoggerFactory.getLogger("blockexecutor");
+    private static final Histogram commitTime = MetricRegistry.getDefault().histogram("block_execution_commit_seconds",
+            "Time spent committing the state changes of the transactions of a block and computing their state roots");
 
     private final RskSystemProperties config;
     private final Repository repository;
@@ -90,7 +95,21 @@ public class BlockExecutor {
         }
     }
 
-    private void fill(Block block, BlockResult result) {
+    /**
+     * Execute transactions of a block on top of the result of its previous transactions,
+     * continuing their transaction index, gas used, fees and receipts.
+     * Invalid transactions are discarded.
+     *
+     * @param block        The block the transactions are executed in
+     * @param transactions The transactions to execute
+     * @param previous     The result of the previous transactions, its state root is the initial state
+     * @return BlockResult with the previous and the executed transactions.
+     */
+    public BlockResult executeAfter(Block block, List<Transaction> transactions, BlockResult previous) {
+        return execute(block, transactions, previous, true, false);
+    }
+
+    public void fill(Block block, BlockResult result) {
         block.setTransactionsList(result.getExecutedTransactions());
         BlockHeader header = block.getHeader();
         header.setTransactionsRoot(Block.getTxTrie(block.getTransactionsList()).getHash().getBytes());
@@ -191,22 +210,29 @@ public class BlockExecutor {
     }
 
     private BlockResult execute(Block block, byte[] stateRoot, boolean discardInvalidTxs, boolean ignoreReadyToExecute) {
-        logger.trace("applyBlock: block: [{}] tx.list: [{}]", block.getNumber(), block.getTransactionsList().size());
+        BlockResult empty = new BlockResult(Collections.emptyList(), Collections.emptyList(), stateRoot, 0, Coin.ZERO);
 
-        Repository initialRepository = repository.getSnapshotTo(stateRoot);
+        return execute(block, block.getTransactionsList(), empty, discardInvalidTxs, ignoreReadyToExecute);
+    }
+
+    private BlockResult execute(Block block, List<Transaction> transactions, BlockResult previous, boolean discardInvalidTxs, boolean ignoreReadyToExecute) {
+        logger.trace("applyBlock: block: [{}] tx.list: [{}]", block.getNumber(), transactions.size());
+
+        Repository initialRepository = repository.getSnapshotTo(previous.getStateRoot());
 
         byte[] lastStateRootHash = initialRepository.getRoot();
 
         Repository track = initialRepository.startTracking();
         int i = 1;
-        long totalGasUsed = 0;
-        Coin totalPaidFees = Coin.ZERO;
-        List<TransactionReceipt> receipts = new ArrayList<>();
-        List<Transaction> executedTransactions = new ArrayList<>();
+        long totalGasUsed = previous.getGasUsed();
+        Coin totalPaidFees = previous.getPaidFees();
+        List<TransactionReceipt> receipts = new ArrayList<>(previous.getTransactionReceipts());
+        List<Transaction> executedTransactions = new ArrayList<>(previous.getExecutedTransactions());
 
-        int txindex = 0;
+        int txindex = executedTransactions.size();
+        long commitNanos = 0;
 
-        for (Transaction tx : block.getTransactionsList()) {
+        for (Transaction tx : transactions) {
             logger.trace("apply block: [{}] tx: [{}] ", block.getNumber(), i);
 
             TransactionExecutor txExecutor = new TransactionExecutor(config, tx, txindex++, block.getCoinbase(), track, blockStore, receiptStore, programInvokeFactory, block, listener, totalGasUsed);
@@ -231,6 +257,7 @@ public class BlockExecutor {
 
             logger.trace("tx executed");
 
+            long commitStart = System.nanoTime();
             track.commit();
 
             logger.trace("track commit");
@@ -246,6 +273,7 @@ public class BlockExecutor {
             receipt.setGasUsed(gasUsed);
             receipt.setCumulativeGas(totalGasUsed);
             lastStateRootHash = initialRepository.getRoot();
+            commitNanos += System.nanoTime() - commitStart;
             receipt.setTxStatus(txExecutor.getReceipt().isSuccessful());
             receipt.setTransaction(tx);
             receipt.setLogInfoList(txExecutor.getVMLogs());
@@ -263,6 +291,8 @@ public class BlockExecutor {
             logger.trace("tx done");
         }
 
+        commitTime.record(commitNanos);
+
         return new BlockResult(executedTransactions, receipts, lastStateRootHash, totalGasUsed, totalPaidFees);
     }
 }
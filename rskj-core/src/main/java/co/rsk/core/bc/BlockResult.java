@@ -19,14 +19,13 @@
 package co.rsk.core.bc;
 
 import co.rsk.core.Coin;
-import co.rsk.trie.Trie;
-import co.rsk.trie.TrieImpl;
+import co.rsk.trie.TrieBuilder;
 import org.ethereum.core.Bloom;
 import org.ethereum.core.Transaction;
 import org.ethereum.core.TransactionReceipt;
 import org.ethereum.crypto.HashUtil;
-import org.ethereum.util.RLP;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -83,17 +82,17 @@ public class BlockResult {
     // from original BlockchainImpl
     private static byte[] calculateReceiptsTrie(List<TransactionReceipt> receipts) {
         //TODO Fix Trie hash for receipts - doesnt match cpp
-        Trie receiptsTrie = new TrieImpl();
-
         if (receipts.isEmpty()) {
             return HashUtil.EMPTY_TRIE_HASH;
         }
 
-        for (int i = 0; i < receipts.size(); i++) {
-            receiptsTrie = receiptsTrie.put(RLP.encodeInt(i), receipts.get(i).getEncoded());
+        List<byte[]> encodedReceipts = new ArrayList<>(receipts.size());
+
+        for (TransactionReceipt receipt : receipts) {
+            encodedReceipts.add(receipt.getEncoded());
         }
 
-        return receiptsTrie.getHash().getBytes();
+        return TrieBuilder.fromIndexedValues(encodedReceipts).getHash().getBytes();
     }
 
     private static byte[] calculateLogsBloom(List<TransactionReceipt> receipts) {
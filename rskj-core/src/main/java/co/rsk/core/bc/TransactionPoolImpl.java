@@ -22,6 +22,7 @@ import co.rsk.config.RskSystemProperties;
 import co.rsk.core.Coin;
 import co.rsk.core.RskAddress;
 import co.rsk.crypto.Keccak256;
+import co.rsk.metrics.MetricRegistry;
 import co.rsk.net.handler.TxPendingValidator;
 import co.rsk.trie.Trie;
 import co.rsk.trie.TrieImpl;
@@ -39,10 +40,7 @@ import org.slf4j.LoggerFactory;
 
 import java.math.BigInteger;
 import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 
 import static org.ethereum.util.BIUtil.toBI;
 
@@ -53,6 +51,9 @@ public class TransactionPoolImpl implements TransactionPool {
     private static final Logger logger = LoggerFactory.getLogger("txpool");
     private static final byte[] emptyUncleHashList = HashUtil.keccak256(RLP.encodeList(new byte[0]));
 
+    // the stateless checks of smaller lists run in the calling thread
+    private static final int PARALLEL_VALIDATION_THRESHOLD = 16;
+
     private final TransactionSet pendingTransactions = new TransactionSet();
     private final TransactionSet queuedTransactions = new TransactionSet();
 
@@ -71,7 +72,10 @@ public class TransactionPoolImpl implements TransactionPool {
     private ScheduledExecutorService cleanerTimer;
     private ScheduledFuture<?> cleanerFuture;
 
-    private Block bestBlock;
+    private final int validationWorkers;
+    private final ExecutorService validationExecutor;
+
+    private volatile Block bestBlock;
 
     private Repository poolRepository;
     private final TxPendingValidator validator;
@@ -112,9 +116,24 @@ public class TransactionPoolImpl implements TransactionPool {
         this.poolRepository = repository.startTracking();
         this.validator = new TxPendingValidator(config);
 
+        // the sizes are read without the pool lock, held while the pending transactions are executed again
+        MetricRegistry.getDefault().gauge("transaction_pool_pending", "Pending transactions in the pool", pendingTransactions::size);
+        MetricRegistry.getDefault().gauge("transaction_pool_queued", "Queued transactions in the pool", queuedTransactions::size);
+
         if (this.outdatedTimeout > 0) {
             this.cleanerTimer = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "TransactionPoolCleanerTimer"));
         }
+
+        // the threads are only created for big lists, and end when idle
+        this.validationWorkers = Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(validationWorkers, validationWorkers, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "TransactionPoolValidator");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        this.validationExecutor = executor;
     }
 
     @Override
@@ -155,12 +174,22 @@ public class TransactionPoolImpl implements TransactionPool {
     @Override
     public synchronized Repository getRepository() { return this.poolRepository; }
 
+    /**
+     * Adds the transactions in two stages. The stateless checks and the sender recovery
+     * run first, in parallel for big lists, without taking the pool lock.
+     * Then the transactions that passed them are added under the lock, checking only
+     * the nonce and balance against the sender account.
+     */
     @Override
-    public synchronized List<Transaction> addTransactions(final List<Transaction> txs) {
+    public List<Transaction> addTransactions(final List<Transaction> txs) {
+        return addStatelessValidTransactions(filterStatelessValid(txs));
+    }
+
+    private synchronized List<Transaction> addStatelessValidTransactions(List<Transaction> txs) {
         List<Transaction> added = new ArrayList<>();
 
         for (Transaction tx : txs) {
-            if (this.addTransaction(tx)) {
+            if (this.addTransaction(tx, true)) {
                 added.add(tx);
 
                 Optional<Transaction> succesor = this.getQueuedSuccesor(tx);
@@ -169,7 +198,7 @@ public class TransactionPoolImpl implements TransactionPool {
                     Transaction found = succesor.get();
                     queuedTransactions.removeTransactionByHash(found.getHash());
 
-                    if (!this.addTransaction(found)) {
+                    if (!this.addTransaction(found, true)) {
                         break;
                     }
 
@@ -205,9 +234,85 @@ public class TransactionPoolImpl implements TransactionPool {
                 .findFirst();
     }
 
+    private List<Transaction> filterStatelessValid(List<Transaction> txs) {
+        Block block = bestBlock;
+
+        if (block == null || txs.isEmpty()) {
+            return txs;
+        }
+
+        List<Transaction> candidates = new ArrayList<>(txs);
+        boolean[] valid = new boolean[candidates.size()];
+
+        if (candidates.size() < PARALLEL_VALIDATION_THRESHOLD) {
+            for (int k = 0; k < valid.length; k++) {
+                valid[k] = isStatelessValid(candidates.get(k), block);
+            }
+        } else if (!validateInParallel(candidates, block, valid)) {
+            return Collections.emptyList();
+        }
+
+        List<Transaction> result = new ArrayList<>(candidates.size());
+
+        for (int k = 0; k < valid.length; k++) {
+            if (valid[k]) {
+                result.add(candidates.get(k));
+            }
+        }
+
+        return result;
+    }
+
+    private boolean validateInParallel(List<Transaction> txs, Block block, boolean[] valid) {
+        int tasks = Math.min(validationWorkers, txs.size());
+        List<Callable<Void>> validations = new ArrayList<>(tasks);
+
+        for (int task = 0; task < tasks; task++) {
+            int first = task;
+
+            validations.add(() -> {
+                for (int k = first; k < valid.length; k += tasks) {
+                    valid[k] = isStatelessValid(txs.get(k), block);
+                }
+
+                return null;
+            });
+        }
+
+        try {
+            // the futures complete before invokeAll returns, so the results are visible here
+            validationExecutor.invokeAll(validations);
+            return true;
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while validating {} transactions", txs.size());
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean isStatelessValid(Transaction tx, Block block) {
+        try {
+            if (!validator.isStatelessValid(tx, block)) {
+                return false;
+            }
+
+            // recovers the sender out of the lock, it is needed to get the account state
+            tx.getSender();
+
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Transaction failed the stateless checks", e);
+            return false;
+        }
+    }
+
     @Override
     public synchronized boolean addTransaction(final Transaction tx) {
-        if (!shouldAcceptTx(tx)) {
+        return addTransaction(tx, false);
+    }
+
+    private boolean addTransaction(final Transaction tx, boolean statelessValid) {
+        if (!shouldAcceptTx(tx, statelessValid)) {
             return false;
         }
 
@@ -458,13 +563,17 @@ public class TransactionPoolImpl implements TransactionPool {
                             ByteUtil.bigIntegerToBytes(BigInteger.ZERO)); //minimum gas price
     }
 
-    private boolean shouldAcceptTx(Transaction tx) {
+    private boolean shouldAcceptTx(Transaction tx, boolean statelessValid) {
         if (bestBlock == null) {
             return true;
         }
 
+        if (!statelessValid && !validator.isStatelessValid(tx, bestBlock)) {
+            return false;
+        }
+
         AccountState state = repository.getAccountState(tx.getSender());
-        return validator.isValid(tx, bestBlock, state);
+        return validator.isStatefulValid(tx, bestBlock, state);
     }
 
     /**
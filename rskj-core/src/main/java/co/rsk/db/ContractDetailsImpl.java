@@ -63,6 +63,8 @@ public class ContractDetailsImpl implements ContractDetails {
     private boolean externalStorage;
     private boolean closed;
     private Set<ByteArrayWrapper> keys = new HashSet<>();
+    // the keys are shared with the snapshots, and copied on the first change
+    private boolean sharedKeys;
 
     public ContractDetailsImpl(RskSystemProperties config, byte[] encoded) {
         this.config = config;
@@ -259,6 +261,17 @@ public class ContractDetailsImpl implements ContractDetails {
         return result;
     }
 
+    /**
+     * Iterates the storage cells with a key hash in [from, to), ordered by key hash,
+     * loading the storage trie nodes only when they are needed
+     */
+    @Override
+    public synchronized Iterator<Map.Entry<byte[], byte[]>> getStorageRange(@Nullable byte[] from, @Nullable byte[] to) {
+        checkDataSourceIsOpened();
+
+        return this.trie.iterator(from, to);
+    }
+
     @Override
     public synchronized Map<DataWord, DataWord> getStorage(@Nullable Collection<DataWord> keys) {
         Map<DataWord, DataWord> storage = new HashMap<>();
@@ -367,9 +380,16 @@ public class ContractDetailsImpl implements ContractDetails {
 
         this.trie.save();
 
-        ContractDetailsImpl details = new ContractDetailsImpl(this.config, this.address, this.trie.getSnapshotTo(new Keccak256(hash)), this.code);
-        details.keys = new HashSet<>();
-        details.keys.addAll(this.keys);
+        // the tries are immutable, a snapshot to the current root shares it
+        Keccak256 snapshotHash = new Keccak256(hash);
+        Trie snapshotTrie = this.trie.getHash().equals(snapshotHash) ? this.trie : this.trie.getSnapshotTo(snapshotHash);
+
+        ContractDetailsImpl details = new ContractDetailsImpl(this.config, this.address, snapshotTrie, null);
+        // the code is never changed in place
+        details.code = this.code;
+        details.keys = this.keys;
+        details.sharedKeys = true;
+        this.sharedKeys = true;
         details.externalStorage = this.externalStorage;
         details.originalExternalStorage = this.originalExternalStorage;
 
@@ -396,11 +416,20 @@ public class ContractDetailsImpl implements ContractDetails {
     }
 
     private void addKey(byte[] key) {
-        keys.add(wrap(key));
+        getOwnKeys().add(wrap(key));
     }
 
     private void removeKey(byte[] key) {
-        keys.remove(wrap(key));
+        getOwnKeys().remove(wrap(key));
+    }
+
+    private Set<ByteArrayWrapper> getOwnKeys() {
+        if (sharedKeys) {
+            keys = new HashSet<>(keys);
+            sharedKeys = false;
+        }
+
+        return keys;
     }
 
     private void checkExternalStorage() {
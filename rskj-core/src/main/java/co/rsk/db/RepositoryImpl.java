@@ -22,6 +22,7 @@ import co.rsk.config.RskSystemProperties;
 import co.rsk.core.Coin;
 import co.rsk.core.RskAddress;
 import co.rsk.crypto.Keccak256;
+import co.rsk.metrics.MetricRegistry;
 import co.rsk.trie.Trie;
 import co.rsk.trie.TrieImpl;
 import co.rsk.trie.TrieStore;
@@ -39,9 +40,11 @@ import org.slf4j.LoggerFactory;
 import org.spongycastle.util.encoders.Hex;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -72,6 +75,10 @@ public class RepositoryImpl implements Repository {
 
     public RepositoryImpl(RskSystemProperties config, TrieStore store, KeyValueDataSource detailsDS) {
         this(config, store, new DetailsDataStore(config, new DatabaseImpl(detailsDS)));
+
+        MetricRegistry registry = MetricRegistry.getDefault();
+        registry.gauge("details_cache_bytes", "Estimated size of the contract details in memory", this.detailsDataStore::getCacheSize);
+        registry.gauge("details_cache_entries", "Contract details in memory", this.detailsDataStore::getCachedDetailsCount);
     }
 
     private RepositoryImpl(RskSystemProperties config, TrieStore store, DetailsDataStore detailsDataStore) {
@@ -142,18 +149,23 @@ public class RepositoryImpl implements Repository {
         // That part is important cause if we have
         // to sync details storage according the trie root
         // saved in the account
-        AccountState accountState = getAccountState(addr);
-        byte[] storageRoot = EMPTY_TRIE_HASH;
-        if (accountState != null) {
-            storageRoot = getAccountState(addr).getStateRoot();
-        }
+        byte[] storageRoot = getStorageRoot(addr);
+        ContractDetails details = detailsDataStore.getSnapshot(addr, storageRoot);
 
-        ContractDetails details =  detailsDataStore.get(addr);
-        if (details != null) {
-            details = details.getSnapshotTo(storageRoot);
-        }
+        // the snapshot is shared by the reads, the caller gets its own copy, which shares its trie and code
+        return details == null ? null : details.getSnapshotTo(storageRoot);
+    }
+
+    /**
+     * Returns the details of the address to be read, without copying them
+     */
+    private ContractDetails getContractDetailsToRead(RskAddress addr) {
+        return detailsDataStore.getSnapshot(addr, getStorageRoot(addr));
+    }
 
-        return  details;
+    private byte[] getStorageRoot(RskAddress addr) {
+        AccountState accountState = getAccountState(addr);
+        return accountState == null ? EMPTY_TRIE_HASH : accountState.getStateRoot();
     }
 
     @Override
@@ -191,7 +203,7 @@ public class RepositoryImpl implements Repository {
             return EMPTY_BYTE_ARRAY;
         }
 
-        ContractDetails details = getContractDetails(addr);
+        ContractDetails details = getContractDetailsToRead(addr);
         return (details == null) ? null : details.getCode();
     }
 
@@ -224,13 +236,13 @@ public class RepositoryImpl implements Repository {
 
     @Override
     public synchronized DataWord getStorageValue(RskAddress addr, DataWord key) {
-        ContractDetails details = getContractDetails(addr);
+        ContractDetails details = getContractDetailsToRead(addr);
         return (details == null) ? null : details.get(key);
     }
 
     @Override
     public synchronized byte[] getStorageBytes(RskAddress addr, DataWord key) {
-        ContractDetails details = getContractDetails(addr);
+        ContractDetails details = getContractDetailsToRead(addr);
         return (details == null) ? null : details.getBytes(key);
     }
 
@@ -263,6 +275,11 @@ public class RepositoryImpl implements Repository {
         return result;
     }
 
+    @Override
+    public synchronized Iterator<Map.Entry<byte[], byte[]>> getAccountsRange(@Nullable byte[] from, @Nullable byte[] to) {
+        return this.trie.iterator(from, to);
+    }
+
     @Override
     public synchronized void dumpState(Block block, long gasUsed, int txNumber, byte[] txHash) {
         // To be implemented
@@ -280,7 +297,7 @@ public class RepositoryImpl implements Repository {
         }
 
         if (this.store != null) {
-            this.trie.save();
+            this.trie.save(config.getTrieParallelCommitThreshold());
         }
     }
 
@@ -368,7 +385,7 @@ public class RepositoryImpl implements Repository {
     @Override
     public synchronized byte[] getRoot() {
         if (this.trie.hasStore()) {
-            this.trie.save();
+            this.trie.save(config.getTrieParallelCommitThreshold());
         }
 
         byte[] rootHash = this.trie.getHash().getBytes();
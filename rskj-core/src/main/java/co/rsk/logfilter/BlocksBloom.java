@@ -0,0 +1,59 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.logfilter;
+
+import co.rsk.crypto.Keccak256;
+import org.ethereum.core.Bloom;
+
+/**
+ * The aggregated bloom of the logs of a section of consecutive blocks of the main chain.
+ * If it doesn't match a filter, none of the blocks of the section do.
+ *
+ * The hash of the last block identifies the chain of the section, it is valid
+ * while that block is in the main chain.
+ */
+public class BlocksBloom {
+    private final long fromNumber;
+    private final long toNumber;
+    private final Keccak256 toHash;
+    private final Bloom bloom;
+
+    public BlocksBloom(long fromNumber, long toNumber, Keccak256 toHash, Bloom bloom) {
+        this.fromNumber = fromNumber;
+        this.toNumber = toNumber;
+        this.toHash = toHash;
+        this.bloom = bloom;
+    }
+
+    public long fromNumber() {
+        return fromNumber;
+    }
+
+    public long toNumber() {
+        return toNumber;
+    }
+
+    public Keccak256 toHash() {
+        return toHash;
+    }
+
+    public Bloom getBloom() {
+        return bloom;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.logfilter;
+
+import org.ethereum.core.Block;
+import org.ethereum.core.Blockchain;
+import org.ethereum.core.Bloom;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the blooms of the sections of the main chain, so the log queries over a range
+ * of blocks skip the sections that don't match them, without reading their blocks.
+ *
+ * The section blooms are built from the blocks read by the queries that cover a whole section.
+ * A section bloom is discarded when its last block leaves the main chain.
+ */
+public class BlocksBloomStore {
+    public static final int BLOCKS_PER_SECTION = 64;
+
+    private final Blockchain blockchain;
+    private final int blocksPerSection;
+    private final Map<Long, BlocksBloom> blocksBlooms = new ConcurrentHashMap<>();
+
+    public BlocksBloomStore(Blockchain blockchain) {
+        this(blockchain, BLOCKS_PER_SECTION);
+    }
+
+    public BlocksBloomStore(Blockchain blockchain, int blocksPerSection) {
+        this.blockchain = blockchain;
+        this.blocksPerSection = blocksPerSection;
+    }
+
+    public long firstNumberInSection(long number) {
+        return number - number % blocksPerSection;
+    }
+
+    public long lastNumberInSection(long number) {
+        return firstNumberInSection(number) + blocksPerSection - 1;
+    }
+
+    /**
+     * @return the bloom of the section of the block number, or null if it was not built
+     * or the main chain changed since.
+     */
+    public BlocksBloom getBlocksBloom(long number) {
+        long fromNumber = firstNumberInSection(number);
+        BlocksBloom blocksBloom = blocksBlooms.get(fromNumber);
+
+        if (blocksBloom == null) {
+            return null;
+        }
+
+        Block toBlock = blockchain.getBlockByNumber(blocksBloom.toNumber());
+
+        if (toBlock == null || !toBlock.getHash().equals(blocksBloom.toHash())) {
+            blocksBlooms.remove(fromNumber, blocksBloom);
+            return null;
+        }
+
+        return blocksBloom;
+    }
+
+    /**
+     * Builds and keeps the bloom of a section from its blocks, in order.
+     *
+     * @return the bloom of the section, or null if the blocks are not one chain,
+     * as when the main chain changed while they were read
+     */
+    public BlocksBloom addBlocks(List<Block> blocks) {
+        Block fromBlock = blocks.get(0);
+        Block toBlock = blocks.get(blocks.size() - 1);
+
+        if (blocks.size() != blocksPerSection || fromBlock == null || fromBlock.getNumber() != firstNumberInSection(fromBlock.getNumber())) {
+            throw new IllegalArgumentException("The blocks are not a whole section");
+        }
+
+        Bloom bloom = new Bloom();
+        Block parent = null;
+
+        for (Block block : blocks) {
+            if (block == null || (parent != null && !parent.getHash().equals(block.getParentHash()))) {
+                return null;
+            }
+
+            bloom.or(new Bloom(block.getLogBloom()));
+            parent = block;
+        }
+
+        BlocksBloom blocksBloom = new BlocksBloom(fromBlock.getNumber(), toBlock.getNumber(), toBlock.getHash(), bloom);
+        blocksBlooms.put(blocksBloom.fromNumber(), blocksBloom);
+
+        return blocksBloom;
+    }
+
+    public int size() {
+        return blocksBlooms.size();
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package co.rsk.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A value read from its source when the metrics are collected, like the size of a queue
+ */
+public class Gauge extends Metric {
+    private final LongSupplier value;
+
+    Gauge(String name, String help, LongSupplier value) {
+        super(name, help, null, null);
+        this.value = value;
+    }
+
+    public long get() {
+        return value.getAsLong();
+    }
+}
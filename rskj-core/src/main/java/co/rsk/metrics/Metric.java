@@ -0,0 +1,55 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package co.rsk.metrics;
+
+/**
+ * A named measure of the node, with an optional label
+ */
+public abstract class Metric {
+    private final String name;
+    private final String help;
+    private final String labelName;
+    private final String labelValue;
+
+    protected Metric(String name, String help, String labelName, String labelValue) {
+        this.name = name;
+        this.help = help;
+        this.labelName = labelName;
+        this.labelValue = labelValue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public String getLabelName() {
+        return labelName;
+    }
+
+    public String getLabelValue() {
+        return labelValue;
+    }
+
+    public boolean hasLabel() {
+        return labelName != null;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package co.rsk.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the metrics of the node by name and label.
+ *
+ * The components get their metrics once, usually into a static field, and update them without locks.
+ * Getting a metric that already exists returns the same instance, while registering a gauge
+ * again replaces its source, as when a component is created again.
+ */
+public class MetricRegistry {
+    private static final MetricRegistry DEFAULT = new MetricRegistry();
+
+    private final ConcurrentNavigableMap<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+    public static MetricRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public Counter counter(String name, String help) {
+        return counter(name, help, null, null);
+    }
+
+    public Counter counter(String name, String help, String labelName, String labelValue) {
+        return (Counter) metrics.computeIfAbsent(keyOf(name, labelName, labelValue),
+                key -> new Counter(name, help, labelName, labelValue));
+    }
+
+    public Histogram histogram(String name, String help) {
+        return histogram(name, help, null, null);
+    }
+
+    public Histogram histogram(String name, String help, String labelName, String labelValue) {
+        return (Histogram) metrics.computeIfAbsent(keyOf(name, labelName, labelValue),
+                key -> new Histogram(name, help, labelName, labelValue));
+    }
+
+    public Gauge gauge(String name, String help, LongSupplier value) {
+        Gauge gauge = new Gauge(name, help, value);
+        metrics.put(keyOf(name, null, null), gauge);
+        return gauge;
+    }
+
+    /**
+     * Returns the metrics sorted by name, with the ones of the same name together
+     */
+    public List<Metric> getMetrics() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    private static String keyOf(String name, String labelName, String labelValue) {
+        if (labelName == null) {
+            return name;
+        }
+
+        // the separator sorts before any character of a metric name
+        return name + " " + labelName + "=" + labelValue;
+    }
+}
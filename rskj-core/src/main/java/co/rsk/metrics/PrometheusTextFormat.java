@@ -0,0 +1,117 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package co.rsk.metrics;
+
+import java.util.Locale;
+
+/**
+ * Writes the metrics in the Prometheus text exposition format.
+ *
+ * Counters and gauges are written as they are, and histograms as summaries in seconds,
+ * with the 0.5, 0.9 and 0.99 quantiles.
+ */
+public class PrometheusTextFormat {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final String PREFIX = "rsk_";
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private PrometheusTextFormat() {
+    }
+
+    public static String write(MetricRegistry registry) {
+        StringBuilder text = new StringBuilder();
+        String lastName = null;
+
+        for (Metric metric : registry.getMetrics()) {
+            String name = PREFIX + metric.getName();
+
+            if (!name.equals(lastName)) {
+                text.append("# HELP ").append(name).append(' ').append(metric.getHelp()).append('\n');
+                text.append("# TYPE ").append(name).append(' ').append(typeOf(metric)).append('\n');
+                lastName = name;
+            }
+
+            if (metric instanceof Counter) {
+                writeSample(text, name, metric, null, ((Counter) metric).get());
+            } else if (metric instanceof Gauge) {
+                writeSample(text, name, metric, null, ((Gauge) metric).get());
+            } else if (metric instanceof Histogram) {
+                Histogram histogram = (Histogram) metric;
+
+                for (double quantile : QUANTILES) {
+                    writeSample(text, name, metric, quantile, histogram.getPercentile(quantile) / NANOS_PER_SECOND);
+                }
+
+                writeSample(text, name + "_sum", metric, null, histogram.getSum() / NANOS_PER_SECOND);
+                writeSample(text, name + "_count", metric, null, histogram.getCount());
+            }
+        }
+
+        return text.toString();
+    }
+
+    private static String typeOf(Metric metric) {
+        if (metric instanceof Counter) {
+            return "counter";
+        }
+
+        if (metric instanceof Histogram) {
+            return "summary";
+        }
+
+        return "gauge";
+    }
+
+    private static void writeSample(StringBuilder text, String name, Metric metric, Double quantile, Object value) {
+        text.append(name);
+
+        if (metric.hasLabel() || quantile != null) {
+            text.append('{');
+
+            if (metric.hasLabel()) {
+                text.append(metric.getLabelName()).append("=\"").append(escape(metric.getLabelValue())).append('"');
+            }
+
+            if (quantile != null) {
+                if (metric.hasLabel()) {
+                    text.append(',');
+                }
+
+                text.append("quantile=\"").append(quantile).append('"');
+            }
+
+            text.append('}');
+        }
+
+        text.append(' ');
+
+        if (value instanceof Double) {
+            text.append(String.format(Locale.ROOT, "%.9f", (Double) value));
+        } else {
+            text.append(value);
+        }
+
+        text.append('\n');
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
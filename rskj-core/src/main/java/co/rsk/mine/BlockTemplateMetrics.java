@@ -0,0 +1,92 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.mine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of the blocks to mine built by BlockToMineBuilder,
+ * separating the full builds, that execute all the transactions,
+ * from the incremental builds, that only execute the newly arrived transactions.
+ */
+public class BlockTemplateMetrics {
+    private final BuildMetrics fullBuilds = new BuildMetrics();
+    private final BuildMetrics incrementalBuilds = new BuildMetrics();
+    private final LongAdder appendedTransactions = new LongAdder();
+    private final AtomicLong lastBuildNanos = new AtomicLong();
+
+    public void fullBuild(long nanos) {
+        fullBuilds.add(nanos);
+        lastBuildNanos.set(nanos);
+    }
+
+    /**
+     * Registers a block built on top of the current template
+     *
+     * @param transactions  the number of transactions appended to the template
+     * @param nanos         the time the build took
+     */
+    public void incrementalBuild(int transactions, long nanos) {
+        incrementalBuilds.add(nanos);
+        appendedTransactions.add(transactions);
+        lastBuildNanos.set(nanos);
+    }
+
+    public BuildMetrics getFullBuilds() {
+        return fullBuilds;
+    }
+
+    public BuildMetrics getIncrementalBuilds() {
+        return incrementalBuilds;
+    }
+
+    public long getAppendedTransactions() {
+        return appendedTransactions.sum();
+    }
+
+    public long getLastBuildNanos() {
+        return lastBuildNanos.get();
+    }
+
+    public static class BuildMetrics {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getAverageNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / n;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+    }
+}
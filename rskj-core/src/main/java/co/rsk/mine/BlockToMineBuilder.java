@@ -20,11 +20,14 @@ package co.rsk.mine;
 
 import co.rsk.config.MiningConfig;
 import co.rsk.config.RskSystemProperties;
+import co.rsk.core.BlockDifficulty;
 import co.rsk.core.Coin;
 import co.rsk.core.DifficultyCalculator;
 import co.rsk.core.RskAddress;
 import co.rsk.core.bc.BlockExecutor;
+import co.rsk.core.bc.BlockResult;
 import co.rsk.core.bc.FamilyUtils;
+import co.rsk.crypto.Keccak256;
 import co.rsk.remasc.RemascTransaction;
 import co.rsk.validators.BlockValidationRule;
 import org.apache.commons.collections4.CollectionUtils;
@@ -66,8 +69,11 @@ public class BlockToMineBuilder {
 
     private final Coin minerMinGasPriceTarget;
 
+    private final BlockTemplateMetrics metrics = new BlockTemplateMetrics();
+
     private long timeAdjustment;
     private long minimumAcceptableTime;
+    private volatile BlockTemplate template;
 
     @Autowired
     public BlockToMineBuilder(
@@ -98,11 +104,18 @@ public class BlockToMineBuilder {
 
     /**
      * build creates a block to mine based on the given block as parent.
+     * <p>
+     * The regular transactions executed for the previous block to mine are kept as a template.
+     * When the parent is the same, the newly arrived transactions are executed on top of the template,
+     * reusing its timestamp, unless the difficulty for the current time changed.
+     * Otherwise all the pending transactions are executed from the parent state.
      *
      * @param newBlockParent the new block parent.
      * @param extraData      extra data to pass to the block being built
      */
     public Block build(Block newBlockParent, byte[] extraData) {
+        long buildStart = System.nanoTime();
+
         List<BlockHeader> uncles = FamilyUtils.getUnclesHeaders(
                 blockStore,
                 newBlockParent.getNumber() + 1,
@@ -120,26 +133,74 @@ public class BlockToMineBuilder {
                 minerMinGasPriceTarget
         );
 
-        final List<Transaction> txsToRemove = new ArrayList<>();
-        final List<Transaction> txs = getTransactions(txsToRemove, newBlockParent, minimumGasPrice);
         minimumAcceptableTime = newBlockParent.getTimestamp() + 1;
+        long timestampSeconds = this.getCurrentTimeInSeconds();
+
+        BlockTemplate current = this.template;
+        boolean incremental = current != null && current.isExtensibleTo(
+                newBlockParent,
+                createHeader(newBlockParent, uncles, Collections.emptyList(), minimumGasPrice, timestampSeconds).getDifficulty()
+        );
+
+        final List<Transaction> txsToRemove = new ArrayList<>();
+        final List<Transaction> newTxs;
+        final BlockResult previous;
+        final Set<Keccak256> knownTxs = new HashSet<>();
+
+        if (incremental) {
+            // the executed transactions have seen the template timestamp
+            timestampSeconds = current.timestamp;
+            previous = current.result;
+            knownTxs.addAll(current.knownTxs);
+            newTxs = getNewTransactions(txsToRemove, current, minimumGasPrice);
+        } else {
+            previous = new BlockResult(Collections.emptyList(), Collections.emptyList(), newBlockParent.getStateRoot(), 0, Coin.ZERO);
+            newTxs = getTransactions(txsToRemove, newBlockParent, minimumGasPrice);
+        }
+
+        Transaction remascTx = new RemascTransaction(newBlockParent.getNumber() + 1);
+
+        final List<Transaction> txs = new ArrayList<>(previous.getExecutedTransactions());
+        txs.addAll(newTxs);
+        txs.add(remascTx);
 
-        final Block newBlock = createBlock(newBlockParent, uncles, txs, minimumGasPrice);
+        final Block newBlock = createBlock(newBlockParent, uncles, txs, minimumGasPrice, timestampSeconds);
 
         newBlock.setExtraData(extraData);
         removePendingTransactions(txsToRemove);
-        executor.executeAndFill(newBlock, newBlockParent);
+
+        BlockResult result = executor.executeAfter(newBlock, newTxs, previous);
+
+        for (Transaction tx : newTxs) {
+            knownTxs.add(tx.getHash());
+        }
+
+        this.template = new BlockTemplate(newBlockParent.getHash(), timestampSeconds, newBlock.getDifficulty(), result, knownTxs);
+
+        executor.fill(newBlock, executor.executeAfter(newBlock, Collections.singletonList(remascTx), result));
+
+        long buildNanos = System.nanoTime() - buildStart;
+
+        if (incremental) {
+            metrics.incrementalBuild(newTxs.size(), buildNanos);
+        } else {
+            metrics.fullBuild(buildNanos);
+        }
+
+        logger.debug("Block to mine built in {} us, {} transaction(s) executed, incremental {}", buildNanos / 1000, newTxs.size(), incremental);
+
         return newBlock;
     }
 
+    public BlockTemplateMetrics getMetrics() {
+        return metrics;
+    }
+
     private List<Transaction> getTransactions(List<Transaction> txsToRemove, Block parent, Coin minGasPrice) {
         logger.debug("getting transactions from pending state");
         List<Transaction> txs = minerUtils.getAllTransactions(transactionPool);
         logger.debug("{} transaction(s) collected from pending state", txs.size());
 
-        Transaction remascTx = new RemascTransaction(parent.getNumber() + 1);
-        txs.add(remascTx);
-
         Map<RskAddress, BigInteger> accountNonces = new HashMap<>();
 
         Repository originalRepo = repository.getSnapshotTo(parent.getStateRoot());
@@ -147,6 +208,26 @@ public class BlockToMineBuilder {
         return minerUtils.filterTransactions(txsToRemove, txs, accountNonces, originalRepo, minGasPrice);
     }
 
+    private List<Transaction> getNewTransactions(List<Transaction> txsToRemove, BlockTemplate template, Coin minGasPrice) {
+        logger.debug("getting new transactions from pending state");
+        List<Transaction> txs = new ArrayList<>();
+
+        for (Transaction tx : minerUtils.getAllTransactions(transactionPool)) {
+            if (!template.knownTxs.contains(tx.getHash())) {
+                txs.add(tx);
+            }
+        }
+
+        logger.debug("{} new transaction(s) collected from pending state", txs.size());
+
+        Map<RskAddress, BigInteger> accountNonces = new HashMap<>();
+
+        // the template state has the nonces after its transactions
+        Repository templateRepo = repository.getSnapshotTo(template.result.getStateRoot());
+
+        return minerUtils.filterTransactions(txsToRemove, txs, accountNonces, templateRepo, minGasPrice);
+    }
+
     private void removePendingTransactions(List<Transaction> transactions) {
         transactionPool.removeTransactions(transactions);
     }
@@ -155,8 +236,9 @@ public class BlockToMineBuilder {
             Block newBlockParent,
             List<BlockHeader> uncles,
             List<Transaction> txs,
-            Coin minimumGasPrice) {
-        final BlockHeader newHeader = createHeader(newBlockParent, uncles, txs, minimumGasPrice);
+            Coin minimumGasPrice,
+            long timestampSeconds) {
+        final BlockHeader newHeader = createHeader(newBlockParent, uncles, txs, minimumGasPrice, timestampSeconds);
         final Block newBlock = new Block(newHeader, txs, uncles);
         return validationRules.isValid(newBlock) ? newBlock : new Block(newHeader, txs, null);
     }
@@ -165,11 +247,10 @@ public class BlockToMineBuilder {
             Block newBlockParent,
             List<BlockHeader> uncles,
             List<Transaction> txs,
-            Coin minimumGasPrice) {
+            Coin minimumGasPrice,
+            long timestampSeconds) {
         final byte[] unclesListHash = HashUtil.keccak256(BlockHeader.getUnclesEncodedEx(uncles));
 
-        final long timestampSeconds = this.getCurrentTimeInSeconds();
-
         // Set gas limit before executing block
         BigInteger minGasLimit = BigInteger.valueOf(miningConfig.getGasLimit().getMininimum());
         BigInteger targetGasLimit = BigInteger.valueOf(miningConfig.getGasLimit().getTarget());
@@ -214,6 +295,33 @@ public class BlockToMineBuilder {
         }
 
         timeAdjustment += seconds;
+        // the next block to mine is built with the new time
+        template = null;
         return timeAdjustment;
     }
+
+    /**
+     * The parent, timestamp, difficulty and regular transactions of the last block to mine,
+     * the remasc transaction is executed on top of it for each block
+     */
+    private static final class BlockTemplate {
+        private final Keccak256 parentHash;
+        private final long timestamp;
+        private final BlockDifficulty difficulty;
+        private final BlockResult result;
+        // the executed and discarded transactions, to not execute them again
+        private final Set<Keccak256> knownTxs;
+
+        private BlockTemplate(Keccak256 parentHash, long timestamp, BlockDifficulty difficulty, BlockResult result, Set<Keccak256> knownTxs) {
+            this.parentHash = parentHash;
+            this.timestamp = timestamp;
+            this.difficulty = difficulty;
+            this.result = result;
+            this.knownTxs = knownTxs;
+        }
+
+        private boolean isExtensibleTo(Block parent, BlockDifficulty currentDifficulty) {
+            return parentHash.equals(parent.getHash()) && difficulty.equals(currentDifficulty);
+        }
+    }
 }
@@ -723,6 +723,11 @@ public class MinerServerImpl implements MinerServer {
         return Optional.ofNullable(latestBlock);
     }
 
+    @Override
+    public BlockTemplateMetrics getBlockTemplateMetrics() {
+        return builder.getMetrics();
+    }
+
     @Override
     @VisibleForTesting
     public long getCurrentTimeInSeconds() {
@@ -70,7 +70,7 @@ public class BlockNodeInformation {
      * @param blockHash the block hash.
      * @param nodeID    the node to add the block to.
      */
-    public void addBlockToNode(@Nonnull final Keccak256 blockHash, @Nonnull final NodeID nodeID) {
+    public synchronized void addBlockToNode(@Nonnull final Keccak256 blockHash, @Nonnull final NodeID nodeID) {
         Set<Keccak256> nodeBlocks = blocksByNode.get(nodeID);
         if (nodeBlocks == null) {
             // Create a new empty LRUCache for the blocks that a node know.
@@ -104,12 +104,13 @@ public class BlockNodeInformation {
      * @return all the blocks known by the given nodeID.
      */
     @Nonnull
-    public Set<Keccak256> getBlocksByNode(@Nonnull final NodeID nodeID) {
+    public synchronized Set<Keccak256> getBlocksByNode(@Nonnull final NodeID nodeID) {
         Set<Keccak256> result = blocksByNode.get(nodeID);
         if (result == null) {
             result = new HashSet<>();
         }
-        return Collections.unmodifiableSet(result);
+        // a copy, the sets are updated by the message lanes
+        return Collections.unmodifiableSet(new HashSet<>(result));
     }
 
     /**
@@ -119,12 +120,12 @@ public class BlockNodeInformation {
      * @return A set containing all the nodes that have that block.
      */
     @Nonnull
-    public Set<NodeID> getNodesByBlock(@Nonnull final Keccak256 blockHash) {
+    public synchronized Set<NodeID> getNodesByBlock(@Nonnull final Keccak256 blockHash) {
         Set<NodeID> result = nodesByBlock.get(blockHash);
         if (result == null) {
             result = new HashSet<>();
         }
-        return Collections.unmodifiableSet(result);
+        return Collections.unmodifiableSet(new HashSet<>(result));
     }
 
     /**
@@ -34,4 +34,6 @@ public interface MessageHandler {
     void stop();
 
     long getMessageQueueSize();
+
+    MessageQueueMetrics getMessageQueueMetrics();
 }
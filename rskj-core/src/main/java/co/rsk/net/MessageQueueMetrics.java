@@ -0,0 +1,133 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.net;
+
+import co.rsk.net.messages.MessageType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue depth and latency of the messages handled by NodeMessageHandler, by message type.
+ * The counters are updated from the network threads and the message lanes without locking.
+ */
+public class MessageQueueMetrics {
+    private final Map<MessageType, TypeMetrics> metrics;
+
+    public MessageQueueMetrics() {
+        Map<MessageType, TypeMetrics> map = new EnumMap<>(MessageType.class);
+
+        for (MessageType type : MessageType.values()) {
+            map.put(type, new TypeMetrics());
+        }
+
+        this.metrics = Collections.unmodifiableMap(map);
+    }
+
+    public void messageQueued(MessageType type) {
+        TypeMetrics typeMetrics = metrics.get(type);
+        typeMetrics.depth.incrementAndGet();
+        typeMetrics.queued.increment();
+    }
+
+    /**
+     * Registers a message that could not be added to its queue, because the queue was full
+     *
+     * @param type  the message type
+     */
+    public void messageDropped(MessageType type) {
+        TypeMetrics typeMetrics = metrics.get(type);
+        typeMetrics.depth.decrementAndGet();
+        typeMetrics.queued.decrement();
+        typeMetrics.dropped.increment();
+    }
+
+    /**
+     * Registers a message taken from its queue and processed
+     *
+     * @param type          the message type
+     * @param waitNanos     the time the message was waiting in the queue
+     * @param processNanos  the time the message processing took
+     */
+    public void messageProcessed(MessageType type, long waitNanos, long processNanos) {
+        TypeMetrics typeMetrics = metrics.get(type);
+        typeMetrics.depth.decrementAndGet();
+        typeMetrics.processed.increment();
+        typeMetrics.waitNanos.add(waitNanos);
+        typeMetrics.processNanos.add(processNanos);
+        typeMetrics.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    public TypeMetrics getMetrics(MessageType type) {
+        return metrics.get(type);
+    }
+
+    public Map<MessageType, TypeMetrics> getMetrics() {
+        return metrics;
+    }
+
+    public static class TypeMetrics {
+        private final AtomicLong depth = new AtomicLong();
+        private final LongAdder queued = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder processNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        /**
+         * @return the number of messages currently waiting in the queue
+         */
+        public long getDepth() {
+            return depth.get();
+        }
+
+        public long getQueued() {
+            return queued.sum();
+        }
+
+        /**
+         * @return the number of messages discarded because their lane was full
+         */
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        public long getProcessed() {
+            return processed.sum();
+        }
+
+        public long getAverageWaitNanos() {
+            long count = processed.sum();
+            return count == 0 ? 0 : waitNanos.sum() / count;
+        }
+
+        public long getAverageProcessNanos() {
+            long count = processed.sum();
+            return count == 0 ? 0 : processNanos.sum() / count;
+        }
+
+        public long getMaxWaitNanos() {
+            return maxWaitNanos.get();
+        }
+    }
+}
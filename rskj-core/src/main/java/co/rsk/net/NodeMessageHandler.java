@@ -22,6 +22,7 @@ import co.rsk.config.RskSystemProperties;
 import co.rsk.core.BlockDifficulty;
 import co.rsk.core.bc.BlockChainStatus;
 import co.rsk.crypto.Keccak256;
+import co.rsk.metrics.MetricRegistry;
 import co.rsk.net.messages.*;
 import co.rsk.scoring.EventType;
 import co.rsk.scoring.PeerScoringManager;
@@ -42,8 +43,11 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Component
@@ -52,6 +56,9 @@ public class NodeMessageHandler implements MessageHandler, Runnable {
     private static final Logger loggerMessageProcess = LoggerFactory.getLogger("messageProcess");
     public static final int MAX_NUMBER_OF_MESSAGES_CACHED = 5000;
     public static final long RECEIVED_MESSAGES_CACHE_DURATION = TimeUnit.MINUTES.toMillis(2);
+    public static final int REQUEST_LANE_THREADS = 2;
+    public static final int REQUEST_LANE_CAPACITY = 1000;
+    public static final int TRANSACTION_LANE_CAPACITY = 1000;
 
     private final RskSystemProperties config;
     private final BlockProcessor blockProcessor;
@@ -64,7 +71,14 @@ public class NodeMessageHandler implements MessageHandler, Runnable {
 
     private BlockValidationRule blockValidationRule;
 
-    private LinkedBlockingQueue<MessageTask> queue = new LinkedBlockingQueue<>();
+    // blocks and sync messages, processed one at a time by the main thread, blocks first
+    private PriorityBlockingQueue<MessageTask> queue = new PriorityBlockingQueue<>(11, MessageTask.PRIORITY_ORDER);
+    // requests from peers, served by a pool of workers
+    private BlockingQueue<MessageTask> requestQueue = new LinkedBlockingQueue<>(REQUEST_LANE_CAPACITY);
+    // transactions, processed by their own thread so they do not delay blocks
+    private BlockingQueue<MessageTask> transactionQueue = new LinkedBlockingQueue<>(TRANSACTION_LANE_CAPACITY);
+    private final AtomicLong messageSequence = new AtomicLong();
+    private final MessageQueueMetrics messageQueueMetrics = new MessageQueueMetrics();
     private Set<Keccak256> receivedMessages = Collections.synchronizedSet(new HashSet<Keccak256>());
     private long cleanMsgTimestamp = 0;
 
@@ -86,15 +100,35 @@ public class NodeMessageHandler implements MessageHandler, Runnable {
         this.blockValidationRule = blockValidationRule;
         this.cleanMsgTimestamp = System.currentTimeMillis();
         this.peerScoringManager = peerScoringManager;
+
+        MetricRegistry registry = MetricRegistry.getDefault();
+        registry.gauge("message_queue_size", "Block and sync messages waiting in the main queue", () -> this.queue.size());
+        registry.gauge("message_request_queue_size", "Requests from peers waiting to be served", () -> this.requestQueue.size());
+        registry.gauge("message_transaction_queue_size", "Transaction messages waiting to be processed", () -> this.transactionQueue.size());
     }
 
     /**
      * processMessage processes a RSK Message, doing the appropriate action based on the message type.
+     * Blocks and sync messages are processed one at a time, while requests from peers and transactions
+     * can be processed at the same time by their lanes.
      *
      * @param sender  the message sender.
      * @param message the message to be processed.
      */
-    public synchronized void processMessage(final MessageChannel sender, @Nonnull final Message message) {
+    public void processMessage(final MessageChannel sender, @Nonnull final Message message) {
+        Lane lane = getLane(message.getMessageType());
+
+        if (lane == Lane.REQUESTS || lane == Lane.TRANSACTIONS) {
+            this.dispatchMessage(sender, message);
+            return;
+        }
+
+        synchronized (this) {
+            this.dispatchMessage(sender, message);
+        }
+    }
+
+    private void dispatchMessage(final MessageChannel sender, @Nonnull final Message message) {
         long start = System.nanoTime();
         logger.trace("Process message type: {}", message.getMessageType());
 
@@ -162,7 +196,14 @@ public class NodeMessageHandler implements MessageHandler, Runnable {
                 }
                 this.receivedMessages.add(encodedMessage);
             }
-            if (!this.queue.offer(new MessageTask(sender, message))){
+            MessageType messageType = message.getMessageType();
+            Lane lane = getLane(messageType);
+            MessageTask task = new MessageTask(sender, message, lane, messageSequence.getAndIncrement(), System.nanoTime());
+
+            messageQueueMetrics.messageQueued(messageType);
+
+            if (!this.getQueue(lane).offer(task)){
+                messageQueueMetrics.messageDropped(messageType);
                 logger.trace("Queue full, message not added to the queue");
             }
         } else {
@@ -171,6 +212,43 @@ public class NodeMessageHandler implements MessageHandler, Runnable {
         }
     }
 
+    private BlockingQueue<MessageTask> getQueue(Lane lane) {
+        if (lane == Lane.REQUESTS) {
+            return this.requestQueue;
+        }
+
+        if (lane == Lane.TRANSACTIONS) {
+            return this.transactionQueue;
+        }
+
+        return this.queue;
+    }
+
+    private static Lane getLane(MessageType messageType) {
+        switch (messageType) {
+            case BLOCK_MESSAGE:
+            case BLOCK_RESPONSE_MESSAGE:
+            case BLOCK_HEADERS_RESPONSE_MESSAGE:
+            case BODY_RESPONSE_MESSAGE:
+            case SKELETON_RESPONSE_MESSAGE:
+            case BLOCK_HASH_RESPONSE_MESSAGE:
+            case NEW_BLOCK_HASH_MESSAGE:
+            case NEW_BLOCK_HASHES:
+                return Lane.BLOCKS;
+            case GET_BLOCK_MESSAGE:
+            case BLOCK_REQUEST_MESSAGE:
+            case BODY_REQUEST_MESSAGE:
+            case BLOCK_HEADERS_REQUEST_MESSAGE:
+            case BLOCK_HASH_REQUEST_MESSAGE:
+            case SKELETON_REQUEST_MESSAGE:
+                return Lane.REQUESTS;
+            case TRANSACTIONS:
+                return Lane.TRANSACTIONS;
+            default:
+                return Lane.MAIN;
+        }
+    }
+
     private void cleanExpiredMessages() {
         long currentTime = System.currentTimeMillis();
         if (currentTime - cleanMsgTimestamp > RECEIVED_MESSAGES_CACHE_DURATION) {
@@ -183,6 +261,12 @@ public class NodeMessageHandler implements MessageHandler, Runnable {
     @Override
     public void start() {
         new Thread(this).start();
+
+        for (int k = 1; k <= REQUEST_LANE_THREADS; k++) {
+            new Thread(() -> this.runLane(this.requestQueue), "messageRequests-" + k).start();
+        }
+
+        new Thread(() -> this.runLane(this.transactionQueue), "messageTransactions").start();
     }
 
     @Override
@@ -192,7 +276,12 @@ public class NodeMessageHandler implements MessageHandler, Runnable {
 
     @Override
     public long getMessageQueueSize() {
-        return this.queue.size();
+        return this.queue.size() + this.requestQueue.size() + this.transactionQueue.size();
+    }
+
+    @Override
+    public MessageQueueMetrics getMessageQueueMetrics() {
+        return this.messageQueueMetrics;
     }
 
     @Override
@@ -207,7 +296,7 @@ public class NodeMessageHandler implements MessageHandler, Runnable {
 
                 if (task != null) {
                     logger.trace("Start task");
-                    this.processMessage(task.getSender(), task.getMessage());
+                    this.processTask(task);
                     logger.trace("End task");
                 } else {
                     logger.trace("No task");
@@ -221,6 +310,32 @@ public class NodeMessageHandler implements MessageHandler, Runnable {
         }
     }
 
+    private void runLane(BlockingQueue<MessageTask> laneQueue) {
+        while (!stopped) {
+            try {
+                final MessageTask task = laneQueue.poll(1, TimeUnit.SECONDS);
+
+                if (task != null) {
+                    this.processTask(task);
+                }
+            }
+            catch (Exception ex) {
+                logger.error("Error {}", ex);
+            }
+        }
+    }
+
+    private void processTask(MessageTask task) {
+        long start = System.nanoTime();
+
+        try {
+            this.processMessage(task.getSender(), task.getMessage());
+        } finally {
+            long end = System.nanoTime();
+            messageQueueMetrics.messageProcessed(task.getMessage().getMessageType(), start - task.queuedAt, end - start);
+        }
+    }
+
     private void updateTimedEvents() {
         Long now = System.currentTimeMillis();
         Duration timeTick = Duration.ofMillis(now - lastTickSent);
@@ -455,13 +570,35 @@ public class NodeMessageHandler implements MessageHandler, Runnable {
         return blockProcessor;
     }
 
+    /**
+     * Messages are routed to lanes, each one with its own queue:
+     * blocks and sync responses go before the other main thread messages,
+     * requests from peers are served by a pool of workers, and transactions have their own bounded lane.
+     */
+    private enum Lane {
+        BLOCKS,
+        MAIN,
+        REQUESTS,
+        TRANSACTIONS
+    }
+
     private static class MessageTask {
+        // by lane, and then by arrival
+        private static final Comparator<MessageTask> PRIORITY_ORDER =
+                Comparator.<MessageTask>comparingInt(t -> t.lane.ordinal()).thenComparingLong(t -> t.sequence);
+
         private MessageChannel sender;
         private Message message;
+        private final Lane lane;
+        private final long sequence;
+        private final long queuedAt;
 
-        public MessageTask(MessageChannel sender, Message message) {
+        public MessageTask(MessageChannel sender, Message message, Lane lane, long sequence, long queuedAt) {
             this.sender = sender;
             this.message = message;
+            this.lane = lane;
+            this.sequence = sequence;
+            this.queuedAt = queuedAt;
         }
 
         public MessageChannel getSender() {
@@ -25,6 +25,8 @@ import javax.annotation.Nonnull;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by ajlopez on 29/08/2017.
@@ -45,6 +47,7 @@ public class SyncProcessor implements SyncEventsHandler {
 
     private final PendingMessages pendingMessages;
     private final SyncInformationImpl syncInformation;
+    private final SyncPipeline syncPipeline;
     private final Map<NodeID, Instant> failedPeers;
     private SyncState syncState;
     private NodeID selectedPeerId;
@@ -64,6 +67,7 @@ public class SyncProcessor implements SyncEventsHandler {
         this.channelManager = channelManager;
         this.syncConfiguration = syncConfiguration;
         this.syncInformation = new SyncInformationImpl(blockHeaderValidationRule, difficultyCalculator);
+        this.syncPipeline = createSyncPipeline(syncConfiguration);
         this.peerStatuses = new PeersInformation(syncInformation, channelManager, syncConfiguration);
         this.pendingMessages = new PendingMessages();
         this.failedPeers = new LinkedHashMap<NodeID, Instant>(MAX_SIZE_FAILURE_RECORDS, 0.75f, true) {
@@ -214,12 +218,12 @@ public class SyncProcessor implements SyncEventsHandler {
             blockSyncService.setLastKnownBlockNumber(peerBestBlockNumber);
         }
 
-        setSyncState(new DownloadingBodiesSyncState(this.syncConfiguration, this, syncInformation, pendingHeaders, skeletons));
+        setSyncState(new DownloadingBodiesSyncState(this.syncConfiguration, this, syncInformation, syncPipeline, pendingHeaders, skeletons));
     }
 
     @Override
     public void startDownloadingHeaders(Map<NodeID, List<BlockIdentifier>> skeletons, long connectionPoint) {
-        setSyncState(new DownloadingHeadersSyncState(this.syncConfiguration, this, syncInformation, skeletons, connectionPoint));
+        setSyncState(new DownloadingHeadersSyncState(this.syncConfiguration, this, syncInformation, syncPipeline, skeletons, connectionPoint));
     }
 
     @Override
@@ -281,6 +285,22 @@ public class SyncProcessor implements SyncEventsHandler {
         this.syncState.onEnter();
     }
 
+    private static SyncPipeline createSyncPipeline(SyncConfiguration syncConfiguration) {
+        int nthreads = syncConfiguration.getValidationThreads();
+
+        if (nthreads <= 0) {
+            return SyncPipeline.direct();
+        }
+
+        AtomicInteger nthread = new AtomicInteger();
+
+        return new SyncPipeline(Executors.newFixedThreadPool(nthreads, r -> {
+            Thread thread = new Thread(r, "syncValidator-" + nthread.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }), syncConfiguration.getMaxPendingBlocks());
+    }
+
     private void clearOldFailureEntries() {
         Instant limit = Instant.now().minusSeconds(TIME_LIMIT_FAILURE_RECORD);
         failedPeers.values().removeIf(limit::isAfter);
@@ -19,28 +19,32 @@
 package co.rsk.net;
 
 import co.rsk.crypto.Keccak256;
+import co.rsk.util.MaxSizeHashMap;
 import org.ethereum.core.Transaction;
 import org.ethereum.core.TransactionPool;
 import org.ethereum.listener.CompositeEthereumListener;
 import org.ethereum.listener.EthereumListenerAdapter;
 import org.ethereum.net.server.ChannelManager;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Centralizes receiving and relaying transactions, so we can only distribute information to nodes that don't already
  * have it.
+ *
+ * The transactions already added to the pool from any node are dropped before they reach the transaction pool,
+ * as they are relayed by many peers.
  */
 public class TransactionGateway {
+    private static final int MAX_RECEIVED_TRANSACTIONS = 65536;
+
     private final ChannelManager channelManager;
     private final CompositeEthereumListener emitter;
     private final TransactionPool transactionPool;
 
     private final TransactionNodeInformation transactionNodeInformation = new TransactionNodeInformation();
     private final OnPendingTransactionsReceivedListener listener = new OnPendingTransactionsReceivedListener();
+    private final Set<Keccak256> receivedTransactions = Collections.newSetFromMap(new MaxSizeHashMap<>(MAX_RECEIVED_TRANSACTIONS));
 
     public TransactionGateway(
             ChannelManager channelManager,
@@ -60,8 +64,52 @@ public class TransactionGateway {
     }
 
     public List<Transaction> receiveTransactionsFrom(List<Transaction> txs, NodeID nodeID) {
-        txs.forEach(tx -> transactionNodeInformation.addTransactionToNode(tx.getHash(), nodeID));
-        return transactionPool.addTransactions(txs);
+        List<Transaction> newTxs = new ArrayList<>(txs.size());
+
+        synchronized (receivedTransactions) {
+            for (Transaction tx : txs) {
+                Keccak256 txHash = tx.getHash();
+                transactionNodeInformation.addTransactionToNode(txHash, nodeID);
+
+                if (receivedTransactions.add(txHash)) {
+                    newTxs.add(tx);
+                }
+            }
+        }
+
+        if (newTxs.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Transaction> added = transactionPool.addTransactions(newTxs);
+
+        if (added.size() < newTxs.size()) {
+            forgetRejected(newTxs, added);
+        }
+
+        return added;
+    }
+
+    /**
+     * The transactions the pool didn't add are validated again when they are received again,
+     * they can be valid then, as when the transaction funding their sender arrives later.
+     */
+    private void forgetRejected(List<Transaction> txs, List<Transaction> added) {
+        Set<Keccak256> addedHashes = new HashSet<>();
+
+        for (Transaction tx : added) {
+            addedHashes.add(tx.getHash());
+        }
+
+        synchronized (receivedTransactions) {
+            for (Transaction tx : txs) {
+                Keccak256 txHash = tx.getHash();
+
+                if (!addedHashes.contains(txHash)) {
+                    receivedTransactions.remove(txHash);
+                }
+            }
+        }
     }
 
     private class OnPendingTransactionsReceivedListener extends EthereumListenerAdapter {
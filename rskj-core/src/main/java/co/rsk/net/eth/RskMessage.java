@@ -20,10 +20,10 @@ package co.rsk.net.eth;
 
 import co.rsk.config.RskSystemProperties;
 import co.rsk.net.messages.Message;
+import co.rsk.util.RLPListView;
 import org.ethereum.net.eth.message.EthMessage;
 import org.ethereum.net.eth.message.EthMessageCodes;
 import org.ethereum.util.RLP;
-import org.ethereum.util.RLPList;
 
 /**
  * Created by ajlopez on 5/14/2016.
@@ -57,9 +57,9 @@ public class RskMessage extends EthMessage {
     }
 
     protected void parse() {
-        RLPList paramsList = (RLPList) RLP.decode2(encoded).get(0);
+        RLPListView paramsList = RLPListView.wrap(encoded);
 
-        this.message = Message.create((RLPList) paramsList.get(0));
+        this.message = Message.create(paramsList.getList(0));
 
         this.parsed = true;
     }
@@ -34,32 +34,43 @@ import java.util.List;
 /**
  * Validator for using in pending state.
  *
+ * The stateless checks only look at the transaction and the execution block,
+ * so they can run before taking the transaction pool lock, and in parallel.
+ * The stateful checks need the sender account state.
+ *
  * Add/remove checks here.
  */
 public class TxPendingValidator {
     private static final Logger logger = LoggerFactory.getLogger("txpendingvalidator");
 
-    private final List<TxValidatorStep> validatorSteps = new LinkedList<>();
+    private final List<TxValidatorStep> statelessSteps = new LinkedList<>();
+    private final List<TxValidatorStep> statefulSteps = new LinkedList<>();
 
     private final RskSystemProperties config;
 
     public TxPendingValidator(RskSystemProperties config) {
         this.config = config;
 
-        validatorSteps.add(new TxNotNullValidator());
-        validatorSteps.add(new TxValidatorNotRemascTxValidator());
-        validatorSteps.add(new TxValidatorGasLimitValidator());
-        validatorSteps.add(new TxValidatorAccountStateValidator());
-        validatorSteps.add(new TxValidatorNonceRangeValidator());
-        validatorSteps.add(new TxValidatorAccountBalanceValidator());
-        validatorSteps.add(new TxValidatorMinimuGasPriceValidator());
-        validatorSteps.add(new TxValidatorIntrinsicGasLimitValidator(config));
+        statelessSteps.add(new TxNotNullValidator());
+        statelessSteps.add(new TxValidatorNotRemascTxValidator());
+        statelessSteps.add(new TxValidatorGasLimitValidator());
+        statelessSteps.add(new TxValidatorMinimuGasPriceValidator());
+        statelessSteps.add(new TxValidatorIntrinsicGasLimitValidator(config));
+
+        statefulSteps.add(new TxValidatorAccountStateValidator());
+        statefulSteps.add(new TxValidatorNonceRangeValidator());
+        statefulSteps.add(new TxValidatorAccountBalanceValidator());
     }
 
     public boolean isValid(Transaction tx, Block executionBlock, @Nullable AccountState state) {
-        BigInteger blockGasLimit = BigIntegers.fromUnsignedByteArray(executionBlock.getGasLimit());
-        Coin minimumGasPrice = executionBlock.getMinimumGasPrice();
-        long bestBlockNumber = executionBlock.getNumber();
+        return isStatelessValid(tx, executionBlock) && isStatefulValid(tx, executionBlock, state);
+    }
+
+    public boolean isStatelessValid(Transaction tx, Block executionBlock) {
+        return runSteps(statelessSteps, tx, executionBlock, null, false);
+    }
+
+    public boolean isStatefulValid(Transaction tx, Block executionBlock, @Nullable AccountState state) {
         long basicTxCost = tx.transactionCost(config, executionBlock);
 
         if (state == null && basicTxCost != 0) {
@@ -67,8 +78,16 @@ public class TxPendingValidator {
             return false;
         }
 
-        for (TxValidatorStep step : validatorSteps) {
-            if (!step.validate(tx, state, blockGasLimit, minimumGasPrice, bestBlockNumber, basicTxCost == 0)) {
+        return runSteps(statefulSteps, tx, executionBlock, state, basicTxCost == 0);
+    }
+
+    private boolean runSteps(List<TxValidatorStep> steps, Transaction tx, Block executionBlock, @Nullable AccountState state, boolean isFreeTx) {
+        BigInteger blockGasLimit = BigIntegers.fromUnsignedByteArray(executionBlock.getGasLimit());
+        Coin minimumGasPrice = executionBlock.getMinimumGasPrice();
+        long bestBlockNumber = executionBlock.getNumber();
+
+        for (TxValidatorStep step : steps) {
+            if (!step.validate(tx, state, blockGasLimit, minimumGasPrice, bestBlockNumber, isFreeTx)) {
                 logger.info("[tx={}] {} failed", tx.getHash(), step.getClass());
                 return false;
             }
@@ -19,10 +19,10 @@
 
 package co.rsk.net.messages;
 
+import co.rsk.util.RLPListView;
 import org.ethereum.core.BlockHeader;
 import org.ethereum.net.eth.message.EthMessageCodes;
 import org.ethereum.util.RLP;
-import org.ethereum.util.RLPList;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
@@ -65,13 +65,12 @@ public class BlockHeadersMessage extends Message {
     }
 
     private void parse() {
-        RLPList paramsList = (RLPList) RLP.decode2(encoded).get(0);
+        RLPListView paramsList = RLPListView.wrap(encoded);
 
         blockHeaders = new ArrayList<>();
 
         for (int i = 0; i < paramsList.size(); ++i) {
-            RLPList rlpData = ((RLPList) paramsList.get(i));
-            blockHeaders.add(new BlockHeader(rlpData, true));
+            blockHeaders.add(new BlockHeader(paramsList.getList(i), true));
         }
 
         parsed = true;
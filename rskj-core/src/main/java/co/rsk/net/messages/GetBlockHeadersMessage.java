@@ -19,11 +19,11 @@
 
 package co.rsk.net.messages;
 
+import co.rsk.util.RLPListView;
 import org.ethereum.core.BlockIdentifier;
 import org.ethereum.net.eth.message.EthMessageCodes;
 import org.ethereum.util.ByteUtil;
 import org.ethereum.util.RLP;
-import org.ethereum.util.RLPList;
 
 import java.math.BigInteger;
 
@@ -115,9 +115,9 @@ public class GetBlockHeadersMessage extends Message {
     }
 
     private void parse() {
-        RLPList paramsList = (RLPList) RLP.decode2(encoded).get(0);
+        RLPListView paramsList = RLPListView.wrap(encoded);
 
-        byte[] blockBytes = paramsList.get(0).getRLPData();
+        byte[] blockBytes = paramsList.getBytes(0);
 
         // it might be either a hash or number
         if (blockBytes == null) {
@@ -128,13 +128,13 @@ public class GetBlockHeadersMessage extends Message {
             this.blockNumber = byteArrayToLong(blockBytes);
         }
 
-        byte[] maxHeaders = paramsList.get(1).getRLPData();
+        byte[] maxHeaders = paramsList.getBytes(1);
         this.maxHeaders = byteArrayToInt(maxHeaders);
 
-        byte[] skipBlocks = paramsList.get(2).getRLPData();
+        byte[] skipBlocks = paramsList.getBytes(2);
         this.skipBlocks = byteArrayToInt(skipBlocks);
 
-        byte[] reverse = paramsList.get(3).getRLPData();
+        byte[] reverse = paramsList.getBytes(3);
         this.reverse = byteArrayToInt(reverse) == 1;
 
         parsed = true;
@@ -18,12 +18,9 @@
 
 package co.rsk.net.messages;
 
+import co.rsk.util.RLPListView;
 import com.google.common.annotations.VisibleForTesting;
 import org.ethereum.util.RLP;
-import org.ethereum.util.RLPElement;
-import org.ethereum.util.RLPList;
-
-import java.util.ArrayList;
 
 /**
  * Created by ajlopez on 5/10/2016.
@@ -42,16 +39,14 @@ public abstract class Message {
 
     @VisibleForTesting
     static Message create(byte[] encoded) {
-        return create((RLPList) RLP.decode2(encoded).get(0));
+        return create(RLPListView.wrap(encoded));
     }
 
-    public static Message create(ArrayList<RLPElement> paramsList) {
-        byte[] body = paramsList.get(1).getRLPData();
-
-        if (body != null) {
-            int type = paramsList.get(0).getRLPData()[0];
+    public static Message create(RLPListView paramsList) {
+        if (paramsList.getBuffer(1).hasRemaining()) {
+            int type = paramsList.getBytes(0)[0];
             MessageType messageType = MessageType.valueOfType(type);
-            RLPList list = (RLPList) RLP.decode2(body).get(0);
+            RLPListView list = paramsList.getEncodedList(1);
             return messageType.createMessage(list);
 
         }
@@ -21,15 +21,12 @@ package co.rsk.net.messages;
 import co.rsk.core.BlockDifficulty;
 import co.rsk.net.Status;
 import co.rsk.remasc.RemascTransaction;
+import co.rsk.util.RLPListView;
 import org.ethereum.core.*;
-import org.ethereum.util.RLP;
-import org.ethereum.util.RLPElement;
-import org.ethereum.util.RLPList;
 import org.spongycastle.util.BigIntegers;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static org.ethereum.util.ByteUtil.byteArrayToInt;
 
@@ -40,17 +37,17 @@ public enum MessageType {
 
     STATUS_MESSAGE(1) {
         @Override
-        public Message createMessage(RLPList list) {
-            byte[] rlpdata = list.get(0).getRLPData();
+        public Message createMessage(RLPListView list) {
+            byte[] rlpdata = list.getBytes(0);
             long number = rlpdata == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpdata).longValue();
-            byte[] hash = list.get(1).getRLPData();
+            byte[] hash = list.getBytes(1);
 
             if (list.size() == 2) {
                 return new StatusMessage(new Status(number, hash));
             }
 
-            byte[] parentHash = list.get(2).getRLPData();
-            byte[] rlpTotalDifficulty = list.get(3).getRLPData();
+            byte[] parentHash = list.getBytes(2);
+            byte[] rlpTotalDifficulty = list.getBytes(3);
             BlockDifficulty totalDifficulty = rlpTotalDifficulty == null ? BlockDifficulty.ZERO : new BlockDifficulty(rlpTotalDifficulty);
 
             return new StatusMessage(new Status(number, hash, parentHash, totalDifficulty));
@@ -58,52 +55,56 @@ public enum MessageType {
     },
     BLOCK_MESSAGE(2) {
         @Override
-        public Message createMessage(RLPList list) {
-            return new BlockMessage(new Block(list.get(0).getRLPData()));
+        public Message createMessage(RLPListView list) {
+            return new BlockMessage(new Block(list.getBytes(0)));
         }
     },
     GET_BLOCK_MESSAGE(3) {
         @Override
-        public Message createMessage(RLPList list) {
-            return new GetBlockMessage(list.get(0).getRLPData());
+        public Message createMessage(RLPListView list) {
+            return new GetBlockMessage(list.getBytes(0));
         }
     },
     BLOCK_HEADERS_MESSAGE(4) {
         @Override
-        public Message createMessage(RLPList list) {
-            return new BlockHeadersMessage(list.getRLPData());
+        public Message createMessage(RLPListView list) {
+            return new BlockHeadersMessage(list.getEncoded());
         }
     },
     GET_BLOCK_HEADERS_MESSAGE(5) {
         @Override
-        public Message createMessage(RLPList list) {
-            return new GetBlockHeadersMessage(list.getRLPData());
+        public Message createMessage(RLPListView list) {
+            return new GetBlockHeadersMessage(list.getEncoded());
         }
     },
     NEW_BLOCK_HASHES(6) {
         @Override
-        public Message createMessage(RLPList list) {
-            return new NewBlockHashesMessage(list.getRLPData());
+        public Message createMessage(RLPListView list) {
+            return new NewBlockHashesMessage(list.getEncoded());
         }
     },
     TRANSACTIONS(7) {
         @Override
-        public Message createMessage(RLPList list) {
-            List<Transaction> txs = list.stream()
-                    .map(RLPElement::getRLPData)
-                    .filter(MessageType::validTransactionLength)
-                    .map(ImmutableTransaction::new)
-                    .collect(Collectors.toList());
+        public Message createMessage(RLPListView list) {
+            List<Transaction> txs = new ArrayList<>();
+            for (int k = 0; k < list.size(); k++) {
+                byte[] txdata = list.getEncoded(k);
+
+                if (validTransactionLength(txdata)) {
+                    txs.add(new ImmutableTransaction(txdata));
+                }
+            }
+
             return new TransactionsMessage(txs);
         }
     },
     BLOCK_HASH_REQUEST_MESSAGE(8) {
         @Override
-        public Message createMessage(RLPList list) {
-            RLPList message = (RLPList)RLP.decode2(list.get(1).getRLPData()).get(0);
-            byte[] rlpId = list.get(0).getRLPData();
+        public Message createMessage(RLPListView list) {
+            RLPListView message = list.getList(1);
+            byte[] rlpId = list.getBytes(0);
             long id = rlpId == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpId).longValue();
-            byte[] rlpHeight = message.get(0).getRLPData();
+            byte[] rlpHeight = message.getBytes(0);
             long height = rlpHeight == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpHeight).longValue();
 
             return new BlockHashRequestMessage(id, height);
@@ -111,22 +112,22 @@ public enum MessageType {
     },
     BLOCK_HASH_RESPONSE_MESSAGE(18) {
         @Override
-        public Message createMessage(RLPList list) {
-            RLPList message = (RLPList)RLP.decode2(list.get(1).getRLPData()).get(0);
-            byte[] rlpId = list.get(0).getRLPData();
+        public Message createMessage(RLPListView list) {
+            RLPListView message = list.getList(1);
+            byte[] rlpId = list.getBytes(0);
             long id = rlpId == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpId).longValue();
-            byte[] hash = message.get(0).getRLPData();
+            byte[] hash = message.getBytes(0);
 
             return new BlockHashResponseMessage(id, hash);
         }
     },
     BLOCK_HEADERS_REQUEST_MESSAGE(9) {
         @Override
-        public Message createMessage(RLPList list){
-            RLPList message = (RLPList)RLP.decode2(list.get(1).getRLPData()).get(0);
-            byte[] rlpId = list.get(0).getRLPData();
-            byte[] hash = message.get(0).getRLPData();
-            byte[] rlpCount = message.get(1).getRLPData();
+        public Message createMessage(RLPListView list){
+            RLPListView message = list.getList(1);
+            byte[] rlpId = list.getBytes(0);
+            byte[] hash = message.getBytes(0);
+            byte[] rlpCount = message.getBytes(1);
 
             long id = rlpId == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpId).longValue();
             int count = byteArrayToInt(rlpCount);
@@ -136,35 +137,36 @@ public enum MessageType {
     },
     BLOCK_HEADERS_RESPONSE_MESSAGE(10) {
         @Override
-        public Message createMessage(RLPList list) {
-            RLPList message = (RLPList)RLP.decode2(list.get(1).getRLPData()).get(0);
-            byte[] rlpId = list.get(0).getRLPData();
-            RLPList rlpHeaders = (RLPList)RLP.decode2(message.get(0).getRLPData()).get(0);
+        public Message createMessage(RLPListView list) {
+            RLPListView message = list.getList(1);
+            byte[] rlpId = list.getBytes(0);
+            RLPListView rlpHeaders = message.getList(0);
             long id = rlpId == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpId).longValue();
 
-            List<BlockHeader> headers = rlpHeaders.stream()
-                    .map(el -> new BlockHeader(el.getRLPData(), true))
-                    .collect(Collectors.toList());
+            List<BlockHeader> headers = new ArrayList<>();
+            for (int k = 0; k < rlpHeaders.size(); k++) {
+                headers.add(new BlockHeader(rlpHeaders.getList(k), true));
+            }
 
             return new BlockHeadersResponseMessage(id, headers);
         }
     },
     BLOCK_REQUEST_MESSAGE(11) {
         @Override
-        public Message createMessage(RLPList list) {
-            RLPList message = (RLPList)RLP.decode2(list.get(1).getRLPData()).get(0);
-            byte[] rlpId = list.get(0).getRLPData();
+        public Message createMessage(RLPListView list) {
+            RLPListView message = list.getList(1);
+            byte[] rlpId = list.getBytes(0);
             long id = rlpId == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpId).longValue();
-            byte[] hash = message.get(0).getRLPData();
+            byte[] hash = message.getBytes(0);
             return new BlockRequestMessage(id, hash);
         }
     },
     BLOCK_RESPONSE_MESSAGE(12) {
         @Override
-        public Message createMessage(RLPList list) {
-            RLPList message = (RLPList)RLP.decode2(list.get(1).getRLPData()).get(0);
-            byte[] rlpId = list.get(0).getRLPData();
-            byte[] rlpBlock = message.get(0).getRLPData();
+        public Message createMessage(RLPListView list) {
+            RLPListView message = list.getList(1);
+            byte[] rlpId = list.getBytes(0);
+            byte[] rlpBlock = message.getBytes(0);
 
             long id = rlpId == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpId).longValue();
             Block block = new Block(rlpBlock);
@@ -174,25 +176,26 @@ public enum MessageType {
     },
     SKELETON_RESPONSE_MESSAGE(13) {
         @Override
-        public Message createMessage(RLPList list) {
-            RLPList message = (RLPList)RLP.decode2(list.get(1).getRLPData()).get(0);
-            byte[] rlpId = list.get(0).getRLPData();
+        public Message createMessage(RLPListView list) {
+            RLPListView message = list.getList(1);
+            byte[] rlpId = list.getBytes(0);
             long id = rlpId == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpId).longValue();
 
-            RLPList paramsList = (RLPList)RLP.decode2(message.get(0).getRLPData()).get(0);
-            List<BlockIdentifier> blockIdentifiers = paramsList.stream()
-                    .map(param -> new BlockIdentifier((RLPList)param))
-                    .collect(Collectors.toList());
+            RLPListView paramsList = message.getList(0);
+            List<BlockIdentifier> blockIdentifiers = new ArrayList<>();
+            for (int k = 0; k < paramsList.size(); k++) {
+                blockIdentifiers.add(new BlockIdentifier(paramsList.getList(k)));
+            }
 
             return new SkeletonResponseMessage(id, blockIdentifiers);
         }
     },
     BODY_REQUEST_MESSAGE(14) {
         @Override
-        public Message createMessage(RLPList list) {
-            RLPList message = (RLPList)RLP.decode2(list.get(1).getRLPData()).get(0);
-            byte[] rlpId = list.get(0).getRLPData();
-            byte[] hash = message.get(0).getRLPData();
+        public Message createMessage(RLPListView list) {
+            RLPListView message = list.getList(1);
+            byte[] rlpId = list.getBytes(0);
+            byte[] hash = message.getBytes(0);
 
             long id = rlpId == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpId).longValue();
             return new BodyRequestMessage(id, hash);
@@ -200,16 +203,16 @@ public enum MessageType {
     },
     BODY_RESPONSE_MESSAGE(15) {
         @Override
-        public Message createMessage(RLPList list) {
-            RLPList message = (RLPList)RLP.decode2(list.get(1).getRLPData()).get(0);
-            byte[] rlpId = list.get(0).getRLPData();
+        public Message createMessage(RLPListView list) {
+            RLPListView message = list.getList(1);
+            byte[] rlpId = list.getBytes(0);
             long id = rlpId == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpId).longValue();
-            RLPList rlpTransactions = (RLPList)RLP.decode2(message.get(0).getRLPData()).get(0);
-            RLPList rlpUncles = (RLPList)RLP.decode2(message.get(1).getRLPData()).get(0);
+            RLPListView rlpTransactions = message.getList(0);
+            RLPListView rlpUncles = message.getList(1);
 
             List<Transaction> transactions = new ArrayList<>();
             for (int k = 0; k < rlpTransactions.size(); k++) {
-                byte[] txdata = rlpTransactions.get(k).getRLPData();
+                byte[] txdata = rlpTransactions.getEncoded(k);
                 Transaction tx = new ImmutableTransaction(txdata);
 
                 if (Block.isRemascTransaction(tx, k, rlpTransactions.size())) {
@@ -219,28 +222,29 @@ public enum MessageType {
                 transactions.add(tx);
             }
 
-            List<BlockHeader> uncles = rlpUncles.stream()
-                    .map(el -> new BlockHeader(el.getRLPData(), true))
-                    .collect(Collectors.toList());
+            List<BlockHeader> uncles = new ArrayList<>();
+            for (int k = 0; k < rlpUncles.size(); k++) {
+                uncles.add(new BlockHeader(rlpUncles.getList(k), true));
+            }
 
             return new BodyResponseMessage(id, transactions, uncles);
         }
     },
     SKELETON_REQUEST_MESSAGE(16) {
         @Override
-        public Message createMessage(RLPList list) {
-            RLPList message = (RLPList)RLP.decode2(list.get(1).getRLPData()).get(0);
-            byte[] rlpId = list.get(0).getRLPData();
+        public Message createMessage(RLPListView list) {
+            RLPListView message = list.getList(1);
+            byte[] rlpId = list.getBytes(0);
             long id = rlpId == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpId).longValue();
-            byte[] rlpStartNumber = message.get(0).getRLPData();
+            byte[] rlpStartNumber = message.getBytes(0);
             long startNumber = rlpStartNumber == null ? 0 : BigIntegers.fromUnsignedByteArray(rlpStartNumber).longValue();
             return new SkeletonRequestMessage(id, startNumber);
         }
     },
     NEW_BLOCK_HASH_MESSAGE(17) {
         @Override
-        public Message createMessage(RLPList list) {
-            byte[] hash = list.get(0).getRLPData();
+        public Message createMessage(RLPListView list) {
+            byte[] hash = list.getBytes(0);
             return new NewBlockHashMessage(hash);
         }
     };
@@ -251,7 +255,7 @@ public enum MessageType {
         this.type = type;
     }
 
-    public abstract Message createMessage(RLPList list);
+    public abstract Message createMessage(RLPListView list);
 
     public byte getTypeAsByte() {
         return (byte) this.type;
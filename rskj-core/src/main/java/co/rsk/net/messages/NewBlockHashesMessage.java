@@ -18,10 +18,10 @@
  */
 package co.rsk.net.messages;
 
+import co.rsk.util.RLPListView;
 import org.ethereum.core.BlockIdentifier;
 import org.ethereum.net.eth.message.EthMessageCodes;
 import org.ethereum.util.RLP;
-import org.ethereum.util.RLPList;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -55,13 +55,12 @@ public class NewBlockHashesMessage extends Message {
     }
 
     private void parse() {
-        RLPList paramsList = (RLPList) RLP.decode2(encoded).get(0);
+        RLPListView paramsList = RLPListView.wrap(encoded);
 
         blockIdentifiers = new ArrayList<>();
 
         for (int i = 0; i < paramsList.size(); ++i) {
-            RLPList rlpData = ((RLPList) paramsList.get(i));
-            blockIdentifiers.add(new BlockIdentifier(rlpData));
+            blockIdentifiers.add(new BlockIdentifier(paramsList.getList(i)));
         }
         parsed = true;
     }
@@ -4,9 +4,6 @@ import co.rsk.net.MessageChannel;
 import co.rsk.net.NodeID;
 import co.rsk.net.messages.BodyResponseMessage;
 import co.rsk.scoring.EventType;
-import co.rsk.validators.BlockRootValidationRule;
-import co.rsk.validators.BlockUnclesHashValidationRule;
-import co.rsk.validators.BlockValidationRule;
 import com.google.common.annotations.VisibleForTesting;
 import org.ethereum.core.Block;
 import org.ethereum.core.BlockHeader;
@@ -15,13 +12,16 @@ import org.ethereum.util.ByteUtil;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class DownloadingBodiesSyncState  extends BaseSyncState {
 
-    // validation rules for bodies
-    private final BlockValidationRule blockUnclesHashValidationRule;
-    private final BlockValidationRule blockTransactionsValidationRule;
+    // runs the body validations
+    private final SyncPipeline syncPipeline;
+
+    // downloaded blocks waiting to be validated and processed, in download order
+    private final Deque<PendingBlock> pendingBlocks;
 
     // responses on wait
     private final Map<Long, PendingBodyResponse> pendingBodyResponses;
@@ -56,13 +56,14 @@ public class DownloadingBodiesSyncState  extends BaseSyncState {
     public DownloadingBodiesSyncState(SyncConfiguration syncConfiguration,
                                       SyncEventsHandler syncEventsHandler,
                                       SyncInformation syncInformation,
+                                      SyncPipeline syncPipeline,
                                       List<Deque<BlockHeader>> pendingHeaders,
                                       Map<NodeID, List<BlockIdentifier>> skeletons) {
 
         super(syncInformation, syncEventsHandler, syncConfiguration);
         this.limit = syncConfiguration.getTimeoutWaitingRequest();
-        this.blockUnclesHashValidationRule = new BlockUnclesHashValidationRule();
-        this.blockTransactionsValidationRule = new BlockRootValidationRule();
+        this.syncPipeline = syncPipeline;
+        this.pendingBlocks = new ArrayDeque<>();
         this.pendingBodyResponses = new HashMap<>();
         this.pendingHeaders = pendingHeaders;
         this.skeletons = skeletons;
@@ -86,68 +87,142 @@ public class DownloadingBodiesSyncState  extends BaseSyncState {
         }
 
         // we already checked that this message was expected
-        BlockHeader header = pendingBodyResponses.remove(message.getId()).header;
-        Block block = Block.fromValidData(header, message.getTransactions(), message.getUncles());
-        if (!blockUnclesHashValidationRule.isValid(block) || !blockTransactionsValidationRule.isValid(block)) {
-            handleInvalidMessage(peerId, header);
-            return;
+        PendingBodyResponse response = pendingBodyResponses.remove(message.getId());
+        Block block = Block.fromValidData(response.header, message.getTransactions(), message.getUncles());
+
+        // the body is validated in the pipeline while the next one is downloaded
+        PendingBlock pendingBlock = new PendingBlock(block, peer, response, syncPipeline.validateBody(block));
+        pendingBlocks.add(pendingBlock);
+
+        // updates peer downloading information, unless its body is already known to be invalid
+        if (!pendingBlock.isKnownInvalid()) {
+            tryRequestNextBody(peerId);
         }
 
-        // handle block
-        if (syncInformation.processBlock(block, peer).isInvalidBlock()){
-            handleInvalidBlock(peerId, header);
+        // executes the validated blocks, waiting for the oldest ones if there are too many blocks on wait
+        if (!processValidatedBlocks(false)) {
             return;
         }
-        // updates peer downloading information
-        tryRequestNextBody(peerId);
+
         // check if this was the last block to download
         verifyDownloadIsFinished();
     }
 
+    /**
+     * Processes the blocks whose validation is completed, in the order they were downloaded
+     *
+     * @param waitAll   if <tt>true</tt>, waits for all the pending validations
+     * @return  <tt>false</tt> if syncing was stopped
+     */
+    private boolean processValidatedBlocks(boolean waitAll) {
+        while (!pendingBlocks.isEmpty()) {
+            PendingBlock pendingBlock = pendingBlocks.peek();
+            boolean mustWait = waitAll || pendingBlocks.size() > syncPipeline.getMaxPendingBlocks();
+
+            if (!mustWait && !pendingBlock.validation.isDone()) {
+                return true;
+            }
+
+            pendingBlocks.poll();
+
+            if (!pendingBlock.validation.join()) {
+                if (!handleInvalidMessage(pendingBlock)) {
+                    return false;
+                }
+
+                continue;
+            }
+
+            // handle block
+            if (syncInformation.processBlock(pendingBlock.block, pendingBlock.peer).isInvalidBlock() &&
+                    !handleInvalidBlock(pendingBlock)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     private void verifyDownloadIsFinished() {
         // all headers have been requested and there is not any chunk still in process
         if (chunksBeingDownloaded.isEmpty() &&
                 pendingHeaders.stream().allMatch(Collection::isEmpty)) {
+            // the last blocks could be still on validation
+            if (!processValidatedBlocks(true)) {
+                return;
+            }
+
+            // an invalid block could have restored headers to download
+            if (!chunksBeingDownloaded.isEmpty() ||
+                    !pendingHeaders.stream().allMatch(Collection::isEmpty)) {
+                return;
+            }
+
             // Finished syncing
             syncEventsHandler.onCompletedSyncing();
         }
     }
 
     private void tryRequestNextBody(NodeID peerId) {
-        updateHeadersAndChunks(peerId, chunksBeingDownloaded.get(peerId))
+        Integer currentChunk = chunksBeingDownloaded.get(peerId);
+
+        if (currentChunk == null) {
+            tryFindBlockHeader(peerId).ifPresent(blockHeader -> tryRequestBody(peerId, blockHeader));
+            return;
+        }
+
+        updateHeadersAndChunks(peerId, currentChunk)
                 .ifPresent(blockHeader -> tryRequestBody(peerId, blockHeader));
     }
 
-    private void handleInvalidBlock(NodeID peerId, BlockHeader header) {
+    private boolean handleInvalidBlock(PendingBlock pendingBlock) {
+        NodeID peerId = pendingBlock.response.nodeID;
+        BlockHeader header = pendingBlock.response.header;
         syncInformation.reportEvent(
                 "Invalid block received from node {} {} {}",
                 EventType.INVALID_BLOCK, peerId,
                 peerId, header.getNumber(), header.getShortHash());
 
-        clearPeerInfo(peerId);
-        if (suitablePeers.isEmpty()){
-            syncEventsHandler.stopSyncing();
-            return;
-        }
-        messagesByPeers.remove(peerId);
-        resetChunkAndHeader(peerId, header);
-        startDownloading(getInactivePeers());
+        return discardPeer(peerId, pendingBlock.response);
     }
 
-    private void handleInvalidMessage(NodeID peerId, BlockHeader header) {
+    private boolean handleInvalidMessage(PendingBlock pendingBlock) {
+        NodeID peerId = pendingBlock.response.nodeID;
+        BlockHeader header = pendingBlock.response.header;
         syncInformation.reportEvent(
                 "Invalid body received from node {} {} {}",
                 EventType.INVALID_MESSAGE, peerId,
                 peerId, header.getNumber(), header.getShortHash());
 
+        return discardPeer(peerId, pendingBlock.response);
+    }
+
+    /**
+     * Stops downloading from a peer that sent an invalid body or block,
+     * restoring the failed header and the header the peer is downloading, if any
+     *
+     * @return  <tt>false</tt> if there are no more suitable peers and syncing was stopped
+     */
+    private boolean discardPeer(NodeID peerId, PendingBodyResponse failed) {
         clearPeerInfo(peerId);
         if (suitablePeers.isEmpty()){
             syncEventsHandler.stopSyncing();
-            return;
+            return false;
         }
-        messagesByPeers.remove(peerId);
-        resetChunkAndHeader(peerId, header);
+
+        // the peer could be already downloading another body
+        Long messageId = messagesByPeers.remove(peerId);
+        PendingBodyResponse current = messageId != null ? pendingBodyResponses.remove(messageId) : null;
+        chunksBeingDownloaded.remove(peerId);
+        segmentsBeingDownloaded.remove(peerId);
+
+        if (current != null) {
+            restoreHeader(current);
+        }
+
+        restoreHeader(failed);
         startDownloading(getInactivePeers());
+        return true;
     }
 
     private void handleUnexpectedBody(NodeID peerId) {
@@ -162,17 +237,25 @@ public class DownloadingBodiesSyncState  extends BaseSyncState {
         }
         // if this peer has another different message pending then its restored to the stack
         Long messageId = messagesByPeers.remove(peerId);
-        if (messageId != null) {
-            resetChunkAndHeader(peerId, pendingBodyResponses.remove(messageId).header);
+        PendingBodyResponse current = messageId != null ? pendingBodyResponses.remove(messageId) : null;
+        chunksBeingDownloaded.remove(peerId);
+        segmentsBeingDownloaded.remove(peerId);
+        if (current != null) {
+            restoreHeader(current);
         }
         startDownloading(getInactivePeers());
     }
 
-    private void resetChunkAndHeader(NodeID peerId, BlockHeader header) {
-        int chunkNumber = chunksBeingDownloaded.remove(peerId);
-        pendingHeaders.get(chunkNumber).addLast(header);
-        int segmentNumber = segmentsBeingDownloaded.remove(peerId);
-        chunksBySegment.get(segmentNumber).push(chunkNumber);
+    /**
+     * Restores a header to be downloaded again, in the chunk it was taken from
+     * The chunk is restored to its segment if no peer is downloading it
+     */
+    private void restoreHeader(PendingBodyResponse response) {
+        pendingHeaders.get(response.chunkNumber).addLast(response.header);
+        Deque<Integer> chunks = chunksBySegment.get(response.segmentNumber);
+        if (!chunksBeingDownloaded.containsValue(response.chunkNumber) && !chunks.contains(response.chunkNumber)) {
+            chunks.push(response.chunkNumber);
+        }
     }
 
     private void clearPeerInfo(NodeID peerId) {
@@ -235,6 +318,11 @@ public class DownloadingBodiesSyncState  extends BaseSyncState {
 
     @Override
     public void tick(Duration duration) {
+        // executes the blocks validated since the last body was received
+        if (!processValidatedBlocks(false)) {
+            return;
+        }
+
         // first we update all the nodes that are expected to be working
         List<NodeID> updatedNodes = timeElapsedByPeer.keySet().stream()
             .filter(chunksBeingDownloaded::containsKey)
@@ -255,7 +343,10 @@ public class DownloadingBodiesSyncState  extends BaseSyncState {
         startDownloading(getInactivePeers());
 
         if (chunksBeingDownloaded.isEmpty()){
-            syncEventsHandler.stopSyncing();
+            // the downloaded blocks are executed before leaving the state
+            if (processValidatedBlocks(true)) {
+                syncEventsHandler.stopSyncing();
+            }
         }
     }
 
@@ -263,9 +354,13 @@ public class DownloadingBodiesSyncState  extends BaseSyncState {
         syncInformation.reportEvent("Timeout waiting body from node {}",
                 EventType.TIMEOUT_MESSAGE, peerId, peerId);
         Long messageId = messagesByPeers.remove(peerId);
-        BlockHeader header = pendingBodyResponses.remove(messageId).header;
+        PendingBodyResponse response = messageId != null ? pendingBodyResponses.remove(messageId) : null;
         clearPeerInfo(peerId);
-        resetChunkAndHeader(peerId, header);
+        chunksBeingDownloaded.remove(peerId);
+        segmentsBeingDownloaded.remove(peerId);
+        if (response != null) {
+            restoreHeader(response);
+        }
     }
 
     private List<NodeID> getInactivePeers() {
@@ -328,7 +423,8 @@ public class DownloadingBodiesSyncState  extends BaseSyncState {
     private void tryRequestBody(NodeID peerId, BlockHeader header){
         Long messageId = syncEventsHandler.sendBodyRequest(header, peerId);
         if (messageId != null){
-            pendingBodyResponses.put(messageId, new PendingBodyResponse(peerId, header));
+            pendingBodyResponses.put(messageId, new PendingBodyResponse(peerId, header,
+                    chunksBeingDownloaded.get(peerId), segmentsBeingDownloaded.get(peerId)));
             timeElapsedByPeer.put(peerId, Duration.ZERO);
             messagesByPeers.put(peerId, messageId);
         } else {
@@ -351,16 +447,40 @@ public class DownloadingBodiesSyncState  extends BaseSyncState {
 
     @VisibleForTesting
     public void expectBodyResponseFor(long requestId, NodeID nodeID, BlockHeader header) {
-        pendingBodyResponses.put(requestId, new PendingBodyResponse(nodeID, header));
+        pendingBodyResponses.put(requestId, new PendingBodyResponse(nodeID, header,
+                chunksBeingDownloaded.getOrDefault(nodeID, 0), segmentsBeingDownloaded.getOrDefault(nodeID, 0)));
     }
 
     private static class PendingBodyResponse {
         private NodeID nodeID;
         private BlockHeader header;
+        // where the header was taken from, to restore it if the body is not received or is invalid
+        private int chunkNumber;
+        private int segmentNumber;
 
-        PendingBodyResponse(NodeID nodeID, BlockHeader header) {
+        PendingBodyResponse(NodeID nodeID, BlockHeader header, int chunkNumber, int segmentNumber) {
             this.nodeID = nodeID;
             this.header = header;
+            this.chunkNumber = chunkNumber;
+            this.segmentNumber = segmentNumber;
+        }
+    }
+
+    private static class PendingBlock {
+        private final Block block;
+        private final MessageChannel peer;
+        private final PendingBodyResponse response;
+        private final CompletableFuture<Boolean> validation;
+
+        PendingBlock(Block block, MessageChannel peer, PendingBodyResponse response, CompletableFuture<Boolean> validation) {
+            this.block = block;
+            this.peer = peer;
+            this.response = response;
+            this.validation = validation;
+        }
+
+        boolean isKnownInvalid() {
+            return validation.isDone() && !validation.join();
         }
     }
 }
@@ -14,9 +14,11 @@ public class DownloadingHeadersSyncState extends BaseSyncState {
     private final Map<NodeID, List<BlockIdentifier>> skeletons;
     private final List<Deque<BlockHeader>> pendingHeaders;
     private final ChunksDownloadHelper chunksDownloadHelper;
+    private final SyncPipeline syncPipeline;
 
-    public DownloadingHeadersSyncState(SyncConfiguration syncConfiguration, SyncEventsHandler syncEventsHandler, SyncInformation syncInformation, Map<NodeID, List<BlockIdentifier>> skeletons, long connectionPoint) {
+    public DownloadingHeadersSyncState(SyncConfiguration syncConfiguration, SyncEventsHandler syncEventsHandler, SyncInformation syncInformation, SyncPipeline syncPipeline, Map<NodeID, List<BlockIdentifier>> skeletons, long connectionPoint) {
         super(syncInformation, syncEventsHandler, syncConfiguration);
+        this.syncPipeline = syncPipeline;
         this.pendingHeaders = new ArrayList<>();
         this.skeletons = skeletons;
         this.chunksDownloadHelper = new ChunksDownloadHelper(syncConfiguration, skeletons.get(syncInformation.getSelectedPeerId()), connectionPoint);
@@ -34,23 +36,22 @@ public class DownloadingHeadersSyncState extends BaseSyncState {
             return;
         }
 
+        // the headers are validated against their parents in parallel
+        int invalid = syncPipeline.findInvalidHeader(chunk, syncInformation);
+
+        if (invalid >= 0) {
+            BlockHeader header = chunk.get(invalid);
+            syncEventsHandler.onErrorSyncing(
+                    "Invalid header received from node {} {} {}", EventType.INVALID_HEADER,
+                    syncInformation.getSelectedPeerId(), header.getNumber(), header.getShortHash());
+            return;
+        }
+
         Deque<BlockHeader> headers = new ArrayDeque<>();
         // the headers come ordered by block number desc
         // we start adding the first parent header
-        headers.add(chunk.get(chunk.size() - 1));
-
-        for (int k = 1; k < chunk.size(); ++k) {
-            BlockHeader parentHeader = chunk.get(chunk.size() - k);
-            BlockHeader header = chunk.get(chunk.size() - k - 1);
-
-            if (!syncInformation.blockHeaderIsValid(header, parentHeader)) {
-                syncEventsHandler.onErrorSyncing(
-                        "Invalid header received from node {} {} {}", EventType.INVALID_HEADER,
-                        syncInformation.getSelectedPeerId(), header.getNumber(), header.getShortHash());
-                return;
-            }
-
-            headers.add(header);
+        for (int k = chunk.size() - 1; k >= 0; k--) {
+            headers.add(chunk.get(k));
         }
 
         pendingHeaders.add(headers);
@@ -18,6 +18,8 @@ public final class SyncConfiguration {
     private final Duration expirationTimePeerStatus;
     private final int maxSkeletonChunks;
     private final int chunkSize;
+    private final int validationThreads;
+    private final int maxPendingBlocks;
 
     /**
      * @param expectedPeers The expected number of peers we would want to start finding a connection point.
@@ -28,12 +30,28 @@ public final class SyncConfiguration {
      * @param chunkSize Amount of blocks contained in a chunk
      */
     public SyncConfiguration(int expectedPeers, int timeoutWaitingPeers, int timeoutWaitingRequest, int expirationTimePeerStatus, int maxSkeletonChunks, int chunkSize) {
+        this(expectedPeers, timeoutWaitingPeers, timeoutWaitingRequest, expirationTimePeerStatus, maxSkeletonChunks, chunkSize, 0, 256);
+    }
+
+    /**
+     * @param expectedPeers The expected number of peers we would want to start finding a connection point.
+     * @param timeoutWaitingPeers Timeout in minutes to start finding the connection point when we have at least one peer
+     * @param timeoutWaitingRequest Timeout in seconds to wait for syncing requests
+     * @param expirationTimePeerStatus Expiration time in minutes for peer status
+     * @param maxSkeletonChunks Maximum amount of chunks included in a skeleton message
+     * @param chunkSize Amount of blocks contained in a chunk
+     * @param validationThreads Amount of threads validating headers and bodies, zero to validate them on the syncing thread
+     * @param maxPendingBlocks Maximum amount of downloaded blocks waiting to be validated and processed
+     */
+    public SyncConfiguration(int expectedPeers, int timeoutWaitingPeers, int timeoutWaitingRequest, int expirationTimePeerStatus, int maxSkeletonChunks, int chunkSize, int validationThreads, int maxPendingBlocks) {
         this.expectedPeers = expectedPeers;
         this.timeoutWaitingPeers = Duration.ofSeconds(timeoutWaitingPeers);
         this.timeoutWaitingRequest = Duration.ofSeconds(timeoutWaitingRequest);
         this.expirationTimePeerStatus = Duration.ofMinutes(expirationTimePeerStatus);
         this.maxSkeletonChunks = maxSkeletonChunks;
         this.chunkSize = chunkSize;
+        this.validationThreads = validationThreads;
+        this.maxPendingBlocks = maxPendingBlocks;
     }
 
     public final int getExpectedPeers() {
@@ -59,4 +77,12 @@ public final class SyncConfiguration {
     public final int getChunkSize() {
         return chunkSize;
     }
+
+    public final int getValidationThreads() {
+        return validationThreads;
+    }
+
+    public final int getMaxPendingBlocks() {
+        return maxPendingBlocks;
+    }
 }
@@ -0,0 +1,111 @@
+package co.rsk.net.sync;
+
+import co.rsk.validators.BlockRootValidationRule;
+import co.rsk.validators.BlockUnclesHashValidationRule;
+import co.rsk.validators.BlockValidationRule;
+import org.ethereum.core.Block;
+import org.ethereum.core.BlockHeader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * SyncPipeline runs the stateless validations of the syncing process,
+ * so they can be done in parallel and out of the syncing thread
+ * <p>
+ * The header stage validates the PoW and difficulty of a chunk of headers, split in slices
+ * The body stage checks the transactions root and uncles hash of a downloaded block
+ * <p>
+ * The stages do not touch the blockchain, the blocks are executed sequentially by the syncing state
+ * in the order they were downloaded, after their validation is completed
+ */
+public class SyncPipeline {
+    private static final int HEADERS_PER_TASK = 32;
+
+    private final Executor executor;
+    private final int maxPendingBlocks;
+
+    // validation rules for bodies
+    private final BlockValidationRule blockUnclesHashValidationRule;
+    private final BlockValidationRule blockTransactionsValidationRule;
+
+    /**
+     * Creates a pipeline
+     *
+     * @param executor          the executor running the validations
+     * @param maxPendingBlocks  the maximum number of downloaded blocks waiting to be executed
+     */
+    public SyncPipeline(Executor executor, int maxPendingBlocks) {
+        this.executor = executor;
+        this.maxPendingBlocks = maxPendingBlocks;
+        this.blockUnclesHashValidationRule = new BlockUnclesHashValidationRule();
+        this.blockTransactionsValidationRule = new BlockRootValidationRule();
+    }
+
+    /**
+     * Creates a pipeline that runs the validations on the calling thread
+     *
+     * @return the new pipeline
+     */
+    public static SyncPipeline direct() {
+        return new SyncPipeline(Runnable::run, 1);
+    }
+
+    public int getMaxPendingBlocks() {
+        return maxPendingBlocks;
+    }
+
+    /**
+     * Validates each header of a chunk against its parent, the next header in the chunk
+     *
+     * @param chunk             the headers, ordered by block number desc
+     * @param syncInformation   the sync information, used to validate the headers
+     * @return  the index in the chunk of the invalid header with the lowest number, or -1 if all the headers are valid
+     */
+    public int findInvalidHeader(List<BlockHeader> chunk, SyncInformation syncInformation) {
+        List<CompletableFuture<Integer>> slices = new ArrayList<>();
+
+        // the last header has no parent in the chunk, it was already validated
+        for (int from = chunk.size() - 2; from >= 0; from -= HEADERS_PER_TASK) {
+            int sliceFrom = from;
+            int sliceTo = Math.max(from - HEADERS_PER_TASK, -1);
+
+            slices.add(CompletableFuture.supplyAsync(() -> findInvalidHeader(chunk, sliceFrom, sliceTo, syncInformation), executor));
+        }
+
+        // slices are ordered by block number asc, the first invalid one is reported
+        for (CompletableFuture<Integer> slice : slices) {
+            int invalid = slice.join();
+
+            if (invalid >= 0) {
+                return invalid;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Checks the transactions root and the uncles hash of a block against its header
+     *
+     * @param block the block built from the downloaded body
+     * @return  the future result of the validation
+     */
+    public CompletableFuture<Boolean> validateBody(Block block) {
+        return CompletableFuture.supplyAsync(
+                () -> blockUnclesHashValidationRule.isValid(block) && blockTransactionsValidationRule.isValid(block),
+                executor);
+    }
+
+    private static int findInvalidHeader(List<BlockHeader> chunk, int from, int to, SyncInformation syncInformation) {
+        for (int k = from; k > to; k--) {
+            if (!syncInformation.blockHeaderIsValid(chunk.get(k), chunk.get(k + 1))) {
+                return k;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -239,6 +239,15 @@ public class Bridge extends PrecompiledContracts.PrecompiledContract {
         this.logs = logs;
     }
 
+    @Override
+    public void reset() {
+        this.rskTx = null;
+        this.rskExecutionBlock = null;
+        this.repository = null;
+        this.logs = null;
+        this.bridgeSupport = null;
+    }
+
     @Override
     public byte[] execute(byte[] data) {
         try
@@ -88,6 +88,11 @@ public class RemascContract extends PrecompiledContracts.PrecompiledContract {
         this.remasc = new Remasc(this.config, repository, blockStore, remascConfig, executionTx, contractAddress, executionBlock, logs);
     }
 
+    @Override
+    public void reset() {
+        this.remasc = null;
+    }
+
     @Override
     public byte[] execute(byte[] data) {
         try {
@@ -0,0 +1,62 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.rpc;
+
+import co.rsk.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.googlecode.jsonrpc4j.InvocationListener;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Records the time spent in each JSON RPC method, and the invocations that failed.
+ *
+ * The server reports the duration in milliseconds, so the start is kept by thread,
+ * as the method is invoked by the thread that handles the request.
+ */
+public class JsonRpcMethodMetrics implements InvocationListener {
+    private final MetricRegistry registry;
+    private final ThreadLocal<Long> invocationStart = new ThreadLocal<>();
+
+    public JsonRpcMethodMetrics(MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void willInvoke(Method method, List<JsonNode> arguments) {
+        invocationStart.set(System.nanoTime());
+    }
+
+    @Override
+    public void didInvoke(Method method, List<JsonNode> arguments, Object result, Throwable t, long duration) {
+        Long start = invocationStart.get();
+        invocationStart.remove();
+
+        if (start != null) {
+            registry.histogram("rpc_request_seconds", "Time spent in the JSON RPC methods", "method", method.getName())
+                    .recordSince(start);
+        }
+
+        if (t != null) {
+            registry.counter("rpc_request_errors_total", "JSON RPC invocations that failed", "method", method.getName())
+                    .inc();
+        }
+    }
+}
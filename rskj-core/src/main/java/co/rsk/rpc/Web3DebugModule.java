@@ -26,6 +26,14 @@ public interface Web3DebugModule {
         return getDebugModule().wireProtocolQueueSize();
     }
 
+    default String debug_messageQueueMetrics() {
+        return getDebugModule().messageQueueMetrics();
+    }
+
+    default String debug_metrics() {
+        return getDebugModule().metrics();
+    }
+
     DebugModule getDebugModule();
 }
 
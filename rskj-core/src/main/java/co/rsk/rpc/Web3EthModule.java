@@ -56,6 +56,14 @@ public interface Web3EthModule {
         return getEthModule().bridgeState();
     }
 
+    default Map<String, Object> eth_getStorageRange(String address, String startKeyHash, int maxResults, String bnOrId) {
+        return getEthModule().getStorageRange(address, startKeyHash, maxResults, bnOrId);
+    }
+
+    default Map<String, Object> eth_getAccountRange(String startAddressHash, int maxResults, String bnOrId) {
+        return getEthModule().getAccountRange(startAddressHash, maxResults, bnOrId);
+    }
+
     EthModule getEthModule();
 
     String eth_protocolVersion();
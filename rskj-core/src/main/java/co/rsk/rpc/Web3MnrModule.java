@@ -28,6 +28,10 @@ public interface Web3MnrModule {
         return getMnrModule().getWork();
     }
 
+    default String mnr_getBlockTemplateMetrics() {
+        return getMnrModule().getBlockTemplateMetrics();
+    }
+
     default SubmittedBlockInfo mnr_submitBitcoinBlock(String bitcoinBlockHex) {
         return getMnrModule().submitBitcoinBlock(bitcoinBlockHex);
     }
@@ -22,4 +22,8 @@ public interface DebugModule {
 
     String wireProtocolQueueSize();
 
+    String messageQueueMetrics();
+
+    String metrics();
+
 }
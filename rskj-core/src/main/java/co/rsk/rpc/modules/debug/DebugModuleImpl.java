@@ -18,11 +18,18 @@
 
 package co.rsk.rpc.modules.debug;
 
+import co.rsk.metrics.*;
 import co.rsk.net.MessageHandler;
+import co.rsk.net.MessageQueueMetrics;
+import co.rsk.net.messages.MessageType;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.ethereum.rpc.TypeConverter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Component
 public class DebugModuleImpl implements DebugModule {
 
@@ -38,4 +45,63 @@ public class DebugModuleImpl implements DebugModule {
         long n = messageHandler.getMessageQueueSize();
         return TypeConverter.toJsonHex(n);
     }
+
+    @Override
+    public String messageQueueMetrics() {
+        JsonNodeFactory jsonNodeFactory = JsonNodeFactory.instance;
+        ObjectNode node = jsonNodeFactory.objectNode();
+
+        for (Map.Entry<MessageType, MessageQueueMetrics.TypeMetrics> entry : messageHandler.getMessageQueueMetrics().getMetrics().entrySet()) {
+            MessageQueueMetrics.TypeMetrics metrics = entry.getValue();
+
+            // only the message types that were received
+            if (metrics.getQueued() == 0 && metrics.getDropped() == 0) {
+                continue;
+            }
+
+            ObjectNode typeNode = node.putObject(entry.getKey().name());
+            typeNode.put("depth", metrics.getDepth());
+            typeNode.put("queued", metrics.getQueued());
+            typeNode.put("dropped", metrics.getDropped());
+            typeNode.put("processed", metrics.getProcessed());
+            typeNode.put("averageWaitMicros", metrics.getAverageWaitNanos() / 1000);
+            typeNode.put("maxWaitMicros", metrics.getMaxWaitNanos() / 1000);
+            typeNode.put("averageProcessMicros", metrics.getAverageProcessNanos() / 1000);
+        }
+
+        return node.toString();
+    }
+
+    @Override
+    public String metrics() {
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+
+        for (Metric metric : MetricRegistry.getDefault().getMetrics()) {
+            // the metrics with a label are grouped by name
+            ObjectNode parent = node;
+            String key = metric.getName();
+
+            if (metric.hasLabel()) {
+                parent = node.has(key) ? (ObjectNode) node.get(key) : node.putObject(key);
+                key = metric.getLabelValue();
+            }
+
+            if (metric instanceof Counter) {
+                parent.put(key, ((Counter) metric).get());
+            } else if (metric instanceof Gauge) {
+                parent.put(key, ((Gauge) metric).get());
+            } else if (metric instanceof Histogram) {
+                Histogram histogram = (Histogram) metric;
+                ObjectNode histogramNode = parent.putObject(key);
+                histogramNode.put("count", histogram.getCount());
+                histogramNode.put("p50Micros", histogram.getPercentile(0.5) / 1000);
+                histogramNode.put("p90Micros", histogram.getPercentile(0.9) / 1000);
+                histogramNode.put("p99Micros", histogram.getPercentile(0.99) / 1000);
+                histogramNode.put("maxMicros", histogram.getMax() / 1000);
+                histogramNode.put("totalMicros", histogram.getSum() / 1000);
+            }
+        }
+
+        return node.toString();
+    }
 }
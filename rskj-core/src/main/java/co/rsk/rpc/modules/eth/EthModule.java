@@ -20,13 +20,16 @@ package co.rsk.rpc.modules.eth;
 
 import co.rsk.bitcoinj.store.BlockStoreException;
 import co.rsk.config.RskSystemProperties;
+import co.rsk.core.RskAddress;
 import co.rsk.core.ReversibleTransactionExecutor;
 import co.rsk.peg.BridgeState;
 import co.rsk.peg.BridgeSupport;
 import co.rsk.rpc.ExecutionBlockRetriever;
+import org.ethereum.core.AccountState;
 import org.ethereum.core.Block;
 import org.ethereum.core.Blockchain;
 import org.ethereum.core.Repository;
+import org.ethereum.db.ContractDetails;
 import org.ethereum.rpc.Web3;
 import org.ethereum.rpc.converters.CallArgumentsToByteArray;
 import org.ethereum.rpc.dto.CompilationResultDTO;
@@ -38,8 +41,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import static org.ethereum.rpc.TypeConverter.stringHexToByteArray;
 import static org.ethereum.rpc.TypeConverter.toJsonHex;
 
 // TODO add all RPC methods
@@ -49,6 +56,9 @@ public class EthModule
 
     private static final Logger LOGGER = LoggerFactory.getLogger("web3");
 
+    // maximum number of entries in a range result
+    private static final int MAX_RANGE_RESULTS = 1000;
+
     private final RskSystemProperties config;
     private final Blockchain blockchain;
     private final ReversibleTransactionExecutor reversibleTransactionExecutor;
@@ -95,6 +105,84 @@ public class EthModule
         return state.stateToMap();
     }
 
+    /**
+     * Lists the storage cells of a contract, ordered by the hash of their keys
+     *
+     * @param address       the contract address
+     * @param startKeyHash  the first key hash to list, null to start from the first cell
+     * @param maxResults    the maximum number of cells to list
+     * @param bnOrId        the block
+     * @return  the storage cells by key hash, and the key hash of the next page, if any;
+     *          no cells if the address is unknown
+     */
+    public Map<String, Object> getStorageRange(String address, String startKeyHash, int maxResults, String bnOrId) {
+        Repository repository = getRepository(bnOrId);
+        ContractDetails details = repository.getContractDetails(new RskAddress(address));
+
+        Map<String, Object> storage = new LinkedHashMap<>();
+        String nextKeyHash = null;
+
+        // an unknown address has no storage
+        Iterator<Map.Entry<byte[], byte[]>> cells = details == null ?
+                Collections.emptyIterator() : details.getStorageRange(toRangeLimit(startKeyHash), null);
+
+        while (cells.hasNext()) {
+            Map.Entry<byte[], byte[]> cell = cells.next();
+
+            if (storage.size() >= getMaxRangeResults(maxResults)) {
+                nextKeyHash = toJsonHex(cell.getKey());
+                break;
+            }
+
+            // the values are listed as stored, the ones put as bytes can be longer than a word
+            storage.put(toJsonHex(cell.getKey()), toJsonHex(cell.getValue()));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("storage", storage);
+        result.put("nextKey", nextKeyHash);
+
+        return result;
+    }
+
+    /**
+     * Lists the accounts of the state, ordered by the hash of their addresses
+     *
+     * @param startAddressHash  the first address hash to list, null to start from the first account
+     * @param maxResults        the maximum number of accounts to list
+     * @param bnOrId            the block
+     * @return  the accounts by address hash, and the address hash of the next page, if any
+     */
+    public Map<String, Object> getAccountRange(String startAddressHash, int maxResults, String bnOrId) {
+        Repository repository = getRepository(bnOrId);
+        Iterator<Map.Entry<byte[], byte[]>> accountStates = repository.getAccountsRange(toRangeLimit(startAddressHash), null);
+
+        Map<String, Object> accounts = new LinkedHashMap<>();
+        String nextAddressHash = null;
+
+        while (accountStates.hasNext()) {
+            Map.Entry<byte[], byte[]> entry = accountStates.next();
+
+            if (accounts.size() >= getMaxRangeResults(maxResults)) {
+                nextAddressHash = toJsonHex(entry.getKey());
+                break;
+            }
+
+            AccountState accountState = new AccountState(entry.getValue());
+            Map<String, Object> account = new LinkedHashMap<>();
+            account.put("balance", toJsonHex(accountState.getBalance().asBigInteger()));
+            account.put("nonce", toJsonHex(accountState.getNonce()));
+            account.put("codeHash", toJsonHex(accountState.getCodeHash()));
+            accounts.put(toJsonHex(entry.getKey()), account);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("accounts", accounts);
+        result.put("nextKey", nextAddressHash);
+
+        return result;
+    }
+
     public String call(Web3.CallArguments args, String bnOrId) {
         String s = null;
         try {
@@ -131,6 +219,20 @@ public class EthModule
         return ethModuleWallet.sign(addr, data);
     }
 
+    private Repository getRepository(String bnOrId) {
+        Block block = executionBlockRetriever.getExecutionBlock(bnOrId);
+
+        return blockchain.getRepository().getSnapshotTo(block.getStateRoot());
+    }
+
+    private static byte[] toRangeLimit(String hash) {
+        return hash == null ? null : stringHexToByteArray(hash);
+    }
+
+    private static int getMaxRangeResults(int maxResults) {
+        return Math.max(1, Math.min(maxResults, MAX_RANGE_RESULTS));
+    }
+
     private ProgramResult callConstant(Web3.CallArguments args, Block executionBlock) {
         CallArgumentsToByteArray hexArgs = new CallArgumentsToByteArray(args);
         return reversibleTransactionExecutor.executeTransaction(
@@ -25,6 +25,8 @@ public interface MnrModule {
 
     MinerWork getWork();
 
+    String getBlockTemplateMetrics();
+
     SubmittedBlockInfo submitBitcoinBlock(String bitcoinBlockHex);
 
     SubmittedBlockInfo submitBitcoinBlockTransactions(
@@ -26,6 +26,8 @@ import co.rsk.bitcoinj.params.RegTestParams;
 import co.rsk.config.RskMiningConstants;
 import co.rsk.mine.*;
 import co.rsk.rpc.exception.JsonRpcSubmitBlockException;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.commons.lang3.ArrayUtils;
 import org.ethereum.crypto.Keccak256Helper;
 import org.ethereum.rpc.TypeConverter;
@@ -56,6 +58,27 @@ public class MnrModuleImpl implements MnrModule {
         return minerServer.getWork();
     }
 
+    @Override
+    public String getBlockTemplateMetrics() {
+        BlockTemplateMetrics metrics = minerServer.getBlockTemplateMetrics();
+
+        JsonNodeFactory jsonNodeFactory = JsonNodeFactory.instance;
+        ObjectNode node = jsonNodeFactory.objectNode();
+
+        putBuildMetrics(node.putObject("full"), metrics.getFullBuilds());
+        putBuildMetrics(node.putObject("incremental"), metrics.getIncrementalBuilds());
+        node.put("appendedTransactions", metrics.getAppendedTransactions());
+        node.put("lastBuildMicros", metrics.getLastBuildNanos() / 1000);
+
+        return node.toString();
+    }
+
+    private static void putBuildMetrics(ObjectNode node, BlockTemplateMetrics.BuildMetrics metrics) {
+        node.put("count", metrics.getCount());
+        node.put("averageMicros", metrics.getAverageNanos() / 1000);
+        node.put("maxMicros", metrics.getMaxNanos() / 1000);
+    }
+
     @Override
     public SubmittedBlockInfo submitBitcoinBlock(String bitcoinBlockHex) {
         logger.debug("submitBitcoinBlock(): {}", bitcoinBlockHex.length());
@@ -96,6 +96,10 @@ public class JsonRpcWeb3FilterHandler extends SimpleChannelInboundHandler<FullHt
                 ctx.fireChannelRead(request);
                 return;
             }
+        } else if (Web3MetricsHandler.isMetricsRequest(request)) {
+            // retain the request so it isn't released automatically by SimpleChannelInboundHandler
+            ctx.fireChannelRead(request.retain());
+            return;
         } else {
             response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.NOT_IMPLEMENTED);
         }
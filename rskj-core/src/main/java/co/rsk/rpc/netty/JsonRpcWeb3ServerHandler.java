@@ -18,7 +18,9 @@
 
 package co.rsk.rpc.netty;
 
+import co.rsk.metrics.MetricRegistry;
 import co.rsk.rpc.JsonRpcMethodFilter;
+import co.rsk.rpc.JsonRpcMethodMetrics;
 import co.rsk.rpc.ModuleDescription;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -50,6 +52,7 @@ public class JsonRpcWeb3ServerHandler extends SimpleChannelInboundHandler<ByteBu
     public JsonRpcWeb3ServerHandler(Web3 service, List<ModuleDescription> filteredModules) {
         this.jsonRpcServer = new JsonRpcBasicServer(service, service.getClass());
         jsonRpcServer.setRequestInterceptor(new JsonRpcMethodFilter(filteredModules));
+        jsonRpcServer.setInvocationListener(new JsonRpcMethodMetrics(MetricRegistry.getDefault()));
         jsonRpcServer.setErrorResolver(new MultipleErrorResolver(new RskErrorResolver(), AnnotationsErrorResolver.INSTANCE, DefaultErrorResolver.INSTANCE));
     }
 
@@ -1,5 +1,6 @@
 package co.rsk.rpc.netty;
 
+import co.rsk.metrics.MetricRegistry;
 import co.rsk.rpc.CorsConfiguration;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelInitializer;
@@ -72,6 +73,7 @@ public class Web3HttpServer {
                         );
                     }
                     p.addLast(jsonRpcWeb3FilterHandler);
+                    p.addLast(new Web3MetricsHandler(MetricRegistry.getDefault()));
                     p.addLast(new Web3HttpMethodFilterHandler());
                     p.addLast(jsonRpcWeb3ServerHandler);
                     p.addLast(new Web3ResultHttpResponseHandler());
@@ -0,0 +1,63 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package co.rsk.rpc.netty;
+
+import co.rsk.metrics.MetricRegistry;
+import co.rsk.metrics.PrometheusTextFormat;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.*;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Answers GET /metrics with the metrics of the node in the Prometheus text format,
+ * and passes any other request to the next handler.
+ */
+public class Web3MetricsHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+    private static final String METRICS_PATH = "/metrics";
+
+    private final MetricRegistry registry;
+
+    public Web3MetricsHandler(MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static boolean isMetricsRequest(HttpRequest request) {
+        return HttpMethod.GET.equals(request.getMethod()) && METRICS_PATH.equals(new QueryStringDecoder(request.getUri()).path());
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) {
+        if (!isMetricsRequest(request)) {
+            // retain the request so it isn't released automatically by SimpleChannelInboundHandler
+            ctx.fireChannelRead(request.retain());
+            return;
+        }
+
+        ByteBuf content = Unpooled.copiedBuffer(PrometheusTextFormat.write(registry), StandardCharsets.UTF_8);
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, content);
+        response.headers().set(HttpHeaders.Names.CONTENT_TYPE, PrometheusTextFormat.CONTENT_TYPE);
+        response.headers().set(HttpHeaders.Names.CONTENT_LENGTH, content.readableBytes());
+
+        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    }
+}
@@ -16,6 +16,7 @@ public class InetAddressBlock {
     private final byte[] bytes;
     private final int nbytes;
     private final byte mask;
+    private final int bits;
 
     /**
      * Creates an InetAddressBlock given an address and the number of bits to ignore
@@ -28,6 +29,7 @@ public class InetAddressBlock {
         this.bytes = address.getAddress();
         this.nbytes = this.bytes.length - (bits + 7) / 8;
         this.mask = (byte)(0xff << (bits % 8));
+        this.bits = bits;
     }
 
     /**
@@ -58,6 +60,16 @@ public class InetAddressBlock {
         return true;
     }
 
+    /**
+     * Returns the number of leading bits shared by all the addresses in the block
+     *
+     * @return  the address length in bits minus the number of bits to ignore
+     * ie 24 for "192.168.51.1/8"
+     */
+    public int getPrefixLength() {
+        return this.bytes.length * 8 - this.bits;
+    }
+
     /**
      * Returns the string representation of the address block
      *
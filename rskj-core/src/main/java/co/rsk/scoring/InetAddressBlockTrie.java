@@ -0,0 +1,153 @@
+package co.rsk.scoring;
+
+import java.net.InetAddress;
+
+/**
+ * InetAddressBlockTrie is a binary radix trie of address blocks
+ * There is one trie for IPV4 addresses and one for IPV6 addresses
+ * Each node represents an address prefix, marked with the number of blocks having that prefix
+ * <p>
+ * The nodes are immutable: writes copy the path to the modified node and then publish
+ * the new root, so reads do not take any lock and see a consistent trie
+ * <p>
+ * Checking an address visits at most one node per address bit (32 or 128),
+ * independently of the number of blocks
+ */
+public class InetAddressBlockTrie {
+    private static final int IPV4_LENGTH = 4;
+
+    private volatile Node ipv4Root;
+    private volatile Node ipv6Root;
+
+    /**
+     * Adds an address block into the trie
+     *
+     * @param addressBlock   the address block to add
+     */
+    public synchronized void add(InetAddressBlock addressBlock) {
+        byte[] bytes = addressBlock.getBytes();
+
+        if (bytes.length == IPV4_LENGTH) {
+            this.ipv4Root = add(this.ipv4Root, bytes, 0, addressBlock.getPrefixLength());
+        } else {
+            this.ipv6Root = add(this.ipv6Root, bytes, 0, addressBlock.getPrefixLength());
+        }
+    }
+
+    /**
+     * Removes an address block from the trie
+     * If the block was added more than once, only one of the additions is removed
+     *
+     * @param addressBlock   the address block to remove
+     */
+    public synchronized void remove(InetAddressBlock addressBlock) {
+        byte[] bytes = addressBlock.getBytes();
+
+        if (bytes.length == IPV4_LENGTH) {
+            this.ipv4Root = remove(this.ipv4Root, bytes, 0, addressBlock.getPrefixLength());
+        } else {
+            this.ipv6Root = remove(this.ipv6Root, bytes, 0, addressBlock.getPrefixLength());
+        }
+    }
+
+    /**
+     * Checks if the given address is contained in some address block of the trie
+     *
+     * @param address   the address to check
+     * @return  <tt>true</tt> if the address is contained in some address block
+     */
+    public boolean contains(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        Node node = bytes.length == IPV4_LENGTH ? this.ipv4Root : this.ipv6Root;
+        int nbits = bytes.length * 8;
+
+        for (int k = 0; k < nbits && node != null; k++) {
+            if (node.blocks > 0) {
+                return true;
+            }
+
+            node = getBit(bytes, k) ? node.one : node.zero;
+        }
+
+        return node != null && node.blocks > 0;
+    }
+
+    /**
+     * Returns if there is no address block in the trie
+     *
+     * @return  <tt>true</tt> if the trie has no address block
+     */
+    public boolean isEmpty() {
+        return this.ipv4Root == null && this.ipv6Root == null;
+    }
+
+    private static Node add(Node node, byte[] bytes, int depth, int prefixLength) {
+        Node current = node == null ? Node.EMPTY : node;
+
+        if (depth == prefixLength) {
+            return new Node(current.blocks + 1, current.zero, current.one);
+        }
+
+        if (getBit(bytes, depth)) {
+            return new Node(current.blocks, current.zero, add(current.one, bytes, depth + 1, prefixLength));
+        }
+
+        return new Node(current.blocks, add(current.zero, bytes, depth + 1, prefixLength), current.one);
+    }
+
+    private static Node remove(Node node, byte[] bytes, int depth, int prefixLength) {
+        if (node == null) {
+            return null;
+        }
+
+        Node result;
+
+        if (depth == prefixLength) {
+            if (node.blocks == 0) {
+                return node;
+            }
+
+            result = new Node(node.blocks - 1, node.zero, node.one);
+        } else if (getBit(bytes, depth)) {
+            Node one = remove(node.one, bytes, depth + 1, prefixLength);
+
+            if (one == node.one) {
+                return node;
+            }
+
+            result = new Node(node.blocks, node.zero, one);
+        } else {
+            Node zero = remove(node.zero, bytes, depth + 1, prefixLength);
+
+            if (zero == node.zero) {
+                return node;
+            }
+
+            result = new Node(node.blocks, zero, node.one);
+        }
+
+        if (result.blocks == 0 && result.zero == null && result.one == null) {
+            return null;
+        }
+
+        return result;
+    }
+
+    private static boolean getBit(byte[] bytes, int nbit) {
+        return (bytes[nbit / 8] & (0x80 >> (nbit % 8))) != 0;
+    }
+
+    private static final class Node {
+        private static final Node EMPTY = new Node(0, null, null);
+
+        private final int blocks;
+        private final Node zero;
+        private final Node one;
+
+        private Node(int blocks, Node zero, Node one) {
+            this.blocks = blocks;
+            this.zero = zero;
+            this.one = one;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package co.rsk.scoring;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -15,7 +16,8 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class InetAddressTable {
     private final Set<InetAddress> addresses = ConcurrentHashMap.newKeySet();
-    private final Set<InetAddressBlock> blocks = ConcurrentHashMap.newKeySet();
+    private final Map<InetAddressBlock, InetAddressBlock> blocks = new ConcurrentHashMap<>();
+    private final InetAddressBlockTrie blocksTrie = new InetAddressBlockTrie();
 
     /**
      * Adds an address into the address set
@@ -39,7 +41,9 @@ public class InetAddressTable {
      * @param addressBlock   the address block to add
      */
     public void addAddressBlock(InetAddressBlock addressBlock) {
-        this.blocks.add(addressBlock);
+        if (this.blocks.putIfAbsent(addressBlock, addressBlock) == null) {
+            this.blocksTrie.add(addressBlock);
+        }
     }
 
     /**
@@ -48,7 +52,11 @@ public class InetAddressTable {
      * @param addressBlock   the address block to remove
      */
     public void removeAddressBlock(InetAddressBlock addressBlock) {
-        this.blocks.remove(addressBlock);
+        InetAddressBlock removed = this.blocks.remove(addressBlock);
+
+        if (removed != null) {
+            this.blocksTrie.remove(removed);
+        }
     }
 
     /**
@@ -64,19 +72,7 @@ public class InetAddressTable {
             return true;
         }
 
-        if (this.blocks.isEmpty()) {
-            return false;
-        }
-
-        //TODO(mmarquez): we need to check if this is thread safe
-        InetAddressBlock[] bs = this.blocks.toArray(new InetAddressBlock[0]);
-        for (InetAddressBlock mask : bs) {
-            if (mask.contains(address)) {
-                return true;
-            }
-        }
-
-        return false;
+        return this.blocksTrie.contains(address);
     }
 
     /**
@@ -111,7 +107,7 @@ public class InetAddressTable {
         }
 
         //TODO(mmarquez): we need to check if this is thread safe
-        InetAddressBlock[] bs = this.blocks.toArray(new InetAddressBlock[0]);
+        InetAddressBlock[] bs = this.blocks.keySet().toArray(new InetAddressBlock[0]);
         List<InetAddressBlock> list = new ArrayList<>(bs.length);
 
         for (InetAddressBlock inetAddressBlock : bs) {
@@ -4,9 +4,9 @@ import co.rsk.net.NodeID;
 import com.google.common.annotations.VisibleForTesting;
 import org.spongycastle.util.encoders.Hex;
 
-import javax.annotation.concurrent.GuardedBy;
 import java.net.InetAddress;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -16,6 +16,10 @@ import java.util.stream.Collectors;
  * Starts punishments when the good reputation is lost
  * Alsa keeps a list of banned addresses and blocks
  * <p>
+ * The scorings are kept in concurrent stores, so events from different
+ * peers are recorded in parallel; the punishment check of a peer
+ * is serialized on its own scoring
+ * <p>
  * Created by ajlopez on 28/06/2017.
  */
 public class PeerScoringManager {
@@ -24,15 +28,11 @@ public class PeerScoringManager {
     private final PunishmentCalculator nodePunishmentCalculator;
     private final PunishmentCalculator ipPunishmentCalculator;
 
-    private final Object accessLock = new Object();
-
     private final InetAddressTable addressTable = new InetAddressTable();
 
-    @GuardedBy("accessLock")
-    private final LinkedHashMap<NodeID, PeerScoring> peersByNodeID;
+    private final PeerScoringStore<NodeID> peersByNodeID;
 
-    @GuardedBy("accessLock")
-    private final Map<InetAddress, PeerScoring> peersByAddress;
+    private final PeerScoringStore<InetAddress> peersByAddress;
 
     /**
      * Creates and initialize the scoring manager
@@ -53,14 +53,8 @@ public class PeerScoringManager {
         this.nodePunishmentCalculator = new PunishmentCalculator(nodeParameters);
         this.ipPunishmentCalculator = new PunishmentCalculator(ipParameters);
 
-        this.peersByNodeID = new LinkedHashMap<NodeID, PeerScoring>(nodePeersSize, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<NodeID, PeerScoring> eldest) {
-                return size() > nodePeersSize;
-            }
-        };
-
-        this.peersByAddress = new HashMap<>();
+        this.peersByNodeID = new PeerScoringStore<>(nodePeersSize);
+        this.peersByAddress = new PeerScoringStore<>(Integer.MAX_VALUE);
     }
 
     /**
@@ -71,16 +65,14 @@ public class PeerScoringManager {
      * @param event     event type (@see EventType)
      */
     public void recordEvent(NodeID id, InetAddress address, EventType event) {
-        synchronized (accessLock) {
-            if (id != null) {
-                PeerScoring scoring = peersByNodeID.computeIfAbsent(id, k -> peerScoringFactory.newInstance());
-                recordEvent(scoring, event, this.nodePunishmentCalculator);
-            }
+        if (id != null) {
+            PeerScoring scoring = peersByNodeID.getOrCreate(id, peerScoringFactory);
+            recordEvent(scoring, event, this.nodePunishmentCalculator);
+        }
 
-            if (address != null) {
-                PeerScoring scoring = peersByAddress.computeIfAbsent(address, k -> peerScoringFactory.newInstance());
-                recordEvent(scoring, event, this.ipPunishmentCalculator);
-            }
+        if (address != null) {
+            PeerScoring scoring = peersByAddress.getOrCreate(address, peerScoringFactory);
+            recordEvent(scoring, event, this.ipPunishmentCalculator);
         }
     }
 
@@ -91,9 +83,7 @@ public class PeerScoringManager {
      * @return  <tt>true</tt> if the node has good reputation
      */
     public boolean hasGoodReputation(NodeID id) {
-        synchronized (accessLock) {
-            return this.getPeerScoring(id).hasGoodReputation();
-        }
+        return this.getPeerScoring(id).hasGoodReputation();
     }
 
     /**
@@ -108,9 +98,7 @@ public class PeerScoringManager {
             return false;
         }
 
-        synchronized (accessLock) {
-            return this.getPeerScoring(address).hasGoodReputation();
-        }
+        return this.getPeerScoring(address).hasGoodReputation();
     }
 
     /**
@@ -186,14 +174,12 @@ public class PeerScoringManager {
      * @return  the list of peer scoring information
      */
     public List<PeerScoringInformation> getPeersInformation() {
-        synchronized (accessLock) {
-            List<PeerScoringInformation> list = new ArrayList<>(this.peersByNodeID.size() + this.peersByAddress.size());
+        List<PeerScoringInformation> list = new ArrayList<>(this.peersByNodeID.size() + this.peersByAddress.size());
 
-            list.addAll(this.peersByNodeID.entrySet().stream().map(entry -> new PeerScoringInformation(entry.getValue(), Hex.toHexString(entry.getKey().getID()).substring(0, 8), "node")).collect(Collectors.toList()));
-            list.addAll(this.peersByAddress.entrySet().stream().map(entry -> new PeerScoringInformation(entry.getValue(), entry.getKey().getHostAddress(), "address")).collect(Collectors.toList()));
+        list.addAll(this.peersByNodeID.getEntries().stream().map(entry -> new PeerScoringInformation(entry.getValue(), Hex.toHexString(entry.getKey().getID()).substring(0, 8), "node")).collect(Collectors.toList()));
+        list.addAll(this.peersByAddress.getEntries().stream().map(entry -> new PeerScoringInformation(entry.getValue(), entry.getKey().getHostAddress(), "address")).collect(Collectors.toList()));
 
-            return list;
-        }
+        return list;
     }
 
     /**
@@ -213,31 +199,29 @@ public class PeerScoringManager {
 
     @VisibleForTesting
     public boolean isEmpty() {
-        synchronized (accessLock) {
-            return this.peersByAddress.isEmpty() && this.peersByNodeID.isEmpty();
-        }
+        return this.peersByAddress.isEmpty() && this.peersByNodeID.isEmpty();
     }
 
     @VisibleForTesting
     public PeerScoring getPeerScoring(NodeID id) {
-        synchronized (accessLock) {
-            if (peersByNodeID.containsKey(id)) {
-                return peersByNodeID.get(id);
-            }
+        PeerScoring scoring = peersByNodeID.get(id);
 
-            return peerScoringFactory.newInstance();
+        if (scoring != null) {
+            return scoring;
         }
+
+        return peerScoringFactory.newInstance();
     }
 
     @VisibleForTesting
     public PeerScoring getPeerScoring(InetAddress address) {
-        synchronized (accessLock) {
-            if (peersByAddress.containsKey(address)) {
-                return peersByAddress.get(address);
-            }
+        PeerScoring scoring = peersByAddress.get(address);
 
-            return peerScoringFactory.newInstance();
+        if (scoring != null) {
+            return scoring;
         }
+
+        return peerScoringFactory.newInstance();
     }
 
     /**
@@ -248,11 +232,13 @@ public class PeerScoringManager {
      * @param calculator    the calculator to use
      */
     private void recordEvent(PeerScoring scoring, EventType event, PunishmentCalculator calculator) {
-        scoring.recordEvent(event);
-        boolean reputation = scoringCalculator.hasGoodReputation(scoring);
+        synchronized (scoring) {
+            scoring.recordEvent(event);
+            boolean reputation = scoringCalculator.hasGoodReputation(scoring);
 
-        if (!reputation && scoring.hasGoodReputation()) {
-            scoring.startPunishment(calculator.calculate(scoring.getPunishmentCounter(), scoring.getScore()));
+            if (!reputation && scoring.hasGoodReputation()) {
+                scoring.startPunishment(calculator.calculate(scoring.getPunishmentCounter(), scoring.getScore()));
+            }
         }
     }
 }
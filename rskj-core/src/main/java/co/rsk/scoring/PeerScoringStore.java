@@ -0,0 +1,160 @@
+package co.rsk.scoring;
+
+import javax.annotation.concurrent.GuardedBy;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PeerScoringStore keeps the peer scorings by key (node id or address)
+ * with a maximum number of entries
+ * <p>
+ * The keys are distributed by hash in stripes, each one an access ordered map
+ * with its own lock, so events from different peers do not contend on a single lock.
+ * When a stripe is full, its least recently accessed entry is removed.
+ * Small stores use a single stripe, keeping the exact least recently accessed eviction.
+ *
+ * @param <K>   the key type
+ */
+public class PeerScoringStore<K> {
+    private static final int MAX_STRIPES = 16;
+    private static final int MIN_STRIPE_SIZE = 16;
+
+    private final Stripe<K>[] stripes;
+
+    /**
+     * Creates a store
+     *
+     * @param maxSize   the maximum number of entries to keep
+     */
+    public PeerScoringStore(int maxSize) {
+        int nstripes = 1;
+
+        while (nstripes < MAX_STRIPES && maxSize / (nstripes * 2) >= MIN_STRIPE_SIZE) {
+            nstripes *= 2;
+        }
+
+        this.stripes = newStripes(nstripes);
+
+        for (int k = 0; k < nstripes; k++) {
+            // distributes the remainder, so the total size is exactly maxSize
+            int stripeSize = maxSize / nstripes + (k < maxSize % nstripes ? 1 : 0);
+            this.stripes[k] = new Stripe<>(stripeSize);
+        }
+    }
+
+    /**
+     * Returns the scoring associated with the key, marking it as accessed
+     *
+     * @param key   the node id or address
+     * @return  the peer scoring, or <tt>null</tt> if the key is not in the store
+     */
+    public PeerScoring get(K key) {
+        Stripe<K> stripe = this.getStripe(key);
+
+        synchronized (stripe) {
+            return stripe.scorings.get(key);
+        }
+    }
+
+    /**
+     * Returns the scoring associated with the key, marking it as accessed
+     * If the key is not in the store, a new scoring is created and added,
+     * removing the least recently accessed entry of the stripe if it is full
+     *
+     * @param key       the node id or address
+     * @param factory   the factory to create the new scoring
+     * @return  the peer scoring
+     */
+    public PeerScoring getOrCreate(K key, PeerScoring.Factory factory) {
+        Stripe<K> stripe = this.getStripe(key);
+
+        synchronized (stripe) {
+            return stripe.scorings.computeIfAbsent(key, k -> factory.newInstance());
+        }
+    }
+
+    /**
+     * Returns <tt>true</tt> if the store has no entry
+     *
+     * @return  <tt>true</tt> if the store is empty
+     */
+    public boolean isEmpty() {
+        for (Stripe<K> stripe : this.stripes) {
+            synchronized (stripe) {
+                if (!stripe.scorings.isEmpty()) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the number of entries
+     *
+     * @return  the number of entries
+     */
+    public int size() {
+        int size = 0;
+
+        for (Stripe<K> stripe : this.stripes) {
+            synchronized (stripe) {
+                size += stripe.scorings.size();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns a snapshot of the entries, without altering their access order
+     *
+     * @return  the list of keys and scorings
+     */
+    public List<Map.Entry<K, PeerScoring>> getEntries() {
+        List<Map.Entry<K, PeerScoring>> list = new ArrayList<>();
+
+        for (Stripe<K> stripe : this.stripes) {
+            synchronized (stripe) {
+                for (Map.Entry<K, PeerScoring> entry : stripe.scorings.entrySet()) {
+                    list.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+
+        return list;
+    }
+
+    private Stripe<K> getStripe(K key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+
+        return this.stripes[hash & (this.stripes.length - 1)];
+    }
+
+    // an array of a generic type can't be created, the stripes are empty when they are cast
+    @SuppressWarnings("unchecked")
+    private static <K> Stripe<K>[] newStripes(int nstripes) {
+        return (Stripe<K>[]) new Stripe<?>[nstripes];
+    }
+
+    private static final class Stripe<K> {
+        @GuardedBy("this")
+        private final LinkedHashMap<K, PeerScoring> scorings;
+
+        private Stripe(int maxSize) {
+            this.scorings = new LinkedHashMap<K, PeerScoring>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, PeerScoring> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+    }
+}
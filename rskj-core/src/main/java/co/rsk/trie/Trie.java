@@ -20,6 +20,10 @@ package co.rsk.trie;
 
 import co.rsk.crypto.Keccak256;
 
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.Map;
+
 /**
  * Created by ajlopez on 29/03/2017.
  */
@@ -44,8 +48,14 @@ public interface Trie {
 
     void save();
 
+    void save(int parallelThreshold);
+
     void copyTo(TrieStore target);
 
+    Iterator<Map.Entry<byte[], byte[]>> iterator();
+
+    Iterator<Map.Entry<byte[], byte[]>> iterator(@Nullable byte[] from, @Nullable byte[] to);
+
     int trieSize();
 
     Trie cloneTrie();
@@ -0,0 +1,255 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.trie;
+
+import co.rsk.crypto.Keccak256;
+import com.google.common.primitives.UnsignedBytes;
+import org.ethereum.crypto.Keccak256Helper;
+import org.ethereum.util.RLP;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TrieBuilder builds a trie bottom-up from keys in ascending order,
+ * creating each node once, instead of cloning the path nodes on each put
+ * <p>
+ * The keys should be added in ascending unsigned lexicographic order
+ * (in a secure trie, the order of the Keccak256 hashes of the keys).
+ * Null or empty values are skipped, an already added key replaces its value.
+ * <p>
+ * If the builder has a store, each completed node is written to it
+ * in batches, and its parent keeps only its hash, so the memory used
+ * does not depend on the number of keys. The built trie is already saved.
+ * <p>
+ * The trie is the same, and has the same hash, as the one built
+ * putting the keys one by one.
+ */
+public class TrieBuilder {
+    private static final int ARITY = 2;
+    private static final int BATCH_SIZE = 4096;
+
+    private final TrieStore store;
+    private final boolean isSecure;
+
+    // the nodes not completed yet, the last one has the last key
+    private final Deque<PendingNode> pendingNodes = new ArrayDeque<>();
+
+    // the completed nodes not written yet
+    private final Map<byte[], byte[]> messages = new HashMap<>();
+
+    private byte[] lastPath;
+
+    public TrieBuilder() {
+        this(null, false);
+    }
+
+    public TrieBuilder(TrieStore store, boolean isSecure) {
+        this.store = store;
+        this.isSecure = isSecure;
+    }
+
+    /**
+     * put adds a key value association, the key should not be less than the previous one
+     *
+     * @param key   the key
+     * @param value the value, null or empty values are skipped
+     *
+     * @return  this builder
+     *
+     * @throws IllegalArgumentException if the key is less than the previous key
+     */
+    public TrieBuilder put(byte[] key, byte[] value) {
+        if (value == null || value.length == 0) {
+            return this;
+        }
+
+        byte[] path = this.isSecure ? TrieImpl.bytesToKey(Keccak256Helper.keccak256(key)) : TrieImpl.bytesToKey(key);
+
+        if (this.lastPath == null) {
+            this.pendingNodes.push(new PendingNode(path, path.length, value));
+            this.lastPath = path;
+            return this;
+        }
+
+        int common = lengthOfCommonPath(this.lastPath, path);
+
+        if (common == this.lastPath.length && common == path.length) {
+            this.pendingNodes.peek().value = value;
+            return this;
+        }
+
+        if (common == path.length || (common < this.lastPath.length && this.lastPath[common] > path[common])) {
+            throw new IllegalArgumentException("Keys are not in ascending order");
+        }
+
+        // completes the nodes below the branch of the new key
+        if (this.pendingNodes.peek().depth > common) {
+            PendingNode child = this.pendingNodes.pop();
+
+            while (!this.pendingNodes.isEmpty() && this.pendingNodes.peek().depth > common) {
+                PendingNode parent = this.pendingNodes.pop();
+                this.attach(child, parent);
+                child = parent;
+            }
+
+            if (this.pendingNodes.isEmpty() || this.pendingNodes.peek().depth < common) {
+                this.pendingNodes.push(new PendingNode(path, common, null));
+            }
+
+            this.attach(child, this.pendingNodes.peek());
+        }
+
+        this.pendingNodes.push(new PendingNode(path, path.length, value));
+        this.lastPath = path;
+
+        return this;
+    }
+
+    /**
+     * build completes the trie with the added keys, and resets the builder
+     *
+     * @return  the top node of the trie
+     */
+    public Trie build() {
+        if (this.pendingNodes.isEmpty()) {
+            return new TrieImpl(this.store, this.isSecure);
+        }
+
+        PendingNode child = this.pendingNodes.pop();
+
+        while (!this.pendingNodes.isEmpty()) {
+            PendingNode parent = this.pendingNodes.pop();
+            this.attach(child, parent);
+            child = parent;
+        }
+
+        TrieImpl trie = child.toNode(this.store, this.isSecure, Arrays.copyOf(child.path, child.depth));
+
+        if (this.store != null) {
+            trie.commitNode(this.messages);
+            this.flush();
+        }
+
+        this.lastPath = null;
+
+        return trie;
+    }
+
+    /**
+     * fromIndexedValues builds a trie keyed by the RLP encoded position of each value,
+     * as the transactions and receipts tries
+     *
+     * @param values    the values
+     *
+     * @return  the top node of the trie, without store
+     */
+    public static Trie fromIndexedValues(List<byte[]> values) {
+        int nvalues = values.size();
+        byte[][] keys = new byte[nvalues][];
+        Integer[] positions = new Integer[nvalues];
+
+        for (int k = 0; k < nvalues; k++) {
+            keys[k] = RLP.encodeInt(k);
+            positions[k] = k;
+        }
+
+        Comparator<byte[]> comparator = UnsignedBytes.lexicographicalComparator();
+        Arrays.sort(positions, (p1, p2) -> comparator.compare(keys[p1], keys[p2]));
+
+        TrieBuilder builder = new TrieBuilder();
+
+        for (Integer position : positions) {
+            builder.put(keys[position], values.get(position));
+        }
+
+        return builder.build();
+    }
+
+    private void attach(PendingNode child, PendingNode parent) {
+        byte[] sharedPath = Arrays.copyOfRange(child.path, parent.depth + 1, child.depth);
+        TrieImpl node = child.toNode(this.store, this.isSecure, sharedPath);
+        int position = child.path[parent.depth];
+
+        if (this.store == null) {
+            if (parent.nodes == null) {
+                parent.nodes = new TrieImpl[ARITY];
+            }
+
+            parent.nodes[position] = node;
+            return;
+        }
+
+        // the completed node is written, the parent keeps its hash
+        node.commitNode(this.messages);
+
+        if (parent.hashes == null) {
+            parent.hashes = new Keccak256[ARITY];
+        }
+
+        parent.hashes[position] = node.getHash();
+
+        if (this.messages.size() >= BATCH_SIZE) {
+            this.flush();
+        }
+    }
+
+    private void flush() {
+        this.store.saveAll(this.messages);
+        this.messages.clear();
+    }
+
+    private static int lengthOfCommonPath(byte[] path1, byte[] path2) {
+        int length = Math.min(path1.length, path2.length);
+        int k = 0;
+
+        while (k < length && path1[k] == path2[k]) {
+            k++;
+        }
+
+        return k;
+    }
+
+    /**
+     * PendingNode is a node with its subnodes not completed yet
+     * It ends at depth in the path, where it has its value or branches
+     */
+    private static final class PendingNode {
+        private final byte[] path;
+        private final int depth;
+        private byte[] value;
+        private TrieImpl[] nodes;
+        private Keccak256[] hashes;
+
+        private PendingNode(byte[] path, int depth, byte[] value) {
+            this.path = path;
+            this.depth = depth;
+            this.value = value;
+        }
+
+        private TrieImpl toNode(TrieStore store, boolean isSecure, byte[] sharedPath) {
+            return TrieImpl.fromParts(store, isSecure, sharedPath, this.value, this.nodes, this.hashes);
+        }
+    }
+}
@@ -20,6 +20,7 @@ package co.rsk.trie;
 
 import co.rsk.crypto.Keccak256;
 import co.rsk.panic.PanicProcessor;
+import org.ethereum.crypto.HashUtil;
 import org.ethereum.crypto.Keccak256Helper;
 import org.ethereum.datasource.HashMapDB;
 import org.ethereum.util.RLP;
@@ -36,7 +37,14 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import static org.ethereum.util.ByteUtil.EMPTY_BYTE_ARRAY;
 
@@ -131,6 +139,24 @@ public class TrieImpl implements Trie {
         this.sharedPathLength = sharedPathLength;
     }
 
+    /**
+     * Factory method, to create a node from its parts, used by TrieBuilder
+     *
+     * @param store         the store of the node
+     * @param isSecure      the secure flag of the trie
+     * @param sharedPath    the shared path, one byte per bit, could be empty
+     * @param value         the value, or null
+     * @param nodes         the subnodes, or null
+     * @param hashes        the subnode hashes, or null
+     *
+     * @return the new node
+     */
+    static TrieImpl fromParts(TrieStore store, boolean isSecure, byte[] sharedPath, byte[] value, TrieImpl[] nodes, Keccak256[] hashes) {
+        byte[] encodedSharedPath = sharedPath.length == 0 ? null : PathEncoder.encode(sharedPath);
+
+        return new TrieImpl(encodedSharedPath, sharedPath.length, value, nodes, hashes, store).withSecure(isSecure);
+    }
+
     private TrieImpl withSecure(boolean isSecure) {
         this.isSecure = isSecure;
         return this;
@@ -294,9 +320,7 @@ public class TrieImpl implements Trie {
             return emptyHash.copy();
         }
 
-        byte[] message = this.toMessage();
-
-        this.hash = new Keccak256(Keccak256Helper.keccak256(message));
+        this.hash = new Keccak256(HashUtil.keccak256Concat(this.toMessageParts()));
 
         return this.hash.copy();
     }
@@ -444,12 +468,42 @@ public class TrieImpl implements Trie {
      */
     @Override
     public byte[] toMessage() {
+        byte[][] parts = this.toMessageParts();
+        int length = 0;
+
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+
+        byte[] message = new byte[length];
+        int position = 0;
+
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, message, position, part.length);
+            position += part.length;
+        }
+
+        return message;
+    }
+
+    /**
+     * toMessageParts returns the serialized node as the parts of its message,
+     * so the node can be hashed without joining them
+     *
+     * @return the header, the encoded shared path, the present hashes and the value (or its hash), if any
+     */
+    private byte[][] toMessageParts() {
         int lvalue = this.value == null ? 0 : this.value.length;
-        int nnodes = this.getNodeCount();
         int lshared = this.sharedPathLength;
-        int lencoded = getEncodedPathLength(lshared);
         boolean hasLongVal = this.hasLongValue();
 
+        byte[][] parts = new byte[3 + ARITY][];
+        int nparts = 1;
+
+        if (lshared > 0) {
+            parts[nparts++] = encodedSharedPath;
+        }
+
         int bits = 0;
 
         for (int k = 0; k < ARITY; k++) {
@@ -460,11 +514,12 @@ public class TrieImpl implements Trie {
             }
 
             bits |= 1 << k;
+            parts[nparts++] = nodeHash.getBytes();
         }
 
-        ByteBuffer buffer = ByteBuffer.allocate(MESSAGE_HEADER_LENGTH + lencoded + nnodes * Keccak256Helper.DEFAULT_SIZE_BYTES + (hasLongVal ? Keccak256Helper.DEFAULT_SIZE_BYTES : lvalue));
-
-        buffer.put((byte) ARITY);
+        if (lvalue > 0) {
+            parts[nparts++] = hasLongVal ? this.getValueHash() : this.value;
+        }
 
         byte flags = 0;
 
@@ -476,56 +531,156 @@ public class TrieImpl implements Trie {
             flags |= 2;
         }
 
-        buffer.put(flags);
-        buffer.putShort((short) bits);
-        buffer.putShort((short) lshared);
+        byte[] header = new byte[MESSAGE_HEADER_LENGTH];
+        header[0] = (byte) ARITY;
+        header[1] = flags;
+        header[2] = (byte) (bits >> 8);
+        header[3] = (byte) bits;
+        header[4] = (byte) (lshared >> 8);
+        header[5] = (byte) lshared;
+        parts[0] = header;
 
-        if (lshared > 0) {
-            buffer.put(encodedSharedPath);
+        return nparts == parts.length ? parts : Arrays.copyOf(parts, nparts);
+    }
+
+    /**
+     * save saves the unsaved current trie and subnodes to their associated store
+     *
+     * Each unsaved node is serialized once, to calculate its hash and to write it,
+     * and all the nodes are written in one batch
+     */
+    @Override
+    public void save() {
+        if (this.saved) {
+            return;
         }
 
-        for (int k = 0; k < ARITY; k++) {
-            Keccak256 nodeHash = this.getHash(k);
+        Map<byte[], byte[]> messages = new HashMap<>();
+        this.commit(messages);
+        this.store.saveAll(messages);
+    }
 
-            if (nodeHash == null) {
-                continue;
-            }
+    /**
+     * save saves the unsaved current trie and subnodes to their associated store,
+     * hashing the unsaved subtrees in parallel, in the common fork join pool,
+     * while they have at least parallelThreshold unsaved nodes
+     *
+     * @param parallelThreshold the minimum number of unsaved nodes in a subtree to split its work, 0 to not split
+     */
+    @Override
+    public void save(int parallelThreshold) {
+        if (this.saved) {
+            return;
+        }
 
-            buffer.put(nodeHash.getBytes());
+        if (parallelThreshold <= 0 || this.countUnsavedNodes(parallelThreshold) < parallelThreshold) {
+            this.save();
+            return;
         }
 
-        if (lvalue > 0) {
-            if (hasLongVal) {
-                buffer.put(this.getValueHash());
+        Map<byte[], byte[]> messages = new ConcurrentHashMap<>();
+        ForkJoinPool.commonPool().invoke(new CommitTask(this, parallelThreshold, messages));
+        this.store.saveAll(messages);
+    }
+
+    /**
+     * commit serializes and hashes the unsaved subnodes and then the current node,
+     * marking them as saved
+     *
+     * @param messages  the map to collect the serialized nodes and long values, by hash
+     */
+    private void commit(Map<byte[], byte[]> messages) {
+        if (this.saved) {
+            return;
+        }
+
+        if (this.nodes != null) {
+            for (TrieImpl node : this.nodes) {
+                if (node != null) {
+                    node.commit(messages);
+                }
+            }
+        }
+
+        this.commitNode(messages);
+    }
+
+    /**
+     * commitNode serializes and hashes the current node, its subnodes should be already committed
+     *
+     * @param messages  the map to collect the serialized node and its long value, by hash
+     */
+    void commitNode(Map<byte[], byte[]> messages) {
+        byte[] message = this.toMessage();
+        Keccak256 nodeHash = this.hash;
+
+        if (nodeHash == null) {
+            if (isEmptyTrie(this.value, this.nodes, this.hashes)) {
+                nodeHash = emptyHash;
             }
             else {
-                buffer.put(this.value);
+                nodeHash = new Keccak256(HashUtil.keccak256(message));
+                this.hash = nodeHash;
             }
         }
 
-        return buffer.array();
+        messages.put(nodeHash.getBytes(), message);
+
+        if (this.hasLongValue()) {
+            messages.put(this.getValueHash(), this.value);
+        }
+
+        this.saved = true;
     }
 
     /**
-     * save saves the unsaved current trie and subnodes to their associated store
+     * countUnsavedNodes counts the unsaved nodes of the trie, up to a limit
+     *
+     * @param limit the count to stop at
      *
+     * @return  the number of unsaved nodes, or a number not less than limit
      */
-    @Override
-    public void save() {
+    private int countUnsavedNodes(int limit) {
         if (this.saved) {
-            return;
+            return 0;
         }
 
+        int count = 1;
+
         if (this.nodes != null) {
             for (TrieImpl node : this.nodes) {
-                if (node != null) {
-                    node.save();
+                if (node != null && count < limit) {
+                    count += node.countUnsavedNodes(limit - count);
                 }
             }
         }
 
-        this.store.save(this);
-        this.saved = true;
+        return count;
+    }
+
+    /**
+     * iterator returns the key value associations of the trie, in ascending key order
+     * The nodes are retrieved from the store when they are needed, and they are not kept in the trie
+     *
+     * @return  the iterator of keys and values. In a secure trie, each key is the hash of the original key
+     */
+    @Override
+    public Iterator<Map.Entry<byte[], byte[]>> iterator() {
+        return new TrieIterator(this, null, null);
+    }
+
+    /**
+     * iterator returns the key value associations of the trie with a key in [from, to), in ascending key order
+     * The subtrees out of the range are not visited
+     *
+     * @param from  the first key to include, null to start from the first key
+     * @param to    the first key to exclude, null to include up to the last key
+     *
+     * @return  the iterator of keys and values. In a secure trie, each key and limit is the hash of the original key
+     */
+    @Override
+    public Iterator<Map.Entry<byte[], byte[]>> iterator(@Nullable byte[] from, @Nullable byte[] to) {
+        return new TrieIterator(this, from == null ? null : bytesToKey(from), to == null ? null : bytesToKey(to));
     }
 
     @Override
@@ -680,6 +835,48 @@ public class TrieImpl implements Trie {
         return node;
     }
 
+    /**
+     * getSubnode get the subnode at position n. If it is not present but its hash is known,
+     * the node is retrieved from the store, without keeping it in this node,
+     * so a traversal of the trie does not load it in memory
+     *
+     * @param n position of subnode (0 to arity - 1)
+     *
+     * @return  the node or null if no subnode at position
+     */
+    TrieImpl getSubnode(int n) {
+        TrieImpl node = this.getNode(n);
+
+        if (node != null || this.hashes == null || this.hashes[n] == null) {
+            return node;
+        }
+
+        Keccak256 localHash = this.hashes[n];
+        node = (TrieImpl) this.store.retrieve(localHash.getBytes());
+
+        if (node == null) {
+            String strHash = localHash.toHexString();
+            logger.error(ERROR_NON_EXISTENT_TRIE_LOGGER, strHash);
+            panicProcessor.panic(PANIC_TOPIC, ERROR_NON_EXISTENT_TRIE + " " + strHash);
+            throw new TrieSerializationException(ERROR_NON_EXISTENT_TRIE + " " + strHash, null);
+        }
+
+        return node;
+    }
+
+    /**
+     * getSharedPath returns the shared path of the node, one byte per bit
+     *
+     * @return  the shared path, an empty array if the node has no shared path
+     */
+    byte[] getSharedPath() {
+        if (this.sharedPathLength == 0) {
+            return EMPTY_BYTE_ARRAY;
+        }
+
+        return PathEncoder.decode(this.encodedSharedPath, this.sharedPathLength);
+    }
+
     /**
      * getHash get hash associated to subnode at positin n. If the hash is known
      * because it is in the internal hash cache, no access to subnode is needed.
@@ -1249,4 +1446,42 @@ public class TrieImpl implements Trie {
     private static Keccak256 makeEmptyHash() {
         return new Keccak256(Keccak256Helper.keccak256(RLP.encodeElement(EMPTY_BYTE_ARRAY)));
     }
+
+    /**
+     * CommitTask commits an unsaved subtree, forking the commit of its subnodes
+     * while the subtree has at least threshold unsaved nodes
+     */
+    private static class CommitTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final TrieImpl trie;
+        private final int threshold;
+        private final Map<byte[], byte[]> messages;
+
+        CommitTask(TrieImpl trie, int threshold, Map<byte[], byte[]> messages) {
+            this.trie = trie;
+            this.threshold = threshold;
+            this.messages = messages;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.trie.nodes == null || this.trie.countUnsavedNodes(this.threshold) < this.threshold) {
+                this.trie.commit(this.messages);
+                return;
+            }
+
+            List<CommitTask> tasks = new ArrayList<>();
+
+            for (TrieImpl node : this.trie.nodes) {
+                if (node != null && !node.saved) {
+                    tasks.add(new CommitTask(node, this.threshold, this.messages));
+                }
+            }
+
+            invokeAll(tasks);
+
+            this.trie.commitNode(this.messages);
+        }
+    }
 }
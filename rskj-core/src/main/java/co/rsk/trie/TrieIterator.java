@@ -0,0 +1,194 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.trie;
+
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * TrieIterator visits the values of a trie in ascending key order,
+ * optionally limited to the keys in [from, to)
+ * <p>
+ * It keeps only the nodes in the path to the current key, retrieving
+ * the subnodes from the store when they are needed, without keeping them in the trie.
+ * The subtrees out of the range are skipped without retrieving them.
+ * <p>
+ * The keys and limits are trie paths, one byte per bit
+ */
+class TrieIterator implements Iterator<Map.Entry<byte[], byte[]>> {
+    private static final int ARITY = 2;
+
+    private final byte[] from;
+    private final byte[] to;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    private Map.Entry<byte[], byte[]> next;
+
+    TrieIterator(TrieImpl trie, @Nullable byte[] from, @Nullable byte[] to) {
+        this.from = from;
+        this.to = to;
+
+        byte[] path = trie.getSharedPath();
+
+        if (!this.isBeforeFrom(path) && !this.isAtOrAfterTo(path)) {
+            this.frames.push(new Frame(trie, path));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next == null) {
+            this.next = this.advance();
+        }
+
+        return this.next != null;
+    }
+
+    @Override
+    public Map.Entry<byte[], byte[]> next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        Map.Entry<byte[], byte[]> result = this.next;
+        this.next = null;
+
+        return result;
+    }
+
+    private Map.Entry<byte[], byte[]> advance() {
+        while (!this.frames.isEmpty()) {
+            Frame frame = this.frames.peek();
+            int step = frame.step++;
+
+            // the node value goes before the subnode keys
+            if (step == 0) {
+                byte[] value = frame.node.getValue();
+
+                if (value == null || value.length == 0 || (this.from != null && compare(frame.path, this.from) < 0)) {
+                    continue;
+                }
+
+                if (this.isAtOrAfterTo(frame.path)) {
+                    break;
+                }
+
+                return new AbstractMap.SimpleImmutableEntry<>(PathEncoder.encode(frame.path), value);
+            }
+
+            if (step > ARITY) {
+                this.frames.pop();
+                continue;
+            }
+
+            int position = step - 1;
+            byte[] prefix = new byte[frame.path.length + 1];
+            System.arraycopy(frame.path, 0, prefix, 0, frame.path.length);
+            prefix[frame.path.length] = (byte) position;
+
+            if (this.isBeforeFrom(prefix)) {
+                continue;
+            }
+
+            if (this.isAtOrAfterTo(prefix)) {
+                break;
+            }
+
+            TrieImpl child = frame.node.getSubnode(position);
+
+            if (child == null) {
+                continue;
+            }
+
+            byte[] sharedPath = child.getSharedPath();
+            byte[] path = new byte[prefix.length + sharedPath.length];
+            System.arraycopy(prefix, 0, path, 0, prefix.length);
+            System.arraycopy(sharedPath, 0, path, prefix.length, sharedPath.length);
+
+            if (this.isBeforeFrom(path)) {
+                continue;
+            }
+
+            if (this.isAtOrAfterTo(path)) {
+                break;
+            }
+
+            this.frames.push(new Frame(child, path));
+        }
+
+        // the rest of the keys are out of range
+        this.frames.clear();
+
+        return null;
+    }
+
+    /**
+     * isBeforeFrom checks if all the keys starting with the path are less than the from limit
+     */
+    private boolean isBeforeFrom(byte[] path) {
+        if (this.from == null) {
+            return false;
+        }
+
+        int length = Math.min(path.length, this.from.length);
+
+        for (int k = 0; k < length; k++) {
+            if (path[k] != this.from[k]) {
+                return path[k] < this.from[k];
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * isAtOrAfterTo checks if the path, and all the keys starting with it, are not less than the to limit
+     */
+    private boolean isAtOrAfterTo(byte[] path) {
+        return this.to != null && compare(path, this.to) >= 0;
+    }
+
+    private static int compare(byte[] path1, byte[] path2) {
+        int length = Math.min(path1.length, path2.length);
+
+        for (int k = 0; k < length; k++) {
+            if (path1[k] != path2[k]) {
+                return path1[k] - path2[k];
+            }
+        }
+
+        return path1.length - path2.length;
+    }
+
+    private static final class Frame {
+        private final TrieImpl node;
+        private final byte[] path;
+        private int step;
+
+        private Frame(TrieImpl node, byte[] path) {
+            this.node = node;
+            this.path = path;
+        }
+    }
+}
@@ -18,12 +18,16 @@
 
 package co.rsk.trie;
 
+import java.util.Map;
+
 /**
  * Created by ajlopez on 29/03/2017.
  */
 public interface TrieStore {
     void save(Trie trie);
 
+    void saveAll(Map<byte[], byte[]> messages);
+
     int getSaveCount();
 
     Trie retrieve(byte[] hash);
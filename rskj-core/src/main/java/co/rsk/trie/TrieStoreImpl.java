@@ -18,6 +18,8 @@
 
 package co.rsk.trie;
 
+import co.rsk.metrics.Counter;
+import co.rsk.metrics.MetricRegistry;
 import co.rsk.panic.PanicProcessor;
 import org.ethereum.datasource.HashMapDB;
 import org.ethereum.datasource.KeyValueDataSource;
@@ -31,6 +33,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * TrieStoreImpl store and retrieve Trie node by hash
@@ -47,6 +50,13 @@ public class TrieStoreImpl implements TrieStore {
     private static final String PANIC_TOPIC = "triestore";
     private static final String ERROR_CREATING_STORE = "Error creating trie store";
 
+    private static final Counter hits = MetricRegistry.getDefault().counter("trie_store_hits_total",
+            "Trie nodes retrieved from the stores");
+    private static final Counter misses = MetricRegistry.getDefault().counter("trie_store_misses_total",
+            "Trie nodes looked up but not found in the stores");
+    private static final Counter saves = MetricRegistry.getDefault().counter("trie_store_saves_total",
+            "Trie nodes and long values saved to the stores");
+
     // a key value data source to use
     private KeyValueDataSource store;
 
@@ -65,14 +75,27 @@ public class TrieStoreImpl implements TrieStore {
     @Override
     public void save(Trie trie) {
         this.saveCount++;
+        saves.inc();
         this.store.put(trie.getHash().getBytes(), trie.toMessage());
 
         if (trie.hasLongValue()) {
             this.saveCount++;
+            saves.inc();
             this.store.put(trie.getValueHash(), trie.getValue());
         }
     }
 
+    /**
+     * saveAll saves serialized nodes (and long values) to the store in one batch
+     * @param messages  the serialized nodes by hash
+     */
+    @Override
+    public void saveAll(Map<byte[], byte[]> messages) {
+        this.saveCount += messages.size();
+        saves.add(messages.size());
+        this.store.updateBatch(messages);
+    }
+
     @Override
     public int getSaveCount() { return this.saveCount; }
 
@@ -89,6 +112,12 @@ public class TrieStoreImpl implements TrieStore {
 
         byte[] message = this.store.get(hash);
 
+        if (message == null) {
+            misses.inc();
+        } else {
+            hits.inc();
+        }
+
         return TrieImpl.fromMessage(message, this);
     }
 
@@ -0,0 +1,307 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.util;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A read only view of an RLP encoded list over the original byte array.
+ *
+ * Unlike RLP.decode2, that traverses the whole message and copies every element,
+ * the view only reads the list prefix when created. The offsets of the elements are indexed
+ * the first time one of them is accessed, and the elements are copied only when requested,
+ * so the nested lists are views over the same array.
+ *
+ * The array must not be changed while the view is in use.
+ */
+public final class RLPListView {
+    private static final int OFFSET_SHORT_ITEM = 0x80;
+    private static final int OFFSET_LONG_ITEM = 0xb8;
+    private static final int OFFSET_SHORT_LIST = 0xc0;
+    private static final int OFFSET_LONG_LIST = 0xf8;
+
+    private final byte[] data;
+    private final int offset;
+    private final int payloadOffset;
+    private final int end;
+
+    // lazily indexed positions of the elements
+    private int[] elements;
+    private int size = -1;
+
+    private RLPListView(byte[] data, int offset, int payloadOffset, int end) {
+        this.data = data;
+        this.offset = offset;
+        this.payloadOffset = payloadOffset;
+        this.end = end;
+    }
+
+    /**
+     * Creates a view of the list encoded at the start of the array
+     */
+    public static RLPListView wrap(@Nonnull byte[] data) {
+        return wrap(data, 0, data.length);
+    }
+
+    /**
+     * Creates a view of the list encoded at the offset, that must fit in the given length
+     */
+    public static RLPListView wrap(@Nonnull byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > data.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        return listAt(data, offset, offset + length);
+    }
+
+    /**
+     * Creates a view of the list encoded in the remaining bytes of the buffer,
+     * without copying them when the buffer is backed by an accessible array
+     */
+    public static RLPListView wrap(@Nonnull ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return wrap(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+
+        return wrap(ByteBufferUtil.copyToArray(buffer.slice()));
+    }
+
+    public int size() {
+        index();
+        return size;
+    }
+
+    public boolean isList(int index) {
+        return (data[element(index)] & 0xFF) >= OFFSET_SHORT_LIST;
+    }
+
+    /**
+     * Returns a view of the nested list at the index, sharing the same array
+     */
+    public RLPListView getList(int index) {
+        int position = element(index);
+
+        if (!isListPrefix(data[position])) {
+            throw new RLPException("The RLP element is not a list");
+        }
+
+        return listAt(data, position, end);
+    }
+
+    /**
+     * Returns a view of the list encoded inside the item at the index,
+     * for the messages that wrap an encoded list in a byte string
+     */
+    public RLPListView getEncodedList(int index) {
+        int position = element(index);
+
+        if (isListPrefix(data[position])) {
+            throw new RLPException("The RLP element is not an item");
+        }
+
+        int start = payloadOffset(data, position);
+        int itemEnd = elementEnd(data, position, end);
+
+        if (start == itemEnd) {
+            throw new RLPException("The RLP item is empty");
+        }
+
+        return listAt(data, start, itemEnd);
+    }
+
+    /**
+     * Returns a copy of the payload of the item at the index,
+     * or null for an empty item, as RLPItem.getRLPData does
+     */
+    public byte[] getBytes(int index) {
+        int position = element(index);
+
+        if (isListPrefix(data[position])) {
+            throw new RLPException("The RLP element is not an item");
+        }
+
+        int start = payloadOffset(data, position);
+        int itemEnd = elementEnd(data, position, end);
+
+        if (start == itemEnd) {
+            return null;
+        }
+
+        return Arrays.copyOfRange(data, start, itemEnd);
+    }
+
+    /**
+     * Returns a read only buffer over the payload of the item at the index, without copying it
+     */
+    public ByteBuffer getBuffer(int index) {
+        int position = element(index);
+
+        if (isListPrefix(data[position])) {
+            throw new RLPException("The RLP element is not an item");
+        }
+
+        int start = payloadOffset(data, position);
+
+        return ByteBuffer.wrap(data, start, elementEnd(data, position, end) - start).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a copy of the full encoding, prefix included, of the element at the index
+     */
+    public byte[] getEncoded(int index) {
+        int position = element(index);
+        return Arrays.copyOfRange(data, position, elementEnd(data, position, end));
+    }
+
+    /**
+     * Returns a copy of the full encoding of this list
+     */
+    public byte[] getEncoded() {
+        return Arrays.copyOfRange(data, offset, end);
+    }
+
+    /**
+     * Returns a read only buffer over the full encoding of this list, without copying it
+     */
+    public ByteBuffer getEncodedBuffer() {
+        return ByteBuffer.wrap(data, offset, end - offset).slice().asReadOnlyBuffer();
+    }
+
+    private int element(int index) {
+        index();
+
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("Index: %d, Size: %d", index, size));
+        }
+
+        return elements[index];
+    }
+
+    private void index() {
+        if (size >= 0) {
+            return;
+        }
+
+        int[] positions = new int[8];
+        int count = 0;
+
+        for (int position = payloadOffset; position < end; position = elementEnd(data, position, end)) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+
+            positions[count++] = position;
+        }
+
+        elements = positions;
+        size = count;
+    }
+
+    private static RLPListView listAt(byte[] data, int position, int limit) {
+        if (position >= limit) {
+            throw new RLPException("The RLP byte array doesn't have enough space to hold an element with the specified length");
+        }
+
+        if (!isListPrefix(data[position])) {
+            throw new RLPException("The RLP element is not a list");
+        }
+
+        int listEnd = elementEnd(data, position, limit);
+
+        return new RLPListView(data, position, payloadOffset(data, position), listEnd);
+    }
+
+    private static boolean isListPrefix(byte prefix) {
+        return (prefix & 0xFF) >= OFFSET_SHORT_LIST;
+    }
+
+    /**
+     * Returns where the payload of the element at the position starts,
+     * a single byte item being its own payload
+     */
+    private static int payloadOffset(byte[] data, int position) {
+        int prefix = data[position] & 0xFF;
+
+        if (prefix < OFFSET_SHORT_ITEM) {
+            return position;
+        }
+
+        if (prefix < OFFSET_LONG_ITEM) {
+            return position + 1;
+        }
+
+        if (prefix < OFFSET_SHORT_LIST) {
+            return position + 1 + prefix - OFFSET_LONG_ITEM + 1;
+        }
+
+        if (prefix < OFFSET_LONG_LIST) {
+            return position + 1;
+        }
+
+        return position + 1 + prefix - OFFSET_LONG_LIST + 1;
+    }
+
+    /**
+     * Returns where the element at the position ends, checking it fits before the limit
+     */
+    private static int elementEnd(byte[] data, int position, int limit) {
+        int prefix = data[position] & 0xFF;
+        long elementEnd;
+
+        if (prefix < OFFSET_SHORT_ITEM) {
+            elementEnd = position + 1L;
+        } else if (prefix < OFFSET_LONG_ITEM) {
+            elementEnd = position + 1L + prefix - OFFSET_SHORT_ITEM;
+        } else if (prefix < OFFSET_SHORT_LIST) {
+            int lengthOfLength = prefix - OFFSET_LONG_ITEM + 1;
+            elementEnd = position + 1L + lengthOfLength + readLength(data, position + 1, lengthOfLength, limit);
+        } else if (prefix < OFFSET_LONG_LIST) {
+            elementEnd = position + 1L + prefix - OFFSET_SHORT_LIST;
+        } else {
+            int lengthOfLength = prefix - OFFSET_LONG_LIST + 1;
+            elementEnd = position + 1L + lengthOfLength + readLength(data, position + 1, lengthOfLength, limit);
+        }
+
+        if (elementEnd > limit) {
+            throw new RLPException("The RLP byte array doesn't have enough space to hold an element with the specified length");
+        }
+
+        return (int) elementEnd;
+    }
+
+    private static long readLength(byte[] data, int position, int lengthOfLength, int limit) {
+        if (position + lengthOfLength > limit) {
+            throw new RLPException("The length of the RLP item length can't possibly fit the data byte array");
+        }
+
+        long length = 0;
+
+        for (int k = 0; k < lengthOfLength; k++) {
+            length = (length << 8) | (data[position + k] & 0xFF);
+        }
+
+        if (Long.compareUnsigned(length, Integer.MAX_VALUE) > 0) {
+            throw new RLPException("The current implementation doesn't support lengths longer than Integer.MAX_VALUE because that is the largest number of elements an array can have");
+        }
+
+        return length;
+    }
+}
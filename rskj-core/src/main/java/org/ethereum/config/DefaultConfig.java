@@ -99,6 +99,12 @@ public class DefaultConfig {
 
     @Bean
     public ReceiptStore receiptStore(RskSystemProperties config) {
+        if (config.useIndexedReceiptStore()) {
+            KeyValueDataSource ds = new LevelDbDataSource(config, "blockreceipts");
+            ds.init();
+            return new IndexedReceiptStore(ds);
+        }
+
         KeyValueDataSource ds = new LevelDbDataSource(config, "receipts");
         ds.init();
         return new ReceiptStoreImpl(ds);
@@ -431,6 +431,11 @@ public abstract class SystemProperties {
         return configFromFiles.getInt("details.inmemory.storage.limit");
     }
 
+    @ValidateMe
+    public long detailsCacheSize() {
+        return configFromFiles.getBytes("details.cache.size");
+    }
+
     @ValidateMe
     public String vmTraceDir() {
         return configFromFiles.getString("vm.structured.dir");
@@ -26,12 +26,13 @@ import co.rsk.crypto.Keccak256;
 import co.rsk.panic.PanicProcessor;
 import co.rsk.remasc.RemascTransaction;
 import co.rsk.trie.Trie;
+import co.rsk.trie.TrieBuilder;
 import co.rsk.trie.TrieImpl;
+import co.rsk.util.RLPListView;
 import org.ethereum.crypto.Keccak256Helper;
 import org.ethereum.rpc.TypeConverter;
 import org.ethereum.util.RLP;
-import org.ethereum.util.RLPElement;
-import org.ethereum.util.RLPList;
+import org.ethereum.util.RLPWriter;
 import org.ethereum.vm.PrecompiledContracts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -210,25 +211,22 @@ public class Block {
     }
 
     private void parseRLP() {
-        ArrayList<RLPElement> params = RLP.decode2(rlpEncoded);
-        RLPList block = (RLPList) params.get(0);
+        RLPListView block = RLPListView.wrap(rlpEncoded);
 
         // Parse Header
-        RLPList header = (RLPList) block.get(0);
+        RLPListView header = block.getList(0);
         this.header = new BlockHeader(header, this.sealed);
 
         // Parse Transactions
-        RLPList txTransactions = (RLPList) block.get(1);
+        RLPListView txTransactions = block.getList(1);
         this.transactionsList = parseTxs(txTransactions);
         byte[] calculatedRoot = getTxTrie(this.transactionsList).getHash().getBytes();
         this.checkExpectedRoot(this.header.getTxTrieRoot(), calculatedRoot);
 
         // Parse Uncles
-        RLPList uncleBlocks = (RLPList) block.get(2);
-        for (RLPElement rawUncle : uncleBlocks) {
-
-            RLPList uncleHeader = (RLPList) rawUncle;
-            BlockHeader blockData = new BlockHeader(uncleHeader, this.sealed);
+        RLPListView uncleBlocks = block.getList(2);
+        for (int k = 0; k < uncleBlocks.size(); k++) {
+            BlockHeader blockData = new BlockHeader(uncleBlocks.getList(k), this.sealed);
             this.uncleList.add(blockData);
         }
         this.parsed = true;
@@ -475,16 +473,16 @@ public class Block {
         return toStringBuff.toString();
     }
 
-    private List<Transaction> parseTxs(RLPList txTransactions) {
+    private List<Transaction> parseTxs(RLPListView txTransactions) {
         List<Transaction> parsedTxs = new ArrayList<>();
 
         for (int i = 0; i < txTransactions.size(); i++) {
-            RLPElement transactionRaw = txTransactions.get(i);
-            Transaction tx = new ImmutableTransaction(transactionRaw.getRLPData());
+            byte[] transactionRaw = txTransactions.getEncoded(i);
+            Transaction tx = new ImmutableTransaction(transactionRaw);
 
             if (isRemascTransaction(tx, i, txTransactions.size())) {
                 // It is the remasc transaction
-                tx = new RemascTransaction(transactionRaw.getRLPData());
+                tx = new RemascTransaction(transactionRaw);
             }
             parsedTxs.add(tx);
         }
@@ -549,25 +547,26 @@ public class Block {
         return block != null && this.getHash().equals(block.getHash());
     }
 
-    private byte[] getTransactionsEncoded() {
-        byte[][] transactionsEncoded = new byte[transactionsList.size()][];
-        int i = 0;
+    private void writeTransactions(RLPWriter writer) {
+        writer.startList();
         for (Transaction tx : transactionsList) {
-            transactionsEncoded[i] = tx.getEncoded();
-            ++i;
+            writer.writeEncoded(tx.getEncoded());
         }
-        return RLP.encodeList(transactionsEncoded);
+        writer.endList();
     }
 
-    private byte[] getUnclesEncoded() {
-
-        byte[][] unclesEncoded = new byte[uncleList.size()][];
-        int i = 0;
+    private void writeUncles(RLPWriter writer) {
+        writer.startList();
         for (BlockHeader uncle : uncleList) {
-            unclesEncoded[i] = uncle.getEncoded();
-            ++i;
+            uncle.encode(writer, true);
         }
-        return RLP.encodeList(unclesEncoded);
+        writer.endList();
+    }
+
+    private byte[] getUnclesEncoded() {
+        RLPWriter writer = new RLPWriter();
+        writeUncles(writer);
+        return writer.encode();
     }
 
     public void addUncle(BlockHeader uncle) {
@@ -582,13 +581,18 @@ public class Block {
 
     public byte[] getEncoded() {
         if (rlpEncoded == null) {
-            byte[] header = this.header.getEncoded();
+            if (!parsed) {
+                parseRLP();
+            }
 
-            List<byte[]> block = getBodyElements();
-            block.add(0, header);
-            byte[][] elements = block.toArray(new byte[block.size()][]);
+            RLPWriter writer = new RLPWriter();
+            writer.startList();
+            this.header.encode(writer, true);
+            writeTransactions(writer);
+            writeUncles(writer);
+            writer.endList();
 
-            this.rlpEncoded = RLP.encodeList(elements);
+            this.rlpEncoded = writer.encode();
         }
         return rlpEncoded;
     }
@@ -602,24 +606,17 @@ public class Block {
     }
 
     public byte[] getEncodedBody() {
-        List<byte[]> body = getBodyElements();
-        byte[][] elements = body.toArray(new byte[body.size()][]);
-        return RLP.encodeList(elements);
-    }
-
-    private List<byte[]> getBodyElements() {
         if (!parsed) {
             parseRLP();
         }
 
-        byte[] transactions = getTransactionsEncoded();
-        byte[] uncles = getUnclesEncoded();
+        RLPWriter writer = new RLPWriter();
+        writer.startList();
+        writeTransactions(writer);
+        writeUncles(writer);
+        writer.endList();
 
-        List<byte[]> body = new ArrayList<>();
-        body.add(transactions);
-        body.add(uncles);
-
-        return body;
+        return writer.encode();
     }
 
     public String getShortHash() {
@@ -730,13 +727,13 @@ public class Block {
             return new TrieImpl();
         }
 
-        Trie txsState = new TrieImpl();
-        for (int i = 0; i < transactions.size(); i++) {
-            Transaction transaction = transactions.get(i);
-            txsState = txsState.put(RLP.encodeInt(i), transaction.getEncoded());
+        List<byte[]> encodedTransactions = new ArrayList<>(transactions.size());
+
+        for (Transaction transaction : transactions) {
+            encodedTransactions.add(transaction.getEncoded());
         }
 
-        return txsState;
+        return TrieBuilder.fromIndexedValues(encodedTransactions);
     }
 
     public BigInteger getGasLimitAsInteger() {
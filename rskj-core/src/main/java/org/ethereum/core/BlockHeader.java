@@ -22,11 +22,12 @@ import co.rsk.core.Coin;
 import co.rsk.core.RskAddress;
 import co.rsk.core.BlockDifficulty;
 import co.rsk.crypto.Keccak256;
+import co.rsk.util.RLPListView;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Lists;
 import org.ethereum.crypto.HashUtil;
 import org.ethereum.util.RLP;
 import org.ethereum.util.RLPList;
+import org.ethereum.util.RLPWriter;
 import org.ethereum.util.Utils;
 import org.spongycastle.pqc.math.linearalgebra.ByteUtils;
 import org.spongycastle.util.BigIntegers;
@@ -111,36 +112,40 @@ public class BlockHeader {
     private volatile boolean sealed;
 
     public BlockHeader(byte[] encoded, boolean sealed) {
-        this((RLPList) RLP.decode2(encoded).get(0), sealed);
+        this(RLPListView.wrap(encoded), sealed);
     }
 
     public BlockHeader(RLPList rlpHeader, boolean sealed) {
-        this.parentHash = rlpHeader.get(0).getRLPData();
-        this.unclesHash = rlpHeader.get(1).getRLPData();
-        this.coinbase = RLP.parseRskAddress(rlpHeader.get(2).getRLPData());
-        this.stateRoot = rlpHeader.get(3).getRLPData();
+        this(RLPListView.wrap(rlpHeader.getRLPData()), sealed);
+    }
+
+    public BlockHeader(RLPListView rlpHeader, boolean sealed) {
+        this.parentHash = rlpHeader.getBytes(0);
+        this.unclesHash = rlpHeader.getBytes(1);
+        this.coinbase = RLP.parseRskAddress(rlpHeader.getBytes(2));
+        this.stateRoot = rlpHeader.getBytes(3);
         if (this.stateRoot == null) {
             this.stateRoot = EMPTY_TRIE_HASH;
         }
 
-        this.txTrieRoot = rlpHeader.get(4).getRLPData();
+        this.txTrieRoot = rlpHeader.getBytes(4);
         if (this.txTrieRoot == null) {
             this.txTrieRoot = EMPTY_TRIE_HASH;
         }
 
-        this.receiptTrieRoot = rlpHeader.get(5).getRLPData();
+        this.receiptTrieRoot = rlpHeader.getBytes(5);
         if (this.receiptTrieRoot == null) {
             this.receiptTrieRoot = EMPTY_TRIE_HASH;
         }
 
-        this.logsBloom = rlpHeader.get(6).getRLPData();
-        this.difficultyRaw = rlpHeader.get(7).getRLPData();
+        this.logsBloom = rlpHeader.getBytes(6);
+        this.difficultyRaw = rlpHeader.getBytes(7);
         this.difficulty = new BlockDifficulty(difficultyRaw);
 
-        byte[] nrBytes = rlpHeader.get(8).getRLPData();
-        byte[] glBytes = rlpHeader.get(9).getRLPData();
-        byte[] guBytes = rlpHeader.get(10).getRLPData();
-        byte[] tsBytes = rlpHeader.get(11).getRLPData();
+        byte[] nrBytes = rlpHeader.getBytes(8);
+        byte[] glBytes = rlpHeader.getBytes(9);
+        byte[] guBytes = rlpHeader.getBytes(10);
+        byte[] tsBytes = rlpHeader.getBytes(11);
 
         this.number = parseBigInteger(nrBytes).longValueExact();
 
@@ -148,23 +153,23 @@ public class BlockHeader {
         this.gasUsed = parseBigInteger(guBytes).longValueExact();
         this.timestamp = parseBigInteger(tsBytes).longValueExact();
 
-        this.extraData = rlpHeader.get(12).getRLPData();
+        this.extraData = rlpHeader.getBytes(12);
 
-        this.paidFees = RLP.parseCoin(rlpHeader.get(13).getRLPData());
-        this.minimumGasPriceRaw = rlpHeader.get(14).getRLPData();
+        this.paidFees = RLP.parseCoin(rlpHeader.getBytes(13));
+        this.minimumGasPriceRaw = rlpHeader.getBytes(14);
         this.minimumGasPrice = RLP.parseCoin(this.minimumGasPriceRaw);
 
         int r = 15;
 
         if ((rlpHeader.size() == 19) || (rlpHeader.size() == 16)) {
-            byte[] ucBytes = rlpHeader.get(r++).getRLPData();
+            byte[] ucBytes = rlpHeader.getBytes(r++);
             this.uncleCount = parseBigInteger(ucBytes).intValueExact();
         }
 
         if (rlpHeader.size() > r) {
-            this.bitcoinMergedMiningHeader = rlpHeader.get(r++).getRLPData();
-            this.bitcoinMergedMiningMerkleProof = rlpHeader.get(r++).getRLPData();
-            this.bitcoinMergedMiningCoinbaseTransaction = rlpHeader.get(r++).getRLPData();
+            this.bitcoinMergedMiningHeader = rlpHeader.getBytes(r++);
+            this.bitcoinMergedMiningMerkleProof = rlpHeader.getBytes(r++);
+            this.bitcoinMergedMiningCoinbaseTransaction = rlpHeader.getBytes(r++);
 
         }
 
@@ -221,7 +226,7 @@ public class BlockHeader {
     }
 
     public BlockHeader cloneHeader() {
-        return new BlockHeader((RLPList) RLP.decode2(this.getEncoded()).get(0), false);
+        return new BlockHeader(RLPListView.wrap(this.getEncoded()), false);
     }
 
     public boolean isGenesis() {
@@ -415,63 +420,53 @@ public class BlockHeader {
     }
 
     public byte[] getEncoded(boolean withMergedMiningFields) {
-        byte[] parentHash = RLP.encodeElement(this.parentHash);
-
-        byte[] unclesHash = RLP.encodeElement(this.unclesHash);
-        byte[] coinbase = RLP.encodeRskAddress(this.coinbase);
-
-        byte[] stateRoot = RLP.encodeElement(this.stateRoot);
+        RLPWriter writer = new RLPWriter();
+        encode(writer, withMergedMiningFields);
+        return writer.encode();
+    }
 
+    /**
+     * Writes the encoded header as a list, for the encoders that nest it, like the block
+     */
+    public void encode(RLPWriter writer, boolean withMergedMiningFields) {
         if (txTrieRoot == null) {
             this.txTrieRoot = EMPTY_TRIE_HASH;
         }
 
-        byte[] txTrieRoot = RLP.encodeElement(this.txTrieRoot);
-
         if (receiptTrieRoot == null) {
             this.receiptTrieRoot = EMPTY_TRIE_HASH;
         }
 
-        byte[] receiptTrieRoot = RLP.encodeElement(this.receiptTrieRoot);
-
-        byte[] logsBloom = RLP.encodeElement(this.logsBloom);
-        byte[] difficulty = RLP.encodeElement(this.difficultyRaw);
-        byte[] number = RLP.encodeBigInteger(BigInteger.valueOf(this.number));
-        byte[] gasLimit = RLP.encodeElement(this.gasLimit);
-        byte[] gasUsed = RLP.encodeBigInteger(BigInteger.valueOf(this.gasUsed));
-        byte[] timestamp = RLP.encodeBigInteger(BigInteger.valueOf(this.timestamp));
-        byte[] extraData = RLP.encodeElement(this.extraData);
-        byte[] paidFees = RLP.encodeCoin(this.paidFees);
-        byte[] mgp = RLP.encodeElement(this.minimumGasPriceRaw);
-        List<byte[]> fieldToEncodeList = Lists.newArrayList(parentHash, unclesHash, coinbase,
-                stateRoot, txTrieRoot, receiptTrieRoot, logsBloom, difficulty, number,
-                gasLimit, gasUsed, timestamp, extraData, paidFees, mgp);
-
-        byte[] uncleCount = RLP.encodeBigInteger(BigInteger.valueOf(this.uncleCount));
-        fieldToEncodeList.add(uncleCount);
+        writer.startList()
+                .writeElement(this.parentHash)
+                .writeElement(this.unclesHash)
+                .writeRskAddress(this.coinbase)
+                .writeElement(this.stateRoot)
+                .writeElement(this.txTrieRoot)
+                .writeElement(this.receiptTrieRoot)
+                .writeElement(this.logsBloom)
+                .writeElement(this.difficultyRaw)
+                .writeLong(this.number)
+                .writeElement(this.gasLimit)
+                .writeLong(this.gasUsed)
+                .writeLong(this.timestamp)
+                .writeElement(this.extraData)
+                .writeCoin(this.paidFees)
+                .writeElement(this.minimumGasPriceRaw)
+                .writeLong(this.uncleCount);
 
         if (withMergedMiningFields && hasMiningFields()) {
-            byte[] bitcoinMergedMiningHeader = RLP.encodeElement(this.bitcoinMergedMiningHeader);
-            fieldToEncodeList.add(bitcoinMergedMiningHeader);
-            byte[] bitcoinMergedMiningMerkleProof = RLP.encodeElement(this.bitcoinMergedMiningMerkleProof);
-            fieldToEncodeList.add(bitcoinMergedMiningMerkleProof);
-            byte[] bitcoinMergedMiningCoinbaseTransaction = RLP.encodeElement(this.bitcoinMergedMiningCoinbaseTransaction);
-            fieldToEncodeList.add(bitcoinMergedMiningCoinbaseTransaction);
+            writer.writeElement(this.bitcoinMergedMiningHeader)
+                    .writeElement(this.bitcoinMergedMiningMerkleProof)
+                    .writeElement(this.bitcoinMergedMiningCoinbaseTransaction);
         }
 
-
-        return RLP.encodeList(fieldToEncodeList.toArray(new byte[][]{}));
+        writer.endList();
     }
 
     // Warning: This method does not use the object's attributes
     public static byte[] getUnclesEncodedEx(List<BlockHeader> uncleList) {
-        byte[][] unclesEncoded = new byte[uncleList.size()][];
-        int i = 0;
-        for (BlockHeader uncle : uncleList) {
-            unclesEncoded[i] = uncle.getEncoded();
-            ++i;
-        }
-        return RLP.encodeList(unclesEncoded);
+        return getUnclesEncoded(uncleList);
     }
 
     public boolean hasMiningFields() {
@@ -491,14 +486,13 @@ public class BlockHeader {
     }
 
     public static byte[] getUnclesEncoded(List<BlockHeader> uncleList) {
-
-        byte[][] unclesEncoded = new byte[uncleList.size()][];
-        int i = 0;
+        RLPWriter writer = new RLPWriter();
+        writer.startList();
         for (BlockHeader uncle : uncleList) {
-            unclesEncoded[i] = uncle.getEncoded();
-            ++i;
+            uncle.encode(writer, true);
         }
-        return RLP.encodeList(unclesEncoded);
+        writer.endList();
+        return writer.encode();
     }
 
     public byte[] getPowBoundary() {
@@ -18,6 +18,7 @@ package org.ethereum.core;
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
 
+import co.rsk.util.RLPListView;
 import org.ethereum.util.RLP;
 import org.ethereum.util.RLPList;
 import org.spongycastle.util.encoders.Hex;
@@ -51,6 +52,11 @@ public class BlockIdentifier {
         this.number = byteArrayToLong(rlp.get(1).getRLPData());
     }
 
+    public BlockIdentifier(RLPListView rlp) {
+        this.hash = rlp.getBytes(0);
+        this.number = byteArrayToLong(rlp.getBytes(1));
+    }
+
     public BlockIdentifier(byte[] hash, long number) {
         this.hash = hash;
         this.number = number;
@@ -19,7 +19,6 @@
 
 package org.ethereum.core;
 
-import org.ethereum.util.ByteUtil;
 import org.spongycastle.util.encoders.Hex;
 
 import java.util.Arrays;
@@ -27,6 +26,9 @@ import java.util.Arrays;
 /**
  * See http://www.herongyang.com/Java/Bit-String-Set-Bit-to-Byte-Array.html.
  *
+ * The 2048 bits of the bloom are kept in words of 64 bits, so they are or-ed and matched
+ * a word at a time. The bit at position p is the bit p % 8 of the byte 255 - p / 8 of the data.
+ *
  * @author Roman Mandeleil
  * @since 20.11.2014
  */
@@ -37,55 +39,109 @@ public class Bloom {
     static final int _3LOW_BITS = 7;
     static final int ENSURE_BYTE = 255;
 
-    byte[] data = new byte[256];
+    private static final int BLOOM_BYTES = 256;
+    private static final int WORD_BYTES = Long.BYTES;
+    private static final int WORDS = BLOOM_BYTES / WORD_BYTES;
 
+    // the data of the bloom, in words of 8 bytes in big endian order
+    private final long[] words;
+    // the length of the data the bloom was decoded from, it is encoded back as it was
+    private final int dataLength;
 
     public Bloom() {
+        this(new long[WORDS], BLOOM_BYTES);
     }
 
     public Bloom(byte[] data) {
-        this.data = data;
+        this(new long[WORDS], data == null ? 0 : Math.min(data.length, BLOOM_BYTES));
+
+        for (int k = 0; k < dataLength; k++) {
+            this.words[k / WORD_BYTES] |= (data[k] & 0xffL) << (_8STEPS * (WORD_BYTES - 1 - k % WORD_BYTES));
+        }
+    }
+
+    private Bloom(long[] words, int dataLength) {
+        this.words = words;
+        this.dataLength = dataLength;
     }
 
     public static Bloom create(byte[] toBloom) {
+        Bloom bloom = new Bloom();
+
+        for (int position : bitPositions(toBloom)) {
+            bloom.setBit(position);
+        }
+
+        return bloom;
+    }
 
+    /**
+     * The positions of the three bits set by a hash in a bloom.
+     * A filter computes them once, and matches them with hasBits, without creating a bloom.
+     */
+    public static int[] bitPositions(byte[] toBloom) {
         int mov1 = (((toBloom[0] & ENSURE_BYTE) & (_3LOW_BITS)) << _8STEPS) + ((toBloom[1]) & ENSURE_BYTE);
         int mov2 = (((toBloom[2] & ENSURE_BYTE) & (_3LOW_BITS)) << _8STEPS) + ((toBloom[3]) & ENSURE_BYTE);
         int mov3 = (((toBloom[4] & ENSURE_BYTE) & (_3LOW_BITS)) << _8STEPS) + ((toBloom[5]) & ENSURE_BYTE);
 
-        byte[] data = new byte[256];
-        Bloom bloom = new Bloom(data);
+        return new int[] { mov1, mov2, mov3 };
+    }
 
-        ByteUtil.setBit(data, mov1, 1);
-        ByteUtil.setBit(data, mov2, 1);
-        ByteUtil.setBit(data, mov3, 1);
+    public boolean hasBits(int[] positions) {
+        for (int position : positions) {
+            if ((words[wordIndex(position)] & bitMask(position)) == 0) {
+                return false;
+            }
+        }
 
-        return bloom;
+        return true;
     }
 
     public void or(Bloom bloom) {
-        for (int i = 0; i < data.length; ++i) {
-            data[i] |= bloom.data[i];
+        for (int i = 0; i < words.length; ++i) {
+            words[i] |= bloom.words[i];
         }
     }
 
     public boolean matches(Bloom topicBloom) {
-        Bloom copy = copy();
-        copy.or(topicBloom);
-        return this.equals(copy);
+        for (int i = 0; i < words.length; ++i) {
+            if ((words[i] & topicBloom.words[i]) != topicBloom.words[i]) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     public byte[] getData() {
+        byte[] data = new byte[dataLength];
+
+        for (int k = 0; k < dataLength; k++) {
+            data[k] = (byte) (words[k / WORD_BYTES] >>> (_8STEPS * (WORD_BYTES - 1 - k % WORD_BYTES)));
+        }
+
         return data;
     }
 
     public Bloom copy() {
-        return new Bloom(Arrays.copyOf(getData(), getData().length));
+        return new Bloom(Arrays.copyOf(words, words.length), dataLength);
+    }
+
+    private void setBit(int position) {
+        words[wordIndex(position)] |= bitMask(position);
+    }
+
+    private static int wordIndex(int position) {
+        return WORDS - 1 - position / Long.SIZE;
+    }
+
+    private static long bitMask(int position) {
+        return 1L << (position % Long.SIZE);
     }
 
     @Override
     public String toString() {
-        return Hex.toHexString(data);
+        return Hex.toHexString(getData());
     }
 
     @Override
@@ -100,12 +156,12 @@ public class Bloom {
 
         Bloom bloom = (Bloom) o;
 
-        return Arrays.equals(data, bloom.data);
+        return Arrays.equals(words, bloom.words);
 
     }
 
     @Override
     public int hashCode() {
-        return data != null ? Arrays.hashCode(data) : 0;
+        return Arrays.hashCode(words);
     }
 }
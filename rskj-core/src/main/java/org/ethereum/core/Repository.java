@@ -25,7 +25,9 @@ import org.ethereum.db.ContractDetails;
 import org.ethereum.db.DetailsDataStore;
 import org.ethereum.vm.DataWord;
 
+import javax.annotation.Nullable;
 import java.math.BigInteger;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -157,6 +159,16 @@ public interface Repository {
      */
     Set<RskAddress> getAccountsKeys();
 
+    /**
+     * Iterates the accounts with an address hash in [from, to), ordered by address hash,
+     * loading the state nodes only when they are needed
+     *
+     * @param from the first address hash to include, null to start from the first account
+     * @param to the first address hash to exclude, null to include up to the last account
+     * @return the iterator of address hashes and encoded account states
+     */
+    Iterator<Map.Entry<byte[], byte[]>> getAccountsRange(@Nullable byte[] from, @Nullable byte[] to);
+
     /**
      * Dump the full state of the current repository into a file with JSON format
      * It contains all the contracts/account, their attributes and
@@ -22,9 +22,11 @@ package org.ethereum.core;
 import co.rsk.config.RskSystemProperties;
 import co.rsk.core.Coin;
 import co.rsk.core.RskAddress;
+import co.rsk.core.TransactionSenderCache;
 import co.rsk.crypto.Keccak256;
 import co.rsk.panic.PanicProcessor;
 import co.rsk.peg.BridgeUtils;
+import co.rsk.util.RLPListView;
 import org.apache.commons.lang3.ArrayUtils;
 import org.ethereum.config.Constants;
 import org.ethereum.crypto.ECKey;
@@ -33,8 +35,7 @@ import org.ethereum.crypto.ECKey.MissingPrivateKeyException;
 import org.ethereum.crypto.HashUtil;
 import org.ethereum.util.ByteUtil;
 import org.ethereum.util.RLP;
-import org.ethereum.util.RLPElement;
-import org.ethereum.util.RLPList;
+import org.ethereum.util.RLPWriter;
 import org.ethereum.vm.GasCost;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +64,7 @@ public class Transaction {
 
     private static final Logger logger = LoggerFactory.getLogger(Transaction.class);
     private static final PanicProcessor panicProcessor = new PanicProcessor();
+    private static final TransactionSenderCache senderCache = new TransactionSenderCache(32768);
     private static final BigInteger SECP256K1N_HALF = Constants.getSECP256K1N().divide(BigInteger.valueOf(2));
 
     public static final int DATAWORD_LENGTH = 32;
@@ -240,26 +242,26 @@ public class Transaction {
     }
 
     public void rlpParse() {
-        List<RLPElement> transaction = (RLPList)RLP.decode2(rlpEncoded).get(0);
+        RLPListView transaction = RLPListView.wrap(rlpEncoded);
 
-        this.nonce = transaction.get(0).getRLPData();
-        this.gasPriceRaw = transaction.get(1).getRLPData();
+        this.nonce = transaction.getBytes(0);
+        this.gasPriceRaw = transaction.getBytes(1);
         this.gasPrice = RLP.parseCoin(this.gasPriceRaw);
-        this.gasLimit = transaction.get(2).getRLPData();
-        this.receiveAddress = RLP.parseRskAddress(transaction.get(3).getRLPData());
-        this.valueRaw = transaction.get(4).getRLPData();
+        this.gasLimit = transaction.getBytes(2);
+        this.receiveAddress = RLP.parseRskAddress(transaction.getBytes(3));
+        this.valueRaw = transaction.getBytes(4);
         this.value = RLP.parseCoin(this.valueRaw);
-        this.data = transaction.get(5).getRLPData();
+        this.data = transaction.getBytes(5);
         // only parse signature in case tx is signed
-        if (transaction.get(6).getRLPData() != null) {
-            byte[] vData =  transaction.get(6).getRLPData();
+        byte[] vData = transaction.getBytes(6);
+        if (vData != null) {
             if (vData.length != 1 ) {
                 throw new TransactionException("Signature V is invalid");
             }
             byte v = vData[0];
             this.chainId = extractChainIdFromV(v);
-            byte[] r = transaction.get(7).getRLPData();
-            byte[] s = transaction.get(8).getRLPData();
+            byte[] r = transaction.getBytes(7);
+            byte[] s = transaction.getBytes(8);
             this.signature = ECDSASignature.fromComponents(r, s, getRealV(v));
         } else {
             logger.trace("RLP encoded tx is not signed!");
@@ -434,9 +436,19 @@ public class Transaction {
             return sender;
         }
 
+        // other objects parsed from the same transaction could have already recovered the sender
+        Keccak256 txHash = getHash();
+        RskAddress cachedSender = senderCache.get(txHash);
+
+        if (cachedSender != null) {
+            sender = cachedSender;
+            return sender;
+        }
+
         try {
             ECKey key = ECKey.signatureToKey(getRawHash().getBytes(), getSignature().toBase64());
             sender = new RskAddress(key.getAddress());
+            senderCache.put(txHash, sender);
         } catch (SignatureException e) {
             logger.error(e.getMessage(), e);
             panicProcessor.panic("transaction", e.getMessage());
@@ -446,6 +458,13 @@ public class Transaction {
         return sender;
     }
 
+    /**
+     * Returns the cache of the senders recovered from the signatures, shared by all the transactions
+     */
+    public static TransactionSenderCache getSenderCache() {
+        return senderCache;
+    }
+
     public byte getChainId() {
         if (!parsed) {
             rlpParse();
@@ -486,33 +505,19 @@ public class Transaction {
             return rlpRaw;
         }
 
-        // parse null as 0 for nonce
-        byte[] toEncodeNonce = null;
-        if (this.nonce == null || this.nonce.length == 1 && this.nonce[0] == 0) {
-            toEncodeNonce = RLP.encodeElement((byte[]) null);
-        } else {
-            toEncodeNonce = RLP.encodeElement(this.nonce);
-        }
-        byte[] toEncodeGasPrice = RLP.encodeElement(this.gasPriceRaw);
-        byte[] toEncodeGasLimit = RLP.encodeElement(this.gasLimit);
-        byte[] toEncodeReceiveAddress = RLP.encodeRskAddress(this.receiveAddress);
-        byte[] toEncodeValue = RLP.encodeElement(this.valueRaw);
-        byte[] toEncodeData = RLP.encodeElement(this.data);
+        RLPWriter writer = new RLPWriter();
+        writer.startList();
+        writeFields(writer);
 
         // Since EIP-155 use chainId for v
-        if (chainId == 0) {
-            rlpRaw = RLP.encodeList(toEncodeNonce, toEncodeGasPrice, toEncodeGasLimit, toEncodeReceiveAddress,
-                    toEncodeValue, toEncodeData);
-        } else {
-            byte[] v;
-            byte[] r;
-            byte[] s;
-            v = RLP.encodeByte(chainId);
-            r = RLP.encodeElement(EMPTY_BYTE_ARRAY);
-            s = RLP.encodeElement(EMPTY_BYTE_ARRAY);
-            rlpRaw = RLP.encodeList(toEncodeNonce, toEncodeGasPrice, toEncodeGasLimit, toEncodeReceiveAddress,
-                    toEncodeValue, toEncodeData, v, r, s);
+        if (chainId != 0) {
+            writer.writeLong(Byte.toUnsignedLong(chainId))
+                    .writeElement(EMPTY_BYTE_ARRAY)
+                    .writeElement(EMPTY_BYTE_ARRAY);
         }
+
+        writer.endList();
+        rlpRaw = writer.encode();
         return rlpRaw;
     }
 
@@ -521,22 +526,9 @@ public class Transaction {
             return rlpEncoded;
         }
 
-        // parse null as 0 for nonce
-        byte[] toEncodeNonce = null;
-        if (this.nonce == null || this.nonce.length == 1 && this.nonce[0] == 0) {
-            toEncodeNonce = RLP.encodeElement((byte[]) null);
-        } else {
-            toEncodeNonce = RLP.encodeElement(this.nonce);
-        }
-        byte[] toEncodeGasPrice = RLP.encodeElement(this.gasPriceRaw);
-        byte[] toEncodeGasLimit = RLP.encodeElement(this.gasLimit);
-        byte[] toEncodeReceiveAddress = RLP.encodeRskAddress(this.receiveAddress);
-        byte[] toEncodeValue = RLP.encodeElement(this.valueRaw);
-        byte[] toEncodeData = RLP.encodeElement(this.data);
-
-        byte[] v;
-        byte[] r;
-        byte[] s;
+        RLPWriter writer = new RLPWriter();
+        writer.startList();
+        writeFields(writer);
 
         if (signature != null) {
             int encodeV;
@@ -546,18 +538,18 @@ public class Transaction {
                 encodeV = signature.v - LOWER_REAL_V;
                 encodeV += chainId * 2 + CHAIN_ID_INC;
             }
-            v = RLP.encodeByte((byte) encodeV);
-            r = RLP.encodeElement(BigIntegers.asUnsignedByteArray(signature.r));
-            s = RLP.encodeElement(BigIntegers.asUnsignedByteArray(signature.s));
+            writer.writeLong(Byte.toUnsignedLong((byte) encodeV))
+                    .writeBigInteger(signature.r)
+                    .writeBigInteger(signature.s);
         } else {
             // Since EIP-155 use chainId for v
-            v = chainId == 0 ? RLP.encodeElement(EMPTY_BYTE_ARRAY) : RLP.encodeByte(chainId);
-            r = RLP.encodeElement(EMPTY_BYTE_ARRAY);
-            s = RLP.encodeElement(EMPTY_BYTE_ARRAY);
+            writer.writeLong(Byte.toUnsignedLong(chainId))
+                    .writeElement(EMPTY_BYTE_ARRAY)
+                    .writeElement(EMPTY_BYTE_ARRAY);
         }
 
-        this.rlpEncoded = RLP.encodeList(toEncodeNonce, toEncodeGasPrice, toEncodeGasLimit,
-                toEncodeReceiveAddress, toEncodeValue, toEncodeData, v, r, s);
+        writer.endList();
+        this.rlpEncoded = writer.encode();
 
         Keccak256 hash = this.getHash();
         this.hash = hash == null ? null : hash.getBytes();
@@ -565,6 +557,21 @@ public class Transaction {
         return rlpEncoded;
     }
 
+    private void writeFields(RLPWriter writer) {
+        // parse null as 0 for nonce
+        if (this.nonce == null || this.nonce.length == 1 && this.nonce[0] == 0) {
+            writer.writeElement(null);
+        } else {
+            writer.writeElement(this.nonce);
+        }
+
+        writer.writeElement(this.gasPriceRaw)
+                .writeElement(this.gasLimit)
+                .writeRskAddress(this.receiveAddress)
+                .writeElement(this.valueRaw)
+                .writeElement(this.data);
+    }
+
     public BigInteger getGasLimitAsInteger() {
         return (this.getGasLimit() == null) ? null : BigIntegers.fromUnsignedByteArray(this.getGasLimit());
     }
@@ -23,6 +23,7 @@ import org.ethereum.util.RLP;
 import org.ethereum.util.RLPElement;
 import org.ethereum.util.RLPItem;
 import org.ethereum.util.RLPList;
+import org.ethereum.util.RLPWriter;
 import org.ethereum.vm.LogInfo;
 
 import org.spongycastle.util.BigIntegers;
@@ -139,27 +140,25 @@ public class TransactionReceipt {
             return rlpEncoded;
         }
 
-        byte[] postTxStateRLP = RLP.encodeElement(this.postTxState);
-        byte[] cumulativeGasRLP = RLP.encodeElement(this.cumulativeGas);
-        byte[] gasUsedRLP = RLP.encodeElement(this.gasUsed);
-        byte[] bloomRLP = RLP.encodeElement(this.bloomFilter.data);
-        byte[] statusRLP = RLP.encodeElement(this.status);
+        RLPWriter writer = new RLPWriter();
+        writer.startList()
+                .writeElement(this.postTxState)
+                .writeElement(this.cumulativeGas)
+                .writeElement(this.bloomFilter.getData());
 
-        final byte[] logInfoListRLP;
+        writer.startList();
         if (logInfoList != null) {
-            byte[][] logInfoListE = new byte[logInfoList.size()][];
-
-            int i = 0;
             for (LogInfo logInfo : logInfoList) {
-                logInfoListE[i] = logInfo.getEncoded();
-                ++i;
+                logInfo.encode(writer);
             }
-            logInfoListRLP = RLP.encodeList(logInfoListE);
-        } else {
-            logInfoListRLP = RLP.encodeList();
         }
+        writer.endList();
+
+        writer.writeElement(this.gasUsed)
+                .writeElement(this.status)
+                .endList();
 
-        rlpEncoded = RLP.encodeList(postTxStateRLP, cumulativeGasRLP, bloomRLP, logInfoListRLP, gasUsedRLP, statusRLP);
+        rlpEncoded = writer.encode();
 
         return rlpEncoded;
     }
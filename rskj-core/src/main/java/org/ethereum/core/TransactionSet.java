@@ -33,6 +33,9 @@ public class TransactionSet {
     private final Map<Keccak256, Transaction> transactionsByHash = new HashMap<>();
     private final Map<RskAddress, List<Transaction>> transactionsByAddress = new HashMap<>();
 
+    // the size can be read without the lock of the owner of the set, as by the metrics
+    private volatile int size;
+
     public void addTransaction(Transaction transaction) {
         Keccak256 txhash = transaction.getHash();
 
@@ -41,6 +44,7 @@ public class TransactionSet {
         }
 
         this.transactionsByHash.put(txhash, transaction);
+        this.size = this.transactionsByHash.size();
 
         RskAddress senderAddress = transaction.getSender();
 
@@ -66,6 +70,7 @@ public class TransactionSet {
         }
 
         this.transactionsByHash.remove(hash);
+        this.size = this.transactionsByHash.size();
 
         RskAddress senderAddress = transaction.getSender();
         List<Transaction> txs = this.transactionsByAddress.get(senderAddress);
@@ -79,6 +84,10 @@ public class TransactionSet {
         }
     }
 
+    public int size() {
+        return this.size;
+    }
+
     public List<Transaction> getTransactions() {
         List<Transaction> ret = new ArrayList<>();
         ret.addAll(this.transactionsByHash.values());
@@ -19,7 +19,7 @@
 
 package org.ethereum.crypto;
 
-import org.ethereum.crypto.cryptohash.Keccak256;
+import org.ethereum.crypto.cryptohash.FastKeccak256;
 import org.ethereum.util.RLP;
 import org.ethereum.util.Utils;
 import org.spongycastle.crypto.Digest;
@@ -28,6 +28,7 @@ import org.spongycastle.util.encoders.Hex;
 
 import javax.annotation.Nonnull;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
@@ -36,6 +37,9 @@ import static java.util.Arrays.copyOfRange;
 import static org.ethereum.util.ByteUtil.EMPTY_BYTE_ARRAY;
 
 public class HashUtil {
+    // declared before the hashes computed at class initialization
+    private static final ThreadLocal<FastKeccak256> keccak256Digest = ThreadLocal.withInitial(FastKeccak256::new);
+
     public static final byte[] EMPTY_TRIE_HASH = keccak256(RLP.encodeElement(EMPTY_BYTE_ARRAY));
 
     private static final MessageDigest sha256digest;
@@ -57,9 +61,7 @@ public class HashUtil {
     }
 
     public static byte[] keccak256(byte[] input) {
-        Keccak256 digest =  new Keccak256();
-        digest.update(input);
-        return digest.digest();
+        return keccak256Digest.get().reset().update(input).digest();
     }
 
     /**
@@ -70,7 +72,50 @@ public class HashUtil {
      * @return - sha3 hash of the chunk
      */
     public static byte[] keccak256(byte[] input, int start, int length) {
-        return Keccak256Helper.keccak256(input, start, length);
+        return keccak256Digest.get().reset().update(input, start, length).digest();
+    }
+
+    /**
+     * hashing chunk of the data into a given array, without allocating
+     * @param input - data for hash
+     * @param start - start of hashing chunk
+     * @param length - length of hashing chunk
+     * @param output - array to write the 32 bytes hash to
+     * @param outputOffset - position of the hash in the output array
+     */
+    public static void keccak256(byte[] input, int start, int length, byte[] output, int outputOffset) {
+        keccak256Digest.get().reset().update(input, start, length).digest(output, outputOffset);
+    }
+
+    /**
+     * @param input - buffer with the data for hash, its remaining bytes are consumed
+     * @return - sha3 hash of the remaining bytes
+     */
+    public static byte[] keccak256(ByteBuffer input) {
+        return keccak256Digest.get().reset().update(input).digest();
+    }
+
+    /**
+     * @param input - buffer with the data for hash, its remaining bytes are consumed
+     * @param output - array to write the 32 bytes hash to
+     * @param outputOffset - position of the hash in the output array
+     */
+    public static void keccak256(ByteBuffer input, byte[] output, int outputOffset) {
+        keccak256Digest.get().reset().update(input).digest(output, outputOffset);
+    }
+
+    /**
+     * @param inputs - parts of the data for hash, hashed as if they were concatenated
+     * @return - sha3 hash of the concatenated parts
+     */
+    public static byte[] keccak256Concat(byte[]... inputs) {
+        FastKeccak256 digest = keccak256Digest.get().reset();
+
+        for (byte[] input : inputs) {
+            digest.update(input);
+        }
+
+        return digest.digest();
     }
 
 
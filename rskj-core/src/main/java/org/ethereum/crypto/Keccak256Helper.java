@@ -30,19 +30,23 @@ public class Keccak256Helper {
     public static final int DEFAULT_SIZE_BYTES = DEFAULT_SIZE / 8;
 
     public static String keccak256String(String message) {
-        return keccak256String(message, new SHA3Digest(DEFAULT_SIZE), true);
+        if (message == null) {
+            throw new NullPointerException("Can't hash a NULL value");
+        }
+
+        return Hex.toHexString(HashUtil.keccak256(Hex.decode(message)));
     }
 
     public static String keccak256String(byte[] message) {
-        return keccak256String(message, new SHA3Digest(DEFAULT_SIZE), true);
+        return Hex.toHexString(HashUtil.keccak256(message));
     }
 
     public static byte[] keccak256(String message) {
-        return keccak256(Hex.decode(message), new SHA3Digest(DEFAULT_SIZE), true);
+        return HashUtil.keccak256(Hex.decode(message));
     }
 
     public static byte[] keccak256(byte[] message) {
-        return keccak256(message, new SHA3Digest(DEFAULT_SIZE), true);
+        return HashUtil.keccak256(message);
     }
 
     public static byte[] keccak256(byte[] message, Size sz) {
@@ -50,11 +54,11 @@ public class Keccak256Helper {
     }
 
     public static byte[] keccak256(byte[] m1, byte[] m2) {
-        return keccak256(m1, m2, new SHA3Digest(DEFAULT_SIZE), true);
+        return HashUtil.keccak256Concat(m1, m2);
     }
 
     public static byte[] keccak256(byte[] message, int start, int length) {
-        return keccak256(message, start, length, new SHA3Digest(DEFAULT_SIZE), true);
+        return HashUtil.keccak256(message, start, length);
     }
 
     protected static String keccak256String(String message, Size bitSize) {
@@ -98,21 +102,6 @@ public class Keccak256Helper {
         return doKeccak256(message, digest, bouncyencoder);
     }
 
-    private static byte[] keccak256(byte[] m1, byte[] m2, SHA3Digest digest, boolean bouncyencoder) {
-        return doKeccak256(m1, m2, digest, bouncyencoder);
-    }
-
-    private static byte[] keccak256(byte[] message, int start, int length, SHA3Digest digest, boolean bouncyencoder) {
-        byte[] hash = new byte[digest.getDigestSize()];
-
-        if (message.length != 0) {
-            digest.update(message, start, length);
-        }
-        digest.doFinal(hash, 0);
-        return hash;
-    }
-
-
     private static byte[] doKeccak256(byte[] message, SHA3Digest digest, boolean bouncyencoder) {
         byte[] hash = new byte[digest.getDigestSize()];
 
@@ -123,15 +112,6 @@ public class Keccak256Helper {
         return hash;
     }
 
-    private static byte[] doKeccak256(byte[] m1, byte[] m2, SHA3Digest digest, boolean bouncyencoder) {
-        byte[] hash = new byte[digest.getDigestSize()];
-        digest.update(m1, 0, m1.length);
-        digest.update(m2, 0, m2.length);
-
-        digest.doFinal(hash, 0);
-        return hash;
-    }
-
     public enum Size {
 
         S224(224),
@@ -0,0 +1,331 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.crypto.cryptohash;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable Keccak-256 digest, with the original Keccak padding used by Ethereum.
+ * <p>
+ * The input is absorbed directly from the caller arrays when a whole block is available,
+ * and the hash can be written into a caller-provided array.
+ * The Keccak-f[1600] permutation keeps the state lanes in local variables during the rounds.
+ * <p>
+ * Instances are not thread safe, see HashUtil for a thread-local instance.
+ */
+public final class FastKeccak256 {
+    public static final int DIGEST_LENGTH = 32;
+
+    // 1600 - 2 * 256 bits
+    private static final int RATE = 136;
+    private static final int RATE_LANES = RATE / 8;
+
+    private static final long[] ROUND_CONSTANTS = {
+        0x0000000000000001L, 0x0000000000008082L, 0x800000000000808AL, 0x8000000080008000L,
+        0x000000000000808BL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+        0x000000000000008AL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000AL,
+        0x000000008000808BL, 0x800000000000008BL, 0x8000000000008089L, 0x8000000000008003L,
+        0x8000000000008002L, 0x8000000000000080L, 0x000000000000800AL, 0x800000008000000AL,
+        0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+
+    private final long[] state = new long[25];
+    private final byte[] buffer = new byte[RATE];
+    private int bufferLength;
+
+    public FastKeccak256 reset() {
+        for (int k = 0; k < this.state.length; k++) {
+            this.state[k] = 0;
+        }
+
+        this.bufferLength = 0;
+
+        return this;
+    }
+
+    public FastKeccak256 update(byte input) {
+        this.buffer[this.bufferLength++] = input;
+
+        if (this.bufferLength == RATE) {
+            this.absorb(this.buffer, 0);
+            this.bufferLength = 0;
+        }
+
+        return this;
+    }
+
+    public FastKeccak256 update(byte[] input) {
+        return this.update(input, 0, input.length);
+    }
+
+    public FastKeccak256 update(byte[] input, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > input.length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        int position = offset;
+        int remaining = length;
+
+        if (this.bufferLength > 0) {
+            int count = Math.min(remaining, RATE - this.bufferLength);
+            System.arraycopy(input, position, this.buffer, this.bufferLength, count);
+            this.bufferLength += count;
+            position += count;
+            remaining -= count;
+
+            if (this.bufferLength < RATE) {
+                return this;
+            }
+
+            this.absorb(this.buffer, 0);
+            this.bufferLength = 0;
+        }
+
+        // the whole blocks are absorbed without copying them
+        while (remaining >= RATE) {
+            this.absorb(input, position);
+            position += RATE;
+            remaining -= RATE;
+        }
+
+        System.arraycopy(input, position, this.buffer, 0, remaining);
+        this.bufferLength = remaining;
+
+        return this;
+    }
+
+    /**
+     * Updates the digest with the remaining bytes of the buffer, leaving its position at its limit
+     */
+    public FastKeccak256 update(ByteBuffer input) {
+        int length = input.remaining();
+
+        if (input.hasArray()) {
+            this.update(input.array(), input.arrayOffset() + input.position(), length);
+            input.position(input.limit());
+            return this;
+        }
+
+        while (input.hasRemaining()) {
+            int count = Math.min(input.remaining(), RATE - this.bufferLength);
+            input.get(this.buffer, this.bufferLength, count);
+            this.bufferLength += count;
+
+            if (this.bufferLength == RATE) {
+                this.absorb(this.buffer, 0);
+                this.bufferLength = 0;
+            }
+        }
+
+        return this;
+    }
+
+    public byte[] digest() {
+        byte[] output = new byte[DIGEST_LENGTH];
+        this.digest(output, 0);
+        return output;
+    }
+
+    /**
+     * Writes the hash of the input into the output array, and resets the digest
+     *
+     * @param output    the array to write the hash to
+     * @param offset    the position of the hash in the output array
+     */
+    public void digest(byte[] output, int offset) {
+        if (offset < 0 || offset + DIGEST_LENGTH > output.length) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        // Keccak padding, the first and last padding bits can be in the same byte
+        for (int k = this.bufferLength; k < RATE; k++) {
+            this.buffer[k] = 0;
+        }
+
+        this.buffer[this.bufferLength] ^= 0x01;
+        this.buffer[RATE - 1] ^= (byte) 0x80;
+
+        this.absorb(this.buffer, 0);
+
+        for (int k = 0; k < DIGEST_LENGTH / 8; k++) {
+            encodeLELong(this.state[k], output, offset + k * 8);
+        }
+
+        this.reset();
+    }
+
+    private void absorb(byte[] block, int offset) {
+        for (int k = 0; k < RATE_LANES; k++) {
+            this.state[k] ^= decodeLELong(block, offset + k * 8);
+        }
+
+        permute(this.state);
+    }
+
+    private static long decodeLELong(byte[] buf, int off) {
+        return (buf[off] & 0xFFL)
+            | ((buf[off + 1] & 0xFFL) << 8)
+            | ((buf[off + 2] & 0xFFL) << 16)
+            | ((buf[off + 3] & 0xFFL) << 24)
+            | ((buf[off + 4] & 0xFFL) << 32)
+            | ((buf[off + 5] & 0xFFL) << 40)
+            | ((buf[off + 6] & 0xFFL) << 48)
+            | ((buf[off + 7] & 0xFFL) << 56);
+    }
+
+    private static void encodeLELong(long val, byte[] buf, int off) {
+        buf[off] = (byte) val;
+        buf[off + 1] = (byte) (val >>> 8);
+        buf[off + 2] = (byte) (val >>> 16);
+        buf[off + 3] = (byte) (val >>> 24);
+        buf[off + 4] = (byte) (val >>> 32);
+        buf[off + 5] = (byte) (val >>> 40);
+        buf[off + 6] = (byte) (val >>> 48);
+        buf[off + 7] = (byte) (val >>> 56);
+    }
+
+    /**
+     * Keccak-f[1600], the lane of column x and row y is a[x + 5 * y]
+     */
+    static void permute(long[] state) {
+        long a00 = state[0];
+        long a01 = state[1];
+        long a02 = state[2];
+        long a03 = state[3];
+        long a04 = state[4];
+        long a05 = state[5];
+        long a06 = state[6];
+        long a07 = state[7];
+        long a08 = state[8];
+        long a09 = state[9];
+        long a10 = state[10];
+        long a11 = state[11];
+        long a12 = state[12];
+        long a13 = state[13];
+        long a14 = state[14];
+        long a15 = state[15];
+        long a16 = state[16];
+        long a17 = state[17];
+        long a18 = state[18];
+        long a19 = state[19];
+        long a20 = state[20];
+        long a21 = state[21];
+        long a22 = state[22];
+        long a23 = state[23];
+        long a24 = state[24];
+
+        for (int round = 0; round < 24; round++) {
+            long c0 = a00 ^ a05 ^ a10 ^ a15 ^ a20;
+            long c1 = a01 ^ a06 ^ a11 ^ a16 ^ a21;
+            long c2 = a02 ^ a07 ^ a12 ^ a17 ^ a22;
+            long c3 = a03 ^ a08 ^ a13 ^ a18 ^ a23;
+            long c4 = a04 ^ a09 ^ a14 ^ a19 ^ a24;
+
+            long d0 = c4 ^ Long.rotateLeft(c1, 1);
+            long d1 = c0 ^ Long.rotateLeft(c2, 1);
+            long d2 = c1 ^ Long.rotateLeft(c3, 1);
+            long d3 = c2 ^ Long.rotateLeft(c4, 1);
+            long d4 = c3 ^ Long.rotateLeft(c0, 1);
+
+            long b00 = a00 ^ d0;
+            long b01 = Long.rotateLeft(a06 ^ d1, 44);
+            long b02 = Long.rotateLeft(a12 ^ d2, 43);
+            long b03 = Long.rotateLeft(a18 ^ d3, 21);
+            long b04 = Long.rotateLeft(a24 ^ d4, 14);
+            long b05 = Long.rotateLeft(a03 ^ d3, 28);
+            long b06 = Long.rotateLeft(a09 ^ d4, 20);
+            long b07 = Long.rotateLeft(a10 ^ d0, 3);
+            long b08 = Long.rotateLeft(a16 ^ d1, 45);
+            long b09 = Long.rotateLeft(a22 ^ d2, 61);
+            long b10 = Long.rotateLeft(a01 ^ d1, 1);
+            long b11 = Long.rotateLeft(a07 ^ d2, 6);
+            long b12 = Long.rotateLeft(a13 ^ d3, 25);
+            long b13 = Long.rotateLeft(a19 ^ d4, 8);
+            long b14 = Long.rotateLeft(a20 ^ d0, 18);
+            long b15 = Long.rotateLeft(a04 ^ d4, 27);
+            long b16 = Long.rotateLeft(a05 ^ d0, 36);
+            long b17 = Long.rotateLeft(a11 ^ d1, 10);
+            long b18 = Long.rotateLeft(a17 ^ d2, 15);
+            long b19 = Long.rotateLeft(a23 ^ d3, 56);
+            long b20 = Long.rotateLeft(a02 ^ d2, 62);
+            long b21 = Long.rotateLeft(a08 ^ d3, 55);
+            long b22 = Long.rotateLeft(a14 ^ d4, 39);
+            long b23 = Long.rotateLeft(a15 ^ d0, 41);
+            long b24 = Long.rotateLeft(a21 ^ d1, 2);
+
+            a00 = b00 ^ (~b01 & b02);
+            a01 = b01 ^ (~b02 & b03);
+            a02 = b02 ^ (~b03 & b04);
+            a03 = b03 ^ (~b04 & b00);
+            a04 = b04 ^ (~b00 & b01);
+
+            a05 = b05 ^ (~b06 & b07);
+            a06 = b06 ^ (~b07 & b08);
+            a07 = b07 ^ (~b08 & b09);
+            a08 = b08 ^ (~b09 & b05);
+            a09 = b09 ^ (~b05 & b06);
+
+            a10 = b10 ^ (~b11 & b12);
+            a11 = b11 ^ (~b12 & b13);
+            a12 = b12 ^ (~b13 & b14);
+            a13 = b13 ^ (~b14 & b10);
+            a14 = b14 ^ (~b10 & b11);
+
+            a15 = b15 ^ (~b16 & b17);
+            a16 = b16 ^ (~b17 & b18);
+            a17 = b17 ^ (~b18 & b19);
+            a18 = b18 ^ (~b19 & b15);
+            a19 = b19 ^ (~b15 & b16);
+
+            a20 = b20 ^ (~b21 & b22);
+            a21 = b21 ^ (~b22 & b23);
+            a22 = b22 ^ (~b23 & b24);
+            a23 = b23 ^ (~b24 & b20);
+            a24 = b24 ^ (~b20 & b21);
+
+            a00 ^= ROUND_CONSTANTS[round];
+        }
+
+        state[0] = a00;
+        state[1] = a01;
+        state[2] = a02;
+        state[3] = a03;
+        state[4] = a04;
+        state[5] = a05;
+        state[6] = a06;
+        state[7] = a07;
+        state[8] = a08;
+        state[9] = a09;
+        state[10] = a10;
+        state[11] = a11;
+        state[12] = a12;
+        state[13] = a13;
+        state[14] = a14;
+        state[15] = a15;
+        state[16] = a16;
+        state[17] = a17;
+        state[18] = a18;
+        state[19] = a19;
+        state[20] = a20;
+        state[21] = a21;
+        state[22] = a22;
+        state[23] = a23;
+        state[24] = a24;
+    }
+}
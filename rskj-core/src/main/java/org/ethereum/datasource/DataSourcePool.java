@@ -81,6 +81,27 @@ public class DataSourcePool {
         }
     }
 
+    /**
+     * Closes the data sources of the pool whatever their use, so the next ones are opened
+     * in the database directory of the configuration they are asked with
+     */
+    public static void closeAllDataSources() {
+        for (String name : pool.keySet()) {
+            DataSourceEx dataSourceEx = pool.get(name);
+
+            if (dataSourceEx == null || dataSourceEx.getDataSource() instanceof HashMapDB) {
+                continue;
+            }
+
+            pool.remove(name);
+            DataSource dataSource = dataSourceEx.getDataSource();
+
+            synchronized (dataSource) {
+                dataSource.close();
+            }
+        }
+    }
+
     private static class DataSourceEx {
         private DataSource dataSource;
         private int counter;
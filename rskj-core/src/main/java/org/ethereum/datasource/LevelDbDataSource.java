@@ -20,6 +20,8 @@
 package org.ethereum.datasource;
 
 import co.rsk.config.RskSystemProperties;
+import co.rsk.metrics.Histogram;
+import co.rsk.metrics.MetricRegistry;
 import co.rsk.panic.PanicProcessor;
 import org.iq80.leveldb.*;
 import org.slf4j.Logger;
@@ -49,6 +51,11 @@ public class LevelDbDataSource implements KeyValueDataSource {
     private static final Logger logger = LoggerFactory.getLogger("db");
     private static final PanicProcessor panicProcessor = new PanicProcessor();
 
+    private static final Histogram getTime = operationHistogram("get");
+    private static final Histogram putTime = operationHistogram("put");
+    private static final Histogram deleteTime = operationHistogram("delete");
+    private static final Histogram batchTime = operationHistogram("batch");
+
     private final RskSystemProperties config;
     private String name;
     private DB db;
@@ -156,6 +163,7 @@ public class LevelDbDataSource implements KeyValueDataSource {
 
     @Override
     public byte[] get(byte[] key) {
+        long start = System.nanoTime();
         resetDbLock.readLock().lock();
         try {
             if (logger.isTraceEnabled()) {
@@ -186,11 +194,13 @@ public class LevelDbDataSource implements KeyValueDataSource {
             }
         } finally {
             resetDbLock.readLock().unlock();
+            getTime.recordSince(start);
         }
     }
 
     @Override
     public byte[] put(byte[] key, byte[] value) {
+        long start = System.nanoTime();
         resetDbLock.readLock().lock();
         try {
             if (logger.isTraceEnabled()) {
@@ -205,11 +215,13 @@ public class LevelDbDataSource implements KeyValueDataSource {
             return value;
         } finally {
             resetDbLock.readLock().unlock();
+            putTime.recordSince(start);
         }
     }
 
     @Override
     public void delete(byte[] key) {
+        long start = System.nanoTime();
         resetDbLock.readLock().lock();
         try {
             if (logger.isTraceEnabled()) {
@@ -223,6 +235,7 @@ public class LevelDbDataSource implements KeyValueDataSource {
 
         } finally {
             resetDbLock.readLock().unlock();
+            deleteTime.recordSince(start);
         }
     }
 
@@ -265,6 +278,7 @@ public class LevelDbDataSource implements KeyValueDataSource {
 
     @Override
     public void updateBatch(Map<byte[], byte[]> rows) {
+        long start = System.nanoTime();
         resetDbLock.readLock().lock();
         try {
             if (logger.isTraceEnabled()) {
@@ -294,6 +308,7 @@ public class LevelDbDataSource implements KeyValueDataSource {
             }
         } finally {
             resetDbLock.readLock().unlock();
+            batchTime.recordSince(start);
         }
     }
 
@@ -318,4 +333,8 @@ public class LevelDbDataSource implements KeyValueDataSource {
             resetDbLock.writeLock().unlock();
         }
     }
+
+    private static Histogram operationHistogram(String operation) {
+        return MetricRegistry.getDefault().histogram("leveldb_operation_seconds", "Time spent in LevelDB operations", "op", operation);
+    }
 }
@@ -23,6 +23,7 @@ import org.ethereum.vm.DataWord;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -59,6 +60,8 @@ public interface ContractDetails {
 
     Set<DataWord> getStorageKeys();
 
+    Iterator<Map.Entry<byte[], byte[]>> getStorageRange(@Nullable byte[] from, @Nullable byte[] to);
+
     Map<DataWord,DataWord> getStorage(@Nullable Collection<DataWord> keys);
 
     Map<DataWord, DataWord> getStorage();
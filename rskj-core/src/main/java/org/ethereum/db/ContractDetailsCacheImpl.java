@@ -208,6 +208,11 @@ public class ContractDetailsCacheImpl implements ContractDetails {
                 : origContract.getStorageKeys();
     }
 
+    @Override
+    public Iterator<Map.Entry<byte[], byte[]>> getStorageRange(byte[] from, byte[] to) {
+        throw new UnsupportedOperationException("No storage range during cache state");
+    }
+
     @Override
     public void setStorage(List<DataWord> storageKeys, List<DataWord> storageValues) {
 
@@ -305,6 +310,53 @@ public class ContractDetailsCacheImpl implements ContractDetails {
         return origContract.isNullObject() && (MapUtils.isEmpty(storage));
     }
 
+    boolean isCached(DataWord key) {
+        return origContract == null || storage.containsKey(key);
+    }
+
+    boolean isBytesCached(DataWord key) {
+        return origContract == null || bytesStorage.containsKey(key);
+    }
+
+    /**
+     * Returns an action that restores the current code and flags
+     */
+    Runnable saveState() {
+        byte[] savedCode = code;
+        boolean savedDirty = dirty;
+        boolean savedDeleted = deleted;
+
+        return () -> {
+            code = savedCode;
+            dirty = savedDirty;
+            deleted = savedDeleted;
+        };
+    }
+
+    /**
+     * Returns an action that restores the current cached value of the key
+     */
+    Runnable saveValue(DataWord key) {
+        return saveEntry(storage, key);
+    }
+
+    /**
+     * Returns an action that restores the current cached bytes of the key
+     */
+    Runnable saveBytes(DataWord key) {
+        return saveEntry(bytesStorage, key);
+    }
+
+    private static <V> Runnable saveEntry(Map<DataWord, V> map, DataWord key) {
+        if (!map.containsKey(key)) {
+            return () -> map.remove(key);
+        }
+
+        V value = map.get(key);
+
+        return () -> map.put(key, value);
+    }
+
     public ContractDetails getOriginalContractDetails() {
         return this.origContract;
     }
@@ -21,82 +21,166 @@ package org.ethereum.db;
 
 import co.rsk.config.RskSystemProperties;
 import co.rsk.core.RskAddress;
+import co.rsk.crypto.Keccak256;
 import co.rsk.db.ContractDetailsImpl;
+import co.rsk.metrics.Counter;
+import co.rsk.metrics.MetricRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.lang.ref.SoftReference;
+import java.util.*;
 
 import static java.lang.String.format;
 
 /**
  * A store for contract details.
+ *
+ * The details read or changed since the last flush are kept in memory. A flush can be split in two steps:
+ * {@link #prepareFlush()} encodes them at a block boundary, and {@link #writePreparedFlush()} writes them,
+ * possibly in another thread, while they are still read from memory.
+ *
+ * The details in memory are bounded by their estimated size. Beyond it, the least recently used are
+ * written back to the database if they were changed, or dropped if they were only read. The details read
+ * are also softly referenced, so they can be collected when the heap runs short. The details taken
+ * with {@link #get(RskAddress)} must be changed through {@link #update(RskAddress, ContractDetails)},
+ * or kept referenced until the next flush.
  */
 public class DetailsDataStore {
 
     private static final Logger gLogger = LoggerFactory.getLogger("general");
 
-    private final Map<RskAddress, ContractDetails> cache = new ConcurrentHashMap<>();
+    // rough heap use of a details without storage, and of every storage cell with its key and trie node
+    private static final long DETAILS_SIZE = 512;
+    private static final long STORAGE_CELL_SIZE = 256;
+
+    private static final MetricRegistry registry = MetricRegistry.getDefault();
+    private static final Counter cacheHits = registry.counter("details_cache_hits_total", "Contract details read from memory");
+    private static final Counter cacheMisses = registry.counter("details_cache_misses_total", "Contract details read from the database");
+    private static final Counter writtenBack = evictions("written_back");
+    private static final Counter dropped = evictions("dropped");
+    private static final Counter collected = evictions("collected");
+
+    // the least recently used first
+    private final LinkedHashMap<RskAddress, CachedDetails> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxCacheSize;
+
+    // changed under the lock of the store, read without it by the metrics
+    private volatile long cacheSize;
+    private volatile int cachedDetailsCount;
     private final Set<RskAddress> removes = new HashSet<>();
 
+    // the prepared flush, being written
+    private final Map<RskAddress, byte[]> flushingDetails = new HashMap<>();
+    private final Set<RskAddress> flushingRemoves = new HashSet<>();
+    private boolean flushing;
+
     private final RskSystemProperties config;
     private final DatabaseImpl db;
 
     public DetailsDataStore(RskSystemProperties config, DatabaseImpl db) {
+        this(config, db, config.detailsCacheSize());
+    }
+
+    public DetailsDataStore(RskSystemProperties config, DatabaseImpl db, long maxCacheSize) {
         this.config = config;
         this.db = db;
+        this.maxCacheSize = maxCacheSize;
     }
 
     public synchronized ContractDetails get(RskAddress addr) {
-        ContractDetails details = cache.get(addr);
+        CachedDetails cached = cache.get(addr);
 
-        if (details == null) {
+        if (cached != null) {
+            ContractDetails details = cached.get();
 
-            if (removes.contains(addr)) {
-                return null;
-            }
-            byte[] data = db.get(addr.getBytes());
-            if (data == null) {
-                return null;
+            if (details != null) {
+                cacheHits.inc();
+                return details;
             }
 
-            details = createContractDetails(data);
-            cache.put(addr, details);
+            removeCached(addr);
+            collected.inc();
+        }
 
-            float out = ((float) data.length) / 1048576;
-            if (out > 10) {
-                String sizeFmt = format("%02.2f", out);
-                gLogger.debug("loaded: address: {}, size: {}MB", addr, sizeFmt);
-            }
+        cacheMisses.inc();
+
+        if (removes.contains(addr) || flushingRemoves.contains(addr)) {
+            return null;
+        }
+        byte[] data = flushingDetails.get(addr);
+        if (data == null) {
+            data = db.get(addr.getBytes());
+        }
+        if (data == null) {
+            return null;
+        }
+
+        ContractDetails details = createContractDetails(data);
+        putCached(addr, new CachedDetails(details, false));
+
+        float out = ((float) data.length) / 1048576;
+        if (out > 10) {
+            String sizeFmt = format("%02.2f", out);
+            gLogger.debug("loaded: address: {}, size: {}MB", addr, sizeFmt);
         }
 
         return details;
     }
 
+    /**
+     * Returns a snapshot of the details of the address to a storage root, to be read and not changed.
+     * The last snapshots taken from the details in memory are kept with them, so the repeated reads
+     * of a contract share them, until the details are changed or evicted.
+     */
+    public synchronized ContractDetails getSnapshot(RskAddress addr, byte[] storageRoot) {
+        ContractDetails details = get(addr);
+
+        if (details == null) {
+            return null;
+        }
+
+        CachedDetails cached = cache.get(addr);
+
+        if (cached == null || cached.get() != details) {
+            return details.getSnapshotTo(storageRoot);
+        }
+
+        return cached.getSnapshot(details, storageRoot);
+    }
+
     protected ContractDetails createContractDetails(byte[] data) {
         return new ContractDetailsImpl(config, data);
     }
 
     public synchronized void update(RskAddress addr, ContractDetails contractDetails) {
         contractDetails.setAddress(addr.getBytes());
-        cache.put(addr, contractDetails);
         removes.remove(addr);
+        putCached(addr, new CachedDetails(contractDetails, true));
     }
 
     public synchronized void remove(RskAddress addr) {
-        cache.remove(addr);
+        removeCached(addr);
         removes.add(addr);
     }
 
+    /**
+     * @return the estimated size of the details in memory
+     */
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    public int getCachedDetailsCount() {
+        return cachedDetailsCount;
+    }
+
     public synchronized void flush() {
         long keys = cache.size();
 
         long start = System.nanoTime();
-        long totalSize = flushInternal();
+        long totalSize = prepareFlush();
+        writePreparedFlush();
         long finish = System.nanoTime();
 
         float flushSize = (float) totalSize / 1_048_576;
@@ -104,40 +188,246 @@ public class DetailsDataStore {
         gLogger.trace(format("Flush details in: %02.2f ms, %d keys, %02.2fMB", flushTime, keys, flushSize));
     }
 
-    private long flushInternal() {
+    /**
+     * Encodes the changed details in memory and moves the details out of the cache, to be written by
+     * {@link #writePreparedFlush()}. Until then they are still read from memory. Waits for the write
+     * of the previous prepared flush.
+     *
+     * @return the size of the encoded details
+     */
+    public synchronized long prepareFlush() {
+        awaitWrite();
+
         long totalSize = 0;
 
-        Map<byte[], byte[]> batch = new HashMap<>();
-        for (Map.Entry<RskAddress, ContractDetails> entry : cache.entrySet()) {
-            ContractDetails details = entry.getValue();
+        for (Map.Entry<RskAddress, CachedDetails> entry : cache.entrySet()) {
+            CachedDetails cached = entry.getValue();
+            ContractDetails details = cached.get();
+
+            if (details == null) {
+                continue;
+            }
+
             details.syncStorage();
 
-            byte[] key = entry.getKey().getBytes();
+            if (!cached.isDirty()) {
+                continue;
+            }
+
             byte[] value = details.getEncoded();
 
-            batch.put(key, value);
+            flushingDetails.put(entry.getKey(), value);
             totalSize += value.length;
         }
 
-        db.getDb().updateBatch(batch);
-
-        for (RskAddress key : removes) {
-            db.delete(key.getBytes());
-        }
+        flushingRemoves.addAll(removes);
+        flushing = true;
 
         cache.clear();
+        cacheSize = 0;
+        cachedDetailsCount = 0;
         removes.clear();
 
         return totalSize;
     }
 
+    /**
+     * Writes the details encoded by the last {@link #prepareFlush()}, if it was not written yet.
+     * It does not hold the lock of the store while writing. If the write fails, the details
+     * are kept in memory to be written by the next flush.
+     */
+    public void writePreparedFlush() {
+        Map<byte[], byte[]> batch = new HashMap<>();
+        Set<RskAddress> deletes;
+
+        synchronized (this) {
+            if (!flushing) {
+                return;
+            }
+
+            for (Map.Entry<RskAddress, byte[]> entry : flushingDetails.entrySet()) {
+                batch.put(entry.getKey().getBytes(), entry.getValue());
+            }
+
+            deletes = new HashSet<>(flushingRemoves);
+        }
+
+        boolean written = false;
+
+        try {
+            db.getDb().updateBatch(batch);
+
+            for (RskAddress key : deletes) {
+                db.delete(key.getBytes());
+            }
+
+            written = true;
+        } finally {
+            endWrite(written);
+        }
+    }
+
+    private synchronized void endWrite(boolean written) {
+        Map<RskAddress, byte[]> unwrittenDetails = written ? Collections.emptyMap() : new HashMap<>(flushingDetails);
+        Set<RskAddress> unwrittenRemoves = written ? Collections.emptySet() : new HashSet<>(flushingRemoves);
+
+        flushingDetails.clear();
+        flushingRemoves.clear();
+        flushing = false;
+        notifyAll();
+
+        for (Map.Entry<RskAddress, byte[]> entry : unwrittenDetails.entrySet()) {
+            if (!cache.containsKey(entry.getKey()) && !removes.contains(entry.getKey())) {
+                putCached(entry.getKey(), new CachedDetails(createContractDetails(entry.getValue()), true));
+            }
+        }
+
+        for (RskAddress key : unwrittenRemoves) {
+            if (!cache.containsKey(key)) {
+                removes.add(key);
+            }
+        }
+    }
+
+    private void awaitWrite() {
+        boolean interrupted = false;
+
+        while (flushing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void putCached(RskAddress addr, CachedDetails cached) {
+        CachedDetails previous = cache.put(addr, cached);
+
+        if (previous != null) {
+            cacheSize -= previous.size;
+        }
+
+        cacheSize += cached.size;
+        cachedDetailsCount = cache.size();
+        evict();
+    }
+
+    private void removeCached(RskAddress addr) {
+        CachedDetails cached = cache.remove(addr);
+
+        if (cached != null) {
+            cacheSize -= cached.size;
+            cachedDetailsCount = cache.size();
+        }
+    }
+
+    /**
+     * Evicts the least recently used details, but the last one, until the cache fits in its size.
+     * The changed details are written back, after the write in progress, so they are not overwritten by it.
+     */
+    private void evict() {
+        while (cacheSize > maxCacheSize && cache.size() > 1) {
+            Map.Entry<RskAddress, CachedDetails> eldest = cache.entrySet().iterator().next();
+            RskAddress addr = eldest.getKey();
+            CachedDetails cached = eldest.getValue();
+            ContractDetails details = cached.get();
+
+            if (details == null) {
+                collected.inc();
+            } else if (cached.isDirty()) {
+                if (flushing) {
+                    // the cache can change while waiting
+                    awaitWrite();
+                    continue;
+                }
+
+                details.syncStorage();
+                db.put(addr.getBytes(), details.getEncoded());
+                writtenBack.inc();
+            } else {
+                dropped.inc();
+            }
+
+            removeCached(addr);
+        }
+    }
 
     public synchronized Set<RskAddress> keys() {
         Set<RskAddress> keys = new HashSet<>();
         keys.addAll(cache.keySet());
+        keys.addAll(flushingDetails.keySet());
         keys.addAll(db.dumpKeys(RskAddress::new));
 
         return keys;
     }
 
+    private static Counter evictions(String kind) {
+        return registry.counter("details_cache_evictions_total", "Contract details evicted from memory", "kind", kind);
+    }
+
+    /**
+     * A rough estimate of the heap used by a details, growing with its code and storage
+     */
+    private static long estimateSize(ContractDetails details) {
+        byte[] code = details.getCode();
+        return DETAILS_SIZE + (code == null ? 0 : code.length) + details.getStorageSize() * STORAGE_CELL_SIZE;
+    }
+
+    /**
+     * A details in memory. The changed ones are strongly referenced until they are written,
+     * the ones read from the database can be read again, if they are collected.
+     */
+    private static class CachedDetails {
+        private static final int MAX_SNAPSHOTS = 4;
+
+        private final ContractDetails details;
+        private final SoftReference<ContractDetails> readDetails;
+        private final boolean changed;
+        private final long size;
+        // by storage root, the least recently used first
+        private SoftReference<Map<Keccak256, ContractDetails>> snapshots = new SoftReference<>(null);
+
+        CachedDetails(ContractDetails details, boolean changed) {
+            this.details = changed ? details : null;
+            this.readDetails = changed ? null : new SoftReference<>(details);
+            this.changed = changed;
+            this.size = estimateSize(details);
+        }
+
+        ContractDetails get() {
+            return changed ? details : readDetails.get();
+        }
+
+        ContractDetails getSnapshot(ContractDetails source, byte[] storageRoot) {
+            Map<Keccak256, ContractDetails> rootSnapshots = snapshots.get();
+
+            if (rootSnapshots == null) {
+                rootSnapshots = new LinkedHashMap<Keccak256, ContractDetails>(MAX_SNAPSHOTS * 2, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Keccak256, ContractDetails> eldest) {
+                        return size() > MAX_SNAPSHOTS;
+                    }
+                };
+                snapshots = new SoftReference<>(rootSnapshots);
+            }
+
+            return rootSnapshots.computeIfAbsent(new Keccak256(storageRoot), root -> source.getSnapshotTo(storageRoot));
+        }
+
+        boolean isDirty() {
+            if (changed) {
+                return true;
+            }
+
+            ContractDetails read = readDetails.get();
+            return read != null && read.isDirty();
+        }
+    }
 }
@@ -0,0 +1,280 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.db;
+
+import co.rsk.crypto.Keccak256;
+import org.ethereum.core.Block;
+import org.ethereum.core.TransactionReceipt;
+import org.ethereum.datasource.KeyValueDataSource;
+import org.ethereum.util.ByteUtil;
+import org.ethereum.util.RLP;
+import org.ethereum.util.RLPElement;
+import org.ethereum.util.RLPList;
+
+import java.util.*;
+
+/**
+ * Receipt store that keeps the receipts of a block together, keyed by block hash,
+ * plus a compact index from transaction hash to the (block hash, transaction index)
+ * pairs where the transaction was included.
+ *
+ * A receipt lookup is at most one read of the index and one read of the block receipts.
+ * The receipts of a block are saved with a single batched write.
+ */
+public class IndexedReceiptStore implements ReceiptStore {
+    private static final byte BLOCK_PREFIX = 'b';
+    private static final byte INDEX_PREFIX = 'i';
+
+    private final KeyValueDataSource receiptsDS;
+
+    public IndexedReceiptStore(KeyValueDataSource receiptsDS) {
+        this.receiptsDS = receiptsDS;
+    }
+
+    @Override
+    public synchronized void add(byte[] blockHash, int transactionIndex, TransactionReceipt receipt) {
+        Map<Integer, byte[]> blockReceipts = getEncodedBlockReceipts(blockHash);
+        blockReceipts.put(transactionIndex, receipt.getEncoded());
+
+        Map<byte[], byte[]> rows = new HashMap<>();
+        rows.put(blockKey(blockHash), encodeBlockReceipts(blockReceipts));
+        addIndexEntry(rows, receipt.getTransaction().getHash().getBytes(), blockHash, transactionIndex);
+
+        receiptsDS.updateBatch(rows);
+    }
+
+    @Override
+    public synchronized void saveMultiple(byte[] blockHash, List<TransactionReceipt> receipts) {
+        Map<Integer, byte[]> blockReceipts = getEncodedBlockReceipts(blockHash);
+        Map<byte[], byte[]> rows = new HashMap<>();
+
+        int i = 0;
+        for (TransactionReceipt receipt : receipts) {
+            blockReceipts.put(i, receipt.getEncoded());
+            addIndexEntry(rows, receipt.getTransaction().getHash().getBytes(), blockHash, i);
+            i++;
+        }
+
+        rows.put(blockKey(blockHash), encodeBlockReceipts(blockReceipts));
+
+        receiptsDS.updateBatch(rows);
+    }
+
+    @Override
+    public TransactionInfo get(byte[] transactionHash) {
+        List<IndexEntry> entries = getIndexEntries(transactionHash);
+
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        return toTransactionInfo(entries.get(entries.size() - 1));
+    }
+
+    @Override
+    public TransactionInfo get(byte[] transactionHash, byte[] blockHash, BlockStore store) {
+        List<IndexEntry> entries = getIndexEntries(transactionHash);
+
+        if (entries.isEmpty()) {
+            return null;
+        }
+
+        for (IndexEntry entry : entries) {
+            if (Arrays.equals(entry.blockHash, blockHash)) {
+                return toTransactionInfo(entry);
+            }
+        }
+
+        if (store == null) {
+            return null;
+        }
+
+        // the transaction is not in the given block, look for it in the ancestors of the block,
+        // stopping at the lowest block that includes the transaction
+        Map<Keccak256, IndexEntry> candidates = new HashMap<>();
+        long minNumber = Long.MAX_VALUE;
+
+        for (IndexEntry entry : entries) {
+            Block candidate = store.getBlockByHash(entry.blockHash);
+
+            if (candidate == null) {
+                continue;
+            }
+
+            candidates.put(candidate.getHash(), entry);
+            minNumber = Math.min(minNumber, candidate.getNumber());
+        }
+
+        Block block = store.getBlockByHash(blockHash);
+
+        while (block != null && block.getNumber() >= minNumber) {
+            IndexEntry entry = candidates.get(block.getHash());
+
+            if (entry != null) {
+                return toTransactionInfo(entry);
+            }
+
+            if (block.isGenesis()) {
+                return null;
+            }
+
+            block = store.getBlockByHash(block.getParentHash().getBytes());
+        }
+
+        return null;
+    }
+
+    @Override
+    public TransactionInfo getInMainChain(byte[] transactionHash, BlockStore store) {
+        for (IndexEntry entry : getIndexEntries(transactionHash)) {
+            Block block = store.getBlockByHash(entry.blockHash);
+
+            if (block == null) {
+                continue;
+            }
+
+            Block mainChainBlock = store.getChainBlockByNumber(block.getNumber());
+
+            if (mainChainBlock != null && Arrays.equals(entry.blockHash, mainChainBlock.getHash().getBytes())) {
+                return toTransactionInfo(entry);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public List<TransactionInfo> getAll(byte[] transactionHash) {
+        List<TransactionInfo> txsInfo = new ArrayList<>();
+
+        for (IndexEntry entry : getIndexEntries(transactionHash)) {
+            TransactionInfo txInfo = toTransactionInfo(entry);
+
+            if (txInfo != null) {
+                txsInfo.add(txInfo);
+            }
+        }
+
+        return txsInfo;
+    }
+
+    private TransactionInfo toTransactionInfo(IndexEntry entry) {
+        byte[] encodedReceipt = getEncodedBlockReceipts(entry.blockHash).get(entry.index);
+
+        if (encodedReceipt == null) {
+            return null;
+        }
+
+        return new TransactionInfo(new TransactionReceipt(encodedReceipt), entry.blockHash, entry.index);
+    }
+
+    private void addIndexEntry(Map<byte[], byte[]> rows, byte[] txHash, byte[] blockHash, int index) {
+        List<IndexEntry> entries = getIndexEntries(txHash);
+
+        for (Iterator<IndexEntry> iterator = entries.iterator(); iterator.hasNext();) {
+            if (Arrays.equals(iterator.next().blockHash, blockHash)) {
+                iterator.remove();
+            }
+        }
+
+        entries.add(new IndexEntry(blockHash, index));
+
+        byte[][] encodedEntries = new byte[entries.size()][];
+
+        for (int k = 0; k < encodedEntries.length; k++) {
+            IndexEntry entry = entries.get(k);
+            encodedEntries[k] = RLP.encodeList(RLP.encodeElement(entry.blockHash), RLP.encodeInt(entry.index));
+        }
+
+        rows.put(indexKey(txHash), RLP.encodeList(encodedEntries));
+    }
+
+    private List<IndexEntry> getIndexEntries(byte[] txHash) {
+        byte[] encoded = receiptsDS.get(indexKey(txHash));
+        List<IndexEntry> entries = new ArrayList<>();
+
+        if (encoded == null || encoded.length == 0) {
+            return entries;
+        }
+
+        RLPList list = (RLPList) RLP.decode2(encoded).get(0);
+
+        for (RLPElement element : list) {
+            RLPList pair = (RLPList) element;
+            entries.add(new IndexEntry(pair.get(0).getRLPData(), ByteUtil.byteArrayToInt(pair.get(1).getRLPData())));
+        }
+
+        return entries;
+    }
+
+    private Map<Integer, byte[]> getEncodedBlockReceipts(byte[] blockHash) {
+        byte[] encoded = receiptsDS.get(blockKey(blockHash));
+        Map<Integer, byte[]> receipts = new TreeMap<>();
+
+        if (encoded == null || encoded.length == 0) {
+            return receipts;
+        }
+
+        RLPList list = (RLPList) RLP.decode2(encoded).get(0);
+
+        for (RLPElement element : list) {
+            RLPList pair = (RLPList) element;
+            receipts.put(ByteUtil.byteArrayToInt(pair.get(0).getRLPData()), pair.get(1).getRLPData());
+        }
+
+        return receipts;
+    }
+
+    /* [[index, receipt], ...] */
+    private static byte[] encodeBlockReceipts(Map<Integer, byte[]> receipts) {
+        byte[][] encodedPairs = new byte[receipts.size()][];
+
+        int k = 0;
+        for (Map.Entry<Integer, byte[]> entry : receipts.entrySet()) {
+            encodedPairs[k++] = RLP.encodeList(RLP.encodeInt(entry.getKey()), entry.getValue());
+        }
+
+        return RLP.encodeList(encodedPairs);
+    }
+
+    private static byte[] blockKey(byte[] blockHash) {
+        return prefixed(BLOCK_PREFIX, blockHash);
+    }
+
+    private static byte[] indexKey(byte[] txHash) {
+        return prefixed(INDEX_PREFIX, txHash);
+    }
+
+    private static byte[] prefixed(byte prefix, byte[] hash) {
+        byte[] key = new byte[hash.length + 1];
+        key[0] = prefix;
+        System.arraycopy(hash, 0, key, 1, hash.length);
+        return key;
+    }
+
+    private static class IndexEntry {
+        private final byte[] blockHash;
+        private final int index;
+
+        IndexEntry(byte[] blockHash, int index) {
+            this.blockHash = blockHash;
+            this.index = index;
+        }
+    }
+}
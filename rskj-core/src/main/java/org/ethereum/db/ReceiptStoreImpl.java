@@ -25,6 +25,7 @@ import org.ethereum.core.TransactionReceipt;
 import org.ethereum.datasource.KeyValueDataSource;
 import org.ethereum.util.RLP;
 import org.ethereum.util.RLPList;
+import org.ethereum.util.RLPWriter;
 
 import java.util.*;
 
@@ -50,15 +51,16 @@ public class ReceiptStoreImpl implements ReceiptStore {
 
         txsInfo.add(newTxInfo);
 
-        List<byte[]> encodedTxs = new ArrayList<>();
+        RLPWriter writer = new RLPWriter();
+        writer.startList();
 
         for (TransactionInfo ti : txsInfo) {
-            encodedTxs.add(ti.getEncoded());
+            ti.encode(writer);
         }
 
-        byte[][] txsBytes = encodedTxs.toArray(new byte[encodedTxs.size()][]);
+        writer.endList();
 
-        receiptsDS.put(receipt.getTransaction().getHash().getBytes(), RLP.encodeList(txsBytes));
+        receiptsDS.put(txHash, writer.encode());
     }
 
     @Override
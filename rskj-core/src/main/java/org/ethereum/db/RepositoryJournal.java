@@ -0,0 +1,99 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.db;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RepositoryJournal keeps the undo actions of the changes made by the nested tracks
+ * of a repository track, that share the caches of their owner
+ * <p>
+ * A checkpoint is the position of the journal when a nested track starts changing.
+ * Reverting to a checkpoint undoes the changes after it, in reverse order.
+ * The changes are only recorded while there are open checkpoints,
+ * and are forgotten when the last one is closed.
+ * <p>
+ * The open checkpoints are kept in a stack, as the nested tracks created for the nested calls.
+ * Closing or reverting a checkpoint also closes the checkpoints opened after it,
+ * so a nested track abandoned without commit or rollback does not keep the journal recording.
+ */
+final class RepositoryJournal {
+    private final List<Runnable> undos = new ArrayList<>();
+
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+
+    Checkpoint open() {
+        Checkpoint checkpoint = new Checkpoint(this.undos.size(), this.checkpoints.size());
+        this.checkpoints.add(checkpoint);
+        return checkpoint;
+    }
+
+    /**
+     * isOpen checks that the checkpoint was not closed, by itself, by an enclosing checkpoint or by a reset
+     */
+    boolean isOpen(Checkpoint checkpoint) {
+        return checkpoint.depth < this.checkpoints.size() && this.checkpoints.get(checkpoint.depth) == checkpoint;
+    }
+
+    boolean isRecording() {
+        return !this.checkpoints.isEmpty();
+    }
+
+    void record(Runnable undo) {
+        this.undos.add(undo);
+    }
+
+    /**
+     * close keeps the changes after the checkpoint, so an enclosing checkpoint can still revert them
+     */
+    void close(Checkpoint checkpoint) {
+        this.checkpoints.subList(checkpoint.depth, this.checkpoints.size()).clear();
+
+        if (this.checkpoints.isEmpty()) {
+            this.undos.clear();
+        }
+    }
+
+    void revert(Checkpoint checkpoint) {
+        for (int k = this.undos.size() - 1; k >= checkpoint.position; k--) {
+            this.undos.remove(k).run();
+        }
+
+        this.close(checkpoint);
+    }
+
+    void reset() {
+        this.undos.clear();
+        this.checkpoints.clear();
+    }
+
+    static final class Checkpoint {
+        // the journal position where the checkpoint was opened
+        private final int position;
+
+        // the number of checkpoints open before this one
+        private final int depth;
+
+        private Checkpoint(int position, int depth) {
+            this.position = position;
+            this.depth = depth;
+        }
+    }
+}
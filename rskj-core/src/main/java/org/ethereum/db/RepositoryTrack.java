@@ -23,6 +23,7 @@ import co.rsk.config.RskSystemProperties;
 import co.rsk.core.Coin;
 import co.rsk.core.RskAddress;
 import co.rsk.db.ContractDetailsImpl;
+import com.google.common.annotations.VisibleForTesting;
 import org.ethereum.core.AccountState;
 import org.ethereum.core.Block;
 import org.ethereum.core.Repository;
@@ -37,13 +38,26 @@ import org.spongycastle.util.encoders.Hex;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
-import static org.ethereum.crypto.Keccak256Helper.keccak256;
 import static org.ethereum.util.ByteUtil.EMPTY_BYTE_ARRAY;
 
 /**
+ * A track caches the accounts loaded from its parent repository and the changes made to them,
+ * until they are committed to the parent.
+ * <p>
+ * The tracks started from a track do not copy the accounts again. They share the caches of
+ * the owner track, changing them in place and recording how to undo each change in a journal,
+ * so nesting, committing and rolling back a nested track does not depend on the number of accounts.
+ * Only the owner track commit writes to the parent repository.
+ * <p>
+ * A track and its nested tracks are used by one thread at a time, and they lock the owner track,
+ * not the parent repository, that is only locked to load the accounts and values not cached yet,
+ * and to commit. The nested tracks should be committed or rolled back in reverse order of their changes,
+ * as the nested calls do.
+ *
  * @author Roman Mandeleil
  * @since 17.11.2014
  */
@@ -51,32 +65,53 @@ public class RepositoryTrack implements Repository {
     private static final byte[] EMPTY_DATA_HASH = HashUtil.keccak256(EMPTY_BYTE_ARRAY);
     private static final Logger logger = LoggerFactory.getLogger("repository");
 
-    private final Map<RskAddress, AccountState> cacheAccounts = new HashMap<>();
-    private final Map<RskAddress, ContractDetails> cacheDetails = new HashMap<>();
+    private final Map<RskAddress, AccountState> cacheAccounts;
+    private final Map<RskAddress, ContractDetails> cacheDetails;
 
     private final RskSystemProperties config;
     private final DetailsDataStore dds;
 
+    // the owner of the caches and the journal, this track if it is not nested
+    private final RepositoryTrack owner;
+    private final RepositoryJournal journal;
+
+    // the journal checkpoint where this nested track started changing, if it changed
+    private RepositoryJournal.Checkpoint checkpoint;
+
     Repository repository;
 
     public RepositoryTrack(RskSystemProperties config, Repository repository) {
         this.config = config;
         this.repository = repository;
+        this.cacheAccounts = new HashMap<>();
+        this.cacheDetails = new HashMap<>();
+        this.owner = this;
+        this.journal = new RepositoryJournal();
         dds = new DetailsDataStore(this.config, new DatabaseImpl(new HashMapDB()));
     }
 
+    private RepositoryTrack(RepositoryTrack owner) {
+        this.config = owner.config;
+        this.repository = owner.repository;
+        this.cacheAccounts = owner.cacheAccounts;
+        this.cacheDetails = owner.cacheDetails;
+        this.owner = owner;
+        this.journal = owner.journal;
+        this.dds = owner.dds;
+    }
+
     @Override
     public AccountState createAccount(RskAddress addr) {
 
-        synchronized (repository) {
+        synchronized (owner) {
             logger.trace("createAccount: [{}]", addr);
 
             AccountState accountState = new AccountState();
-            cacheAccounts.put(addr, accountState);
+            putAccountState(addr, accountState);
 
             ContractDetails contractDetails = new ContractDetailsCacheImpl(null);
             contractDetails.setDirty(true);
-            cacheDetails.put(addr, contractDetails);
+            putContractDetails(addr, contractDetails);
 
             return accountState;
         }
@@ -85,7 +120,7 @@ public class RepositoryTrack implements Repository {
     @Override
     public AccountState getAccountState(RskAddress addr) {
 
-        synchronized (repository) {
+        synchronized (owner) {
 
             AccountState accountState = cacheAccounts.get(addr);
 
@@ -101,7 +136,7 @@ public class RepositoryTrack implements Repository {
     @Override
     public boolean isExist(RskAddress addr) {
 
-        synchronized (repository) {
+        synchronized (owner) {
             AccountState accountState = cacheAccounts.get(addr);
             if (accountState != null) {
                 return !accountState.isDeleted();
@@ -114,7 +149,7 @@ public class RepositoryTrack implements Repository {
     @Override
     public ContractDetails getContractDetails(RskAddress addr) {
 
-        synchronized (repository) {
+        synchronized (owner) {
             ContractDetails contractDetails = cacheDetails.get(addr);
 
             if (contractDetails == null) {
@@ -130,7 +165,7 @@ public class RepositoryTrack implements Repository {
     public void loadAccount(RskAddress addr, Map<RskAddress, AccountState> cacheAccounts,
                             Map<RskAddress, ContractDetails> cacheDetails) {
 
-        synchronized (repository) {
+        synchronized (owner) {
             AccountState accountState = this.cacheAccounts.get(addr);
             ContractDetails contractDetails = this.cacheDetails.get(addr);
 
@@ -151,23 +186,19 @@ public class RepositoryTrack implements Repository {
     public void delete(RskAddress addr) {
         logger.trace("delete account: [{}]", addr);
 
-        synchronized (repository) {
-            getAccountState(addr).setDeleted(true);
-            getContractDetails(addr).setDeleted(true);
+        synchronized (owner) {
+            getAccountStateForUpdate(addr).setDeleted(true);
+            getContractDetailsForUpdate(addr).setDeleted(true);
         }
     }
 
     @Override
     public BigInteger increaseNonce(RskAddress addr) {
 
-        synchronized (repository) {
-            AccountState accountState = getAccountState(addr);
+        synchronized (owner) {
+            AccountState accountState = getAccountStateForUpdate(addr);
 
-            if (accountState == null) {
-                accountState = createAccount(addr);
-            }
-
-            getContractDetails(addr).setDirty(true);
+            getContractDetailsForUpdate(addr).setDirty(true);
 
             BigInteger saveNonce = accountState.getNonce();
             accountState.incrementNonce();
@@ -182,14 +213,10 @@ public class RepositoryTrack implements Repository {
     @Override
     public void hibernate(RskAddress addr) {
 
-        synchronized (repository) {
-            AccountState accountState = getAccountState(addr);
+        synchronized (owner) {
+            AccountState accountState = getAccountStateForUpdate(addr);
 
-            if (accountState == null) {
-                accountState = createAccount(addr);
-            }
-
-            getContractDetails(addr).setDirty(true);
+            getContractDetailsForUpdate(addr).setDirty(true);
 
             accountState.hibernate();
         }
@@ -197,14 +224,10 @@ public class RepositoryTrack implements Repository {
     }
 
     public BigInteger setNonce(RskAddress addr, BigInteger bigInteger) {
-        synchronized (repository) {
-            AccountState accountState = getAccountState(addr);
+        synchronized (owner) {
+            AccountState accountState = getAccountStateForUpdate(addr);
 
-            if (accountState == null) {
-                accountState = createAccount(addr);
-            }
-
-            getContractDetails(addr).setDirty(true);
+            getContractDetailsForUpdate(addr).setDirty(true);
 
             BigInteger saveNonce = accountState.getNonce();
             accountState.setNonce(bigInteger);
@@ -232,13 +255,10 @@ public class RepositoryTrack implements Repository {
     @Override
     public Coin addBalance(RskAddress addr, Coin value) {
 
-        synchronized (repository) {
-            AccountState accountState = getAccountState(addr);
-            if (accountState == null) {
-                accountState = createAccount(addr);
-            }
+        synchronized (owner) {
+            AccountState accountState = getAccountStateForUpdate(addr);
 
-            getContractDetails(addr).setDirty(true);
+            getContractDetailsForUpdate(addr).setDirty(true);
             Coin newBalance = accountState.addToBalance(value);
 
             logger.trace("adding to balance addr: [{}], balance: [{}], delta: [{}]", addr,
@@ -252,17 +272,18 @@ public class RepositoryTrack implements Repository {
     public void saveCode(RskAddress addr, byte[] code) {
         logger.trace("saving code addr: [{}], code: [{}]", addr,
                 Hex.toHexString(code));
-        synchronized (repository) {
-            getContractDetails(addr).setCode(code);
-            getContractDetails(addr).setDirty(true);
-            getAccountState(addr).setCodeHash(Keccak256Helper.keccak256(code));
+        synchronized (owner) {
+            ContractDetails contractDetails = getContractDetailsForUpdate(addr);
+            contractDetails.setCode(code);
+            contractDetails.setDirty(true);
+            getAccountStateForUpdate(addr).setCodeHash(Keccak256Helper.keccak256(code));
         }
     }
 
     @Override
     public byte[] getCode(RskAddress addr) {
 
-        synchronized (repository) {
+        synchronized (owner) {
             if (!isExist(addr)) {
                 return EMPTY_BYTE_ARRAY;
             }
@@ -282,8 +303,14 @@ public class RepositoryTrack implements Repository {
         logger.trace("add storage row, addr: [{}], key: [{}] val: [{}]", addr,
                 key.toString(), value.toString());
 
-        synchronized (repository) {
-            getContractDetails(addr).put(key, value);
+        synchronized (owner) {
+            ContractDetails contractDetails = getContractDetailsForUpdate(addr);
+
+            if (isRecording()) {
+                journal.record(((ContractDetailsCacheImpl) contractDetails).saveValue(key));
+            }
+
+            contractDetails.put(key, value);
         }
     }
 
@@ -293,22 +320,46 @@ public class RepositoryTrack implements Repository {
         logger.trace("add storage bytes, addr: [{}], key: [{}]", addr,
                 key.toString());
 
-        synchronized (repository) {
-            getContractDetails(addr).putBytes(key, value);
+        synchronized (owner) {
+            ContractDetails contractDetails = getContractDetailsForUpdate(addr);
+
+            if (isRecording()) {
+                journal.record(((ContractDetailsCacheImpl) contractDetails).saveBytes(key));
+            }
+
+            contractDetails.putBytes(key, value);
         }
     }
 
     @Override
     public DataWord getStorageValue(RskAddress addr, DataWord key) {
-        synchronized (repository) {
-            return getContractDetails(addr).get(key);
+        synchronized (owner) {
+            ContractDetails contractDetails = getContractDetails(addr);
+
+            if (contractDetails instanceof ContractDetailsCacheImpl && ((ContractDetailsCacheImpl) contractDetails).isCached(key)) {
+                return contractDetails.get(key);
+            }
+
+            // the original details are shared with the other tracks of the parent
+            synchronized (repository) {
+                return contractDetails.get(key);
+            }
         }
     }
 
     @Override
     public byte[] getStorageBytes(RskAddress addr, DataWord key) {
-        synchronized (repository) {
-            return getContractDetails(addr).getBytes(key);
+        synchronized (owner) {
+            ContractDetails contractDetails = getContractDetails(addr);
+
+            if (contractDetails instanceof ContractDetailsCacheImpl && ((ContractDetailsCacheImpl) contractDetails).isBytesCached(key)) {
+                return contractDetails.getBytes(key);
+            }
+
+            // the original details are shared with the other tracks of the parent
+            synchronized (repository) {
+                return contractDetails.getBytes(key);
+            }
         }
     }
 
@@ -317,6 +368,11 @@ public class RepositoryTrack implements Repository {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public Iterator<Map.Entry<byte[], byte[]>> getAccountsRange(byte[] from, byte[] to) {
+        throw new UnsupportedOperationException();
+    }
+
 
     @Override
     public void dumpState(Block block, long gasUsed, int txNumber, byte[] txHash) {
@@ -327,7 +383,12 @@ public class RepositoryTrack implements Repository {
     public Repository startTracking() {
         logger.debug("start tracking");
 
-        return new RepositoryTrack(config, this);
+        synchronized (owner) {
+            // the changes of the nested track are reverted with the changes of this track
+            openCheckpoint();
+
+            return new RepositoryTrack(owner);
+        }
     }
 
 
@@ -344,12 +405,27 @@ public class RepositoryTrack implements Repository {
     @Override
     public void commit() {
 
-        synchronized (repository) {
-            applyCacheDetailsChanges();
+        synchronized (owner) {
+            if (owner != this) {
+                // the changes are already in the owner caches
+                if (isCheckpointOpen()) {
+                    journal.close(checkpoint);
+                }
+
+                checkpoint = null;
+                logger.debug("committed changes");
+                return;
+            }
+
+            synchronized (repository) {
+                applyCacheDetailsChanges();
+
+                repository.updateBatch(cacheAccounts, cacheDetails);
+            }
 
-            repository.updateBatch(cacheAccounts, cacheDetails);
             cacheAccounts.clear();
             cacheDetails.clear();
+            journal.reset();
             logger.debug("committed changes");
         }
     }
@@ -373,8 +449,20 @@ public class RepositoryTrack implements Repository {
     public void rollback() {
         logger.debug("rollback changes");
 
-        cacheAccounts.clear();
-        cacheDetails.clear();
+        synchronized (owner) {
+            if (owner != this) {
+                if (isCheckpointOpen()) {
+                    journal.revert(checkpoint);
+                }
+
+                checkpoint = null;
+                return;
+            }
+
+            cacheAccounts.clear();
+            cacheDetails.clear();
+            journal.reset();
+        }
     }
 
     public void dumpChanges() {
@@ -400,9 +488,9 @@ public class RepositoryTrack implements Repository {
     public void updateBatch(Map<RskAddress, AccountState> accountStates,
                             Map<RskAddress, ContractDetails> contractDetails) {
 
-        synchronized (repository) {
+        synchronized (owner) {
             for (Map.Entry<RskAddress, AccountState> entry : accountStates.entrySet()) {
-                cacheAccounts.put(entry.getKey(), entry.getValue());
+                putAccountState(entry.getKey(), entry.getValue());
             }
 
             for (Map.Entry<RskAddress, ContractDetails> entry : contractDetails.entrySet()) {
@@ -410,9 +498,9 @@ public class RepositoryTrack implements Repository {
                 ContractDetailsCacheImpl contractDetailsCache = (ContractDetailsCacheImpl) entry.getValue();
                 if (    contractDetailsCache.origContract != null
                         && !(contractDetailsCache.origContract instanceof ContractDetailsImpl)) {
-                    cacheDetails.put(entry.getKey(), contractDetailsCache.origContract);
+                    putContractDetails(entry.getKey(), contractDetailsCache.origContract);
                 } else {
-                    cacheDetails.put(entry.getKey(), contractDetailsCache);
+                    putContractDetails(entry.getKey(), contractDetailsCache);
                 }
             }
         }
@@ -456,19 +544,108 @@ public class RepositoryTrack implements Repository {
 
     @Override
     public void updateContractDetails(RskAddress addr, ContractDetails contractDetails) {
-        synchronized (repository) {
+        synchronized (owner) {
             logger.trace("updateContractDetails: [{}]", addr);
             ContractDetails contractDetailsCache = new ContractDetailsCacheImpl(null);
             contractDetails.setDirty(true);
-            cacheDetails.put(addr, contractDetailsCache);
+            putContractDetails(addr, contractDetailsCache);
         }
     }
 
     @Override
     public void updateAccountState(RskAddress addr, AccountState accountState) {
-        synchronized (repository) {
+        synchronized (owner) {
             logger.trace("updateAccountState: [{}]", addr);
-            cacheAccounts.put(addr, accountState);
+            putAccountState(addr, accountState);
+        }
+    }
+
+    /**
+     * Returns the account state to change, saving a copy in the journal to revert the change
+     */
+    private AccountState getAccountStateForUpdate(RskAddress addr) {
+        AccountState accountState = getAccountState(addr);
+
+        if (accountState == null) {
+            return createAccount(addr);
+        }
+
+        if (isRecording()) {
+            AccountState saved = accountState.clone();
+            saved.setDeleted(accountState.isDeleted());
+            saved.setDirty(accountState.isDirty());
+            journal.record(() -> cacheAccounts.put(addr, saved));
+        }
+
+        return accountState;
+    }
+
+    /**
+     * Returns the contract details to change, saving its code and flags in the journal to revert the change
+     */
+    private ContractDetails getContractDetailsForUpdate(RskAddress addr) {
+        ContractDetails contractDetails = getContractDetails(addr);
+
+        if (isRecording()) {
+            journal.record(((ContractDetailsCacheImpl) contractDetails).saveState());
+        }
+
+        return contractDetails;
+    }
+
+    private void putAccountState(RskAddress addr, AccountState accountState) {
+        AccountState previous = cacheAccounts.put(addr, accountState);
+
+        if (isRecording()) {
+            journal.record(() -> restore(cacheAccounts, addr, previous));
+        }
+    }
+
+    private void putContractDetails(RskAddress addr, ContractDetails contractDetails) {
+        ContractDetails previous = cacheDetails.put(addr, contractDetails);
+
+        if (isRecording()) {
+            journal.record(() -> restore(cacheDetails, addr, previous));
+        }
+    }
+
+    private static <V> void restore(Map<RskAddress, V> cache, RskAddress addr, V previous) {
+        if (previous == null) {
+            cache.remove(addr);
+        } else {
+            cache.put(addr, previous);
+        }
+    }
+
+    /**
+     * isRecording opens the checkpoint of a nested track on its first change,
+     * and checks if the changes should be recorded
+     */
+    private boolean isRecording() {
+        if (owner != this) {
+            openCheckpoint();
+        }
+
+        return journal.isRecording();
+    }
+
+    private void openCheckpoint() {
+        if (owner == this || isCheckpointOpen()) {
+            return;
+        }
+
+        checkpoint = journal.open();
+    }
+
+    private boolean isCheckpointOpen() {
+        // an enclosing track or the owner commit or rollback closes the checkpoint
+        return checkpoint != null && journal.isOpen(checkpoint);
+    }
+
+    @VisibleForTesting
+    boolean isJournalRecording() {
+        synchronized (owner) {
+            return journal.isRecording();
         }
     }
 }
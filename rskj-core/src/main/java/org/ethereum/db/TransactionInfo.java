@@ -25,6 +25,7 @@ import org.ethereum.util.RLP;
 import org.ethereum.util.RLPElement;
 import org.ethereum.util.RLPItem;
 import org.ethereum.util.RLPList;
+import org.ethereum.util.RLPWriter;
 import org.spongycastle.util.BigIntegers;
 
 import java.math.BigInteger;
@@ -68,13 +69,17 @@ public class TransactionInfo {
     /* [receipt, blockHash, index] */
     public byte[] getEncoded() {
 
-        byte[] receiptRLP = this.receipt.getEncoded();
-        byte[] blockHashRLP = RLP.encodeElement(blockHash);
-        byte[] indexRLP = RLP.encodeInt(index);
-
-        byte[] rlpEncoded = RLP.encodeList(receiptRLP, blockHashRLP, indexRLP);
+        RLPWriter writer = new RLPWriter();
+        encode(writer);
+        return writer.encode();
+    }
 
-        return rlpEncoded;
+    public void encode(RLPWriter writer) {
+        writer.startList()
+                .writeEncoded(this.receipt.getEncoded())
+                .writeElement(blockHash)
+                .writeInt(index)
+                .endList();
     }
 
     public TransactionReceipt getReceipt(){
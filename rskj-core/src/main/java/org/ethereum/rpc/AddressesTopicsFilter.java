@@ -31,7 +31,8 @@ import java.util.List;
 public class AddressesTopicsFilter {
     private List<Topic[]> topics = new ArrayList<>();  //  [[addr1, addr2], null, [A, B], [C]]
     private RskAddress[] addresses = new RskAddress[0];
-    private Bloom[][] filterBlooms;
+    // the bit positions of the blooms of the addresses and topics, computed once
+    private int[][][] filterBits;
 
     public AddressesTopicsFilter(RskAddress[] addresses, Topic[] topics) {
         if (topics != null) {
@@ -40,11 +41,11 @@ public class AddressesTopicsFilter {
 
         this.addresses = addresses;
 
-        initBlooms();
+        initBits();
     }
 
-    private void initBlooms() {
-        if (filterBlooms != null) {
+    private void initBits() {
+        if (filterBits != null) {
             return;
         }
 
@@ -68,28 +69,43 @@ public class AddressesTopicsFilter {
 
         addrAndTopics.add(addrs);
 
-        filterBlooms = new Bloom[addrAndTopics.size()][];
+        filterBits = new int[addrAndTopics.size()][][];
 
         for (int i = 0; i < addrAndTopics.size(); i++) {
             byte[][] orTopics = addrAndTopics.get(i);
 
             if (orTopics == null || orTopics.length == 0) {
-                filterBlooms[i] = new Bloom[] {new Bloom()}; // always matches
+                filterBits[i] = new int[][] {new int[0]}; // always matches
             } else {
-                filterBlooms[i] = new Bloom[orTopics.length];
+                filterBits[i] = new int[orTopics.length][];
                 for (int j = 0; j < orTopics.length; j++) {
-                    filterBlooms[i][j] = Bloom.create(Keccak256Helper.keccak256(orTopics[j]));
+                    filterBits[i][j] = Bloom.bitPositions(Keccak256Helper.keccak256(orTopics[j]));
                 }
             }
         }
     }
 
+    RskAddress[] getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * @return the topics that match the first topic of a log, empty if any topic matches.
+     */
+    Topic[] getFirstTopics() {
+        if (topics.isEmpty() || topics.get(0) == null) {
+            return new Topic[0];
+        }
+
+        return topics.get(0);
+    }
+
     public boolean matchBloom(Bloom blockBloom) {
-        for (Bloom[] andBloom : filterBlooms) {
+        for (int[][] andBits : filterBits) {
             boolean orMatches = false;
 
-            for (Bloom orBloom : andBloom) {
-                if (blockBloom.matches(orBloom)) {
+            for (int[] orBits : andBits) {
+                if (blockBloom.hasBits(orBits)) {
                     orMatches = true;
                     break;
                 }
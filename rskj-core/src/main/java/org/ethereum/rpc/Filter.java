@@ -21,8 +21,8 @@ package org.ethereum.rpc;
 import org.ethereum.core.Block;
 import org.ethereum.core.Transaction;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.stream.Collectors;
 
 /**
@@ -34,9 +34,21 @@ public class Filter {
         public abstract Object getJsonEventObject();
     }
 
-    private List<FilterEvent> events = new ArrayList<>();
+    // the events buffered by a filter that is not polled are bounded
+    static final int MAX_EVENTS = 10000;
+
+    private final int maxEvents;
+    private final Deque<FilterEvent> events = new ArrayDeque<>();
     private int processedEvents = 0;
-    private long accessTime = System.currentTimeMillis();
+    private volatile long accessTime = System.currentTimeMillis();
+
+    public Filter() {
+        this(MAX_EVENTS);
+    }
+
+    Filter(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
 
     public boolean hasExpired(long timeout) {
         long nowTime = System.currentTimeMillis();
@@ -54,9 +66,8 @@ public class Filter {
         return ret;
     }
 
+    // a filter from the latest block is cleared on every new block, that is not an access
     public synchronized void clearEvents() {
-        this.accessTime = System.currentTimeMillis();
-
         events.clear();
         processedEvents = 0;
     }
@@ -68,7 +79,16 @@ public class Filter {
     }
 
     protected synchronized void add(FilterEvent evt) {
-        events.add(evt);
+        if (events.size() >= maxEvents) {
+            // the oldest event is dropped, whether it was already returned or not
+            events.removeFirst();
+
+            if (processedEvents > 0) {
+                processedEvents--;
+            }
+        }
+
+        events.addLast(evt);
     }
 
     public void newBlockReceived(Block b) {
@@ -44,11 +44,19 @@ public class FilterManager {
     @GuardedBy("filterLock")
     private Map<Integer, Filter> installedFilters = new HashMap<>();
 
+    // the log filters are dispatched by their addresses and topics, the receipts of a block are read once
+    @GuardedBy("filterLock")
+    private final LogFilterDispatcher logFilterDispatcher = new LogFilterDispatcher();
+
+    // the block and pending transaction filters
+    @GuardedBy("filterLock")
+    private final Set<Filter> otherFilters = new LinkedHashSet<>();
+
     public FilterManager(Ethereum eth) {
         eth.addListener(new EthereumListenerAdapter() {
             @Override
             public void onBlock(Block block, List<TransactionReceipt> receipts) {
-                newBlockReceived(block);
+                newBlockReceived(block, receipts);
             }
 
             @Override
@@ -64,6 +72,7 @@ public class FilterManager {
 
             int id = filterCounter.getAndIncrement();
             installedFilters.put(id, filter);
+            addToDispatch(filter);
 
             return id;
         }
@@ -71,7 +80,15 @@ public class FilterManager {
 
     public boolean removeFilter(int id) {
         synchronized (filterLock) {
-            return installedFilters.remove(id) != null;
+            Filter filter = installedFilters.remove(id);
+
+            if (filter == null) {
+                return false;
+            }
+
+            removeFromDispatch(filter);
+
+            return true;
         }
     }
 
@@ -94,11 +111,13 @@ public class FilterManager {
         }
     }
 
-    public void newBlockReceived(Block block) {
+    public void newBlockReceived(Block block, List<TransactionReceipt> receipts) {
         synchronized (filterLock) {
             filtersCleanup();
 
-            for (Filter filter : installedFilters.values()) {
+            logFilterDispatcher.newBlockReceived(block, receipts);
+
+            for (Filter filter : otherFilters) {
                 filter.newBlockReceived(block);
             }
         }
@@ -108,7 +127,8 @@ public class FilterManager {
         synchronized (filterLock) {
             filtersCleanup();
 
-            for (Filter filter : installedFilters.values()) {
+            // the log filters don't receive pending transactions
+            for (Filter filter : otherFilters) {
                 for (Transaction tx : transactions) {
                     filter.newPendingTx(tx);
                 }
@@ -134,9 +154,26 @@ public class FilterManager {
         }
 
         for (Integer id : toremove) {
-            installedFilters.remove(id);
+            removeFromDispatch(installedFilters.remove(id));
         }
 
         latestFilterCleanup = now;
     }
+
+    private void addToDispatch(Filter filter) {
+        if (filter instanceof LogFilter) {
+            logFilterDispatcher.add((LogFilter) filter);
+        }
+        else {
+            otherFilters.add(filter);
+        }
+    }
+
+    private void removeFromDispatch(Filter filter) {
+        if (filter instanceof LogFilter) {
+            logFilterDispatcher.remove((LogFilter) filter);
+        }
+
+        otherFilters.remove(filter);
+    }
 }
@@ -19,11 +19,15 @@
 package org.ethereum.rpc;
 
 import co.rsk.core.RskAddress;
+import co.rsk.logfilter.BlocksBloom;
+import co.rsk.logfilter.BlocksBloomStore;
 import org.ethereum.core.*;
 import org.ethereum.db.TransactionInfo;
 import org.ethereum.vm.LogInfo;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.ethereum.rpc.TypeConverter.stringHexToByteArray;
 
@@ -57,7 +61,11 @@ public class LogFilter extends Filter {
     }
 
     void onLogMatch(LogInfo logInfo, Block b, int txIndex, Transaction tx, int logIdx) {
-        add(new LogFilterEvent(new LogFilterElement(logInfo, b, txIndex, tx, logIdx)));
+        onLogMatch(new LogFilterElement(logInfo, b, txIndex, tx, logIdx));
+    }
+
+    void onLogMatch(LogFilterElement element) {
+        add(new LogFilterEvent(element));
     }
 
     void onTransaction(Transaction tx, Block b, int txIndex) {
@@ -88,21 +96,39 @@ public class LogFilter extends Filter {
 
     @Override
     public void newBlockReceived(Block b) {
-        if (this.fromLatestBlock) {
-            this.clearEvents();
+        startNewBlock();
+
+        if (receivesNewBlocks()) {
             onBlock(b);
         }
-        else if (this.toLatestBlock) {
-            onBlock(b);
+    }
+
+    /**
+     * The logs of the new blocks are matched only if the filter is to or from the latest block.
+     */
+    boolean receivesNewBlocks() {
+        return this.fromLatestBlock || this.toLatestBlock;
+    }
+
+    /**
+     * A filter from the latest block only keeps the events of the latest block.
+     */
+    void startNewBlock() {
+        if (this.fromLatestBlock) {
+            this.clearEvents();
         }
     }
 
+    AddressesTopicsFilter getAddressesTopicsFilter() {
+        return addressesTopicsFilter;
+    }
+
     @Override
     public void newPendingTx(Transaction tx) {
         //empty method
     }
 
-    public static LogFilter fromFilterRequest(Web3.FilterRequest fr, Blockchain blockchain) throws Exception {
+    public static LogFilter fromFilterRequest(Web3.FilterRequest fr, Blockchain blockchain, BlocksBloomStore blocksBloomStore) throws Exception {
         RskAddress[] addresses;
 
         // TODO get array of topics, with topics, and array of topics inside (the OR operation over topics)
@@ -166,12 +192,12 @@ public class LogFilter extends Filter {
 
         LogFilter filter = new LogFilter(addressesTopicsFilter, blockchain, fromLatestBlock, toLatestBlock);
 
-        retrieveHistoricalData(fr, blockchain, filter);
+        retrieveHistoricalData(fr, blockchain, blocksBloomStore, filter);
 
         return filter;
     }
 
-    private static void retrieveHistoricalData(Web3.FilterRequest fr, Blockchain blockchain, LogFilter filter) throws Exception {
+    private static void retrieveHistoricalData(Web3.FilterRequest fr, Blockchain blockchain, BlocksBloomStore blocksBloomStore, LogFilter filter) throws Exception {
         Block blockFrom = isBlockWord(fr.fromBlock) ? null : Web3Impl.getBlockByNumberOrStr(fr.fromBlock, blockchain);
         Block blockTo = isBlockWord(fr.toBlock) ? null : Web3Impl.getBlockByNumberOrStr(fr.toBlock, blockchain);
 
@@ -183,15 +209,49 @@ public class LogFilter extends Filter {
             // need to add historical data
             blockTo = blockTo == null ? blockchain.getBestBlock() : blockTo;
 
-            for (long blockNum = blockFrom.getNumber(); blockNum <= blockTo.getNumber(); blockNum++) {
-                filter.onBlock(blockchain.getBlockByNumber(blockNum));
-            }
+            processBlocks(blockFrom.getNumber(), blockTo.getNumber(), blockchain, blocksBloomStore, filter);
         }
         else if ("latest".equalsIgnoreCase(fr.fromBlock)) {
             filter.onBlock(blockchain.getBestBlock());
         }
     }
 
+    private static void processBlocks(long fromBlockNumber, long toBlockNumber, Blockchain blockchain, BlocksBloomStore blocksBloomStore, LogFilter filter) {
+        long blockNum = fromBlockNumber;
+
+        while (blockNum <= toBlockNumber) {
+            long firstInSection = blocksBloomStore.firstNumberInSection(blockNum);
+            long lastInSection = blocksBloomStore.lastNumberInSection(blockNum);
+            BlocksBloom blocksBloom = blocksBloomStore.getBlocksBloom(blockNum);
+
+            if (blocksBloom == null && blockNum == firstInSection && lastInSection <= toBlockNumber) {
+                // the whole section is read, its bloom is kept for the next queries
+                List<Block> blocks = new ArrayList<>();
+
+                for (long sectionBlockNum = firstInSection; sectionBlockNum <= lastInSection; sectionBlockNum++) {
+                    blocks.add(blockchain.getBlockByNumber(sectionBlockNum));
+                }
+
+                BlocksBloom built = blocksBloomStore.addBlocks(blocks);
+
+                // the blocks are read one by one if the main chain changed while they were read
+                if (built == null || filter.addressesTopicsFilter.matchBloom(built.getBloom())) {
+                    for (Block block : blocks) {
+                        filter.onBlock(block);
+                    }
+                }
+            }
+            // the blocks of a section are skipped if its bloom doesn't match the filter
+            else if (blocksBloom == null || filter.addressesTopicsFilter.matchBloom(blocksBloom.getBloom())) {
+                for (long sectionBlockNum = blockNum; sectionBlockNum <= Math.min(lastInSection, toBlockNumber); sectionBlockNum++) {
+                    filter.onBlock(blockchain.getBlockByNumber(sectionBlockNum));
+                }
+            }
+
+            blockNum = lastInSection + 1;
+        }
+    }
+
     private static boolean isBlockWord(String id) {
         return "latest".equalsIgnoreCase(id) || "pending".equalsIgnoreCase(id) || "earliest".equalsIgnoreCase(id);
     }
@@ -0,0 +1,146 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.rpc;
+
+import co.rsk.core.RskAddress;
+import org.ethereum.core.Block;
+import org.ethereum.core.TransactionReceipt;
+import org.ethereum.vm.DataWord;
+import org.ethereum.vm.LogInfo;
+
+import java.util.*;
+
+/**
+ * Dispatches the logs of the new blocks to the log filters that receive new blocks.
+ *
+ * The filters are indexed by the addresses they match or, if they match any address,
+ * by the first topics they match, so every log is matched only against the candidate filters.
+ * The receipts of the block are the ones of its execution, they are not read again from the store.
+ *
+ * It is not thread safe, the filter manager guards it.
+ */
+class LogFilterDispatcher {
+    private final Map<RskAddress, Set<LogFilter>> filtersByAddress = new HashMap<>();
+    private final Map<Topic, Set<LogFilter>> filtersByFirstTopic = new HashMap<>();
+    private final Set<LogFilter> filtersMatchingAll = new LinkedHashSet<>();
+    private final Set<LogFilter> filters = new LinkedHashSet<>();
+
+    public void add(LogFilter filter) {
+        if (!filter.receivesNewBlocks() || !filters.add(filter)) {
+            return;
+        }
+
+        AddressesTopicsFilter addressesTopicsFilter = filter.getAddressesTopicsFilter();
+        RskAddress[] addresses = addressesTopicsFilter.getAddresses();
+        Topic[] topics = addressesTopicsFilter.getFirstTopics();
+
+        if (addresses.length > 0) {
+            for (RskAddress address : addresses) {
+                filtersByAddress.computeIfAbsent(address, k -> new LinkedHashSet<>()).add(filter);
+            }
+        }
+        else if (topics.length > 0) {
+            for (Topic topic : topics) {
+                filtersByFirstTopic.computeIfAbsent(topic, k -> new LinkedHashSet<>()).add(filter);
+            }
+        }
+        else {
+            filtersMatchingAll.add(filter);
+        }
+    }
+
+    public void remove(LogFilter filter) {
+        if (!filters.remove(filter)) {
+            return;
+        }
+
+        AddressesTopicsFilter addressesTopicsFilter = filter.getAddressesTopicsFilter();
+
+        for (RskAddress address : addressesTopicsFilter.getAddresses()) {
+            removeFrom(filtersByAddress, address, filter);
+        }
+
+        for (Topic topic : addressesTopicsFilter.getFirstTopics()) {
+            removeFrom(filtersByFirstTopic, topic, filter);
+        }
+
+        filtersMatchingAll.remove(filter);
+    }
+
+    public int size() {
+        return filters.size();
+    }
+
+    public void newBlockReceived(Block block, List<TransactionReceipt> receipts) {
+        for (LogFilter filter : filters) {
+            filter.startNewBlock();
+        }
+
+        if (filters.isEmpty()) {
+            return;
+        }
+
+        for (int txIndex = 0; txIndex < receipts.size(); txIndex++) {
+            TransactionReceipt receipt = receipts.get(txIndex);
+            List<LogInfo> logs = receipt.getLogInfoList();
+
+            for (int logIndex = 0; logIndex < logs.size(); logIndex++) {
+                LogInfo logInfo = logs.get(logIndex);
+                List<DataWord> topics = logInfo.getTopics();
+
+                // every filter is in only one of the sets that match a log,
+                // the filters that match it share its element
+                LogFilterElement element = dispatch(filtersMatchingAll, null, logInfo, block, txIndex, receipt, logIndex);
+                element = dispatch(filtersByAddress.get(new RskAddress(logInfo.getAddress())), element, logInfo, block, txIndex, receipt, logIndex);
+
+                if (!topics.isEmpty()) {
+                    dispatch(filtersByFirstTopic.get(new Topic(topics.get(0).getData())), element, logInfo, block, txIndex, receipt, logIndex);
+                }
+            }
+        }
+    }
+
+    private static LogFilterElement dispatch(Set<LogFilter> candidates, LogFilterElement element, LogInfo logInfo, Block block, int txIndex, TransactionReceipt receipt, int logIndex) {
+        if (candidates == null) {
+            return element;
+        }
+
+        LogFilterElement result = element;
+
+        for (LogFilter filter : candidates) {
+            if (filter.getAddressesTopicsFilter().matchesExactly(logInfo)) {
+                if (result == null) {
+                    result = new LogFilterElement(logInfo, block, txIndex, receipt.getTransaction(), logIndex);
+                }
+
+                filter.onLogMatch(result);
+            }
+        }
+
+        return result;
+    }
+
+    private static <K> void removeFrom(Map<K, Set<LogFilter>> index, K key, LogFilter filter) {
+        Set<LogFilter> indexed = index.get(key);
+
+        if (indexed != null && indexed.remove(filter) && indexed.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
@@ -23,6 +23,7 @@ import co.rsk.core.Coin;
 import co.rsk.core.RskAddress;
 import co.rsk.core.SnapshotManager;
 import co.rsk.crypto.Keccak256;
+import co.rsk.logfilter.BlocksBloomStore;
 import co.rsk.metrics.HashRateCalculator;
 import co.rsk.mine.MinerClient;
 import co.rsk.mine.MinerManager;
@@ -97,6 +98,7 @@ public class Web3Impl implements Web3 {
     private final RskSystemProperties config;
 
     private final FilterManager filterManager;
+    private final BlocksBloomStore blocksBloomStore;
     private final SnapshotManager snapshotManager;
 
     private final PersonalModule personalModule;
@@ -147,6 +149,7 @@ public class Web3Impl implements Web3 {
         this.configCapabilities = configCapabilities;
         this.config = config;
         filterManager = new FilterManager(eth);
+        blocksBloomStore = new BlocksBloomStore(blockchain);
         snapshotManager = new SnapshotManager(blockchain, transactionPool);
         initialBlockNumber = this.blockchain.getBestBlock().getNumber();
 
@@ -861,7 +864,7 @@ public class Web3Impl implements Web3 {
         String str = null;
 
         try {
-            Filter filter = LogFilter.fromFilterRequest(fr, blockchain);
+            Filter filter = LogFilter.fromFilterRequest(fr, blockchain, blocksBloomStore);
             int id = filterManager.registerFilter(filter);
 
             return str = toJsonHex(id);
@@ -0,0 +1,337 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.util;
+
+import co.rsk.core.Coin;
+import co.rsk.core.RskAddress;
+import io.netty.buffer.ByteBuf;
+
+import javax.annotation.Nullable;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static org.spongycastle.util.BigIntegers.asUnsignedByteArray;
+
+/**
+ * Encodes RLP structures in two passes, producing the same bytes as the RLP.encode methods.
+ *
+ * The first pass records the elements, keeping references to the given arrays,
+ * and computes the length of every list when it is closed.
+ * The second pass writes the whole structure into one array, or one Netty buffer,
+ * of the exact size, instead of allocating and copying an array for every element and list.
+ *
+ * <pre>
+ * RLPWriter writer = new RLPWriter();
+ * writer.startList();
+ * writer.writeElement(hash);
+ * writer.writeLong(number);
+ * writer.endList();
+ * byte[] encoded = writer.encode();
+ * </pre>
+ *
+ * The arrays must not be changed until the structure is encoded. A writer is not thread safe,
+ * and can be reused after calling reset.
+ */
+public class RLPWriter {
+    private static final int OFFSET_SHORT_ITEM = 0x80;
+    private static final int OFFSET_LONG_ITEM = 0xb7;
+    private static final int OFFSET_SHORT_LIST = 0xc0;
+    private static final int OFFSET_LONG_LIST = 0xf7;
+    private static final int SIZE_THRESHOLD = 56;
+
+    private static final byte ELEMENT = 0;
+    private static final byte ENCODED = 1;
+    private static final byte NUMBER = 2;
+    private static final byte LIST = 3;
+
+    // the recorded entries: element arrays, already encoded arrays, numbers and list payload lengths
+    private byte[] types = new byte[32];
+    private Object[] arrays = new Object[32];
+    private long[] values = new long[32];
+    private int count;
+
+    // the open lists, with the entry that starts them and the length of their payload so far
+    private int[] openLists = new int[8];
+    private int[] openLengths = new int[9];
+    private int depth;
+
+    /**
+     * Starts a list, all the entries until the matching endList are its items
+     */
+    public RLPWriter startList() {
+        int index = add(LIST, null, 0);
+
+        if (depth == openLists.length) {
+            openLists = Arrays.copyOf(openLists, depth * 2);
+            openLengths = Arrays.copyOf(openLengths, depth * 2 + 1);
+        }
+
+        openLists[depth] = index;
+        depth++;
+        openLengths[depth] = 0;
+
+        return this;
+    }
+
+    public RLPWriter endList() {
+        if (depth == 0) {
+            throw new IllegalStateException("There is no list to end");
+        }
+
+        int length = openLengths[depth];
+        depth--;
+        values[openLists[depth]] = length;
+        openLengths[depth] += lengthOfPrefix(length) + length;
+
+        return this;
+    }
+
+    /**
+     * Writes a byte string, encoded as RLP.encodeElement does
+     */
+    public RLPWriter writeElement(@Nullable byte[] data) {
+        add(ELEMENT, data, 0);
+        openLengths[depth] += lengthOfElement(data);
+        return this;
+    }
+
+    /**
+     * Writes an already RLP encoded element or list, as is
+     */
+    public RLPWriter writeEncoded(byte[] encoded) {
+        add(ENCODED, encoded, 0);
+        openLengths[depth] += encoded.length;
+        return this;
+    }
+
+    /**
+     * Writes a non negative number as its unsigned big endian bytes without leading zeroes,
+     * encoded as RLP.encodeBigInteger does
+     */
+    public RLPWriter writeLong(long value) {
+        if (value < 0) {
+            return writeBigInteger(BigInteger.valueOf(value));
+        }
+
+        add(NUMBER, null, value);
+        openLengths[depth] += lengthOfNumber(value);
+        return this;
+    }
+
+    /**
+     * Writes an int as RLP.encodeInt does, the negative values as their four bytes
+     */
+    public RLPWriter writeInt(int value) {
+        return writeLong(Integer.toUnsignedLong(value));
+    }
+
+    public RLPWriter writeBigInteger(BigInteger value) {
+        if (value.signum() == 0) {
+            return writeElement(null);
+        }
+
+        return writeElement(asUnsignedByteArray(value));
+    }
+
+    public RLPWriter writeCoin(@Nullable Coin coin) {
+        if (coin == null) {
+            return writeElement(null);
+        }
+
+        return writeBigInteger(coin.asBigInteger());
+    }
+
+    public RLPWriter writeRskAddress(@Nullable RskAddress address) {
+        if (address == null || RskAddress.nullAddress().equals(address)) {
+            return writeElement(null);
+        }
+
+        return writeElement(address.getBytes());
+    }
+
+    /**
+     * Returns the length of the encoded structure
+     */
+    public int size() {
+        return openLengths[0];
+    }
+
+    /**
+     * Encodes the structure into a new array of the exact size
+     */
+    public byte[] encode() {
+        checkClosed();
+        byte[] output = new byte[size()];
+        write(output, 0);
+        return output;
+    }
+
+    /**
+     * Encodes the structure at the writer index of the buffer, advancing it
+     */
+    public void encode(ByteBuf buffer) {
+        checkClosed();
+        int size = size();
+        buffer.ensureWritable(size);
+
+        if (buffer.hasArray()) {
+            write(buffer.array(), buffer.arrayOffset() + buffer.writerIndex());
+            buffer.writerIndex(buffer.writerIndex() + size);
+        } else {
+            buffer.writeBytes(encode());
+        }
+    }
+
+    public void reset() {
+        Arrays.fill(arrays, 0, count, null);
+        count = 0;
+        depth = 0;
+        openLengths[0] = 0;
+    }
+
+    private int add(byte type, Object array, long value) {
+        if (count == types.length) {
+            int capacity = count * 2;
+            types = Arrays.copyOf(types, capacity);
+            arrays = Arrays.copyOf(arrays, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        types[count] = type;
+        arrays[count] = array;
+        values[count] = value;
+
+        return count++;
+    }
+
+    private void checkClosed() {
+        if (depth != 0) {
+            throw new IllegalStateException("There are lists not ended");
+        }
+    }
+
+    private void write(byte[] output, int offset) {
+        int position = offset;
+
+        for (int k = 0; k < count; k++) {
+            switch (types[k]) {
+                case ELEMENT:
+                    position = writeElement(output, position, (byte[]) arrays[k]);
+                    break;
+                case ENCODED:
+                    byte[] encoded = (byte[]) arrays[k];
+                    System.arraycopy(encoded, 0, output, position, encoded.length);
+                    position += encoded.length;
+                    break;
+                case NUMBER:
+                    position = writeNumber(output, position, values[k]);
+                    break;
+                default:
+                    position = writePrefix(output, position, (int) values[k], OFFSET_SHORT_LIST, OFFSET_LONG_LIST);
+                    break;
+            }
+        }
+    }
+
+    private static int writeElement(byte[] output, int position, byte[] data) {
+        if (data == null || data.length == 0) {
+            output[position] = (byte) OFFSET_SHORT_ITEM;
+            return position + 1;
+        }
+
+        if (data.length == 1 && (data[0] & 0xFF) < OFFSET_SHORT_ITEM) {
+            output[position] = data[0];
+            return position + 1;
+        }
+
+        position = writePrefix(output, position, data.length, OFFSET_SHORT_ITEM, OFFSET_LONG_ITEM);
+        System.arraycopy(data, 0, output, position, data.length);
+
+        return position + data.length;
+    }
+
+    private static int writeNumber(byte[] output, int position, long value) {
+        if (value == 0) {
+            output[position] = (byte) OFFSET_SHORT_ITEM;
+            return position + 1;
+        }
+
+        if (value < OFFSET_SHORT_ITEM) {
+            output[position] = (byte) value;
+            return position + 1;
+        }
+
+        int bytes = bytesOf(value);
+        output[position++] = (byte) (OFFSET_SHORT_ITEM + bytes);
+
+        for (int k = bytes - 1; k >= 0; k--) {
+            output[position++] = (byte) (value >>> (8 * k));
+        }
+
+        return position;
+    }
+
+    private static int writePrefix(byte[] output, int position, int length, int shortOffset, int longOffset) {
+        if (length < SIZE_THRESHOLD) {
+            output[position] = (byte) (shortOffset + length);
+            return position + 1;
+        }
+
+        int bytes = bytesOf(length);
+        output[position++] = (byte) (longOffset + bytes);
+
+        for (int k = bytes - 1; k >= 0; k--) {
+            output[position++] = (byte) (length >>> (8 * k));
+        }
+
+        return position;
+    }
+
+    private static int lengthOfElement(byte[] data) {
+        if (data == null || data.length == 0) {
+            return 1;
+        }
+
+        if (data.length == 1 && (data[0] & 0xFF) < OFFSET_SHORT_ITEM) {
+            return 1;
+        }
+
+        return lengthOfPrefix(data.length) + data.length;
+    }
+
+    private static int lengthOfNumber(long value) {
+        if (value < OFFSET_SHORT_ITEM) {
+            return 1;
+        }
+
+        return 1 + bytesOf(value);
+    }
+
+    private static int lengthOfPrefix(int length) {
+        if (length < SIZE_THRESHOLD) {
+            return 1;
+        }
+
+        return 1 + bytesOf(length);
+    }
+
+    private static int bytesOf(long value) {
+        return (Long.SIZE - Long.numberOfLeadingZeros(value) + 7) / 8;
+    }
+}
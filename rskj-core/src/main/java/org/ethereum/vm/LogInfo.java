@@ -25,6 +25,7 @@ import org.ethereum.util.RLP;
 import org.ethereum.util.RLPElement;
 import org.ethereum.util.RLPItem;
 import org.ethereum.util.RLPList;
+import org.ethereum.util.RLPWriter;
 
 import org.spongycastle.util.encoders.Hex;
 
@@ -85,22 +86,25 @@ public class LogInfo {
 
     /*  [address, [topic, topic ...] data] */
     public byte[] getEncoded() {
+        RLPWriter writer = new RLPWriter();
+        encode(writer);
+        return writer.encode();
+    }
 
-        byte[] addressEncoded = RLP.encodeElement(this.address);
+    public void encode(RLPWriter writer) {
+        writer.startList();
+        writer.writeElement(this.address);
 
-        byte[][] topicsEncoded = null;
+        writer.startList();
         if (topics != null) {
-            topicsEncoded = new byte[topics.size()][];
-            int i = 0;
             for (DataWord topic : topics) {
-                byte[] topicData = topic.getData();
-                topicsEncoded[i] = RLP.encodeElement(topicData);
-                ++i;
+                writer.writeElement(topic.getData());
             }
         }
+        writer.endList();
 
-        byte[] dataEncoded = RLP.encodeElement(data);
-        return RLP.encodeList(addressEncoded, RLP.encodeList(topicsEncoded), dataEncoded);
+        writer.writeElement(data);
+        writer.endList();
     }
 
     public Bloom getBloom() {
@@ -19,6 +19,7 @@ package org.ethereum.vm;
  */
 
 
+import co.rsk.config.RemascConfig;
 import co.rsk.config.RemascConfigFactory;
 import co.rsk.config.RskSystemProperties;
 import co.rsk.core.RskAddress;
@@ -36,7 +37,10 @@ import org.ethereum.util.BIUtil;
 import org.ethereum.util.ByteUtil;
 
 import java.math.BigInteger;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.ethereum.util.ByteUtil.*;
 
@@ -62,7 +66,9 @@ public class PrecompiledContracts {
     public static final RskAddress REMASC_ADDR = new RskAddress(REMASC_ADDR_STR);
     public static final RskAddress SAMPLE_ADDR = new RskAddress(SAMPLE_ADDR_STR);
 
-    private static final String RSK_NATIVECONTRACT_REQUIREDPREFIX = "000000000000000000000000";
+    // the contract addresses are 20 bytes long, left padded with zeroes in a data word
+    private static final int ADDRESS_PADDING_LENGTH = 12;
+
     private static ECRecover ecRecover = new ECRecover();
     private static Sha256 sha256 = new Sha256();
     private static Ripempd160 ripempd160 = new Ripempd160();
@@ -70,8 +76,25 @@ public class PrecompiledContracts {
     private static SamplePrecompiledContract sample = new SamplePrecompiledContract(SAMPLE_ADDR);
     private static BigIntegerModexp bigIntegerModexp = new BigIntegerModexp();
 
+    private static final Map<RskAddress, PrecompiledContract> sharedContracts = new HashMap<>();
+    private static final Map<String, RemascConfig> remascConfigs = new ConcurrentHashMap<>();
+
+    static {
+        sharedContracts.put(new RskAddress(ECRECOVER_ADDR), ecRecover);
+        sharedContracts.put(new RskAddress(SHA256_ADDR), sha256);
+        sharedContracts.put(new RskAddress(RIPEMPD160_ADDR), ripempd160);
+        sharedContracts.put(IDENTITY_ADDR, identity);
+        sharedContracts.put(SAMPLE_ADDR, sample);
+        sharedContracts.put(new RskAddress(BIG_INT_MODEXP_ADDR), bigIntegerModexp);
+    }
+
     private final RskSystemProperties config;
 
+    // the native contracts keep the state of the invocation set by init,
+    // so they are reused by the calls of a single executor but never shared
+    private Bridge bridge;
+    private RemascContract remasc;
+
     public PrecompiledContracts(RskSystemProperties config) {
         this.config = config;
     }
@@ -81,29 +104,42 @@ public class PrecompiledContracts {
         if (address == null) {
             return identity;
         }
-        if (address.isHex(RSK_NATIVECONTRACT_REQUIREDPREFIX + ECRECOVER_ADDR)) {
-            return ecRecover;
-        }
-        if (address.isHex(RSK_NATIVECONTRACT_REQUIREDPREFIX + SHA256_ADDR)) {
-            return sha256;
-        }
-        if (address.isHex(RSK_NATIVECONTRACT_REQUIREDPREFIX + RIPEMPD160_ADDR)) {
-            return ripempd160;
-        }
-        if (address.isHex(RSK_NATIVECONTRACT_REQUIREDPREFIX + IDENTITY_ADDR_STR)) {
-            return identity;
+
+        byte[] data = address.getData();
+
+        if (data.length != 32) {
+            return null;
         }
-        if (address.isHex(RSK_NATIVECONTRACT_REQUIREDPREFIX + SAMPLE_ADDR_STR)) {
-            return sample;
+
+        for (int k = 0; k < ADDRESS_PADDING_LENGTH; k++) {
+            if (data[k] != 0) {
+                return null;
+            }
         }
-        if (address.isHex(BRIDGE_ADDR_STR) || address.isHex(RSK_NATIVECONTRACT_REQUIREDPREFIX + BRIDGE_ADDR_STR)) {
-            return new Bridge(config, BRIDGE_ADDR);
+
+        RskAddress contractAddress = new RskAddress(address.getLast20Bytes());
+        PrecompiledContract contract = sharedContracts.get(contractAddress);
+
+        if (contract != null) {
+            return contract;
         }
-        if (address.isHex(RSK_NATIVECONTRACT_REQUIREDPREFIX + BIG_INT_MODEXP_ADDR)) {
-            return bigIntegerModexp;
+        if (BRIDGE_ADDR.equals(contractAddress)) {
+            if (bridge == null) {
+                bridge = new Bridge(config, BRIDGE_ADDR);
+            }
+
+            bridge.reset();
+            return bridge;
         }
-        if (address.isHex(REMASC_ADDR_STR) || address.isHex(RSK_NATIVECONTRACT_REQUIREDPREFIX + REMASC_ADDR_STR)) {
-            return new RemascContract(config, new RemascConfigFactory(RemascContract.REMASC_CONFIG).createRemascConfig(config.netName()), REMASC_ADDR);
+        if (REMASC_ADDR.equals(contractAddress)) {
+            if (remasc == null) {
+                RemascConfig remascConfig = remascConfigs.computeIfAbsent(config.netName(),
+                        netName -> new RemascConfigFactory(RemascContract.REMASC_CONFIG).createRemascConfig(netName));
+                remasc = new RemascContract(config, remascConfig, REMASC_ADDR);
+            }
+
+            remasc.reset();
+            return remasc;
         }
 
         return null;
@@ -116,6 +152,11 @@ public class PrecompiledContracts {
 
         public void init(Transaction tx, Block executionBlock, Repository repository, BlockStore blockStore, ReceiptStore receiptStore, List<LogInfo> logs) {}
 
+        /**
+         * Forgets the state of the previous invocation, so a reused contract behaves as a new one until init is called
+         */
+        public void reset() {}
+
         public abstract byte[] execute(byte[] data);
     }
 
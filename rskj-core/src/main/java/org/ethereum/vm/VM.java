@@ -21,7 +21,6 @@ package org.ethereum.vm;
 
 import co.rsk.config.VmConfig;
 import co.rsk.core.RskAddress;
-import org.ethereum.crypto.HashUtil;
 import org.ethereum.db.ContractDetails;
 import org.ethereum.vm.MessageCall.MsgType;
 import org.ethereum.vm.program.Program;
@@ -613,9 +612,7 @@ public class VM {
         // EXECUTION PHASE
         DataWord memOffsetData = program.stackPop();
         DataWord lengthData = program.stackPop();
-        byte[] buffer = program.memoryChunk(memOffsetData.intValue(), lengthData.intValue());
-
-        byte[] encoded = HashUtil.keccak256(buffer);
+        byte[] encoded = program.memoryHash(memOffsetData.intValue(), lengthData.intValue());
         DataWord word = program.newDataWord(encoded);
 
         if (isLogEnabled) {
@@ -19,10 +19,13 @@
 
 package org.ethereum.vm.program;
 
+import org.ethereum.crypto.HashUtil;
+import org.ethereum.crypto.cryptohash.FastKeccak256;
 import org.ethereum.vm.DataWord;
 import org.ethereum.vm.program.listener.ProgramListener;
 import org.ethereum.vm.program.listener.ProgramListenerAware;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -40,6 +43,7 @@ public class Memory implements ProgramListenerAware {
     private List<byte[]> chunks = new LinkedList<>();
     private int softSize;
     private ProgramListener traceListener;
+    private FastKeccak256 digest;
 
     @Override
     public void setTraceListener(ProgramListener traceListener) {
@@ -142,6 +146,39 @@ public class Memory implements ProgramListenerAware {
         }
     }
 
+    /**
+     * Returns the Keccak-256 hash of a memory region, hashing the chunks without copying the region
+     */
+    public byte[] keccak256(int address, int size) {
+        if (size <= 0) {
+            return HashUtil.keccak256(EMPTY_BYTE_ARRAY);
+        }
+
+        extend(address, size);
+
+        if (digest == null) {
+            digest = new FastKeccak256();
+        }
+
+        int chunkOffset = address % CHUNK_SIZE;
+        int toHash = size;
+
+        Iterator<byte[]> iterator = chunks.listIterator(address / CHUNK_SIZE);
+
+        while (toHash > 0) {
+            byte[] chunk = iterator.next();
+            int count = min(toHash, chunk.length - chunkOffset);
+
+            digest.update(chunk, chunkOffset, count);
+
+            // hash next chunk from the start
+            chunkOffset = 0;
+            toHash -= count;
+        }
+
+        return digest.digest();
+    }
+
     public DataWord readWord(int address) {
         return new DataWord(read(address, 32));
     }
@@ -85,7 +85,8 @@ public class Program {
     public static final long MAX_MEMORY = (1<<30);
 
     //Max size for stack checks
-    private static final int MAX_STACKSIZE = 1024;
+    private static final int MAX_STACKSIZE = Stack.MAX_SIZE;
+    private static final int MAX_DATAWORD_POOL_SIZE = 1024;
 
     private final BlockchainConfig blockchainConfig;
     private final Transaction transaction;
@@ -177,7 +178,8 @@ public class Program {
      * performed. Until that moment, dataWordPool is enabled by setting useDataWordPool=true
      *
      *******************************************************************************************************************/
-    private final java.util.Stack<DataWord> dataWordPool;
+    private final DataWord[] dataWordPool;
+    private int dataWordPoolSize;
 
     private static Boolean useDataWordPool = true;
 
@@ -214,13 +216,11 @@ public class Program {
 
         this.memory = setupProgramListener(new Memory());
         this.stack = setupProgramListener(new Stack());
-        this.stack.ensureCapacity(1024); // faster?
         this.storage = setupProgramListener(new Storage(programInvoke));
         this.trace = new ProgramTrace(config, programInvoke);
 
         if (useDataWordPool) {
-            this.dataWordPool = new java.util.Stack<>();
-            this.dataWordPool.ensureCapacity(1024); // faster?
+            this.dataWordPool = new DataWord[MAX_DATAWORD_POOL_SIZE];
         } else {
             this.dataWordPool = null;
         }
@@ -306,10 +306,12 @@ public class Program {
         if (dataWordPool==null) {
             return new DataWord();
         }
-        if (dataWordPool.empty()) {
+        if (dataWordPoolSize == 0) {
             return new DataWord();
         } else {
-            return dataWordPool.pop();
+            DataWord dw = dataWordPool[--dataWordPoolSize];
+            dataWordPool[dataWordPoolSize] = null;
+            return dw;
         }
     }
 
@@ -381,8 +383,8 @@ public class Program {
             return ;
         }
         // If there are enough cached values, just really dispose
-        if (dataWordPool.size()<1024) {
-            dataWordPool.push(dw);
+        if (dataWordPoolSize < MAX_DATAWORD_POOL_SIZE) {
+            dataWordPool[dataWordPoolSize++] = dw;
         }
     }
 
@@ -525,6 +527,10 @@ public class Program {
         return memory.read(offset, size);
     }
 
+    public byte[] memoryHash(int offset, int size) {
+        return memory.keccak256(offset, size);
+    }
+
     /**
      * Allocates extra memory in the program for
      * a specified size, calculated from a given offset
@@ -837,6 +843,9 @@ public class Program {
             getResult().addCallCreate(data, contextAddress.getBytes(),
                         msg.getGas().longValueSafe(),
                     msg.getEndowment().getNoLeadZeroesData());
+
+            // the nested tracks share their changes, they are discarded explicitly
+            track.rollback();
             return;
         }
 
@@ -1551,6 +1560,7 @@ public class Program {
                     msg.getGas().longValueSafe(),
                     msg.getEndowment().getNoLeadZeroesData());
 
+            track.rollback();
             stackPushOne();
             return;
         }
@@ -1576,7 +1586,15 @@ public class Program {
 
                 contract.init(internalTx, executionBlock, track, this.invoke.getBlockStore(), null, null);
             }
-            byte[] out = contract.execute(data);
+            byte[] out;
+
+            try {
+                out = contract.execute(data);
+            } catch (RuntimeException e) {
+                // the nested tracks share their changes, they are discarded explicitly
+                track.rollback();
+                throw e;
+            }
 
             this.memorySave(msg.getOutDataOffs().intValue(), out);
             this.stackPushOne();
@@ -23,7 +23,20 @@ import org.ethereum.vm.DataWord;
 import org.ethereum.vm.program.listener.ProgramListener;
 import org.ethereum.vm.program.listener.ProgramListenerAware;
 
-public class Stack extends java.util.Stack<DataWord> implements ProgramListenerAware {
+import java.util.*;
+
+/**
+ * The operand stack of a program, a flat array of the 1024 slots the VM allows.
+ *
+ * It is owned by the thread that runs the program, so unlike java.util.Stack it takes no locks.
+ * The element 0 is the bottom of the stack. Trace listeners and dumps can use asList,
+ * a read only view of the current elements.
+ */
+public class Stack implements ProgramListenerAware, Iterable<DataWord> {
+    public static final int MAX_SIZE = 1024;
+
+    private final DataWord[] items = new DataWord[MAX_SIZE];
+    private int size;
 
     private ProgramListener traceListener;
 
@@ -32,20 +45,52 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
         this.traceListener = listener;
     }
 
-    @Override
-    public synchronized DataWord pop() {
+    public DataWord pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+
         if (traceListener != null) {
             traceListener.onStackPop();
         }
-        return super.pop();
+
+        DataWord item = items[--size];
+        items[size] = null;
+        return item;
     }
 
-    @Override
     public DataWord push(DataWord item) {
+        if (size == MAX_SIZE) {
+            // the program checks the stack limit before every operation
+            throw new IllegalStateException("The stack is full");
+        }
+
         if (traceListener != null) {
             traceListener.onStackPush(item);
         }
-        return super.push(item);
+
+        items[size++] = item;
+        return item;
+    }
+
+    public DataWord peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+
+        return items[size - 1];
+    }
+
+    public DataWord get(int index) {
+        checkIndex(index);
+        return items[index];
+    }
+
+    public DataWord set(int index, DataWord item) {
+        checkIndex(index);
+        DataWord previous = items[index];
+        items[index] = item;
+        return previous;
     }
 
     public void swap(int from, int to) {
@@ -53,12 +98,58 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
             if (traceListener != null) {
                 traceListener.onStackSwap(from, to);
             }
-            DataWord tmp = get(from);
-            set(from, set(to, tmp));
+            DataWord tmp = items[from];
+            items[from] = items[to];
+            items[to] = tmp;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+    }
+
+    public DataWord[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+
+    /**
+     * Returns a read only view of the elements, from the bottom of the stack, that follows the changes
+     */
+    public List<DataWord> asList() {
+        return new AbstractList<DataWord>() {
+            @Override
+            public DataWord get(int index) {
+                return Stack.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<DataWord> iterator() {
+        return asList().iterator();
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index);
         }
     }
 
     private boolean isAccessible(int from) {
-        return from >= 0 && from < size();
+        return from >= 0 && from < size;
     }
 }
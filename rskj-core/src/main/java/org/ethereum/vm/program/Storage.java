@@ -32,6 +32,7 @@ import org.ethereum.vm.program.listener.ProgramListener;
 import org.ethereum.vm.program.listener.ProgramListenerAware;
 
 import java.math.BigInteger;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -154,6 +155,11 @@ public class Storage implements Repository, ProgramListenerAware {
         return repository.getAccountsKeys();
     }
 
+    @Override
+    public Iterator<Map.Entry<byte[], byte[]>> getAccountsRange(byte[] from, byte[] to) {
+        return repository.getAccountsRange(from, to);
+    }
+
     @Override
     public void dumpState(Block block, long gasUsed, int txNumber, byte[] txHash) {
         repository.dumpState(block, gasUsed, txNumber, txHash);
@@ -0,0 +1,108 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.core;
+
+import co.rsk.crypto.Keccak256;
+import co.rsk.metrics.Counter;
+import co.rsk.metrics.Metric;
+import co.rsk.metrics.MetricRegistry;
+import org.ethereum.core.ImmutableTransaction;
+import org.ethereum.core.Transaction;
+import org.ethereum.crypto.ECKey;
+import org.ethereum.crypto.HashUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+public class TransactionSenderCacheTest {
+    @Test
+    public void countHitsAndMisses() {
+        TransactionSenderCache cache = new TransactionSenderCache(100);
+        Keccak256 hash = new Keccak256(HashUtil.keccak256(new byte[] { 1 }));
+        RskAddress sender = new RskAddress("0000000000000000000000000000000000000001");
+
+        Assert.assertNull(cache.get(hash));
+        cache.put(hash, sender);
+        Assert.assertEquals(sender, cache.get(hash));
+        Assert.assertEquals(sender, cache.get(hash));
+
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(2.0 / 3, cache.getHitRate(), 0.0001);
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get(hash));
+    }
+
+    @Test
+    public void evictOldestEntriesOverMaxSize() {
+        TransactionSenderCache cache = new TransactionSenderCache(160);
+        RskAddress sender = new RskAddress("0000000000000000000000000000000000000001");
+
+        for (int k = 0; k < 10000; k++) {
+            cache.put(new Keccak256(HashUtil.keccak256(BigInteger.valueOf(k).toByteArray())), sender);
+        }
+
+        Assert.assertTrue(cache.size() <= 160);
+        Assert.assertEquals(sender, cache.get(new Keccak256(HashUtil.keccak256(BigInteger.valueOf(9999).toByteArray()))));
+        Assert.assertEquals(0, new TransactionSenderCache(10).getHitRate(), 0);
+    }
+
+    @Test
+    public void recoverSenderOnceForTransactionParsedAgain() {
+        ECKey key = ECKey.fromPrivate(BigInteger.valueOf(123456789));
+        Transaction tx = new Transaction(BigInteger.valueOf(7).toByteArray(), BigInteger.ONE.toByteArray(),
+                BigInteger.valueOf(21000).toByteArray(), key.getAddress(), BigInteger.TEN.toByteArray(), null, (byte) 33);
+        tx.sign(key.getPrivKeyBytes());
+        byte[] encoded = tx.getEncoded();
+
+        TransactionSenderCache cache = Transaction.getSenderCache();
+        RskAddress expected = new RskAddress(key.getAddress());
+
+        Assert.assertEquals(expected, new ImmutableTransaction(encoded).getSender());
+        long hits = cache.getHits();
+        long hitsTotal = counter("sender_cache_hits_total").get();
+
+        Assert.assertEquals(expected, new ImmutableTransaction(encoded).getSender());
+        Assert.assertEquals(hits + 1, cache.getHits());
+        Assert.assertEquals(hitsTotal + 1, counter("sender_cache_hits_total").get());
+    }
+
+    @Test
+    public void countMissesInRegistry() {
+        TransactionSenderCache cache = new TransactionSenderCache(100);
+        long missesTotal = counter("sender_cache_misses_total").get();
+
+        Assert.assertNull(cache.get(new Keccak256(HashUtil.keccak256(new byte[] { 2 }))));
+
+        Assert.assertEquals(missesTotal + 1, counter("sender_cache_misses_total").get());
+    }
+
+    private static Counter counter(String name) {
+        for (Metric metric : MetricRegistry.getDefault().getMetrics()) {
+            if (metric.getName().equals(name)) {
+                return (Counter) metric;
+            }
+        }
+
+        throw new AssertionError("No metric " + name);
+    }
+}
@@ -46,6 +46,7 @@ import org.spongycastle.util.encoders.Hex;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.ethereum.util.ByteUtil.EMPTY_BYTE_ARRAY;
@@ -141,6 +142,43 @@ public class BlockExecutorTest {
         Assert.assertEquals(BigInteger.valueOf(30000 - 21000 - 10), accountState.getBalance().asBigInteger());
     }
 
+    @Test
+    public void executeTransactionAfterPreviousTransaction() {
+        Repository repository = new RepositoryImpl(config, new TrieStoreImpl(new HashMapDB()));
+
+        Repository track = repository.startTracking();
+
+        Account account = createAccount("acctest1", track, Coin.valueOf(60000));
+        Account account2 = createAccount("acctest2", track, Coin.valueOf(10L));
+
+        track.commit();
+
+        BlockExecutor executor = new BlockExecutor(config, repository, null, null, null);
+
+        Transaction tx1 = createTransaction(account, account2, BigInteger.TEN, repository.getNonce(account.getAddress()));
+        Transaction tx2 = createTransaction(account, account2, BigInteger.TEN, repository.getNonce(account.getAddress()).add(BigInteger.ONE));
+        List<Transaction> txs = new ArrayList<>();
+        txs.add(tx1);
+        txs.add(tx2);
+
+        BlockGenerator blockGenerator = new BlockGenerator();
+        Block block = blockGenerator.createChildBlock(blockGenerator.getGenesisBlock(), txs, new ArrayList<>(), 1, null);
+
+        BlockResult expected = executor.execute(block, repository.getRoot(), false);
+
+        BlockResult empty = new BlockResult(Collections.emptyList(), Collections.emptyList(), repository.getRoot(), 0, Coin.ZERO);
+        BlockResult previous = executor.executeAfter(block, Collections.singletonList(tx1), empty);
+        BlockResult result = executor.executeAfter(block, Collections.singletonList(tx2), previous);
+
+        Assert.assertEquals(1, previous.getExecutedTransactions().size());
+        Assert.assertEquals(txs, result.getExecutedTransactions());
+        Assert.assertEquals(2, result.getTransactionReceipts().size());
+        Assert.assertEquals(42000, result.getGasUsed());
+        Assert.assertEquals(expected.getPaidFees(), result.getPaidFees());
+        Assert.assertArrayEquals(expected.getStateRoot(), result.getStateRoot());
+        Assert.assertArrayEquals(expected.getReceiptsRoot(), result.getReceiptsRoot());
+    }
+
     @Test
     public void executeBlockWithTwoTransactions() {
         Repository repository = new RepositoryImpl(config, new TrieStoreImpl(new HashMapDB()));
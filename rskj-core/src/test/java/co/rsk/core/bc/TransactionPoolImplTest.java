@@ -255,6 +255,31 @@ public class TransactionPoolImplTest {
         Assert.assertEquals(BigInteger.valueOf(1000000), repository.getBalance(receiver.getAddress()).asBigInteger());
     }
 
+    @Test
+    public void addManyTransactionsValidatingInParallel() {
+        Coin balance = Coin.valueOf(1000000);
+        createTestAccounts(40, balance);
+        List<Transaction> txs = new ArrayList<>();
+        List<Transaction> expected = new ArrayList<>();
+
+        for (int k = 1; k <= 40; k++) {
+            // every fifth transaction exceeds the block gas limit
+            Transaction tx = k % 5 == 0 ?
+                    createSampleTransaction(k, k + 1, 1000, 0, BigInteger.valueOf(3000001)) :
+                    createSampleTransaction(k, k + 1, 1000, 0);
+            txs.add(tx);
+
+            if (k % 5 != 0) {
+                expected.add(tx);
+            }
+        }
+
+        List<Transaction> added = transactionPool.addTransactions(txs);
+
+        Assert.assertEquals(expected, added);
+        Assert.assertEquals(32, transactionPool.getPendingTransactions().size());
+    }
+
     @Test
     public void removeObsoletePendingTransactionsByBlock() {
         Coin balance = Coin.valueOf(1000000);
@@ -470,6 +470,27 @@ public class ContractDetailsImplTest {
         Assert.assertEquals(null, result2.get(new DataWord(3)));
     }
 
+    @Test
+    public void snapshotToCurrentRootSharesTrieAndCopiesKeysOnChange() {
+        ContractDetailsImpl details = new ContractDetailsImpl(config);
+        details.setCode(Hex.decode("60606060"));
+        details.put(DataWord.ZERO, new DataWord(42));
+
+        ContractDetailsImpl snapshot = (ContractDetailsImpl) details.getSnapshotTo(details.getStorageHash());
+
+        Assert.assertSame(details.getTrie(), snapshot.getTrie());
+
+        snapshot.put(DataWord.ONE, new DataWord(144));
+        details.put(new DataWord(2), new DataWord(7));
+
+        Assert.assertEquals(2, details.getStorageSize());
+        Assert.assertEquals(2, snapshot.getStorageSize());
+        Assert.assertNull(details.get(DataWord.ONE));
+        Assert.assertNull(snapshot.get(new DataWord(2)));
+        Assert.assertEquals(new DataWord(42), snapshot.get(DataWord.ZERO));
+        Assert.assertArrayEquals(Hex.decode("60606060"), snapshot.getCode());
+    }
+
     @Test
     public void getEncodedAndCreateClone() {
         ContractDetailsImpl details = new ContractDetailsImpl(config);
@@ -19,6 +19,7 @@
 package co.rsk.db;
 
 import co.rsk.config.TestSystemProperties;
+import co.rsk.core.Coin;
 import co.rsk.core.RskAddress;
 import co.rsk.trie.TrieStore;
 import co.rsk.trie.TrieStoreImpl;
@@ -33,9 +34,11 @@ import org.junit.Test;
 import org.junit.runners.MethodSorters;
 import org.spongycastle.util.encoders.Hex;
 
+import java.math.BigInteger;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import static org.ethereum.util.ByteUtil.EMPTY_BYTE_ARRAY;
 import static org.junit.Assert.*;
 
 /**
@@ -572,4 +575,118 @@ public class RepositoryTest {
             throw new RuntimeException("Test failed.");
         }
     }
+
+    @Test
+    public void nestedTrackRollbackRevertsOnlyItsChanges() {
+        Repository repository = new RepositoryImpl(config);
+
+        DataWord key1 = new DataWord(1);
+        DataWord key2 = new DataWord(2);
+        byte[] horseCode = Hex.decode("600060005500");
+
+        Repository track1 = repository.startTracking();
+        track1.addBalance(COW, Coin.valueOf(10));
+        track1.addStorageRow(COW, key1, new DataWord(100));
+
+        Repository track2 = track1.startTracking();
+        track2.addBalance(COW, Coin.valueOf(5));
+        track2.increaseNonce(COW);
+        track2.addStorageRow(COW, key1, new DataWord(200));
+        track2.addStorageRow(COW, key2, new DataWord(200));
+        track2.saveCode(HORSE, horseCode);
+
+        Repository track3 = track2.startTracking();
+        track3.addBalance(COW, Coin.valueOf(1));
+        track3.addStorageBytes(HORSE, key1, horseCode);
+        track3.commit();
+
+        assertEquals(Coin.valueOf(16), track1.getBalance(COW));
+        assertArrayEquals(horseCode, track1.getStorageBytes(HORSE, key1));
+
+        track2.rollback();
+
+        assertEquals(Coin.valueOf(10), track1.getBalance(COW));
+        assertEquals(BigInteger.ZERO, track1.getNonce(COW));
+        assertEquals(new DataWord(100), track1.getStorageValue(COW, key1));
+        assertNull(track1.getStorageValue(COW, key2));
+        assertNull(track1.getStorageBytes(HORSE, key1));
+        assertArrayEquals(EMPTY_BYTE_ARRAY, track1.getCode(HORSE));
+
+        track1.commit();
+
+        assertEquals(Coin.valueOf(10), repository.getBalance(COW));
+        assertEquals(new DataWord(100), repository.getStorageValue(COW, key1));
+        assertNull(repository.getStorageValue(COW, key2));
+        assertArrayEquals(EMPTY_BYTE_ARRAY, repository.getCode(HORSE));
+    }
+
+    @Test
+    public void nestedTrackChangesAreWrittenOnOwnerCommit() {
+        Repository repository = new RepositoryImpl(config);
+
+        Repository track1 = repository.startTracking();
+        Repository track2 = track1.startTracking();
+        track2.addBalance(COW, Coin.valueOf(10));
+        track2.addStorageRow(COW, new DataWord(1), new DataWord(100));
+        track2.commit();
+
+        assertEquals(Coin.ZERO, repository.getBalance(COW));
+        assertArrayEquals(HashUtil.EMPTY_TRIE_HASH, repository.getRoot());
+
+        track1.commit();
+
+        assertEquals(Coin.valueOf(10), repository.getBalance(COW));
+        assertEquals(new DataWord(100), repository.getStorageValue(COW, new DataWord(1)));
+    }
+
+    @Test
+    public void nestedTrackRollbackKeepsOwnerChangesMadeBeforeItsChanges() {
+        Repository repository = new RepositoryImpl(config);
+
+        Repository track1 = repository.startTracking();
+        track1.addBalance(COW, Coin.valueOf(10));
+
+        Repository track2 = track1.startTracking();
+        track1.addBalance(COW, Coin.valueOf(1));
+
+        track2.addBalance(COW, Coin.valueOf(5));
+        track2.rollback();
+
+        assertEquals(Coin.valueOf(11), track1.getBalance(COW));
+    }
+
+    @Test
+    public void nestedTrackRollbackRestoresDeletedAccount() {
+        Repository repository = new RepositoryImpl(config);
+
+        Repository track1 = repository.startTracking();
+        track1.addBalance(COW, Coin.valueOf(10));
+        track1.commit();
+
+        Repository track2 = track1.startTracking();
+        track2.delete(COW);
+
+        assertFalse(track1.isExist(COW));
+
+        track2.rollback();
+
+        assertTrue(track1.isExist(COW));
+        assertEquals(Coin.valueOf(10), track1.getBalance(COW));
+    }
+
+    @Test
+    public void nestedTrackRollbackAfterOwnerRollbackDoesNothing() {
+        Repository repository = new RepositoryImpl(config);
+
+        Repository track1 = repository.startTracking();
+        Repository track2 = track1.startTracking();
+        track2.addBalance(COW, Coin.valueOf(10));
+
+        track1.rollback();
+        track1.addBalance(COW, Coin.valueOf(3));
+
+        track2.rollback();
+
+        assertEquals(Coin.valueOf(3), track1.getBalance(COW));
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.logfilter;
+
+import co.rsk.crypto.Keccak256;
+import org.ethereum.core.Block;
+import org.ethereum.core.Blockchain;
+import org.ethereum.core.Bloom;
+import org.ethereum.crypto.HashUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class BlocksBloomStoreTest {
+    @Test
+    public void sectionNumbers() {
+        BlocksBloomStore store = new BlocksBloomStore(mock(Blockchain.class), 64);
+
+        Assert.assertEquals(0, store.firstNumberInSection(0));
+        Assert.assertEquals(63, store.lastNumberInSection(0));
+        Assert.assertEquals(64, store.firstNumberInSection(100));
+        Assert.assertEquals(127, store.lastNumberInSection(127));
+        Assert.assertEquals(128, store.firstNumberInSection(128));
+    }
+
+    @Test
+    public void addBlocksOfSection() {
+        Blockchain blockchain = mock(Blockchain.class);
+        BlocksBloomStore store = new BlocksBloomStore(blockchain, 4);
+        List<Block> blocks = blocks(4, 4);
+        when(blockchain.getBlockByNumber(7)).thenReturn(blocks.get(3));
+
+        Assert.assertNull(store.getBlocksBloom(5));
+
+        BlocksBloom blocksBloom = store.addBlocks(blocks);
+
+        Assert.assertEquals(4, blocksBloom.fromNumber());
+        Assert.assertEquals(7, blocksBloom.toNumber());
+        Assert.assertEquals(blocks.get(3).getHash(), blocksBloom.toHash());
+
+        for (int k = 4; k < 8; k++) {
+            Assert.assertTrue(blocksBloom.getBloom().matches(Bloom.create(logHash(k))));
+        }
+
+        Assert.assertFalse(blocksBloom.getBloom().matches(Bloom.create(logHash(8))));
+        Assert.assertSame(blocksBloom, store.getBlocksBloom(4));
+        Assert.assertSame(blocksBloom, store.getBlocksBloom(7));
+        Assert.assertNull(store.getBlocksBloom(8));
+        Assert.assertEquals(1, store.size());
+    }
+
+    @Test
+    public void discardSectionOutOfMainChain() {
+        Blockchain blockchain = mock(Blockchain.class);
+        BlocksBloomStore store = new BlocksBloomStore(blockchain, 4);
+        store.addBlocks(blocks(0, 4));
+
+        Block fork = block(3);
+        when(fork.getHash()).thenReturn(new Keccak256(HashUtil.keccak256(new byte[] { 1, 2, 3 })));
+        when(blockchain.getBlockByNumber(3)).thenReturn(fork);
+
+        Assert.assertNull(store.getBlocksBloom(0));
+        Assert.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void doNotKeepSectionOfBlocksFromDifferentChains() {
+        BlocksBloomStore store = new BlocksBloomStore(mock(Blockchain.class), 4);
+        List<Block> blocks = blocks(4, 4);
+        Block fork = block(6);
+        when(fork.getParentHash()).thenReturn(new Keccak256(HashUtil.keccak256(new byte[] { 1, 2, 3 })));
+        blocks.set(2, fork);
+
+        Assert.assertNull(store.addBlocks(blocks));
+        Assert.assertEquals(0, store.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectBlocksOfPartialSection() {
+        BlocksBloomStore store = new BlocksBloomStore(mock(Blockchain.class), 4);
+
+        store.addBlocks(blocks(2, 4));
+    }
+
+    private static List<Block> blocks(long fromNumber, int count) {
+        List<Block> blocks = new ArrayList<>();
+
+        for (long number = fromNumber; number < fromNumber + count; number++) {
+            blocks.add(block(number));
+        }
+
+        return blocks;
+    }
+
+    private static Block block(long number) {
+        Block block = mock(Block.class);
+        when(block.getNumber()).thenReturn(number);
+        when(block.getHash()).thenReturn(new Keccak256(HashUtil.keccak256(logHash(number))));
+        when(block.getParentHash()).thenReturn(new Keccak256(HashUtil.keccak256(logHash(number - 1))));
+        when(block.getLogBloom()).thenReturn(Bloom.create(logHash(number)).getData());
+
+        return block;
+    }
+
+    private static byte[] logHash(long number) {
+        return HashUtil.keccak256(new byte[] { (byte) number });
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HistogramTest {
+    @Test
+    public void emptyHistogram() {
+        Histogram histogram = new MetricRegistry().histogram("empty", "Empty");
+
+        Assert.assertEquals(0, histogram.getCount());
+        Assert.assertEquals(0, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    public void percentilesWithinBucketPrecision() {
+        Histogram histogram = new MetricRegistry().histogram("latency", "Latency");
+
+        for (long k = 1; k <= 1000; k++) {
+            histogram.record(k * 1000);
+        }
+
+        Assert.assertEquals(1000, histogram.getCount());
+        Assert.assertEquals(500500000, histogram.getSum());
+        Assert.assertEquals(1000000, histogram.getMax());
+        assertWithin(500000, histogram.getPercentile(0.5));
+        assertWithin(990000, histogram.getPercentile(0.99));
+        Assert.assertEquals(1000000, histogram.getPercentile(1));
+    }
+
+    @Test
+    public void negativeDurationsAsZero() {
+        Histogram histogram = new MetricRegistry().histogram("latency", "Latency");
+
+        histogram.record(-5);
+
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getPercentile(0.5));
+    }
+
+    @Test
+    public void bucketsCoverEveryValue() {
+        long[] values = { 0, 1, 31, 32, 33, 1000, 123456789, Long.MAX_VALUE };
+
+        for (long value : values) {
+            int index = Histogram.indexOf(value);
+
+            Assert.assertTrue(value <= Histogram.highestValueOf(index));
+            Assert.assertTrue(index == 0 || value > Histogram.highestValueOf(index - 1));
+        }
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        // a value is reported in the highest value of its bucket, a 1/16 of its magnitude
+        Assert.assertTrue(actual >= expected);
+        Assert.assertTrue(actual <= expected + expected / 16);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class MetricRegistryTest {
+    @Test
+    public void getSameMetricByNameAndLabel() {
+        MetricRegistry registry = new MetricRegistry();
+
+        Counter counter = registry.counter("imports_total", "Imports", "result", "best");
+
+        Assert.assertSame(counter, registry.counter("imports_total", "Imports", "result", "best"));
+        Assert.assertNotSame(counter, registry.counter("imports_total", "Imports", "result", "exist"));
+        Assert.assertSame(registry.histogram("time", "Time"), registry.histogram("time", "Time"));
+    }
+
+    @Test
+    public void replaceGauge() {
+        MetricRegistry registry = new MetricRegistry();
+
+        registry.gauge("size", "Size", () -> 1);
+        Gauge gauge = registry.gauge("size", "Size", () -> 2);
+
+        List<Metric> metrics = registry.getMetrics();
+
+        Assert.assertEquals(1, metrics.size());
+        Assert.assertSame(gauge, metrics.get(0));
+        Assert.assertEquals(2, gauge.get());
+    }
+
+    @Test
+    public void metricsSortedByName() {
+        MetricRegistry registry = new MetricRegistry();
+
+        registry.counter("b_total", "B");
+        registry.counter("a_total", "A", "op", "put");
+        registry.counter("a_total", "A", "op", "get");
+        registry.counter("a_total_other", "A other");
+
+        List<Metric> metrics = registry.getMetrics();
+
+        Assert.assertEquals("get", metrics.get(0).getLabelValue());
+        Assert.assertEquals("put", metrics.get(1).getLabelValue());
+        Assert.assertEquals("a_total_other", metrics.get(2).getName());
+        Assert.assertEquals("b_total", metrics.get(3).getName());
+    }
+
+    @Test
+    public void writePrometheusText() {
+        MetricRegistry registry = new MetricRegistry();
+
+        registry.counter("hits_total", "Hits").add(5);
+        registry.gauge("queue_size", "Queue size", () -> 7);
+        Histogram histogram = registry.histogram("op_seconds", "Operation time", "op", "get");
+
+        for (int k = 0; k < 10; k++) {
+            histogram.record(1_000_000_000L);
+        }
+
+        String text = PrometheusTextFormat.write(registry);
+
+        Assert.assertTrue(text.contains("# HELP rsk_hits_total Hits\n# TYPE rsk_hits_total counter\nrsk_hits_total 5\n"));
+        Assert.assertTrue(text.contains("# TYPE rsk_queue_size gauge\nrsk_queue_size 7\n"));
+        Assert.assertTrue(text.contains("# TYPE rsk_op_seconds summary\n"));
+        Assert.assertTrue(text.contains("rsk_op_seconds{op=\"get\",quantile=\"0.5\"} 1.000000000\n"));
+        Assert.assertTrue(text.contains("rsk_op_seconds_sum{op=\"get\"} 10.000000000\n"));
+        Assert.assertTrue(text.contains("rsk_op_seconds_count{op=\"get\"} 10\n"));
+    }
+}
@@ -26,8 +26,11 @@ import co.rsk.config.TestSystemProperties;
 import co.rsk.core.Coin;
 import co.rsk.core.DifficultyCalculator;
 import co.rsk.core.bc.BlockChainImpl;
+import co.rsk.core.bc.BlockExecutor;
 import co.rsk.crypto.Keccak256;
 import co.rsk.remasc.RemascTransaction;
+import co.rsk.test.builders.AccountBuilder;
+import co.rsk.test.builders.TransactionBuilder;
 import co.rsk.validators.BlockUnclesValidationRule;
 import co.rsk.validators.BlockValidationRule;
 import co.rsk.validators.ProofOfWorkRule;
@@ -132,6 +135,70 @@ public class MinerServerTest {
         assertThat(remascTransaction, instanceOf(RemascTransaction.class));
     }
 
+    @Test
+    public void buildBlockToMineExecutesOnlyNewTransactionsOnTemplate() {
+        Account sender = new AccountBuilder(blockchain).name("sender").balance(Coin.valueOf(10000000)).build();
+        Account receiver = new AccountBuilder().name("receiver").build();
+        Transaction tx1 = new TransactionBuilder().sender(sender).receiver(receiver).value(BigInteger.TEN).gasPrice(BigInteger.valueOf(100)).nonce(0).build();
+        Transaction tx2 = new TransactionBuilder().sender(sender).receiver(receiver).value(BigInteger.TEN).gasPrice(BigInteger.valueOf(100)).nonce(1).build();
+
+        List<Transaction> txs = new ArrayList<>();
+        TransactionPool localTransactionPool = Mockito.mock(TransactionPool.class);
+        Mockito.when(localTransactionPool.getPendingTransactions()).thenReturn(txs);
+
+        BlockToMineBuilder builder = getBuilder(localTransactionPool);
+        Block parent = blockchain.getBestBlock();
+
+        txs.add(tx1);
+        Block block1 = builder.build(parent, new byte[0]);
+
+        txs.add(tx2);
+        Block block2 = builder.build(parent, new byte[0]);
+
+        assertEquals(2, block1.getTransactionsList().size());
+        assertEquals(3, block2.getTransactionsList().size());
+        assertEquals(Arrays.asList(tx1, tx2), block2.getTransactionsList().subList(0, 2));
+        assertThat(block2.getTransactionsList().get(2), instanceOf(RemascTransaction.class));
+        assertEquals(block1.getTimestamp(), block2.getTimestamp());
+
+        BlockTemplateMetrics metrics = builder.getMetrics();
+        assertEquals(1, metrics.getFullBuilds().getCount());
+        assertEquals(1, metrics.getIncrementalBuilds().getCount());
+        assertEquals(1, metrics.getAppendedTransactions());
+
+        BlockExecutor executor = new BlockExecutor(config, repository, null, blockStore, null);
+        assertTrue(executor.executeAndValidate(block2, parent));
+    }
+
+    @Test
+    public void buildBlockToMineRebuildsTemplateOnNewParentOrTime() {
+        Account sender = new AccountBuilder(blockchain).name("sender").balance(Coin.valueOf(10000000)).build();
+        Account receiver = new AccountBuilder().name("receiver").build();
+        Transaction tx1 = new TransactionBuilder().sender(sender).receiver(receiver).value(BigInteger.TEN).gasPrice(BigInteger.valueOf(100)).nonce(0).build();
+        Transaction tx2 = new TransactionBuilder().sender(sender).receiver(receiver).value(BigInteger.TEN).gasPrice(BigInteger.valueOf(100)).nonce(1).build();
+
+        List<Transaction> txs = new ArrayList<>(Arrays.asList(tx1, tx2));
+        TransactionPool localTransactionPool = Mockito.mock(TransactionPool.class);
+        Mockito.when(localTransactionPool.getPendingTransactions()).thenReturn(txs);
+
+        BlockToMineBuilder builder = getBuilder(localTransactionPool);
+        Block parent = blockchain.getBestBlock();
+
+        builder.build(parent, new byte[0]);
+        builder.increaseTime(100);
+        Block block = builder.build(parent, new byte[0]);
+
+        assertEquals(3, block.getTransactionsList().size());
+        assertEquals(2, builder.getMetrics().getFullBuilds().getCount());
+
+        // the transactions are already in the new parent
+        Block child = builder.build(block, new byte[0]);
+
+        assertEquals(1, child.getTransactionsList().size());
+        assertEquals(3, builder.getMetrics().getFullBuilds().getCount());
+        assertEquals(0, builder.getMetrics().getIncrementalBuilds().getCount());
+    }
+
     @Test
     public void submitBitcoinBlockTwoTags() {
         EthereumImpl ethereumImpl = Mockito.mock(EthereumImpl.class);
@@ -723,6 +790,23 @@ public class MinerServerTest {
         );
     }
 
+    private BlockToMineBuilder getBuilder(TransactionPool transactionPool) {
+        BlockValidationRule validationRule = Mockito.mock(BlockValidationRule.class);
+        Mockito.when(validationRule.isValid(Mockito.any())).thenReturn(true);
+
+        return new BlockToMineBuilder(
+                ConfigUtils.getDefaultMiningConfig(),
+                repository,
+                blockStore,
+                transactionPool,
+                DIFFICULTY_CALCULATOR,
+                new GasLimitCalculator(config),
+                validationRule,
+                config,
+                null
+        );
+    }
+
     private BlockToMineBuilder getBuilderWithMocks() {
         return new BlockToMineBuilder(
                 ConfigUtils.getDefaultMiningConfig(),
@@ -186,6 +186,54 @@ public class NodeMessageHandlerTest {
         Assert.assertSame(block, sbp.getBlocks().get(0));
     }
 
+    @Test
+    public void postRequestMessagesBeyondLaneCapacity() throws InterruptedException {
+        SimpleBlockProcessor sbp = new SimpleBlockProcessor();
+        NodeMessageHandler processor = new NodeMessageHandler(config, sbp, null, null, null, null,
+                new ProofOfWorkRule(config).setFallbackMiningEnabled(false));
+        MessageChannel sender = new SimpleMessageChannel();
+        byte[] hash = HashUtil.randomHash();
+
+        for (int k = 0; k < NodeMessageHandler.REQUEST_LANE_CAPACITY + 10; k++) {
+            processor.postMessage(sender, new BlockRequestMessage(k, hash));
+        }
+
+        MessageQueueMetrics.TypeMetrics metrics = processor.getMessageQueueMetrics().getMetrics(MessageType.BLOCK_REQUEST_MESSAGE);
+
+        Assert.assertEquals(NodeMessageHandler.REQUEST_LANE_CAPACITY, processor.getMessageQueueSize());
+        Assert.assertEquals(NodeMessageHandler.REQUEST_LANE_CAPACITY, metrics.getDepth());
+        Assert.assertEquals(NodeMessageHandler.REQUEST_LANE_CAPACITY, metrics.getQueued());
+        Assert.assertEquals(10, metrics.getDropped());
+        Assert.assertEquals(0, metrics.getProcessed());
+    }
+
+    @Test
+    public void processPostedMessagesInTheirLanes() throws InterruptedException {
+        SimpleBlockProcessor sbp = new SimpleBlockProcessor();
+        NodeMessageHandler processor = new NodeMessageHandler(config, sbp, null, null, null, null,
+                new ProofOfWorkRule(config).setFallbackMiningEnabled(false));
+        Block block = BlockChainBuilder.ofSize(1, true).getBestBlock();
+
+        processor.start();
+        processor.postMessage(new SimpleMessageChannel(), new BlockRequestMessage(1, block.getHash().getBytes()));
+        processor.postMessage(new SimpleMessageChannel(), new BlockMessage(block));
+
+        Thread.sleep(1000);
+
+        processor.stop();
+
+        Assert.assertEquals(1, sbp.getBlocks().size());
+        Assert.assertEquals(1, sbp.getRequestId());
+        Assert.assertEquals(0, processor.getMessageQueueSize());
+
+        MessageQueueMetrics metrics = processor.getMessageQueueMetrics();
+
+        Assert.assertEquals(1, metrics.getMetrics(MessageType.BLOCK_REQUEST_MESSAGE).getProcessed());
+        Assert.assertEquals(0, metrics.getMetrics(MessageType.BLOCK_REQUEST_MESSAGE).getDepth());
+        Assert.assertEquals(1, metrics.getMetrics(MessageType.BLOCK_MESSAGE).getProcessed());
+        Assert.assertEquals(0, metrics.getMetrics(MessageType.BLOCK_MESSAGE).getDepth());
+    }
+
     // TODO: Difficulty in RegTest is so small that this test will sometimes pass and other times fail
     // This should be executed in a special mode where difficulty is high.
     @Ignore
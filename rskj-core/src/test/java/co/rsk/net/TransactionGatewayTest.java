@@ -24,13 +24,12 @@ import org.ethereum.listener.CompositeEthereumListener;
 import org.ethereum.listener.EthereumListener;
 import org.ethereum.net.server.ChannelManager;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 import static org.mockito.Mockito.*;
 
@@ -97,6 +96,37 @@ public class TransactionGatewayTest {
         verify(transactionPool, times(1)).addTransactions(txs);
     }
 
+    @Test
+    public void dropsTransactionsAlreadyReceived() {
+        List<Transaction> txs = Collections.singletonList(tx);
+        NodeID otherNode = mock(NodeID.class);
+        when(transactionPool.addTransactions(txs)).thenReturn(txs);
+
+        gateway.receiveTransactionsFrom(txs, node);
+        List<Transaction> accepted = gateway.receiveTransactionsFrom(txs, otherNode);
+
+        Assert.assertTrue(accepted.isEmpty());
+        verify(transactionPool, times(1)).addTransactions(txs);
+
+        listener.onPendingTransactionsReceived(txs);
+
+        verify(channelManager, times(1)).broadcastTransaction(tx, new HashSet<>(Arrays.asList(node, otherNode)));
+    }
+
+    @Test
+    public void addsRejectedTransactionWhenReceivedAgain() {
+        List<Transaction> txs = Collections.singletonList(tx);
+        NodeID otherNode = mock(NodeID.class);
+        // rejected first, as its sender is not funded yet
+        when(transactionPool.addTransactions(txs)).thenReturn(Collections.emptyList(), txs);
+
+        Assert.assertTrue(gateway.receiveTransactionsFrom(txs, node).isEmpty());
+        Assert.assertEquals(txs, gateway.receiveTransactionsFrom(txs, otherNode));
+        Assert.assertTrue(gateway.receiveTransactionsFrom(txs, node).isEmpty());
+
+        verify(transactionPool, times(2)).addTransactions(txs);
+    }
+
     @Test
     public void relayingTransactionSkipsSenderNode() {
         List<Transaction> txs = Collections.singletonList(tx);
@@ -15,7 +15,7 @@ public class DownloadingHeadersSyncStateTest {
         SyncConfiguration syncConfiguration = SyncConfiguration.DEFAULT;
         SimpleSyncEventsHandler syncEventsHandler = new SimpleSyncEventsHandler();
         Map<NodeID, List<BlockIdentifier>> skeletons = Collections.singletonMap(null, null);
-        SyncState syncState = new DownloadingHeadersSyncState(syncConfiguration, syncEventsHandler, new SimpleSyncInformation(), skeletons, 0);
+        SyncState syncState = new DownloadingHeadersSyncState(syncConfiguration, syncEventsHandler, new SimpleSyncInformation(), SyncPipeline.direct(), skeletons, 0);
 
         for (int i = 0; i < 10; i++) {
             syncState.newPeerStatus();
@@ -27,7 +27,7 @@ public class DownloadingHeadersSyncStateTest {
     public void itTimeoutsWhenWaitingForRequest() {
         SyncConfiguration syncConfiguration = SyncConfiguration.DEFAULT;
         SimpleSyncEventsHandler syncEventsHandler = new SimpleSyncEventsHandler();
-        SyncState syncState = new DownloadingHeadersSyncState(syncConfiguration, syncEventsHandler, new SimpleSyncInformation(), Collections.emptyMap(), 0);
+        SyncState syncState = new DownloadingHeadersSyncState(syncConfiguration, syncEventsHandler, new SimpleSyncInformation(), SyncPipeline.direct(), Collections.emptyMap(), 0);
 
         syncState.newPeerStatus();
         Assert.assertFalse(syncEventsHandler.stopSyncingWasCalled());
@@ -43,7 +43,7 @@ public class DownloadingHeadersSyncStateTest {
     public void itDoesntTimeoutWhenSendingMessages() {
         SyncConfiguration syncConfiguration = SyncConfiguration.DEFAULT;
         SimpleSyncEventsHandler syncEventsHandler = new SimpleSyncEventsHandler();
-        DownloadingHeadersSyncState syncState = new DownloadingHeadersSyncState(syncConfiguration, syncEventsHandler, new SimpleSyncInformation(), Collections.emptyMap(), 0);
+        DownloadingHeadersSyncState syncState = new DownloadingHeadersSyncState(syncConfiguration, syncEventsHandler, new SimpleSyncInformation(), SyncPipeline.direct(), Collections.emptyMap(), 0);
 
         syncState.newPeerStatus();
         Assert.assertFalse(syncEventsHandler.stopSyncingWasCalled());
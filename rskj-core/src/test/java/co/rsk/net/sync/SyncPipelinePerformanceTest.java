@@ -0,0 +1,158 @@
+package co.rsk.net.sync;
+
+import co.rsk.blocks.FileBlockPlayer;
+import co.rsk.blocks.FileBlockRecorder;
+import co.rsk.config.TestSystemProperties;
+import co.rsk.core.DifficultyCalculator;
+import co.rsk.net.*;
+import co.rsk.net.messages.Message;
+import co.rsk.net.simples.SimpleNode;
+import co.rsk.scoring.PeerScoringManager;
+import co.rsk.test.builders.BlockChainBuilder;
+import co.rsk.validators.DummyBlockValidationRule;
+import co.rsk.validators.ProofOfWorkRule;
+import org.ethereum.core.Block;
+import org.ethereum.core.Blockchain;
+import org.ethereum.rpc.Simples.SimpleChannelManager;
+import org.ethereum.util.RskMockFactory;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Replays a recorded chain (FileBlockRecorder output) through a local stand-in peer,
+ * and measures the time a new node takes to sync it, validating on the syncing thread
+ * and in the sync pipeline.
+ * To execute as a standalone application, run main, optionally with the recorded chain file.
+ * The recorded chain must start at the test genesis block.
+ */
+public class SyncPipelinePerformanceTest {
+    private static final TestSystemProperties config = new TestSystemProperties();
+    private static final int NBLOCKS = 1000;
+    private static final int NTHREADS = 4;
+
+    public static void main(String[] args) throws Exception {
+        String filename = args.length > 0 ? args[0] : null;
+        new SyncPipelinePerformanceTest().replayRecordedChain(filename);
+    }
+
+    @Ignore
+    @Test
+    public void replayRecordedChain() throws Exception {
+        replayRecordedChain(null);
+    }
+
+    private void replayRecordedChain(String filename) throws Exception {
+        if (filename == null) {
+            File file = File.createTempFile("blocks", ".txt");
+            file.deleteOnExit();
+            filename = file.getAbsolutePath();
+            recordChain(filename, NBLOCKS);
+        }
+
+        Blockchain peerBlockchain = replayChain(filename);
+        long bestNumber = peerBlockchain.getBestBlock().getNumber();
+
+        System.out.println(String.format("Chain with %d blocks", bestNumber));
+
+        for (int k = 0; k < 3; k++) {
+            syncFrom(peerBlockchain, "direct", new SyncConfiguration(1, 1, 30, 10, 20, 192, 0, 256));
+            syncFrom(peerBlockchain, "pipeline", new SyncConfiguration(1, 1, 30, 10, 20, 192, NTHREADS, 256));
+        }
+    }
+
+    private static void recordChain(String filename, int size) throws Exception {
+        Blockchain blockchain = BlockChainBuilder.ofSize(0, true, true);
+        BlockChainBuilder.extend(blockchain, size, true, true);
+
+        try (FileBlockRecorder recorder = new FileBlockRecorder(filename)) {
+            for (long k = 1; k <= blockchain.getBestBlock().getNumber(); k++) {
+                recorder.writeBlock(blockchain.getBlockByNumber(k));
+            }
+        }
+    }
+
+    private static Blockchain replayChain(String filename) throws Exception {
+        Blockchain blockchain = BlockChainBuilder.ofSize(0, true, true);
+
+        try (FileBlockPlayer player = new FileBlockPlayer(config, filename)) {
+            for (Block block = player.readBlock(); block != null; block = player.readBlock()) {
+                blockchain.tryToConnect(block);
+            }
+        }
+
+        return blockchain;
+    }
+
+    private static void syncFrom(Blockchain peerBlockchain, String name, SyncConfiguration syncConfiguration) {
+        Deque<Runnable> messages = new ArrayDeque<>();
+
+        QueuedNode peer = createNode(peerBlockchain, SyncConfiguration.DEFAULT, messages);
+        QueuedNode node = createNode(BlockChainBuilder.ofSize(0, true, true), syncConfiguration, messages);
+
+        long start = System.nanoTime();
+
+        peer.sendFullStatusTo(node);
+
+        while (node.getSyncProcessor().getSyncState().isSyncing() || !messages.isEmpty()) {
+            while (!messages.isEmpty()) {
+                messages.poll().run();
+            }
+
+            node.getSyncProcessor().onTimePassed(Duration.ofMillis(1));
+        }
+
+        long elapsed = System.nanoTime() - start;
+
+        Assert.assertEquals(peerBlockchain.getBestBlock().getHash(), node.getBestBlock().getHash());
+
+        System.out.println(String.format("%-8s %d blocks synced in %d ms", name,
+                peerBlockchain.getBestBlock().getNumber(), elapsed / 1000000));
+    }
+
+    private static QueuedNode createNode(Blockchain blockchain, SyncConfiguration syncConfiguration, Deque<Runnable> messages) {
+        final BlockStore store = new BlockStore();
+
+        BlockNodeInformation nodeInformation = new BlockNodeInformation();
+        BlockSyncService blockSyncService = new BlockSyncService(config, store, blockchain, nodeInformation, syncConfiguration);
+        NodeBlockProcessor processor = new NodeBlockProcessor(store, blockchain, nodeInformation, blockSyncService, syncConfiguration);
+        PeerScoringManager peerScoringManager = RskMockFactory.getPeerScoringManager();
+        SimpleChannelManager channelManager = new SimpleChannelManager();
+        ProofOfWorkRule headerValidationRule = new ProofOfWorkRule(config).setFallbackMiningEnabled(false);
+        SyncProcessor syncProcessor = new SyncProcessor(config, blockchain, blockSyncService, peerScoringManager, channelManager, syncConfiguration, headerValidationRule, new DifficultyCalculator(config));
+        NodeMessageHandler handler = new NodeMessageHandler(config, processor, syncProcessor, channelManager, null, peerScoringManager, new DummyBlockValidationRule());
+
+        return new QueuedNode(handler, syncProcessor, channelManager, messages);
+    }
+
+    /**
+     * A node that queues the messages it receives, so the nodes talk without recursion
+     */
+    private static class QueuedNode extends SimpleNode {
+        private final SyncProcessor syncProcessor;
+        private final SimpleChannelManager channelManager;
+        private final Deque<Runnable> messages;
+
+        QueuedNode(MessageHandler handler, SyncProcessor syncProcessor, SimpleChannelManager channelManager, Deque<Runnable> messages) {
+            super(handler);
+            this.syncProcessor = syncProcessor;
+            this.channelManager = channelManager;
+            this.messages = messages;
+        }
+
+        @Override
+        public void receiveMessageFrom(SimpleNode peer, Message message) {
+            MessageChannel channel = channelManager.getMessageChannel(this, peer);
+            messages.add(() -> this.getHandler().processMessage(channel, message));
+        }
+
+        SyncProcessor getSyncProcessor() {
+            return syncProcessor;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package co.rsk.net.sync;
+
+import co.rsk.blockchain.utils.BlockGenerator;
+import org.ethereum.core.Block;
+import org.ethereum.core.BlockHeader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SyncPipelineTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void findNoInvalidHeader() {
+        List<BlockHeader> chunk = createChunk(100);
+
+        Assert.assertEquals(-1, SyncPipeline.direct().findInvalidHeader(chunk, validUntil(Long.MAX_VALUE)));
+        Assert.assertEquals(-1, new SyncPipeline(executor, 16).findInvalidHeader(chunk, validUntil(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void findInvalidHeaderWithLowestNumber() {
+        List<BlockHeader> chunk = createChunk(100);
+        SyncInformation syncInformation = validUntil(40);
+
+        // block 41 is the first invalid one
+        int expected = chunk.size() - 41;
+
+        Assert.assertEquals(expected, SyncPipeline.direct().findInvalidHeader(chunk, syncInformation));
+        Assert.assertEquals(expected, new SyncPipeline(executor, 16).findInvalidHeader(chunk, syncInformation));
+    }
+
+    @Test
+    public void lastHeaderIsNotValidatedAgainstParent() {
+        List<BlockHeader> chunk = createChunk(1);
+
+        Assert.assertEquals(-1, new SyncPipeline(executor, 16).findInvalidHeader(chunk, validUntil(0)));
+    }
+
+    @Test
+    public void validateBody() {
+        Block block = new BlockGenerator().createBlock(1, 2);
+        SyncPipeline syncPipeline = new SyncPipeline(executor, 16);
+
+        Assert.assertTrue(syncPipeline.validateBody(block).join());
+    }
+
+    @Test
+    public void validateInvalidBody() {
+        BlockGenerator blockGenerator = new BlockGenerator();
+        Block block = blockGenerator.createBlock(1, 2);
+        Block other = blockGenerator.createBlock(1, 3);
+        Block invalid = Block.fromValidData(block.getHeader(), other.getTransactionsList(), Collections.emptyList());
+        SyncPipeline syncPipeline = new SyncPipeline(executor, 16);
+
+        Assert.assertFalse(syncPipeline.validateBody(invalid).join());
+        Assert.assertFalse(SyncPipeline.direct().validateBody(invalid).join());
+    }
+
+    private static List<BlockHeader> createChunk(int size) {
+        BlockGenerator blockGenerator = new BlockGenerator();
+        List<Block> blocks = blockGenerator.getBlockChain(blockGenerator.getGenesisBlock(), size);
+        List<BlockHeader> chunk = new ArrayList<>();
+
+        // chunks are ordered by block number desc
+        for (int k = blocks.size() - 1; k >= 0; k--) {
+            chunk.add(blocks.get(k).getHeader());
+        }
+
+        return chunk;
+    }
+
+    private static SyncInformation validUntil(long number) {
+        SyncInformation syncInformation = mock(SyncInformation.class);
+
+        when(syncInformation.blockHeaderIsValid(any(), any()))
+                .thenAnswer(invocation -> invocation.getArgumentAt(0, BlockHeader.class).getNumber() <= number);
+
+        return syncInformation;
+    }
+}
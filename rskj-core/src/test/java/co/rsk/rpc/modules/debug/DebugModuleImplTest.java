@@ -17,7 +17,12 @@
  */
 package co.rsk.rpc.modules.debug;
 
+import co.rsk.metrics.MetricRegistry;
 import co.rsk.net.MessageHandler;
+import co.rsk.net.MessageQueueMetrics;
+import co.rsk.net.messages.MessageType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.ethereum.rpc.TypeConverter;
 import org.ethereum.rpc.Web3Mocks;
 import org.junit.Assert;
@@ -62,5 +67,38 @@ public class DebugModuleImplTest {
         }
     }
 
+    @Test
+    public void debug_messageQueueMetrics() throws IOException {
+        MessageQueueMetrics metrics = new MessageQueueMetrics();
+        metrics.messageQueued(MessageType.BLOCK_MESSAGE);
+        metrics.messageQueued(MessageType.BLOCK_MESSAGE);
+        metrics.messageProcessed(MessageType.BLOCK_MESSAGE, 3000, 5000);
+        metrics.messageQueued(MessageType.TRANSACTIONS);
+        metrics.messageDropped(MessageType.TRANSACTIONS);
+        when(messageHandler.getMessageQueueMetrics()).thenReturn(metrics);
+
+        JsonNode result = new ObjectMapper().readTree(debugModule.messageQueueMetrics());
+
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(1, result.get("BLOCK_MESSAGE").get("depth").asLong());
+        Assert.assertEquals(2, result.get("BLOCK_MESSAGE").get("queued").asLong());
+        Assert.assertEquals(1, result.get("BLOCK_MESSAGE").get("processed").asLong());
+        Assert.assertEquals(3, result.get("BLOCK_MESSAGE").get("maxWaitMicros").asLong());
+        Assert.assertEquals(5, result.get("BLOCK_MESSAGE").get("averageProcessMicros").asLong());
+        Assert.assertEquals(0, result.get("TRANSACTIONS").get("queued").asLong());
+        Assert.assertEquals(1, result.get("TRANSACTIONS").get("dropped").asLong());
+    }
 
+    @Test
+    public void debug_metrics() throws IOException {
+        MetricRegistry registry = MetricRegistry.getDefault();
+        registry.counter("debug_test_total", "Test counter").add(3);
+        registry.histogram("debug_test_seconds", "Test histogram", "phase", "first").record(2000);
+
+        JsonNode result = new ObjectMapper().readTree(debugModule.metrics());
+
+        Assert.assertTrue(result.get("debug_test_total").asLong() >= 3);
+        Assert.assertTrue(result.get("debug_test_seconds").get("first").get("count").asLong() >= 1);
+        Assert.assertEquals(2, result.get("debug_test_seconds").get("first").get("maxMicros").asLong());
+    }
 }
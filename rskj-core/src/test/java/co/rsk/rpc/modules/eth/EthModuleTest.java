@@ -18,15 +18,29 @@
 
 package co.rsk.rpc.modules.eth;
 
+import co.rsk.config.TestSystemProperties;
+import co.rsk.core.Coin;
 import co.rsk.core.ReversibleTransactionExecutor;
+import co.rsk.core.RskAddress;
+import co.rsk.db.RepositoryImpl;
 import co.rsk.rpc.ExecutionBlockRetriever;
+import co.rsk.trie.TrieStoreImpl;
 import org.ethereum.core.Block;
+import org.ethereum.core.Blockchain;
+import org.ethereum.core.Repository;
+import org.ethereum.crypto.Keccak256Helper;
+import org.ethereum.datasource.HashMapDB;
 import org.ethereum.rpc.TypeConverter;
 import org.ethereum.rpc.Web3;
+import org.ethereum.vm.DataWord;
 import org.ethereum.vm.program.ProgramResult;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
@@ -34,6 +48,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 public class EthModuleTest {
+    private final TestSystemProperties config = new TestSystemProperties();
+
     @Test
     public void callSmokeTest() {
         Web3.CallArguments args = new Web3.CallArguments();
@@ -63,4 +79,95 @@ public class EthModuleTest {
         String result = eth.call(args, "latest");
         assertThat(result, is(TypeConverter.toJsonHex(hreturn)));
     }
+
+    @Test
+    public void getAccountAndStorageRanges() {
+        Repository repository = new RepositoryImpl(config, new TrieStoreImpl(new HashMapDB()));
+        Repository track = repository.startTracking();
+        RskAddress contract = new RskAddress("0000000000000000000000000000000000000001");
+        track.addBalance(contract, Coin.valueOf(10));
+
+        for (int k = 1; k <= 5; k++) {
+            track.addStorageRow(contract, new DataWord(k), new DataWord(k * 100));
+            track.addBalance(new RskAddress(String.format("%040x", k + 1)), Coin.valueOf(k));
+        }
+
+        track.commit();
+
+        Block executionBlock = mock(Block.class);
+        when(executionBlock.getStateRoot()).thenReturn(repository.getRoot());
+        ExecutionBlockRetriever retriever = mock(ExecutionBlockRetriever.class);
+        when(retriever.getExecutionBlock("latest")).thenReturn(executionBlock);
+        Blockchain blockchain = mock(Blockchain.class);
+        when(blockchain.getRepository()).thenReturn(repository);
+
+        EthModule eth = new EthModule(config, blockchain, null, retriever, null, null);
+
+        Map<String, Object> firstPage = eth.getAccountRange(null, 4, "latest");
+        Map<String, Object> firstAccounts = (Map<String, Object>) firstPage.get("accounts");
+        assertThat(firstAccounts.size(), is(4));
+
+        Map<String, Object> secondPage = eth.getAccountRange((String) firstPage.get("nextKey"), 4, "latest");
+        Map<String, Object> secondAccounts = (Map<String, Object>) secondPage.get("accounts");
+        assertThat(secondAccounts.size(), is(2));
+        assertThat(secondPage.get("nextKey"), is(nullValue()));
+
+        String contractHash = TypeConverter.toJsonHex(Keccak256Helper.keccak256(contract.getBytes()));
+        Map<String, Object> contractAccount = firstAccounts.containsKey(contractHash) ?
+                (Map<String, Object>) firstAccounts.get(contractHash) : (Map<String, Object>) secondAccounts.get(contractHash);
+        assertThat(contractAccount.get("balance"), is("0xa"));
+
+        Map<String, Object> storagePage = eth.getStorageRange(contract.toString(), null, 10, "latest");
+        Map<String, Object> storage = (Map<String, Object>) storagePage.get("storage");
+        assertThat(storage.size(), is(5));
+        assertThat(storagePage.get("nextKey"), is(nullValue()));
+
+        String cellHash = TypeConverter.toJsonHex(Keccak256Helper.keccak256(new DataWord(3).getData()));
+        assertThat(storage.get(cellHash), is(TypeConverter.toJsonHex(new DataWord(300).getNoLeadZeroesData())));
+
+        Map<String, Object> lastCells = eth.getStorageRange(contract.toString(), cellHash, 10, "latest");
+        assertThat(((Map<String, Object>) lastCells.get("storage")).containsKey(cellHash), is(true));
+    }
+
+    @Test
+    public void getStorageRangeWithBytesLongerThanWord() {
+        Repository repository = new RepositoryImpl(config, new TrieStoreImpl(new HashMapDB()));
+        Repository track = repository.startTracking();
+        RskAddress contract = new RskAddress("0000000000000000000000000000000000000001");
+        byte[] value = new byte[40];
+        Arrays.fill(value, (byte) 1);
+        track.addBalance(contract, Coin.valueOf(10));
+        track.addStorageBytes(contract, new DataWord(1), value);
+        track.commit();
+
+        EthModule eth = ethModuleAt(repository);
+
+        Map<String, Object> storagePage = eth.getStorageRange(contract.toString(), null, 10, "latest");
+        Map<String, Object> storage = (Map<String, Object>) storagePage.get("storage");
+        String cellHash = TypeConverter.toJsonHex(Keccak256Helper.keccak256(new DataWord(1).getData()));
+        assertThat(storage.size(), is(1));
+        assertThat(storage.get(cellHash), is(TypeConverter.toJsonHex(value)));
+    }
+
+    @Test
+    public void getStorageRangeOfUnknownAddress() {
+        Repository repository = new RepositoryImpl(config, new TrieStoreImpl(new HashMapDB()));
+        EthModule eth = ethModuleAt(repository);
+
+        Map<String, Object> storagePage = eth.getStorageRange("0000000000000000000000000000000000000002", null, 10, "latest");
+
+        assertThat(((Map<String, Object>) storagePage.get("storage")).isEmpty(), is(true));
+        assertThat(storagePage.get("nextKey"), is(nullValue()));
+    }
+
+    private EthModule ethModuleAt(Repository repository) {
+        Block executionBlock = mock(Block.class);
+        when(executionBlock.getStateRoot()).thenReturn(repository.getRoot());
+        ExecutionBlockRetriever retriever = mock(ExecutionBlockRetriever.class);
+        when(retriever.getExecutionBlock("latest")).thenReturn(executionBlock);
+        Blockchain blockchain = mock(Blockchain.class);
+        when(blockchain.getRepository()).thenReturn(repository);
+
+        return new EthModule(config, blockchain, null, retriever, null, null);
+    }
 }
@@ -1,5 +1,6 @@
 package co.rsk.rpc.netty;
 
+import co.rsk.metrics.MetricRegistry;
 import co.rsk.rpc.CorsConfiguration;
 import co.rsk.rpc.ModuleDescription;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -78,6 +79,28 @@ public class Web3HttpServerTest {
         smokeTest(APPLICATION_JSON, google.getHostAddress(), google, new ArrayList<>());
     }
 
+    @Test
+    public void scrapeMetrics() throws Exception {
+        MetricRegistry.getDefault().counter("http_test_total", "Test counter").inc();
+        CorsConfiguration mockCorsConfiguration = Mockito.mock(CorsConfiguration.class);
+        List<ModuleDescription> filteredModules = Collections.singletonList(new ModuleDescription("web3", "1.0", true, Collections.emptyList(), Collections.emptyList()));
+        JsonRpcWeb3FilterHandler filterHandler = new JsonRpcWeb3FilterHandler("*", InetAddress.getLoopbackAddress(), new ArrayList<>());
+        JsonRpcWeb3ServerHandler serverHandler = new JsonRpcWeb3ServerHandler(Mockito.mock(Web3.class), filteredModules);
+        Web3HttpServer server = new Web3HttpServer(InetAddress.getLoopbackAddress(), 9999, 0, Boolean.TRUE, mockCorsConfiguration, filterHandler, serverHandler);
+        server.start();
+        try {
+            Request request = new Request.Builder().url(new URL("http", "localhost", 9999, "/metrics"))
+                    .addHeader("Host", "127.0.0.1")
+                    .get().build();
+            Response response = getUnsafeOkHttpClient().newCall(request).execute();
+
+            assertThat(response.code(), is(HttpResponseStatus.OK.code()));
+            assertThat(response.body().string().contains("rsk_http_test_total 1"), is(true));
+        } finally {
+            server.stop();
+        }
+    }
+
 
     private void smokeTest(String contentType, String host) throws Exception {
         smokeTest(contentType, host, InetAddress.getLoopbackAddress(), new ArrayList<>());
@@ -0,0 +1,154 @@
+package co.rsk.scoring;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class InetAddressBlockTrieTest {
+    private static Random random = new Random();
+
+    @Test
+    public void emptyTrieDoesNotContainAddresses() throws UnknownHostException {
+        InetAddressBlockTrie trie = new InetAddressBlockTrie();
+
+        Assert.assertTrue(trie.isEmpty());
+        Assert.assertFalse(trie.contains(generateIPAddressV4()));
+        Assert.assertFalse(trie.contains(generateIPAddressV6()));
+    }
+
+    @Test
+    public void addIPV4AddressBlock() throws UnknownHostException {
+        InetAddressBlockTrie trie = new InetAddressBlockTrie();
+        InetAddress address = generateIPAddressV4();
+        InetAddress address2 = alterByte(address, 3);
+        InetAddress address3 = alterByte(address, 2);
+
+        trie.add(new InetAddressBlock(address, 8));
+
+        Assert.assertFalse(trie.isEmpty());
+        Assert.assertTrue(trie.contains(address));
+        Assert.assertTrue(trie.contains(address2));
+        Assert.assertFalse(trie.contains(address3));
+    }
+
+    @Test
+    public void addIPV6AddressBlock() throws UnknownHostException {
+        InetAddressBlockTrie trie = new InetAddressBlockTrie();
+        InetAddress address = generateIPAddressV6();
+        InetAddress address2 = alterByte(address, 15);
+        InetAddress address3 = alterByte(address, 13);
+
+        trie.add(new InetAddressBlock(address, 16));
+
+        Assert.assertTrue(trie.contains(address));
+        Assert.assertTrue(trie.contains(address2));
+        Assert.assertFalse(trie.contains(address3));
+    }
+
+    @Test
+    public void IPV4BlockDoesNotContainIPV6Address() throws UnknownHostException {
+        InetAddressBlockTrie trie = new InetAddressBlockTrie();
+
+        trie.add(new InetAddressBlock(generateIPAddressV4(), 32));
+
+        Assert.assertTrue(trie.contains(generateIPAddressV4()));
+        Assert.assertFalse(trie.contains(generateIPAddressV6()));
+    }
+
+    @Test
+    public void addAndRemoveAddressBlock() throws UnknownHostException {
+        InetAddressBlockTrie trie = new InetAddressBlockTrie();
+        InetAddress address = generateIPAddressV4();
+
+        trie.add(new InetAddressBlock(address, 8));
+        trie.remove(new InetAddressBlock(address, 8));
+
+        Assert.assertTrue(trie.isEmpty());
+        Assert.assertFalse(trie.contains(address));
+    }
+
+    @Test
+    public void removeOneOfTwoBlocksWithTheSamePrefix() throws UnknownHostException {
+        InetAddressBlockTrie trie = new InetAddressBlockTrie();
+        InetAddress address = generateIPAddressV4();
+        InetAddress address2 = alterByte(address, 3);
+
+        trie.add(new InetAddressBlock(address, 8));
+        trie.add(new InetAddressBlock(address2, 8));
+        trie.remove(new InetAddressBlock(address, 8));
+
+        Assert.assertTrue(trie.contains(address));
+        Assert.assertTrue(trie.contains(address2));
+    }
+
+    @Test
+    public void removeUnknownAddressBlock() throws UnknownHostException {
+        InetAddressBlockTrie trie = new InetAddressBlockTrie();
+        InetAddress address = generateIPAddressV4();
+
+        trie.add(new InetAddressBlock(address, 8));
+        trie.remove(new InetAddressBlock(alterByte(address, 2), 8));
+
+        Assert.assertTrue(trie.contains(address));
+    }
+
+    @Test
+    public void matchesLinearSearchOnRandomBlocks() throws UnknownHostException {
+        InetAddressBlockTrie trie = new InetAddressBlockTrie();
+        List<InetAddressBlock> blocks = new ArrayList<>();
+
+        for (int k = 0; k < 200; k++) {
+            InetAddressBlock block = new InetAddressBlock(generateIPAddressV4(), 8 + random.nextInt(20));
+            blocks.add(block);
+            trie.add(block);
+        }
+
+        for (int k = 0; k < 200; k++) {
+            InetAddressBlock block = new InetAddressBlock(generateIPAddressV6(), 8 + random.nextInt(100));
+            blocks.add(block);
+            trie.add(block);
+        }
+
+        for (int k = 0; k < 10000; k++) {
+            InetAddress address = k % 2 == 0 ? generateIPAddressV4() : generateIPAddressV6();
+            Assert.assertEquals(blocks.stream().anyMatch(b -> b.contains(address)), trie.contains(address));
+        }
+
+        for (InetAddressBlock block : blocks) {
+            byte[] bytes = block.getBytes();
+            bytes[bytes.length - 1] ^= 0x01;
+            InetAddress address = InetAddress.getByAddress(bytes);
+
+            Assert.assertTrue(trie.contains(address));
+        }
+    }
+
+    private static InetAddress generateIPAddressV4() throws UnknownHostException {
+        byte[] bytes = new byte[4];
+
+        random.nextBytes(bytes);
+
+        return InetAddress.getByAddress(bytes);
+    }
+
+    private static InetAddress generateIPAddressV6() throws UnknownHostException {
+        byte[] bytes = new byte[16];
+
+        random.nextBytes(bytes);
+
+        return InetAddress.getByAddress(bytes);
+    }
+
+    private static InetAddress alterByte(InetAddress address, int nbyte) throws UnknownHostException {
+        byte[] bytes = address.getAddress();
+
+        bytes[nbyte]++;
+
+        return InetAddress.getByAddress(bytes);
+    }
+}
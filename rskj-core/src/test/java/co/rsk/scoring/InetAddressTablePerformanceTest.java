@@ -0,0 +1,85 @@
+package co.rsk.scoring;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the banned address block check against a linear scan of the blocks
+ * To execute as a standalone application, run main.
+ */
+public class InetAddressTablePerformanceTest {
+    private static final int NBLOCKS = 100000;
+    private static final int NCHECKS = 1000000;
+
+    private final Random random = new Random(1);
+
+    public static void main(String[] args) throws UnknownHostException {
+        new InetAddressTablePerformanceTest().checkAddressesWithManyBannedBlocks();
+    }
+
+    @Ignore
+    @Test
+    public void checkAddressesWithManyBannedBlocks() throws UnknownHostException {
+        InetAddressTable table = new InetAddressTable();
+
+        for (int k = 0; k < NBLOCKS; k++) {
+            if (k % 4 == 0) {
+                table.addAddressBlock(new InetAddressBlock(generateAddress(16), 32 + random.nextInt(64)));
+            } else {
+                table.addAddressBlock(new InetAddressBlock(generateAddress(4), 4 + random.nextInt(12)));
+            }
+        }
+
+        InetAddress[] addresses = new InetAddress[1000];
+
+        for (int k = 0; k < addresses.length; k++) {
+            addresses[k] = generateAddress(k % 4 == 0 ? 16 : 4);
+        }
+
+        List<InetAddressBlock> blocks = table.getAddressBlockList();
+        int linearChecks = NCHECKS / 1000;
+        int found = 0;
+
+        long start = System.nanoTime();
+
+        for (int k = 0; k < linearChecks; k++) {
+            InetAddress address = addresses[k % addresses.length];
+
+            for (InetAddressBlock block : blocks) {
+                if (block.contains(address)) {
+                    found++;
+                    break;
+                }
+            }
+        }
+
+        long linearTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+
+        for (int k = 0; k < NCHECKS; k++) {
+            if (table.contains(addresses[k % addresses.length])) {
+                found++;
+            }
+        }
+
+        long trieTime = System.nanoTime() - start;
+
+        System.out.println(String.format("Banned blocks: %d found: %d", blocks.size(), found));
+        System.out.println(String.format("Linear scan: %d ns/check", linearTime / linearChecks));
+        System.out.println(String.format("Trie: %d ns/check", trieTime / NCHECKS));
+    }
+
+    private InetAddress generateAddress(int length) throws UnknownHostException {
+        byte[] bytes = new byte[length];
+
+        random.nextBytes(bytes);
+
+        return InetAddress.getByAddress(bytes);
+    }
+}
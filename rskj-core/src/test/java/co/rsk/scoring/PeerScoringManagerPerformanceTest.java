@@ -0,0 +1,109 @@
+package co.rsk.scoring;
+
+import co.rsk.net.NodeID;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulates hundreds of peers recording events and checking reputation
+ * from several network threads at the same time
+ * To execute as a standalone application, run main.
+ */
+public class PeerScoringManagerPerformanceTest {
+    private static final int NPEERS = 500;
+    private static final int NTHREADS = 16;
+    private static final int NEVENTS = 200000;
+
+    private static final EventType[] EVENTS = new EventType[] {
+            EventType.VALID_BLOCK,
+            EventType.VALID_TRANSACTION,
+            EventType.VALID_TRANSACTION,
+            EventType.VALID_TRANSACTION,
+            EventType.INVALID_TRANSACTION,
+            EventType.REPEATED_MESSAGE
+    };
+
+    public static void main(String[] args) throws Exception {
+        new PeerScoringManagerPerformanceTest().recordEventsFromManyPeers();
+    }
+
+    @Ignore
+    @Test
+    public void recordEventsFromManyPeers() throws Exception {
+        PeerScoringManager manager = new PeerScoringManager(
+                PeerScoring::new,
+                NPEERS / 2,
+                new PunishmentParameters(600000, 10, 10000000),
+                new PunishmentParameters(600000, 10, 10000000)
+        );
+
+        Random random = new Random(1);
+        NodeID[] nodeIDs = new NodeID[NPEERS];
+        InetAddress[] addresses = new InetAddress[NPEERS];
+
+        for (int k = 0; k < NPEERS; k++) {
+            byte[] bytes = new byte[32];
+            random.nextBytes(bytes);
+            nodeIDs[k] = new NodeID(bytes);
+            addresses[k] = generateAddress(random);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(NTHREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < NTHREADS; t++) {
+            int seed = t;
+            futures.add(executor.submit(() -> {
+                Random threadRandom = new Random(seed);
+                start.await();
+
+                for (int k = 0; k < NEVENTS; k++) {
+                    int npeer = threadRandom.nextInt(NPEERS);
+
+                    if (k % 4 == 0) {
+                        manager.hasGoodReputation(nodeIDs[npeer]);
+                        manager.hasGoodReputation(addresses[npeer]);
+                    } else {
+                        manager.recordEvent(nodeIDs[npeer], addresses[npeer], EVENTS[threadRandom.nextInt(EVENTS.length)]);
+                    }
+                }
+
+                return null;
+            }));
+        }
+
+        long startTime = System.nanoTime();
+        start.countDown();
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        long time = System.nanoTime() - startTime;
+        executor.shutdown();
+
+        long operations = (long) NTHREADS * NEVENTS;
+
+        System.out.println(String.format("Peers: %d threads: %d operations: %d", NPEERS, NTHREADS, operations));
+        System.out.println(String.format("Time: %d ms, %d operations/s", time / 1000000, operations * 1000000000L / time));
+    }
+
+    private static InetAddress generateAddress(Random random) throws UnknownHostException {
+        byte[] bytes = new byte[4];
+
+        random.nextBytes(bytes);
+
+        return InetAddress.getByAddress(bytes);
+    }
+}
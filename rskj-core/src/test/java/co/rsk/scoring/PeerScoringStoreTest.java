@@ -0,0 +1,106 @@
+package co.rsk.scoring;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class PeerScoringStoreTest {
+    @Test
+    public void getUnknownKey() {
+        PeerScoringStore<String> store = new PeerScoringStore<>(10);
+
+        Assert.assertNull(store.get("foo"));
+        Assert.assertTrue(store.isEmpty());
+    }
+
+    @Test
+    public void getOrCreateReturnsTheSameScoring() {
+        PeerScoringStore<String> store = new PeerScoringStore<>(10);
+
+        PeerScoring scoring = store.getOrCreate("foo", PeerScoring::new);
+
+        Assert.assertNotNull(scoring);
+        Assert.assertSame(scoring, store.getOrCreate("foo", PeerScoring::new));
+        Assert.assertSame(scoring, store.get("foo"));
+        Assert.assertEquals(1, store.size());
+        Assert.assertFalse(store.isEmpty());
+    }
+
+    @Test
+    public void evictsLeastRecentlyAccessedEntry() {
+        PeerScoringStore<String> store = new PeerScoringStore<>(3);
+
+        store.getOrCreate("a", PeerScoring::new);
+        store.getOrCreate("b", PeerScoring::new);
+        store.getOrCreate("c", PeerScoring::new);
+        store.get("a");
+        store.getOrCreate("d", PeerScoring::new);
+
+        Assert.assertEquals(3, store.size());
+        Assert.assertNotNull(store.get("a"));
+        Assert.assertNull(store.get("b"));
+        Assert.assertNotNull(store.get("c"));
+        Assert.assertNotNull(store.get("d"));
+    }
+
+    @Test
+    public void keepsMaximumSizeWithManyStripes() {
+        PeerScoringStore<Integer> store = new PeerScoringStore<>(100);
+
+        for (int k = 0; k < 1000; k++) {
+            store.getOrCreate(k, PeerScoring::new);
+        }
+
+        Assert.assertEquals(100, store.size());
+        Assert.assertEquals(100, store.getEntries().size());
+        Assert.assertNotNull(store.get(999));
+    }
+
+    @Test
+    public void getEntriesDoesNotChangeAccessOrder() {
+        PeerScoringStore<String> store = new PeerScoringStore<>(2);
+
+        store.getOrCreate("a", PeerScoring::new);
+        store.getOrCreate("b", PeerScoring::new);
+
+        List<Map.Entry<String, PeerScoring>> entries = store.getEntries();
+
+        Assert.assertEquals(2, entries.size());
+
+        store.getOrCreate("c", PeerScoring::new);
+
+        Assert.assertNull(store.get("a"));
+        Assert.assertNotNull(store.get("b"));
+        Assert.assertNotNull(store.get("c"));
+    }
+
+    @Test
+    public void keepsMaximumSizeWithConcurrentInsertions() throws Exception {
+        PeerScoringStore<Integer> store = new PeerScoringStore<>(50);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            int offset = t * 1000;
+            futures.add(executor.submit(() -> {
+                for (int k = 0; k < 1000; k++) {
+                    store.getOrCreate(offset + k, PeerScoring::new).recordEvent(EventType.VALID_BLOCK);
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        executor.shutdown();
+
+        Assert.assertEquals(50, store.size());
+    }
+}
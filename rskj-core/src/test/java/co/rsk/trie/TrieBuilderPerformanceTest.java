@@ -0,0 +1,86 @@
+package co.rsk.trie;
+
+import com.google.common.primitives.UnsignedBytes;
+import org.ethereum.crypto.Keccak256Helper;
+import org.ethereum.datasource.HashMapDB;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Loads a secure trie with one million keys, putting them one by one and saving the trie,
+ * and with the bulk builder, and measures the time of both
+ * To execute as a standalone application, run main.
+ */
+public class TrieBuilderPerformanceTest {
+    private static final int NKEYS = 1000000;
+
+    public static void main(String[] args) {
+        new TrieBuilderPerformanceTest().loadOneMillionKeys();
+    }
+
+    @Ignore
+    @Test
+    public void loadOneMillionKeys() {
+        Random random = new Random(1);
+        byte[][] keys = new byte[NKEYS][];
+        byte[][] values = new byte[NKEYS][];
+
+        for (int k = 0; k < NKEYS; k++) {
+            keys[k] = randomBytes(random, 20);
+            values[k] = randomBytes(random, 40);
+        }
+
+        // the builder takes the keys in the order of their hashes
+        Integer[] positions = new Integer[NKEYS];
+        byte[][] hashes = new byte[NKEYS][];
+
+        for (int k = 0; k < NKEYS; k++) {
+            positions[k] = k;
+            hashes[k] = Keccak256Helper.keccak256(keys[k]);
+        }
+
+        Arrays.sort(positions, (p1, p2) -> UnsignedBytes.lexicographicalComparator().compare(hashes[p1], hashes[p2]));
+
+        System.out.println(String.format("Keys: %d", NKEYS));
+
+        for (int r = 0; r < 3; r++) {
+            long start = System.nanoTime();
+
+            Trie trie = new TrieImpl(new TrieStoreImpl(new HashMapDB()), true);
+
+            for (int k = 0; k < NKEYS; k++) {
+                trie = trie.put(keys[k], values[k]);
+            }
+
+            trie.save();
+
+            long putTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+
+            TrieBuilder builder = new TrieBuilder(new TrieStoreImpl(new HashMapDB()), true);
+
+            for (Integer position : positions) {
+                builder.put(keys[position], values[position]);
+            }
+
+            Trie built = builder.build();
+
+            long buildTime = System.nanoTime() - start;
+
+            Assert.assertEquals(trie.getHash(), built.getHash());
+
+            System.out.println(String.format("Put and save: %d ms, builder: %d ms", putTime / 1000000, buildTime / 1000000));
+        }
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,186 @@
+package co.rsk.trie;
+
+import com.google.common.primitives.UnsignedBytes;
+import org.ethereum.crypto.Keccak256Helper;
+import org.ethereum.datasource.HashMapDB;
+import org.ethereum.util.RLP;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class TrieBuilderTest {
+    @Test
+    public void buildEmptyTrie() {
+        Trie trie = new TrieBuilder().build();
+
+        Assert.assertEquals(new TrieImpl().getHash(), trie.getHash());
+    }
+
+    @Test
+    public void buildTrieWithOneKey() {
+        Trie trie = new TrieBuilder().put("foo".getBytes(), "bar".getBytes()).build();
+        Trie expected = new TrieImpl().put("foo", "bar".getBytes());
+
+        Assert.assertEquals(expected.getHash(), trie.getHash());
+        Assert.assertArrayEquals("bar".getBytes(), trie.get("foo"));
+    }
+
+    @Test
+    public void buildTrieWithPrefixKeys() {
+        Trie trie = new TrieBuilder()
+                .put(new byte[] { 0x01 }, "one".getBytes())
+                .put(new byte[] { 0x01, 0x02 }, "two".getBytes())
+                .put(new byte[] { 0x01, 0x02, 0x03 }, "three".getBytes())
+                .put(new byte[] { 0x01, 0x03 }, "four".getBytes())
+                .put(new byte[] { (byte) 0x81 }, "five".getBytes())
+                .build();
+
+        Trie expected = new TrieImpl()
+                .put(new byte[] { 0x01, 0x03 }, "four".getBytes())
+                .put(new byte[] { (byte) 0x81 }, "five".getBytes())
+                .put(new byte[] { 0x01, 0x02, 0x03 }, "three".getBytes())
+                .put(new byte[] { 0x01 }, "one".getBytes())
+                .put(new byte[] { 0x01, 0x02 }, "two".getBytes());
+
+        Assert.assertEquals(expected.getHash(), trie.getHash());
+        Assert.assertEquals(expected.trieSize(), trie.trieSize());
+    }
+
+    @Test
+    public void buildTrieWithRandomKeys() {
+        Random random = new Random(1);
+        TreeMap<byte[], byte[]> values = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+
+        for (int k = 0; k < 1000; k++) {
+            values.put(randomBytes(random, 1 + random.nextInt(6)), randomBytes(random, 1 + random.nextInt(64)));
+        }
+
+        TrieBuilder builder = new TrieBuilder();
+        values.forEach(builder::put);
+
+        Trie trie = builder.build();
+
+        Assert.assertEquals(putAll(new TrieImpl(), values).getHash(), trie.getHash());
+
+        values.forEach((key, value) -> Assert.assertArrayEquals(value, trie.get(key)));
+    }
+
+    @Test
+    public void buildSecureTrieWithStore() {
+        Random random = new Random(2);
+        Comparator<byte[]> comparator = UnsignedBytes.lexicographicalComparator();
+        TreeMap<byte[], byte[]> hashedKeys = new TreeMap<>(comparator);
+        List<byte[]> values = new ArrayList<>();
+
+        for (int k = 0; k < 10000; k++) {
+            byte[] key = randomBytes(random, 20);
+            hashedKeys.put(Keccak256Helper.keccak256(key), key);
+            values.add(randomBytes(random, 1 + random.nextInt(64)));
+        }
+
+        HashMapDB map = new HashMapDB();
+        TrieStore store = new TrieStoreImpl(map);
+        TrieBuilder builder = new TrieBuilder(store, true);
+        HashMapDB expectedMap = new HashMapDB();
+        Trie expected = new TrieImpl(new TrieStoreImpl(expectedMap), true);
+
+        int n = 0;
+
+        for (byte[] key : hashedKeys.values()) {
+            byte[] value = values.get(n++);
+            builder.put(key, value);
+            expected = expected.put(key, value);
+        }
+
+        Trie trie = builder.build();
+        expected.save();
+
+        Assert.assertEquals(expected.getHash(), trie.getHash());
+        Assert.assertEquals(expectedMap.keys().size(), map.keys().size());
+
+        Trie retrieved = store.retrieve(trie.getHash().getBytes());
+
+        n = 0;
+
+        for (byte[] key : hashedKeys.values()) {
+            Assert.assertArrayEquals(values.get(n++), retrieved.get(key));
+        }
+    }
+
+    @Test
+    public void putSameKeyReplacesValue() {
+        Trie trie = new TrieBuilder()
+                .put("bar".getBytes(), "first".getBytes())
+                .put("foo".getBytes(), "first".getBytes())
+                .put("foo".getBytes(), "second".getBytes())
+                .build();
+
+        Assert.assertArrayEquals("second".getBytes(), trie.get("foo"));
+        Assert.assertEquals(new TrieImpl().put("bar", "first".getBytes()).put("foo", "second".getBytes()).getHash(), trie.getHash());
+    }
+
+    @Test
+    public void skipNullAndEmptyValues() {
+        Trie trie = new TrieBuilder()
+                .put("bar".getBytes(), null)
+                .put("foo".getBytes(), "first".getBytes())
+                .put("zoo".getBytes(), new byte[0])
+                .build();
+
+        Assert.assertEquals(new TrieImpl().put("foo", "first".getBytes()).getHash(), trie.getHash());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void putKeyLessThanPreviousKey() {
+        new TrieBuilder()
+                .put("foo".getBytes(), "first".getBytes())
+                .put("bar".getBytes(), "second".getBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void putPrefixOfPreviousKey() {
+        new TrieBuilder()
+                .put("foo".getBytes(), "first".getBytes())
+                .put("fo".getBytes(), "second".getBytes());
+    }
+
+    @Test
+    public void buildFromIndexedValues() {
+        Random random = new Random(3);
+        List<byte[]> values = new ArrayList<>();
+        Trie expected = new TrieImpl();
+
+        for (int k = 0; k < 300; k++) {
+            byte[] value = randomBytes(random, 1 + random.nextInt(100));
+            values.add(value);
+            expected = expected.put(RLP.encodeInt(k), value);
+        }
+
+        Trie trie = TrieBuilder.fromIndexedValues(values);
+
+        Assert.assertEquals(expected.getHash(), trie.getHash());
+        Assert.assertArrayEquals(values.get(0), trie.get(RLP.encodeInt(0)));
+        Assert.assertArrayEquals(values.get(299), trie.get(RLP.encodeInt(299)));
+    }
+
+    private static Trie putAll(Trie trie, TreeMap<byte[], byte[]> values) {
+        Trie result = trie;
+
+        for (byte[] key : values.descendingKeySet()) {
+            result = result.put(key, values.get(key));
+        }
+
+        return result;
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
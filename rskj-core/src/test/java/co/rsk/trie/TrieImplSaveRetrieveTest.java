@@ -76,6 +76,93 @@ public class TrieImplSaveRetrieveTest {
         }
     }
 
+    @Test
+    public void saveInParallelOneThousandKeyLongValues() {
+        HashMapDB map = new HashMapDB();
+        TrieStoreImpl store = new TrieStoreImpl(map);
+        HashMapDB map2 = new HashMapDB();
+        TrieStoreImpl store2 = new TrieStoreImpl(map2);
+
+        Trie trie = new TrieImpl(store, true);
+        Trie trie2 = new TrieImpl(store2, true);
+
+        for (int k = 0; k < 1000; k++) {
+            trie = trie.put(k + "", TrieImplValueTest.makeValue(k + 20));
+            trie2 = trie2.put(k + "", TrieImplValueTest.makeValue(k + 20));
+        }
+
+        trie.save();
+        trie2.save(16);
+
+        Assert.assertEquals(trie.getHash(), trie2.getHash());
+        Assert.assertEquals(store.getSaveCount(), store2.getSaveCount());
+        Assert.assertEquals(map.keys().size(), map2.keys().size());
+
+        for (byte[] key : map.keys()) {
+            Assert.assertArrayEquals(map.get(key), map2.get(key));
+        }
+
+        Trie trie3 = store2.retrieve(trie2.getHash().getBytes());
+
+        for (int k = 0; k < 1000; k++) {
+            Assert.assertArrayEquals(TrieImplValueTest.makeValue(k + 20), trie3.get(k + ""));
+        }
+    }
+
+    @Test
+    public void saveInParallelOnlyUpdatedNodes() {
+        HashMapDB map = new HashMapDB();
+        TrieStoreImpl store = new TrieStoreImpl(map);
+        HashMapDB map2 = new HashMapDB();
+        TrieStoreImpl store2 = new TrieStoreImpl(map2);
+
+        Trie trie = new TrieImpl(store, false);
+        Trie trie2 = new TrieImpl(store2, false);
+
+        for (int k = 0; k < 1000; k++) {
+            trie = trie.put(k + "", (k + "").getBytes());
+            trie2 = trie2.put(k + "", (k + "").getBytes());
+        }
+
+        trie.save();
+        trie2.save(8);
+
+        for (int k = 0; k < 1000; k += 10) {
+            trie = trie.put(k + "", (k + "updated").getBytes());
+            trie2 = trie2.put(k + "", (k + "updated").getBytes());
+        }
+
+        int saveCount = store.getSaveCount();
+        int saveCount2 = store2.getSaveCount();
+
+        trie.save();
+        trie2.save(8);
+
+        Assert.assertEquals(trie.getHash(), trie2.getHash());
+        Assert.assertEquals(store.getSaveCount() - saveCount, store2.getSaveCount() - saveCount2);
+        Assert.assertTrue(store2.getSaveCount() - saveCount2 < 1000);
+        Assert.assertEquals(map.keys().size(), map2.keys().size());
+    }
+
+    @Test
+    public void saveInParallelWithLowerThanThresholdChanges() {
+        HashMapDB map = new HashMapDB();
+        TrieStoreImpl store = new TrieStoreImpl(map);
+
+        Trie trie = new TrieImpl(store, false);
+
+        for (int k = 0; k < 10; k++) {
+            trie = trie.put(k + "", (k + "").getBytes());
+        }
+
+        trie.save(1000);
+
+        Trie trie2 = store.retrieve(trie.getHash().getBytes());
+
+        Assert.assertEquals(trie.getHash(), trie2.getHash());
+        Assert.assertEquals(trie.trieSize(), store.getSaveCount());
+    }
+
     @Test
     public void updateSaveRetrieveAndGetOneThousandKeyValuesUsingBinaryTree() {
         HashMapDB map = new HashMapDB();
@@ -0,0 +1,156 @@
+package co.rsk.trie;
+
+import com.google.common.primitives.UnsignedBytes;
+import org.ethereum.crypto.Keccak256Helper;
+import org.ethereum.datasource.HashMapDB;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class TrieIteratorTest {
+    @Test
+    public void iterateEmptyTrie() {
+        Iterator<Map.Entry<byte[], byte[]>> iterator = new TrieImpl().iterator();
+
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void nextAfterLastKey() {
+        Iterator<Map.Entry<byte[], byte[]>> iterator = new TrieImpl().put("foo", "bar".getBytes()).iterator();
+
+        iterator.next();
+        iterator.next();
+    }
+
+    @Test
+    public void iterateKeysInOrder() {
+        TreeMap<byte[], byte[]> values = createValues(1000);
+        Trie trie = putAll(new TrieImpl(), values);
+
+        assertEntries(values, trie.iterator());
+    }
+
+    @Test
+    public void iterateRanges() {
+        TreeMap<byte[], byte[]> values = createValues(1000);
+        Trie trie = putAll(new TrieImpl(), values);
+        Random random = new Random(2);
+
+        for (int k = 0; k < 100; k++) {
+            byte[] from = randomBytes(random, 1 + random.nextInt(4));
+            byte[] to = randomBytes(random, 1 + random.nextInt(4));
+
+            if (UnsignedBytes.lexicographicalComparator().compare(from, to) > 0) {
+                byte[] aux = from;
+                from = to;
+                to = aux;
+            }
+
+            assertEntries(values.subMap(from, true, to, false), trie.iterator(from, to));
+            assertEntries(values.tailMap(from, true), trie.iterator(from, null));
+            assertEntries(values.headMap(to, false), trie.iterator(null, to));
+        }
+    }
+
+    @Test
+    public void iterateRangesWithExistingKeysAsLimits() {
+        TreeMap<byte[], byte[]> values = createValues(200);
+        Trie trie = putAll(new TrieImpl(), values);
+        byte[][] keys = values.keySet().toArray(new byte[0][]);
+
+        for (int k = 0; k < keys.length; k += 7) {
+            byte[] from = keys[k];
+            byte[] to = keys[Math.min(k + 13, keys.length - 1)];
+
+            assertEntries(values.subMap(from, true, to, false), trie.iterator(from, to));
+        }
+    }
+
+    @Test
+    public void iterateSecureTrieRetrievedFromStore() {
+        TrieStoreImpl store = new TrieStoreImpl(new HashMapDB());
+        Trie trie = new TrieImpl(store, true);
+        TreeMap<byte[], byte[]> hashedValues = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+        Random random = new Random(3);
+
+        for (int k = 0; k < 1000; k++) {
+            byte[] key = randomBytes(random, 32);
+            byte[] value = randomBytes(random, 1 + random.nextInt(64));
+            trie = trie.put(key, value);
+            hashedValues.put(Keccak256Helper.keccak256(key), value);
+        }
+
+        trie.save();
+
+        Trie retrieved = store.retrieve(trie.getHash().getBytes());
+
+        assertEntries(hashedValues, retrieved.iterator());
+
+        int retrieveCount = store.getRetrieveCount();
+
+        // the nodes are retrieved again, they are not kept by the trie
+        assertEntries(hashedValues, retrieved.iterator());
+
+        int fullRetrieveCount = store.getRetrieveCount() - retrieveCount;
+
+        Assert.assertTrue(fullRetrieveCount > 1000);
+
+        byte[][] keys = hashedValues.keySet().toArray(new byte[0][]);
+        Iterator<Map.Entry<byte[], byte[]>> iterator = retrieved.iterator(keys[500], null);
+
+        for (int k = 0; k < 10; k++) {
+            Assert.assertTrue(iterator.hasNext());
+            Assert.assertArrayEquals(keys[500 + k], iterator.next().getKey());
+        }
+
+        // the range scan only retrieves the nodes in the path to the visited keys
+        Assert.assertTrue(store.getRetrieveCount() - retrieveCount - fullRetrieveCount < 100);
+    }
+
+    private static void assertEntries(NavigableMap<byte[], byte[]> expected, Iterator<Map.Entry<byte[], byte[]>> iterator) {
+        for (Map.Entry<byte[], byte[]> entry : expected.entrySet()) {
+            Assert.assertTrue(iterator.hasNext());
+
+            Map.Entry<byte[], byte[]> actual = iterator.next();
+
+            Assert.assertArrayEquals(entry.getKey(), actual.getKey());
+            Assert.assertArrayEquals(entry.getValue(), actual.getValue());
+        }
+
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    private static TreeMap<byte[], byte[]> createValues(int count) {
+        TreeMap<byte[], byte[]> values = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+        Random random = new Random(1);
+
+        for (int k = 0; k < count; k++) {
+            values.put(randomBytes(random, 1 + random.nextInt(4)), randomBytes(random, 1 + random.nextInt(64)));
+        }
+
+        return values;
+    }
+
+    private static Trie putAll(Trie trie, Map<byte[], byte[]> values) {
+        Trie result = trie;
+
+        for (Map.Entry<byte[], byte[]> entry : values.entrySet()) {
+            result = result.put(entry.getKey(), entry.getValue());
+        }
+
+        return result;
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
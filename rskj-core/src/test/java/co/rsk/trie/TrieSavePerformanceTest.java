@@ -0,0 +1,78 @@
+package co.rsk.trie;
+
+import org.ethereum.datasource.HashMapDB;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Updates random keys of a secure trie, as blocks do with accounts and storage,
+ * and measures the time to save the changed nodes, sequentially and in parallel
+ * To execute as a standalone application, run main.
+ */
+public class TrieSavePerformanceTest {
+    private static final int NKEYS = 100000;
+    private static final int NUPDATES = 5000;
+    private static final int NROUNDS = 20;
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    public static void main(String[] args) {
+        new TrieSavePerformanceTest().saveRandomUpdates();
+    }
+
+    @Ignore
+    @Test
+    public void saveRandomUpdates() {
+        System.out.println(String.format("Keys: %d updates per round: %d processors: %d",
+                NKEYS, NUPDATES, Runtime.getRuntime().availableProcessors()));
+
+        for (int k = 0; k < 3; k++) {
+            long sequential = saveRandomUpdates(0);
+            long parallel = saveRandomUpdates(PARALLEL_THRESHOLD);
+
+            System.out.println(String.format("Sequential: %d ms, parallel: %d ms", sequential / 1000000, parallel / 1000000));
+        }
+    }
+
+    private static long saveRandomUpdates(int parallelThreshold) {
+        Random random = new Random(1);
+        TrieStore store = new TrieStoreImpl(new HashMapDB());
+        List<byte[]> keys = new ArrayList<>();
+
+        Trie trie = new TrieImpl(store, true);
+
+        for (int k = 0; k < NKEYS; k++) {
+            byte[] key = randomBytes(random, 20);
+            keys.add(key);
+            trie = trie.put(key, randomBytes(random, 40));
+        }
+
+        trie.save(parallelThreshold);
+
+        long time = 0;
+
+        for (int r = 0; r < NROUNDS; r++) {
+            for (int k = 0; k < NUPDATES; k++) {
+                trie = trie.put(keys.get(random.nextInt(NKEYS)), randomBytes(random, 40));
+            }
+
+            long start = System.nanoTime();
+            trie.save(parallelThreshold);
+            time += System.nanoTime() - start;
+        }
+
+        Assert.assertNotNull(store.retrieve(trie.getHash().getBytes()));
+
+        return time;
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
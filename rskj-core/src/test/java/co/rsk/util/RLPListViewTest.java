@@ -0,0 +1,152 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.util;
+
+import org.ethereum.util.RLP;
+import org.ethereum.util.RLPElement;
+import org.ethereum.util.RLPList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class RLPListViewTest {
+    @Test
+    public void viewItemsOfShortAndLongLengths() {
+        byte[] single = new byte[] { 0x42 };
+        byte[] shortItem = randomBytes(55);
+        byte[] longItem = randomBytes(1024);
+
+        byte[] encoded = RLP.encodeList(
+                RLP.encodeElement(single),
+                RLP.encodeElement(null),
+                RLP.encodeElement(shortItem),
+                RLP.encodeElement(longItem));
+
+        RLPListView view = RLPListView.wrap(encoded);
+
+        Assert.assertEquals(4, view.size());
+        Assert.assertArrayEquals(single, view.getBytes(0));
+        Assert.assertNull(view.getBytes(1));
+        Assert.assertArrayEquals(shortItem, view.getBytes(2));
+        Assert.assertArrayEquals(longItem, view.getBytes(3));
+        Assert.assertFalse(view.isList(3));
+        Assert.assertEquals(ByteBuffer.wrap(longItem), view.getBuffer(3));
+        Assert.assertEquals(0, view.getBuffer(1).remaining());
+        Assert.assertArrayEquals(encoded, view.getEncoded());
+    }
+
+    @Test
+    public void viewNestedListsAsDecode2() {
+        byte[] inner = RLP.encodeList(RLP.encodeElement(randomBytes(32)), RLP.encodeElement(randomBytes(100)));
+        byte[] empty = RLP.encodeList();
+        byte[] encoded = RLP.encodeList(inner, RLP.encodeElement(randomBytes(3)), empty, RLP.encodeList(inner, inner));
+
+        RLPList decoded = (RLPList) RLP.decode2(encoded).get(0);
+        RLPListView view = RLPListView.wrap(encoded);
+
+        assertSameElements(decoded, view);
+        Assert.assertTrue(view.isList(0));
+        Assert.assertArrayEquals(inner, view.getEncoded(0));
+        Assert.assertArrayEquals(inner, view.getList(3).getList(1).getEncoded());
+        Assert.assertEquals(0, view.getList(2).size());
+    }
+
+    @Test
+    public void viewListEncodedInsideItem() {
+        byte[] inner = RLP.encodeList(RLP.encodeElement(new byte[] { 1, 2, 3 }));
+        byte[] encoded = RLP.encodeList(RLP.encodeByte((byte) 2), RLP.encodeElement(inner));
+
+        RLPListView view = RLPListView.wrap(encoded).getEncodedList(1);
+
+        Assert.assertEquals(1, view.size());
+        Assert.assertArrayEquals(new byte[] { 1, 2, 3 }, view.getBytes(0));
+    }
+
+    @Test
+    public void wrapListAtOffsetOfArrayAndBuffer() {
+        byte[] list = RLP.encodeList(RLP.encodeElement(randomBytes(60)));
+        byte[] data = new byte[list.length + 10];
+        System.arraycopy(list, 0, data, 5, list.length);
+
+        Assert.assertArrayEquals(list, RLPListView.wrap(data, 5, list.length).getEncoded());
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        buffer.position(5);
+        Assert.assertArrayEquals(list, RLPListView.wrap(buffer).getEncoded());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(list.length);
+        direct.put(list).flip();
+        Assert.assertArrayEquals(list, RLPListView.wrap(direct).getEncoded());
+    }
+
+    @Test(expected = RLPException.class)
+    public void failWhenElementExceedsList() {
+        byte[] encoded = RLP.encodeList(RLP.encodeElement(randomBytes(10)));
+        // the list says it holds one byte less than the item needs
+        encoded[0]--;
+
+        RLPListView.wrap(encoded, 0, encoded.length - 1).size();
+    }
+
+    @Test(expected = RLPException.class)
+    public void failWhenListLengthExceedsData() {
+        byte[] encoded = RLP.encodeList(RLP.encodeElement(randomBytes(100)));
+
+        RLPListView.wrap(encoded, 0, encoded.length - 1);
+    }
+
+    @Test(expected = RLPException.class)
+    public void failWhenWrappingAnItem() {
+        RLPListView.wrap(RLP.encodeElement(randomBytes(10)));
+    }
+
+    @Test(expected = RLPException.class)
+    public void failWhenGettingListAsBytes() {
+        RLPListView.wrap(RLP.encodeList(RLP.encodeList())).getBytes(0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void failWhenIndexOutOfBounds() {
+        RLPListView.wrap(RLP.encodeList(RLP.encodeElement(new byte[] { 1 }))).getBytes(1);
+    }
+
+    private static void assertSameElements(RLPList expected, RLPListView view) {
+        Assert.assertEquals(expected.size(), view.size());
+
+        for (int k = 0; k < expected.size(); k++) {
+            RLPElement element = expected.get(k);
+
+            if (element instanceof RLPList) {
+                Assert.assertTrue(view.isList(k));
+                Assert.assertArrayEquals(element.getRLPData(), view.getEncoded(k));
+                assertSameElements((RLPList) element, view.getList(k));
+            } else {
+                Assert.assertArrayEquals(element.getRLPData(), view.getBytes(k));
+            }
+        }
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
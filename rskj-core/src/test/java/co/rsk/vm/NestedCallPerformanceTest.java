@@ -0,0 +1,102 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package co.rsk.vm;
+
+import co.rsk.config.TestSystemProperties;
+import co.rsk.config.VmConfig;
+import co.rsk.core.RskAddress;
+import co.rsk.db.RepositoryImpl;
+import org.ethereum.config.blockchain.RegTestConfig;
+import org.ethereum.core.Repository;
+import org.ethereum.vm.DataWord;
+import org.ethereum.vm.PrecompiledContracts;
+import org.ethereum.vm.VM;
+import org.ethereum.vm.program.Program;
+import org.ethereum.vm.program.invoke.ProgramInvokeMockImpl;
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+
+/**
+ * Executes a contract that calls itself until a deep call stack,
+ * each call incrementing a counter and writing a new storage cell,
+ * so each level starts, changes and commits a nested repository track
+ * To execute as a standalone application, run main with -Xss32m.
+ */
+public class NestedCallPerformanceTest {
+    private static final int DEPTH = 1000;
+    private static final int RUNS = 200;
+
+    // PUSH1 0 SLOAD PUSH1 1 ADD DUP1 PUSH1 0 SSTORE   counter++
+    // DUP1 DUP1 SSTORE                                storage[counter] = counter
+    // PUSH2 depth GT PUSH1 0x15 JUMPI STOP            stop at the depth
+    // JUMPDEST PUSH1 0 DUP1 DUP1 DUP1 DUP1 ADDRESS GAS CALL STOP
+    private static final String CODE = "6000546001018060005580805561%04x" +
+            "11601557005b600080808080305af100";
+
+    private final TestSystemProperties config = new TestSystemProperties();
+    private final VmConfig vmConfig = config.getVmConfig();
+    private final PrecompiledContracts precompiledContracts = new PrecompiledContracts(config);
+
+    public static void main(String[] args) {
+        new NestedCallPerformanceTest().executeDeepCallStack();
+    }
+
+    @Ignore
+    @Test
+    public void executeDeepCallStack() {
+        ProgramInvokeMockImpl invoke = new ProgramInvokeMockImpl();
+        invoke.setGasLimit(1000000000000L);
+        invoke.setGas(1000000000000L);
+        invoke.setTransactionIndex(new DataWord(0));
+
+        RskAddress owner = new RskAddress(invoke.getOwnerAddress());
+        byte[] code = Hex.decode(String.format(CODE, DEPTH));
+
+        Repository repository = new RepositoryImpl(config);
+        Repository track = repository.startTracking();
+        track.createAccount(owner);
+        track.saveCode(owner, code);
+        track.commit();
+
+        System.out.println(String.format("Depth: %d, runs: %d", DEPTH, RUNS));
+
+        for (int r = 0; r < 5; r++) {
+            long start = System.nanoTime();
+
+            for (int k = 0; k < RUNS; k++) {
+                Repository runTrack = repository.startTracking();
+                invoke.setRepository(runTrack);
+
+                Program program = new Program(vmConfig, precompiledContracts, new RegTestConfig(), code, invoke, null);
+                new VM(vmConfig, precompiledContracts).play(program);
+
+                Assert.assertNull(program.getResult().getException());
+                Assert.assertEquals(new DataWord(DEPTH), runTrack.getStorageValue(owner, new DataWord(0)));
+
+                runTrack.rollback();
+            }
+
+            long time = System.nanoTime() - start;
+
+            System.out.println(String.format("Time: %d ms, per run: %d us", time / 1000000, time / RUNS / 1000));
+        }
+    }
+}
@@ -20,12 +20,17 @@ package co.rsk.vm;
 
 import co.rsk.config.TestSystemProperties;
 import co.rsk.peg.Bridge;
+import co.rsk.remasc.RemascContract;
+import org.ethereum.core.Block;
+import org.ethereum.core.Transaction;
 import org.ethereum.vm.DataWord;
 import org.ethereum.vm.PrecompiledContracts;
 import org.ethereum.vm.PrecompiledContracts.PrecompiledContract;
 import org.junit.Assert;
 import org.junit.Test;
 
+import static org.mockito.Mockito.mock;
+
 public class PrecompiledContractTest {
 
     private final TestSystemProperties config = new TestSystemProperties();
@@ -48,6 +53,34 @@ public class PrecompiledContractTest {
 
         Assert.assertNotNull(bridge1);
         Assert.assertNotNull(bridge2);
-        Assert.assertNotSame(bridge1, bridge2);
+        Assert.assertSame(bridge1, bridge2);
+        Assert.assertNotSame(bridge1, new PrecompiledContracts(config).getContractForAddress(bridgeAddress));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void getBridgeContractWithoutPreviousInvocation() {
+        DataWord bridgeAddress = new DataWord(PrecompiledContracts.BRIDGE_ADDR.getBytes());
+        PrecompiledContract bridge = precompiledContracts.getContractForAddress(bridgeAddress);
+        bridge.init(mock(Transaction.class), mock(Block.class), null, null, null, null);
+
+        // as a new bridge, the gas cannot be computed before init
+        precompiledContracts.getContractForAddress(bridgeAddress).getGasForData(null);
+    }
+
+    @Test
+    public void getRemascContractTwice() {
+        DataWord remascAddress = new DataWord(PrecompiledContracts.REMASC_ADDR.getBytes());
+        PrecompiledContract remasc = precompiledContracts.getContractForAddress(remascAddress);
+
+        Assert.assertEquals(RemascContract.class, remasc.getClass());
+        Assert.assertSame(remasc, precompiledContracts.getContractForAddress(remascAddress));
+    }
+
+    @Test
+    public void getNoContractForOtherAddresses() {
+        Assert.assertNull(precompiledContracts.getContractForAddress(new DataWord("0000000000000000000000000000000000001000")));
+        Assert.assertNull(precompiledContracts.getContractForAddress(new DataWord("0100000000000000000000000000000000000000000000000000000000000004")));
+        Assert.assertNull(precompiledContracts.getContractForAddress(new DataWord((byte[]) null)));
+        Assert.assertNotNull(precompiledContracts.getContractForAddress(new DataWord("0000000000000000000000000000000000000004")));
     }
 }
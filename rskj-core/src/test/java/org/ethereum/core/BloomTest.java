@@ -20,10 +20,13 @@
 package org.ethereum.core;
 
 import org.ethereum.crypto.HashUtil;
+import org.ethereum.util.ByteUtil;
 import org.junit.Assert;
 import org.junit.Test;
 import org.spongycastle.util.encoders.Hex;
 
+import java.util.Random;
+
 /**
  * @author Roman Mandeleil
  * @since 20.11.2014
@@ -52,6 +55,53 @@ public class BloomTest {
     }
 
 
+    @Test
+    public void createSetsTheBitsOfTheHashInTheData() {
+        for (int k = 0; k < 100; k++) {
+            byte[] hash = HashUtil.keccak256(new byte[] { (byte) k });
+            byte[] expected = new byte[256];
+
+            ByteUtil.setBit(expected, (((hash[0] & 255) & 7) << 8) + (hash[1] & 255), 1);
+            ByteUtil.setBit(expected, (((hash[2] & 255) & 7) << 8) + (hash[3] & 255), 1);
+            ByteUtil.setBit(expected, (((hash[4] & 255) & 7) << 8) + (hash[5] & 255), 1);
+
+            Assert.assertArrayEquals(expected, Bloom.create(hash).getData());
+        }
+    }
+
+    @Test
+    public void dataRoundTrip() {
+        byte[] data = new byte[256];
+        new Random(1).nextBytes(data);
+
+        Bloom bloom = new Bloom(data);
+
+        Assert.assertArrayEquals(data, bloom.getData());
+        Assert.assertEquals(Hex.toHexString(data), bloom.toString());
+        Assert.assertEquals(bloom, new Bloom(bloom.getData()));
+    }
+
+    @Test
+    public void matchesAndHasBitsOfOredBlooms() {
+        byte[] hash1 = HashUtil.keccak256(new byte[] { 1 });
+        byte[] hash2 = HashUtil.keccak256(new byte[] { 2 });
+        byte[] hash3 = HashUtil.keccak256(new byte[] { 3 });
+
+        Bloom bloom = Bloom.create(hash1);
+        bloom.or(Bloom.create(hash2));
+
+        Assert.assertTrue(bloom.matches(Bloom.create(hash1)));
+        Assert.assertTrue(bloom.matches(Bloom.create(hash2)));
+        Assert.assertFalse(bloom.matches(Bloom.create(hash3)));
+        Assert.assertTrue(bloom.matches(new Bloom()));
+        Assert.assertFalse(new Bloom().matches(bloom));
+
+        Assert.assertTrue(bloom.hasBits(Bloom.bitPositions(hash1)));
+        Assert.assertTrue(bloom.hasBits(Bloom.bitPositions(hash2)));
+        Assert.assertFalse(bloom.hasBits(Bloom.bitPositions(hash3)));
+        Assert.assertTrue(bloom.hasBits(new int[0]));
+    }
+
     @Test
     public void test2() {
         // todo: more testing
@@ -0,0 +1,152 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.crypto.cryptohash;
+
+import org.ethereum.crypto.HashUtil;
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.crypto.digests.SHA3Digest;
+import org.spongycastle.util.encoders.Hex;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+public class FastKeccak256Test {
+    @Test
+    public void hashEmptyInput() {
+        Assert.assertEquals(
+                "c5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470",
+                Hex.toHexString(new FastKeccak256().digest()));
+    }
+
+    @Test
+    public void hashKnownValue() {
+        Assert.assertEquals(
+                "4d741b6f1eb29cb2a9b9911c82f56fa8d73b04959d3d9d222895df6c0b28aa15",
+                Hex.toHexString(new FastKeccak256().update("The quick brown fox jumps over the lazy dog".getBytes()).digest()));
+    }
+
+    @Test
+    public void hashLikeKeccakCoreAndSpongyCastle() {
+        Random random = new Random(1);
+        FastKeccak256 digest = new FastKeccak256();
+
+        // lengths around the 136 bytes block size
+        for (int length = 0; length < 600; length++) {
+            byte[] input = new byte[length];
+            random.nextBytes(input);
+
+            byte[] expected = keccakCore(input);
+
+            Assert.assertArrayEquals(expected, spongyCastle(input));
+            Assert.assertArrayEquals(expected, digest.update(input).digest());
+        }
+    }
+
+    @Test
+    public void hashInputInParts() {
+        Random random = new Random(2);
+        FastKeccak256 digest = new FastKeccak256();
+
+        for (int k = 0; k < 200; k++) {
+            byte[] input = new byte[random.nextInt(1000)];
+            random.nextBytes(input);
+
+            int offset = 0;
+
+            while (offset < input.length) {
+                int length = Math.min(input.length - offset, random.nextInt(300));
+
+                if (length == 1) {
+                    digest.update(input[offset]);
+                } else {
+                    digest.update(input, offset, length);
+                }
+
+                offset += length;
+            }
+
+            Assert.assertArrayEquals(keccakCore(input), digest.digest());
+        }
+    }
+
+    @Test
+    public void hashBuffers() {
+        byte[] input = new byte[500];
+        new Random(3).nextBytes(input);
+        byte[] expected = keccakCore(Arrays.copyOfRange(input, 100, 400));
+
+        ByteBuffer heapBuffer = ByteBuffer.wrap(input, 100, 300);
+        Assert.assertArrayEquals(expected, new FastKeccak256().update(heapBuffer).digest());
+        Assert.assertFalse(heapBuffer.hasRemaining());
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(500);
+        directBuffer.put(input);
+        directBuffer.position(100);
+        directBuffer.limit(400);
+        Assert.assertArrayEquals(expected, new FastKeccak256().update(directBuffer).digest());
+        Assert.assertFalse(directBuffer.hasRemaining());
+    }
+
+    @Test
+    public void hashIntoGivenArray() {
+        byte[] input = "abc".getBytes();
+        byte[] output = new byte[40];
+
+        HashUtil.keccak256(input, 0, input.length, output, 4);
+
+        Assert.assertArrayEquals(keccakCore(input), Arrays.copyOfRange(output, 4, 36));
+        Assert.assertArrayEquals(new byte[4], Arrays.copyOfRange(output, 0, 4));
+        Assert.assertArrayEquals(new byte[4], Arrays.copyOfRange(output, 36, 40));
+    }
+
+    @Test
+    public void hashConcatenatedParts() {
+        byte[] part1 = new byte[100];
+        byte[] part2 = new byte[200];
+        new Random(4).nextBytes(part1);
+        new Random(5).nextBytes(part2);
+
+        byte[] input = new byte[300];
+        System.arraycopy(part1, 0, input, 0, 100);
+        System.arraycopy(part2, 0, input, 100, 200);
+
+        Assert.assertArrayEquals(keccakCore(input), HashUtil.keccak256Concat(part1, part2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void updateOutOfBounds() {
+        new FastKeccak256().update(new byte[10], 5, 6);
+    }
+
+    private static byte[] keccakCore(byte[] input) {
+        Keccak256 digest = new Keccak256();
+        digest.update(input);
+        return digest.digest();
+    }
+
+    private static byte[] spongyCastle(byte[] input) {
+        SHA3Digest digest = new SHA3Digest(256);
+        byte[] output = new byte[32];
+        digest.update(input, 0, input.length);
+        digest.doFinal(output, 0);
+        return output;
+    }
+}
@@ -19,17 +19,28 @@
 
 package org.ethereum.db;
 
+import co.rsk.config.RskSystemProperties;
 import co.rsk.config.TestSystemProperties;
 import co.rsk.core.RskAddress;
 import co.rsk.db.ContractDetailsImpl;
+import co.rsk.db.RepositoryImpl;
+import co.rsk.metrics.Counter;
+import co.rsk.metrics.MetricRegistry;
+import co.rsk.trie.TrieStoreImpl;
+import org.ethereum.core.Repository;
 import org.ethereum.datasource.HashMapDB;
 import org.ethereum.vm.DataWord;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.spongycastle.util.encoders.Hex;
 
+import java.util.Map;
+import java.util.Random;
+
 import static org.ethereum.TestUtils.randomAddress;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
 
 public class DetailsDataStoreTest {
 
@@ -151,4 +162,221 @@ public class DetailsDataStoreTest {
         ContractDetails contractDetails = dds.get(c_key);
         assertNull(contractDetails);
     }
+
+    @Test
+    public void readPreparedFlushUntilWritten() {
+        HashMapDB ds = new HashMapDB();
+        DetailsDataStore dds = new DetailsDataStore(config, new DatabaseImpl(ds));
+
+        RskAddress c_key = new RskAddress("0000000000000000000000000000000000001a2b");
+        RskAddress removed_key = new RskAddress("0000000000000000000000000000000000001a2c");
+
+        ContractDetails contractDetails = new ContractDetailsImpl(config);
+        contractDetails.setCode(Hex.decode("60606060"));
+        contractDetails.put(new DataWord(Hex.decode("11")), new DataWord(Hex.decode("aa")));
+
+        dds.update(c_key, contractDetails);
+        dds.update(removed_key, new ContractDetailsImpl(config));
+        dds.flush();
+        dds.remove(removed_key);
+        dds.get(c_key).put(new DataWord(Hex.decode("22")), new DataWord(Hex.decode("bb")));
+
+        DataWord storageKey = new DataWord(Hex.decode("22"));
+
+        assertTrue(dds.prepareFlush() > 0);
+
+        assertNull(new ContractDetailsImpl(config, ds.get(c_key.getBytes())).get(storageKey));
+        assertEquals(new DataWord(Hex.decode("bb")), dds.get(c_key).get(storageKey));
+        assertNull(dds.get(removed_key));
+        assertNotNull(ds.get(removed_key.getBytes()));
+
+        dds.writePreparedFlush();
+
+        assertEquals(new DataWord(Hex.decode("bb")), new ContractDetailsImpl(config, ds.get(c_key.getBytes())).get(storageKey));
+        assertNull(ds.get(removed_key.getBytes()));
+        assertNull(dds.get(removed_key));
+    }
+
+    @Test
+    public void keepDetailsWhenWriteFails() {
+        HashMapDB ds = spy(new HashMapDB());
+        DetailsDataStore dds = new DetailsDataStore(config, new DatabaseImpl(ds));
+
+        RskAddress c_key = new RskAddress("0000000000000000000000000000000000001a2b");
+        ContractDetails contractDetails = new ContractDetailsImpl(config);
+        contractDetails.setCode(Hex.decode("60606060"));
+
+        dds.update(c_key, contractDetails);
+        String encoded = Hex.toHexString(contractDetails.getEncoded());
+
+        doThrow(new RuntimeException("disk full")).doCallRealMethod().when(ds).updateBatch(any());
+
+        dds.prepareFlush();
+
+        try {
+            dds.writePreparedFlush();
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("disk full", e.getMessage());
+        }
+
+        assertNull(ds.get(c_key.getBytes()));
+        assertEquals(encoded, Hex.toHexString(dds.get(c_key).getEncoded()));
+
+        dds.flush();
+
+        assertEquals(encoded, Hex.toHexString(ds.get(c_key.getBytes())));
+    }
+
+    @Test
+    public void writeBackChangedDetailsBeyondCacheSize() {
+        HashMapDB ds = new HashMapDB();
+        DetailsDataStore dds = new DetailsDataStore(config, new DatabaseImpl(ds), 3000);
+
+        for (int k = 0; k < 10; k++) {
+            dds.update(contractAddress(k), contractDetailsWithStorage(k, 4));
+
+            assertTrue(dds.getCacheSize() <= 3000);
+        }
+
+        assertTrue(dds.getCachedDetailsCount() < 10);
+        assertNotNull(ds.get(contractAddress(0).getBytes()));
+
+        for (int k = 0; k < 10; k++) {
+            assertEquals(new DataWord(k + 3), dds.get(contractAddress(k)).get(new DataWord(3)));
+        }
+
+        dds.flush();
+
+        for (int k = 0; k < 10; k++) {
+            ContractDetails stored = new ContractDetailsImpl(config, ds.get(contractAddress(k).getBytes()));
+            assertEquals(new DataWord(k + 3), stored.get(new DataWord(3)));
+        }
+    }
+
+    @Test
+    public void dropReadDetailsBeyondCacheSize() {
+        HashMapDB ds = spy(new HashMapDB());
+        DetailsDataStore dds = new DetailsDataStore(config, new DatabaseImpl(ds), 3000);
+
+        for (int k = 0; k < 10; k++) {
+            dds.update(contractAddress(k), contractDetailsWithStorage(k, 4));
+            dds.flush();
+        }
+
+        reset(ds);
+
+        for (int k = 0; k < 10; k++) {
+            assertEquals(new DataWord(k + 1), dds.get(contractAddress(k)).get(new DataWord(1)));
+        }
+
+        assertTrue(dds.getCacheSize() <= 3000);
+        assertEquals(new DataWord(9 + 1), dds.get(contractAddress(9)).get(new DataWord(1)));
+
+        dds.flush();
+
+        verify(ds, never()).put(any(), any());
+        ArgumentCaptor<Map> rows = ArgumentCaptor.forClass(Map.class);
+        verify(ds).updateBatch(rows.capture());
+        assertTrue(rows.getValue().isEmpty());
+    }
+
+    @Test
+    public void syncContractHeavyBlocksWithinCacheSize() {
+        long cacheSize = 100_000;
+        RskSystemProperties smallCacheConfig = new TestSystemProperties() {
+            @Override
+            public long detailsCacheSize() {
+                return cacheSize;
+            }
+        };
+
+        Counter writtenBack = MetricRegistry.getDefault().counter("details_cache_evictions_total", "", "kind", "written_back");
+        long writtenBackBefore = writtenBack.get();
+
+        Repository bounded = new RepositoryImpl(smallCacheConfig, new TrieStoreImpl(new HashMapDB()), new HashMapDB());
+        Repository unbounded = new RepositoryImpl(config, new TrieStoreImpl(new HashMapDB()), new HashMapDB());
+        Random random = new Random(100);
+
+        for (int block = 0; block < 50; block++) {
+            Repository boundedTrack = bounded.startTracking();
+            Repository unboundedTrack = unbounded.startTracking();
+
+            for (int contract = 0; contract < 10; contract++) {
+                RskAddress address = contractAddress(random.nextInt(40));
+
+                if (!unboundedTrack.isExist(address)) {
+                    boundedTrack.saveCode(address, Hex.decode("60606060"));
+                    unboundedTrack.saveCode(address, Hex.decode("60606060"));
+                }
+
+                for (int cell = 0; cell < 20; cell++) {
+                    DataWord key = new DataWord(random.nextInt(64));
+                    DataWord value = new DataWord(random.nextInt(1000) + 1);
+                    boundedTrack.addStorageRow(address, key, value);
+                    unboundedTrack.addStorageRow(address, key, value);
+                }
+            }
+
+            boundedTrack.commit();
+            unboundedTrack.commit();
+
+            assertTrue(bounded.getDetailsDataStore().getCacheSize() <= cacheSize);
+            assertArrayEquals(unbounded.getRoot(), bounded.getRoot());
+
+            if (block % 10 == 9) {
+                bounded.flush();
+                unbounded.flush();
+            }
+        }
+
+        assertTrue(writtenBack.get() > writtenBackBefore);
+
+        for (int contract = 0; contract < 40; contract++) {
+            RskAddress address = contractAddress(contract);
+
+            if (unbounded.isExist(address)) {
+                assertEquals(unbounded.getContractDetails(address).getStorage(), bounded.getContractDetails(address).getStorage());
+            }
+        }
+    }
+
+    @Test
+    public void shareSnapshotsUntilDetailsChange() {
+        DetailsDataStore dds = new DetailsDataStore(config, new DatabaseImpl(new HashMapDB()));
+        RskAddress address = contractAddress(1);
+        ContractDetails contractDetails = contractDetailsWithStorage(1, 4);
+        byte[] root = contractDetails.getStorageHash();
+
+        dds.update(address, contractDetails);
+
+        ContractDetails snapshot = dds.getSnapshot(address, root);
+
+        assertSame(snapshot, dds.getSnapshot(address, root));
+        assertEquals(new DataWord(4), snapshot.get(new DataWord(3)));
+
+        ContractDetails changed = snapshot.getSnapshotTo(root);
+        changed.put(new DataWord(3), new DataWord(99));
+        dds.update(address, changed);
+
+        assertEquals(new DataWord(4), snapshot.get(new DataWord(3)));
+        assertNotSame(snapshot, dds.getSnapshot(address, root));
+        assertEquals(new DataWord(99), dds.getSnapshot(address, changed.getStorageHash()).get(new DataWord(3)));
+        assertNull(dds.getSnapshot(contractAddress(2), root));
+    }
+
+    private static RskAddress contractAddress(int n) {
+        return new RskAddress(String.format("%040x", 0x2000 + n));
+    }
+
+    private ContractDetails contractDetailsWithStorage(int n, int cells) {
+        ContractDetails contractDetails = new ContractDetailsImpl(config);
+        contractDetails.setCode(Hex.decode("60606060"));
+
+        for (int k = 0; k < cells; k++) {
+            contractDetails.put(new DataWord(k), new DataWord(n + k));
+        }
+
+        return contractDetails;
+    }
 }
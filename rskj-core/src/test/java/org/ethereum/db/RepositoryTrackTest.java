@@ -0,0 +1,78 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.db;
+
+import co.rsk.config.TestSystemProperties;
+import co.rsk.core.Coin;
+import co.rsk.core.RskAddress;
+import co.rsk.db.RepositoryImpl;
+import org.ethereum.core.Repository;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RepositoryTrackTest {
+    private static final RskAddress COW = new RskAddress("CD2A3D9F938E13CD947EC05ABC7FE734DF8DD826");
+
+    private final TestSystemProperties config = new TestSystemProperties();
+
+    @Test
+    public void abandonedNestedTrackIsClosedByParentRollback() {
+        RepositoryTrack owner = new RepositoryTrack(config, new RepositoryImpl(config));
+        owner.addBalance(COW, Coin.valueOf(10));
+
+        Repository parent = owner.startTracking();
+        parent.addBalance(COW, Coin.valueOf(5));
+
+        // changed and never committed nor rolled back, as a failed call
+        Repository abandoned = parent.startTracking();
+        abandoned.addBalance(COW, Coin.valueOf(1));
+
+        Assert.assertTrue(owner.isJournalRecording());
+
+        parent.rollback();
+
+        Assert.assertFalse(owner.isJournalRecording());
+        Assert.assertEquals(Coin.valueOf(10), owner.getBalance(COW));
+
+        owner.addBalance(COW, Coin.valueOf(1));
+
+        Assert.assertFalse(owner.isJournalRecording());
+
+        // the abandoned track checkpoint is not reverted again
+        abandoned.rollback();
+
+        Assert.assertEquals(Coin.valueOf(11), owner.getBalance(COW));
+    }
+
+    @Test
+    public void abandonedNestedTrackIsClosedByParentCommit() {
+        RepositoryTrack owner = new RepositoryTrack(config, new RepositoryImpl(config));
+
+        Repository parent = owner.startTracking();
+        parent.addBalance(COW, Coin.valueOf(5));
+
+        Repository abandoned = parent.startTracking();
+        abandoned.addBalance(COW, Coin.valueOf(1));
+
+        parent.commit();
+
+        Assert.assertFalse(owner.isJournalRecording());
+        Assert.assertEquals(Coin.valueOf(6), owner.getBalance(COW));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.rpc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FilterTest {
+    @Test
+    public void dropOldestEventsBeyondMaxEvents() {
+        Filter filter = new Filter(3);
+
+        filter.add(event(1));
+        filter.add(event(2));
+        Assert.assertArrayEquals(new Object[] { 1, 2 }, filter.getNewEvents());
+
+        filter.add(event(3));
+        filter.add(event(4));
+        filter.add(event(5));
+
+        Assert.assertArrayEquals(new Object[] { 3, 4, 5 }, filter.getEvents());
+        Assert.assertArrayEquals(new Object[] { 3, 4, 5 }, filter.getNewEvents());
+
+        filter.add(event(6));
+
+        Assert.assertArrayEquals(new Object[] { 6 }, filter.getNewEvents());
+        Assert.assertArrayEquals(new Object[] { 4, 5, 6 }, filter.getEvents());
+    }
+
+    @Test
+    public void clearEventsIsNotAnAccess() throws InterruptedException {
+        Filter filter = new Filter();
+        Thread.sleep(20);
+
+        filter.clearEvents();
+        Assert.assertTrue(filter.hasExpired(10));
+
+        filter.getNewEvents();
+        Assert.assertFalse(filter.hasExpired(10000));
+    }
+
+    private static Filter.FilterEvent event(int value) {
+        return new Filter.FilterEvent() {
+            @Override
+            public Object getJsonEventObject() {
+                return value;
+            }
+        };
+    }
+}
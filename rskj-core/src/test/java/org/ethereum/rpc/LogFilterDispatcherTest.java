@@ -0,0 +1,161 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.rpc;
+
+import co.rsk.blockchain.utils.BlockGenerator;
+import co.rsk.core.RskAddress;
+import co.rsk.crypto.Keccak256;
+import org.ethereum.core.Blockchain;
+import org.ethereum.core.Transaction;
+import org.ethereum.core.TransactionReceipt;
+import org.ethereum.crypto.HashUtil;
+import org.ethereum.vm.DataWord;
+import org.ethereum.vm.LogInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class LogFilterDispatcherTest {
+    private static final RskAddress ADDRESS_1 = new RskAddress("0000000000000000000000000000000000001001");
+    private static final RskAddress ADDRESS_2 = new RskAddress("0000000000000000000000000000000000001002");
+    private static final Topic TOPIC_1 = new Topic(new DataWord(1).getData());
+    private static final Topic TOPIC_2 = new Topic(new DataWord(2).getData());
+
+    @Test
+    public void dispatchLogsByAddress() {
+        Blockchain blockchain = mock(Blockchain.class);
+        LogFilterDispatcher dispatcher = new LogFilterDispatcher();
+        LogFilter filter1 = new LogFilter(new AddressesTopicsFilter(new RskAddress[] { ADDRESS_1 }, null), blockchain, false, true);
+        LogFilter filter2 = new LogFilter(new AddressesTopicsFilter(new RskAddress[] { ADDRESS_1, ADDRESS_2 }, null), blockchain, false, true);
+        dispatcher.add(filter1);
+        dispatcher.add(filter2);
+
+        dispatcher.newBlockReceived(new BlockGenerator().getBlock(1), Arrays.asList(
+                receipt(log(ADDRESS_1, TOPIC_1), log(ADDRESS_2, TOPIC_1)),
+                receipt(log(ADDRESS_2, TOPIC_2))));
+
+        Assert.assertEquals(1, filter1.getEvents().length);
+        Assert.assertEquals(3, filter2.getEvents().length);
+        // the receipts of the block are not read again
+        verifyZeroInteractions(blockchain);
+    }
+
+    @Test
+    public void dispatchLogsByFirstTopic() {
+        LogFilterDispatcher dispatcher = new LogFilterDispatcher();
+        LogFilter filter1 = new LogFilter(new AddressesTopicsFilter(new RskAddress[0], new Topic[] { TOPIC_1 }), null, false, true);
+        LogFilter filter2 = new LogFilter(new AddressesTopicsFilter(new RskAddress[] { ADDRESS_2 }, new Topic[] { TOPIC_2 }), null, false, true);
+        dispatcher.add(filter1);
+        dispatcher.add(filter2);
+
+        dispatcher.newBlockReceived(new BlockGenerator().getBlock(1), Collections.singletonList(
+                receipt(log(ADDRESS_1, TOPIC_1), log(ADDRESS_2, TOPIC_1), log(ADDRESS_2, TOPIC_2), log(ADDRESS_1))));
+
+        Object[] events = filter1.getEvents();
+        Assert.assertEquals(2, events.length);
+        Assert.assertEquals("0x0", ((LogFilterElement) events[0]).logIndex);
+        Assert.assertEquals("0x1", ((LogFilterElement) events[1]).logIndex);
+        Assert.assertEquals(1, filter2.getEvents().length);
+    }
+
+    @Test
+    public void dispatchAllLogsToFilterWithoutAddressesAndTopics() {
+        LogFilterDispatcher dispatcher = new LogFilterDispatcher();
+        LogFilter filter = new LogFilter(new AddressesTopicsFilter(new RskAddress[0], null), null, false, true);
+        dispatcher.add(filter);
+
+        dispatcher.newBlockReceived(new BlockGenerator().getBlock(1), Arrays.asList(
+                receipt(log(ADDRESS_1, TOPIC_1)),
+                receipt(),
+                receipt(log(ADDRESS_2))));
+
+        Object[] events = filter.getEvents();
+        Assert.assertEquals(2, events.length);
+        Assert.assertEquals("0x0", ((LogFilterElement) events[0]).transactionIndex);
+        Assert.assertEquals("0x2", ((LogFilterElement) events[1]).transactionIndex);
+    }
+
+    @Test
+    public void keepOnlyLatestBlockEventsInFilterFromLatestBlock() {
+        LogFilterDispatcher dispatcher = new LogFilterDispatcher();
+        LogFilter filter = new LogFilter(new AddressesTopicsFilter(new RskAddress[] { ADDRESS_1 }, null), null, true, true);
+        dispatcher.add(filter);
+
+        dispatcher.newBlockReceived(new BlockGenerator().getBlock(1), Collections.singletonList(receipt(log(ADDRESS_1))));
+        Assert.assertEquals(1, filter.getEvents().length);
+
+        dispatcher.newBlockReceived(new BlockGenerator().getBlock(2), Collections.singletonList(receipt(log(ADDRESS_2))));
+        Assert.assertEquals(0, filter.getEvents().length);
+    }
+
+    @Test
+    public void removedFilterReceivesNoEvents() {
+        LogFilterDispatcher dispatcher = new LogFilterDispatcher();
+        LogFilter filter1 = new LogFilter(new AddressesTopicsFilter(new RskAddress[] { ADDRESS_1 }, null), null, false, true);
+        LogFilter filter2 = new LogFilter(new AddressesTopicsFilter(new RskAddress[] { ADDRESS_1 }, null), null, false, true);
+        dispatcher.add(filter1);
+        dispatcher.add(filter2);
+        dispatcher.remove(filter1);
+
+        dispatcher.newBlockReceived(new BlockGenerator().getBlock(1), Collections.singletonList(receipt(log(ADDRESS_1))));
+
+        Assert.assertEquals(1, dispatcher.size());
+        Assert.assertEquals(0, filter1.getEvents().length);
+        Assert.assertEquals(1, filter2.getEvents().length);
+    }
+
+    @Test
+    public void filterWithHistoricalBlocksOnlyIsNotDispatched() {
+        LogFilterDispatcher dispatcher = new LogFilterDispatcher();
+        LogFilter filter = new LogFilter(new AddressesTopicsFilter(new RskAddress[0], null), null, false, false);
+        dispatcher.add(filter);
+
+        dispatcher.newBlockReceived(new BlockGenerator().getBlock(1), Collections.singletonList(receipt(log(ADDRESS_1))));
+
+        Assert.assertEquals(0, dispatcher.size());
+        Assert.assertEquals(0, filter.getEvents().length);
+    }
+
+    private static LogInfo log(RskAddress address, Topic... topics) {
+        List<DataWord> words = new ArrayList<>();
+
+        for (Topic topic : topics) {
+            words.add(new DataWord(topic.getBytes()));
+        }
+
+        return new LogInfo(address.getBytes(), words, new byte[0]);
+    }
+
+    private static TransactionReceipt receipt(LogInfo... logs) {
+        Transaction tx = mock(Transaction.class);
+        when(tx.getHash()).thenReturn(new Keccak256(HashUtil.randomHash()));
+
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setLogInfoList(Arrays.asList(logs));
+        receipt.setTransaction(tx);
+
+        return receipt;
+    }
+}
@@ -21,10 +21,20 @@ package org.ethereum.rpc;
 import co.rsk.blockchain.utils.BlockGenerator;
 import co.rsk.core.RskAddress;
 import co.rsk.core.bc.BlockChainImpl;
+import co.rsk.crypto.Keccak256;
+import co.rsk.logfilter.BlocksBloomStore;
 import org.ethereum.core.Block;
+import org.ethereum.core.Blockchain;
+import org.ethereum.core.Bloom;
+import org.ethereum.crypto.HashUtil;
 import org.ethereum.util.RskTestFactory;
 import org.junit.Assert;
 import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.*;
 
 /**
  * Created by ajlopez on 17/01/2018.
@@ -109,4 +119,37 @@ public class LogFilterTest {
         Assert.assertNotNull(result);
         Assert.assertEquals(1, result.length);
     }
+
+    @Test
+    public void skipSectionsNotMatchingTheFilterInRangeQuery() throws Exception {
+        RskAddress address = new RskAddress("0000000000000000000000000000000000001001");
+        Blockchain blockchain = mock(Blockchain.class);
+        BlocksBloomStore blocksBloomStore = new BlocksBloomStore(blockchain, 64);
+
+        for (long number = 0; number < 128; number++) {
+            Block block = mock(Block.class);
+            when(block.getNumber()).thenReturn(number);
+            when(block.getHash()).thenReturn(new Keccak256(HashUtil.keccak256(new byte[] { (byte) number })));
+            when(block.getParentHash()).thenReturn(new Keccak256(HashUtil.keccak256(new byte[] { (byte) (number - 1) })));
+            // only the block 10 has a log of the address
+            when(block.getLogBloom()).thenReturn(number == 10 ? Bloom.create(HashUtil.keccak256(address.getBytes())).getData() : new byte[256]);
+            when(block.getTransactionsList()).thenReturn(Collections.emptyList());
+            when(blockchain.getBlockByNumber(number)).thenReturn(block);
+        }
+
+        Web3.FilterRequest fr = new Web3.FilterRequest();
+        fr.address = "0x" + Hex.toHexString(address.getBytes());
+        fr.fromBlock = "0x0";
+        fr.toBlock = "0x7f";
+
+        LogFilter.fromFilterRequest(fr, blockchain, blocksBloomStore);
+
+        Assert.assertEquals(2, blocksBloomStore.size());
+
+        LogFilter.fromFilterRequest(fr, blockchain, blocksBloomStore);
+
+        // the second query reads the blocks of the first section only
+        verify(blockchain, times(2)).getBlockByNumber(10);
+        verify(blockchain, times(1)).getBlockByNumber(100);
+    }
 }
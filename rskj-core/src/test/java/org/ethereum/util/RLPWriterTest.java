@@ -0,0 +1,185 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.util;
+
+import co.rsk.core.Coin;
+import co.rsk.core.RskAddress;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class RLPWriterTest {
+    @Test
+    public void writeElementsAsEncodeElement() {
+        Random random = new Random(1);
+
+        for (int length : new int[] { 0, 1, 2, 55, 56, 255, 256, 70000 }) {
+            for (int k = 0; k < 4; k++) {
+                byte[] data = new byte[length];
+                random.nextBytes(data);
+
+                if (length == 1) {
+                    data[0] = (byte) (k * 0x40);
+                }
+
+                RLPWriter writer = new RLPWriter();
+                writer.writeElement(data);
+
+                Assert.assertArrayEquals(RLP.encodeElement(data), writer.encode());
+            }
+        }
+
+        Assert.assertArrayEquals(RLP.encodeElement(null), new RLPWriter().writeElement(null).encode());
+    }
+
+    @Test
+    public void writeNumbersAsEncodeBigInteger() {
+        long[] values = { 0, 1, 0x7f, 0x80, 0xff, 0x100, 0xffffff, 0x1000000, Long.MAX_VALUE, -1, Long.MIN_VALUE };
+
+        for (long value : values) {
+            RLPWriter writer = new RLPWriter();
+            writer.writeLong(value);
+
+            Assert.assertArrayEquals(RLP.encodeBigInteger(BigInteger.valueOf(value)), writer.encode());
+        }
+
+        int[] ints = { 0, 1, 0x80, 0xffff, 0x10000, Integer.MAX_VALUE, -1 };
+
+        for (int value : ints) {
+            Assert.assertArrayEquals(RLP.encodeInt(value), new RLPWriter().writeInt(value).encode());
+        }
+
+        Assert.assertArrayEquals(RLP.encodeCoin(null), new RLPWriter().writeCoin(null).encode());
+        Assert.assertArrayEquals(RLP.encodeCoin(Coin.valueOf(123456789)), new RLPWriter().writeCoin(Coin.valueOf(123456789)).encode());
+        Assert.assertArrayEquals(RLP.encodeBigInteger(BigInteger.ONE.shiftLeft(255)), new RLPWriter().writeBigInteger(BigInteger.ONE.shiftLeft(255)).encode());
+    }
+
+    @Test
+    public void writeAddresses() {
+        RskAddress address = new RskAddress("0000000000000000000000000000000001000008");
+
+        Assert.assertArrayEquals(RLP.encodeRskAddress(address), new RLPWriter().writeRskAddress(address).encode());
+        Assert.assertArrayEquals(RLP.encodeRskAddress(RskAddress.nullAddress()), new RLPWriter().writeRskAddress(RskAddress.nullAddress()).encode());
+        Assert.assertArrayEquals(RLP.encodeRskAddress(null), new RLPWriter().writeRskAddress(null).encode());
+    }
+
+    @Test
+    public void writeNestedListsAsEncodeList() {
+        byte[] shortItem = new byte[] { 1, 2, 3 };
+        byte[] longItem = new byte[300];
+        new Random(2).nextBytes(longItem);
+
+        byte[] inner = RLP.encodeList(RLP.encodeElement(shortItem), RLP.encodeElement(longItem));
+        byte[] expected = RLP.encodeList(
+                RLP.encodeList(),
+                inner,
+                RLP.encodeBigInteger(BigInteger.valueOf(1000)),
+                RLP.encodeList(inner, RLP.encodeList(RLP.encodeElement(shortItem))),
+                inner);
+
+        RLPWriter writer = new RLPWriter();
+        writer.startList();
+        writer.startList().endList();
+        writer.startList().writeElement(shortItem).writeElement(longItem).endList();
+        writer.writeLong(1000);
+        writer.startList();
+        writer.writeEncoded(inner);
+        writer.startList().writeElement(shortItem).endList();
+        writer.endList();
+        writer.writeEncoded(inner);
+        writer.endList();
+
+        Assert.assertEquals(expected.length, writer.size());
+        Assert.assertArrayEquals(expected, writer.encode());
+
+        // encodes again into buffers
+        ByteBuf heapBuffer = Unpooled.buffer(1);
+        heapBuffer.writeByte(7);
+        writer.encode(heapBuffer);
+        Assert.assertEquals(expected.length + 1, heapBuffer.readableBytes());
+        heapBuffer.skipBytes(1);
+        byte[] written = new byte[expected.length];
+        heapBuffer.readBytes(written);
+        Assert.assertArrayEquals(expected, written);
+
+        ByteBuf directBuffer = Unpooled.directBuffer();
+        writer.encode(directBuffer);
+        written = new byte[expected.length];
+        directBuffer.readBytes(written);
+        Assert.assertArrayEquals(expected, written);
+    }
+
+    @Test
+    public void reuseAfterReset() {
+        RLPWriter writer = new RLPWriter();
+        writer.startList().writeElement(new byte[100]).endList();
+        writer.encode();
+
+        writer.reset();
+        writer.startList().writeLong(5).endList();
+
+        Assert.assertArrayEquals(RLP.encodeList(RLP.encodeInt(5)), writer.encode());
+    }
+
+    @Test
+    public void growWithManyEntriesAndDeepLists() {
+        RLPWriter writer = new RLPWriter();
+        byte[] expected = RLP.encodeElement(new byte[] { 9 });
+
+        for (int k = 0; k < 20; k++) {
+            writer.startList();
+        }
+
+        writer.writeElement(new byte[] { 9 });
+
+        for (int k = 0; k < 20; k++) {
+            writer.endList();
+            expected = RLP.encodeList(expected);
+        }
+
+        Assert.assertArrayEquals(expected, writer.encode());
+
+        writer.reset();
+        byte[][] elements = new byte[1000][];
+        writer.startList();
+
+        for (int k = 0; k < elements.length; k++) {
+            elements[k] = RLP.encodeInt(k);
+            writer.writeInt(k);
+        }
+
+        writer.endList();
+
+        Assert.assertArrayEquals(RLP.encodeList(elements), writer.encode());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failToEncodeOpenList() {
+        new RLPWriter().startList().writeLong(1).encode();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failToEndWithoutList() {
+        new RLPWriter().endList();
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.ethereum.vm;
 
+import org.ethereum.crypto.HashUtil;
 import org.ethereum.vm.program.Memory;
 import org.junit.Test;
 import org.spongycastle.util.encoders.Hex;
@@ -530,6 +531,30 @@ public class MemoryTest {
         assertTrue(zero == 10);
     }
 
+    @Test
+    public void keccak256OfRegionsAcrossChunks() {
+        Memory memory = new Memory();
+        byte[] data = new byte[3 * CHUNK_SIZE];
+
+        for (int k = 0; k < data.length; k++) {
+            data[k] = (byte) (k * 7);
+        }
+
+        memory.write(0, data, data.length, false);
+
+        int[][] regions = { { 0, 0 }, { 0, 32 }, { 1000, 48 }, { CHUNK_SIZE, CHUNK_SIZE }, { 10, 2 * CHUNK_SIZE + 100 } };
 
+        for (int[] region : regions) {
+            byte[] expected = HashUtil.keccak256(memory.read(region[0], region[1]));
+            assertArrayEquals(expected, memory.keccak256(region[0], region[1]));
+        }
+    }
+
+    @Test
+    public void keccak256ExtendsMemory() {
+        Memory memory = new Memory();
 
-}
\ No newline at end of file
+        assertArrayEquals(HashUtil.keccak256(new byte[64]), memory.keccak256(32, 64));
+        assertEquals(96, memory.size());
+    }
+}
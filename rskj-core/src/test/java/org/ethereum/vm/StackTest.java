@@ -0,0 +1,135 @@
+/*
+ * This file is part of RskJ
+ * Copyright (C) 2018 RSK Labs Ltd.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package org.ethereum.vm;
+
+import org.ethereum.vm.program.Stack;
+import org.ethereum.vm.program.listener.ProgramListener;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class StackTest {
+
+    @Test
+    public void pushPeekAndPop() {
+        Stack stack = new Stack();
+
+        stack.push(new DataWord(1));
+        stack.push(new DataWord(2));
+
+        assertEquals(2, stack.size());
+        assertEquals(new DataWord(2), stack.peek());
+        assertEquals(new DataWord(1), stack.get(0));
+        assertEquals(new DataWord(2), stack.pop());
+        assertEquals(new DataWord(1), stack.pop());
+        assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    public void swapAndSet() {
+        Stack stack = new Stack();
+
+        for (int k = 0; k < 4; k++) {
+            stack.push(new DataWord(k));
+        }
+
+        stack.swap(3, 0);
+        // out of range swaps are ignored
+        stack.swap(3, 4);
+
+        assertEquals(new DataWord(1), stack.set(1, new DataWord(7)));
+        assertArrayEquals(new DataWord[] { new DataWord(3), new DataWord(7), new DataWord(2), new DataWord(0) }, stack.toArray());
+    }
+
+    @Test
+    public void viewFollowsChanges() {
+        Stack stack = new Stack();
+        List<DataWord> view = stack.asList();
+
+        stack.push(new DataWord(5));
+        stack.push(new DataWord(6));
+
+        assertEquals(Arrays.asList(new DataWord(5), new DataWord(6)), view);
+
+        stack.pop();
+
+        assertEquals(1, view.size());
+
+        stack.clear();
+
+        assertTrue(view.isEmpty());
+        assertFalse(stack.iterator().hasNext());
+    }
+
+    @Test
+    public void notifyTraceListener() {
+        Stack stack = new Stack();
+        ProgramListener listener = mock(ProgramListener.class);
+        stack.setTraceListener(listener);
+        DataWord word = new DataWord(9);
+
+        stack.push(word);
+        stack.push(new DataWord(10));
+        stack.swap(0, 1);
+        stack.pop();
+
+        verify(listener, times(1)).onStackPush(word);
+        verify(listener, times(1)).onStackSwap(0, 1);
+        verify(listener, times(1)).onStackPop();
+    }
+
+    @Test
+    public void fillAllTheSlots() {
+        Stack stack = new Stack();
+
+        for (int k = 0; k < Stack.MAX_SIZE; k++) {
+            stack.push(new DataWord(k));
+        }
+
+        assertEquals(Stack.MAX_SIZE, stack.size());
+        assertEquals(new DataWord(Stack.MAX_SIZE - 1), stack.peek());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failToPushOverTheLimit() {
+        Stack stack = new Stack();
+
+        for (int k = 0; k <= Stack.MAX_SIZE; k++) {
+            stack.push(new DataWord(k));
+        }
+    }
+
+    @Test(expected = EmptyStackException.class)
+    public void failToPopEmptyStack() {
+        new Stack().pop();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void failToGetOverTheTop() {
+        Stack stack = new Stack();
+        stack.push(new DataWord(1));
+
+        stack.get(1);
+    }
+}